@@ -0,0 +1,27 @@
+#!/bin/sh
+# Construit le coeur sans interface (reseau, io, optimisation, serveur, test)
+# dans build/coeur.jar, sans JavaFX, puis une archive AppCDS (build/coeur.jsa)
+# à partir d'une optimisation représentative : les lancements suivants par
+# scripts/reseau.sh chargent les classes depuis l'archive au lieu des .class.
+#
+# Usage : scripts/coeur.sh [instance]   (par défaut Files/exemple_sujet.txt)
+set -e
+cd "$(dirname "$0")/.."
+
+INSTANCE=${1:-Files/exemple_sujet.txt}
+SORTIE=build/coeur
+
+rm -rf "$SORTIE" build/coeur.jar build/coeur.jsa
+mkdir -p "$SORTIE"
+
+# Le coeur ne doit pas dépendre de JavaFX : la compilation se fait sans lui
+javac -encoding UTF-8 -d "$SORTIE" \
+    $(find src/reseau src/io src/optimisation src/serveur src/test -name '*.java')
+jar --create --file build/coeur.jar --main-class test.Main -C "$SORTIE" .
+
+# Exécution d'entraînement : les classes chargées sont archivées à la sortie
+java -XX:ArchiveClassesAtExit=build/coeur.jsa -jar build/coeur.jar \
+    --optimiser "$INSTANCE" --demarrages 2 --graine 1 --sortie build/entrainement.txt > /dev/null
+rm -f build/entrainement.txt
+
+echo "build/coeur.jar et build/coeur.jsa prêts"
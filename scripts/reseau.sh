@@ -0,0 +1,9 @@
+#!/bin/sh
+# Lance le programme sans interface graphique (mêmes arguments que test.Main),
+# avec l'archive AppCDS construite par scripts/coeur.sh si elle existe.
+# Options supplémentaires de la JVM dans JAVA_OPTS.
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+if [ -f "$DIR/build/coeur.jsa" ]; then
+    exec java $JAVA_OPTS -XX:SharedArchiveFile="$DIR/build/coeur.jsa" -Xshare:auto -jar "$DIR/build/coeur.jar" "$@"
+fi
+exec java $JAVA_OPTS -jar "$DIR/build/coeur.jar" "$@"
@@ -0,0 +1,306 @@
+package Application;
+
+import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import reseau.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vue observable d'un réseau pour les tableaux de l'interface : une ligne
+ * par générateur (capacité, charge, taux d'utilisation, surcharge) et une
+ * ligne par maison (consommation, générateur).
+ *
+ * Les lignes sont mises à jour sur place. Après une modification du réseau,
+ * {@link #rafraichir()} relit seulement les entrées du journal parcourues
+ * depuis le dernier appel et met à jour les lignes de la maison et des
+ * générateurs concernés. Si le journal a été vidé ou réécrit entre-temps,
+ * ou si des éléments ont été ajoutés ou retirés, toutes les lignes sont
+ * recomparées au réseau ; seules celles qui ont changé sont notifiées.
+ *
+ * Toutes les méthodes doivent être appelées depuis le thread JavaFX.
+ */
+public class AdaptateurReseau {
+
+    /**
+     * Ligne du tableau des générateurs.
+     */
+    public static class LigneGenerateur {
+        private final Generateur generateur;
+        private final int indice;
+        private final StringProperty nom = new SimpleStringProperty();
+        private final IntegerProperty capacite = new SimpleIntegerProperty();
+        private final IntegerProperty charge = new SimpleIntegerProperty();
+        private final DoubleProperty taux = new SimpleDoubleProperty();
+        private final DoubleProperty surcharge = new SimpleDoubleProperty();
+
+        LigneGenerateur(Generateur generateur, int indice) {
+            this.generateur = generateur;
+            this.indice = indice;
+        }
+
+        void mettreAJour(Reseau reseau) {
+            int cap = generateur.getCapaciteMax();
+            int c = reseau.getCharge(generateur);
+            nom.set(generateur.getNom());
+            capacite.set(cap);
+            charge.set(c);
+            taux.set(cap > 0 ? (double) c / cap : 0.0);
+            surcharge.set(cap > 0 && c > cap ? (double) (c - cap) / cap : 0.0);
+        }
+
+        public Generateur getGenerateur() {
+            return generateur;
+        }
+
+        /**
+         * @return la position du générateur dans le réseau
+         */
+        public int getIndice() {
+            return indice;
+        }
+
+        public ReadOnlyStringProperty nomProperty() {
+            return nom;
+        }
+
+        public ReadOnlyIntegerProperty capaciteProperty() {
+            return capacite;
+        }
+
+        public ReadOnlyIntegerProperty chargeProperty() {
+            return charge;
+        }
+
+        public ReadOnlyDoubleProperty tauxProperty() {
+            return taux;
+        }
+
+        public ReadOnlyDoubleProperty surchargeProperty() {
+            return surcharge;
+        }
+    }
+
+    /**
+     * Ligne du tableau des maisons.
+     */
+    public static class LigneMaison {
+        private final Maison maison;
+        private final StringProperty nom = new SimpleStringProperty();
+        private final StringProperty consommation = new SimpleStringProperty();
+        private final IntegerProperty demande = new SimpleIntegerProperty();
+        private final StringProperty generateur = new SimpleStringProperty();
+        private Generateur actuel;
+
+        LigneMaison(Maison maison) {
+            this.maison = maison;
+        }
+
+        void mettreAJour(Reseau reseau) {
+            Consommation c = maison.getConsommation();
+            actuel = reseau.getGenerateurDeMaison(maison);
+            nom.set(maison.getNom());
+            consommation.set(c != null ? c.name() : "");
+            demande.set(maison.getDemande());
+            generateur.set(actuel != null ? actuel.getNom() : "");
+        }
+
+        public Maison getMaison() {
+            return maison;
+        }
+
+        public ReadOnlyStringProperty nomProperty() {
+            return nom;
+        }
+
+        public ReadOnlyStringProperty consommationProperty() {
+            return consommation;
+        }
+
+        public ReadOnlyIntegerProperty demandeProperty() {
+            return demande;
+        }
+
+        public ReadOnlyStringProperty generateurProperty() {
+            return generateur;
+        }
+    }
+
+    private final ObservableList<LigneGenerateur> generateurs = FXCollections.observableArrayList();
+    private final ObservableList<LigneMaison> maisons = FXCollections.observableArrayList();
+    private final ObservableList<LigneGenerateur> generateursLecture = FXCollections.unmodifiableObservableList(generateurs);
+    private final ObservableList<LigneMaison> maisonsLecture = FXCollections.unmodifiableObservableList(maisons);
+    private final Map<Generateur, LigneGenerateur> lignesParGenerateur = new HashMap<>();
+
+    private Reseau reseau;
+    private int positionVue;
+    private long versionVue;
+
+
+    /**
+     * @return les lignes des générateurs, dans l'ordre du réseau
+     */
+    public ObservableList<LigneGenerateur> getGenerateurs() {
+        return generateursLecture;
+    }
+
+    /**
+     * @return les lignes des maisons, dans l'ordre du réseau
+     */
+    public ObservableList<LigneMaison> getMaisons() {
+        return maisonsLecture;
+    }
+
+    /**
+     * Affiche un autre réseau (après un chargement ou une optimisation) :
+     * toutes les lignes sont reconstruites.
+     *
+     * @param reseau le réseau à afficher, ou null pour vider les tableaux
+     */
+    public void setReseau(Reseau reseau) {
+        this.reseau = reseau;
+        lignesParGenerateur.clear();
+        if (reseau == null) {
+            generateurs.clear();
+            maisons.clear();
+            return;
+        }
+        List<LigneGenerateur> lignesG = new ArrayList<>();
+        List<Generateur> gens = reseau.getGenerateurs();
+        for (int g = 0; g < gens.size(); g++) {
+            lignesG.add(nouvelleLigne(gens.get(g), g));
+        }
+        List<LigneMaison> lignesM = new ArrayList<>();
+        for (Maison m : reseau.getMaisons()) {
+            LigneMaison ligne = new LigneMaison(m);
+            ligne.mettreAJour(reseau);
+            lignesM.add(ligne);
+        }
+        generateurs.setAll(lignesG);
+        maisons.setAll(lignesM);
+        noterJournal();
+    }
+
+    /**
+     * Met à jour les lignes touchées par les modifications du réseau depuis
+     * le dernier appel (ou depuis {@link #setReseau(Reseau)}).
+     */
+    public void rafraichir() {
+        if (reseau == null) return;
+        JournalModifications journal = reseau.getJournal();
+        int position = journal.getPosition();
+        long ecart = journal.getVersion() - versionVue;
+        int debut = Math.min(position, positionVue);
+        int fin = Math.max(position, positionVue);
+
+        if (ecart != fin - debut) {
+            synchroniser();
+            return;
+        }
+        for (int e = debut; e < fin; e++) {
+            int type = journal.getType(e);
+            if (type == JournalModifications.AJOUT_MAISON || type == JournalModifications.AJOUT_GENERATEUR) {
+                synchroniser();
+                return;
+            }
+        }
+        for (int e = debut; e < fin; e++) {
+            appliquer(journal, e);
+        }
+        noterJournal();
+    }
+
+    /**
+     * Met à jour les lignes concernées par une entrée du journal, d'après
+     * l'état actuel du réseau.
+     */
+    private void appliquer(JournalModifications journal, int e) {
+        int cible = journal.getCible(e);
+        switch (journal.getType(e)) {
+            case JournalModifications.CONNEXION:
+            case JournalModifications.DECONNEXION:
+            case JournalModifications.MODIFICATION:
+                maisons.get(cible).mettreAJour(reseau);
+                mettreAJourGenerateur(journal.getAncien(e));
+                mettreAJourGenerateur(journal.getNouveau(e));
+                break;
+            case JournalModifications.CONSOMMATION:
+                LigneMaison ligne = maisons.get(cible);
+                ligne.mettreAJour(reseau);
+                if (ligne.actuel != null) {
+                    lignesParGenerateur.get(ligne.actuel).mettreAJour(reseau);
+                }
+                break;
+            case JournalModifications.CAPACITE:
+                mettreAJourGenerateur(cible);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void mettreAJourGenerateur(int g) {
+        if (g >= 0) generateurs.get(g).mettreAJour(reseau);
+    }
+
+    /**
+     * Recompare toutes les lignes au réseau. Les éléments ajoutés ou retirés
+     * le sont toujours en fin de liste, les autres lignes sont gardées.
+     */
+    private void synchroniser() {
+        List<Generateur> gens = reseau.getGenerateurs();
+        List<Maison> ms = reseau.getMaisons();
+
+        int communs = 0;
+        while (communs < Math.min(gens.size(), generateurs.size())
+                && generateurs.get(communs).generateur == gens.get(communs)) {
+            communs++;
+        }
+        for (int g = communs; g < generateurs.size(); g++) {
+            lignesParGenerateur.remove(generateurs.get(g).generateur);
+        }
+        generateurs.remove(communs, generateurs.size());
+        for (int g = 0; g < communs; g++) {
+            generateurs.get(g).mettreAJour(reseau);
+        }
+        List<LigneGenerateur> nouveauxG = new ArrayList<>();
+        for (int g = communs; g < gens.size(); g++) {
+            nouveauxG.add(nouvelleLigne(gens.get(g), g));
+        }
+        generateurs.addAll(nouveauxG);
+
+        communs = 0;
+        while (communs < Math.min(ms.size(), maisons.size())
+                && maisons.get(communs).maison == ms.get(communs)) {
+            communs++;
+        }
+        maisons.remove(communs, maisons.size());
+        for (int m = 0; m < communs; m++) {
+            maisons.get(m).mettreAJour(reseau);
+        }
+        List<LigneMaison> nouveauxM = new ArrayList<>();
+        for (int m = communs; m < ms.size(); m++) {
+            LigneMaison ligne = new LigneMaison(ms.get(m));
+            ligne.mettreAJour(reseau);
+            nouveauxM.add(ligne);
+        }
+        maisons.addAll(nouveauxM);
+
+        noterJournal();
+    }
+
+    private LigneGenerateur nouvelleLigne(Generateur g, int indice) {
+        LigneGenerateur ligne = new LigneGenerateur(g, indice);
+        ligne.mettreAJour(reseau);
+        lignesParGenerateur.put(g, ligne);
+        return ligne;
+    }
+
+    private void noterJournal() {
+        positionVue = reseau.getJournal().getPosition();
+        versionVue = reseau.getJournal().getVersion();
+    }
+}
\ No newline at end of file
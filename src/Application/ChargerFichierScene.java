@@ -1,5 +1,6 @@
 package Application;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -30,6 +31,9 @@ public class ChargerFichierScene {
     private Stage primaryStage;
     private Reseau reseau;
     private TextArea displayArea;
+    private final AdaptateurReseau adaptateur = new AdaptateurReseau();
+    private final GraphiqueUtilisation graphique = new GraphiqueUtilisation();
+    private Button btnCharger;
     private Label infoLabel;
     private Button btnAfficherCout;
     private Button btnOptimiser;
@@ -82,11 +86,11 @@ public class ChargerFichierScene {
 
         displayArea = new TextArea();
         displayArea.setEditable(false);
-        displayArea.setPrefHeight(400);
-        displayArea.setPrefWidth(500);
+        displayArea.setPrefHeight(120);
+        displayArea.setPrefWidth(700);
         displayArea.setStyle("-fx-font-family: 'Monospaced'; -fx-font-size: 12px;");
 
-        Button btnCharger = createActionButton("Charger un fichier");
+        btnCharger = createActionButton("Charger un fichier");
         btnAfficherCout = createActionButton("Afficher Coût");
         btnOptimiser = createActionButton("Optimiser Automatiquement");
         btnSauvegarder = createActionButton("Sauvegarder sous...");
@@ -127,7 +131,13 @@ public class ChargerFichierScene {
                 btnSauvegarder, btnRetour, btnQuitter);
 
         HBox mainLayout = new HBox(20);
-        mainLayout.getChildren().addAll(buttonBox, displayArea);
+        TabPane tables = TablesReseau.creer(adaptateur);
+        tables.setPrefHeight(220);
+        graphique.setPrefHeight(140);
+        graphique.suivre(adaptateur);
+        VBox contenu = new VBox(10, tables, graphique, displayArea);
+        HBox.setHgrow(contenu, Priority.ALWAYS);
+        mainLayout.getChildren().addAll(buttonBox, contenu);
         mainLayout.setAlignment(Pos.CENTER);
         mainLayout.setPadding(new Insets(20));
 
@@ -211,7 +221,7 @@ public class ChargerFichierScene {
                 displayArea.appendText("✓ Fichier chargé avec succès!\n\n");
                 displayArea.appendText("Paramètre λ défini à 10.0 par défaut\n");
                 displayArea.appendText("Vous pouvez modifier λ avec le champ ci-dessus.\n\n");
-                displayArea.appendText(reseau.toString() + "\n");
+                adaptateur.setReseau(reseau);
 
                 afficherCout();
 
@@ -258,35 +268,59 @@ public class ChargerFichierScene {
     }
 
     /**
-     * Lance l'optimisation automatique du réseau.
+     * Lance l'optimisation automatique du réseau dans un thread à part :
+     * l'interface reste utilisable et le graphique suit les charges de la
+     * recherche en cours.
      */
     private void optimiserReseau() {
         if (reseau == null) return;
 
-        try {
-            displayArea.appendText("\n=== OPTIMISATION EN COURS... ===\n");
-            displayArea.appendText(String.format("Paramètre λ utilisé: %.2f\n", reseau.getLambda()));
-
-            OptimisateurReseau opt = new OptimisateurReseau();
-            Reseau reseauOptimal = opt.optimisationMultiDemarrages(reseau, 10);
-
-            double coutInitial = reseau.calculerCout();
-            double coutOptimal = reseauOptimal.calculerCout();
-
-            reseau = reseauOptimal;
-
-            displayArea.appendText("✓ Optimisation terminée!\n");
-            displayArea.appendText(String.format("Coût initial: %.4f\n", coutInitial));
-            displayArea.appendText(String.format("Coût optimal: %.4f\n", coutOptimal));
-            displayArea.appendText(String.format("Amélioration: %.2f%%\n\n",
-                    ((coutInitial - coutOptimal) / coutInitial) * 100));
+        displayArea.appendText("\n=== OPTIMISATION EN COURS... ===\n");
+        displayArea.appendText(String.format("Paramètre λ utilisé: %.2f\n", reseau.getLambda()));
+        enableButtons(false);
+        btnCharger.setDisable(true);
+        lambdaField.getParent().setDisable(true);
 
-            displayArea.appendText("=== NOUVELLE ARCHITECTURE ===\n");
-            displayArea.appendText(reseau.toString() + "\n");
+        Reseau depart = reseau;
+        OptimisateurReseau opt = new OptimisateurReseau();
+        opt.setSuiviCharges(graphique);
+        Thread calcul = new Thread(() -> {
+            try {
+                Reseau reseauOptimal = opt.optimisationMultiDemarrages(depart);
+                Platform.runLater(() -> terminerOptimisation(depart, reseauOptimal));
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    adaptateur.setReseau(depart);
+                    enableButtons(true);
+                    btnCharger.setDisable(false);
+                    lambdaField.getParent().setDisable(false);
+                    showAlert("Erreur", "Erreur lors de l'optimisation: " + e.getMessage());
+                });
+            }
+        }, "optimisation");
+        calcul.setDaemon(true);
+        calcul.start();
+    }
 
-        } catch (Exception e) {
-            showAlert("Erreur", "Erreur lors de l'optimisation: " + e.getMessage());
-        }
+    /**
+     * Affiche le résultat de l'optimisation, sur le thread JavaFX.
+     */
+    private void terminerOptimisation(Reseau depart, Reseau reseauOptimal) {
+        double coutInitial = depart.calculerCout();
+        double coutOptimal = reseauOptimal.calculerCout();
+
+        reseau = reseauOptimal;
+
+        displayArea.appendText("✓ Optimisation terminée!\n");
+        displayArea.appendText(String.format("Coût initial: %.4f\n", coutInitial));
+        displayArea.appendText(String.format("Coût optimal: %.4f\n", coutOptimal));
+        displayArea.appendText(String.format("Amélioration: %.2f%%\n\n",
+                ((coutInitial - coutOptimal) / coutInitial) * 100));
+
+        adaptateur.setReseau(reseau);
+        enableButtons(true);
+        btnCharger.setDisable(false);
+        lambdaField.getParent().setDisable(false);
     }
 
     /**
@@ -0,0 +1,197 @@
+package Application;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import optimisation.SuiviCharges;
+import java.util.List;
+
+/**
+ * Graphique du taux d'utilisation des générateurs : une barre par
+ * générateur, rouge en cas de surcharge, avec la ligne des 100 % et celle
+ * de l'utilisation moyenne.
+ *
+ * Les charges sont tenues à jour une à une, sans relire le réseau : depuis
+ * les lignes d'un {@link AdaptateurReseau} pendant l'édition, depuis
+ * l'optimiseur (voir {@link SuiviCharges}) pendant une optimisation. Une
+ * mise à jour ne fait que marquer le graphique ; il est redessiné au plus
+ * une fois par image, quel que soit le nombre de mises à jour reçues.
+ * Quand il y a plus de générateurs que de pixels, chaque colonne de pixels
+ * montre le plus fort taux de ses générateurs.
+ */
+public class GraphiqueUtilisation extends Pane implements SuiviCharges {
+
+    private static final Color NORMAL = Color.STEELBLUE;
+    private static final Color SURCHARGE = Color.CRIMSON;
+
+    private final Canvas canvas = new Canvas();
+
+    // Charges reçues, modifiées sous verrou par l'interface ou l'optimisation
+    private final Object verrou = new Object();
+    private int[] charges = new int[0];
+    private int[] capacites = new int[0];
+    private volatile boolean sale = true;
+
+    // Copie dessinée, réservée au thread JavaFX
+    private int[] chargesDessin = new int[0];
+    private int[] capacitesDessin = new int[0];
+
+    private final AnimationTimer minuterie = new AnimationTimer() {
+        @Override
+        public void handle(long maintenant) {
+            if (sale) dessiner();
+        }
+    };
+
+
+    public GraphiqueUtilisation() {
+        getChildren().add(canvas);
+        setMinSize(0, 0);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener(o -> sale = true);
+        canvas.heightProperty().addListener(o -> sale = true);
+        sceneProperty().addListener((o, ancienne, nouvelle) -> {
+            if (nouvelle != null) minuterie.start();
+            else minuterie.stop();
+        });
+    }
+
+    /**
+     * Suit les lignes des générateurs d'un adaptateur : chaque changement
+     * de charge ou de capacité d'une ligne met à jour sa barre.
+     *
+     * @param adaptateur les lignes à suivre
+     */
+    public void suivre(AdaptateurReseau adaptateur) {
+        ObservableList<AdaptateurReseau.LigneGenerateur> lignes = adaptateur.getGenerateurs();
+        lignes.addListener((ListChangeListener<AdaptateurReseau.LigneGenerateur>) c -> {
+            while (c.next()) {
+                for (AdaptateurReseau.LigneGenerateur ligne : c.getAddedSubList()) {
+                    ecouter(ligne);
+                }
+            }
+            recopier(lignes);
+        });
+        for (AdaptateurReseau.LigneGenerateur ligne : lignes) {
+            ecouter(ligne);
+        }
+        recopier(lignes);
+    }
+
+    private void ecouter(AdaptateurReseau.LigneGenerateur ligne) {
+        ligne.chargeProperty().addListener(o -> modifier(ligne));
+        ligne.capaciteProperty().addListener(o -> modifier(ligne));
+    }
+
+    private void modifier(AdaptateurReseau.LigneGenerateur ligne) {
+        synchronized (verrou) {
+            int g = ligne.getIndice();
+            if (g < charges.length) {
+                charges[g] = ligne.chargeProperty().get();
+                capacites[g] = ligne.capaciteProperty().get();
+            }
+        }
+        sale = true;
+    }
+
+    /**
+     * Reprend toutes les barres, quand des générateurs sont ajoutés,
+     * retirés ou remplacés : O(G).
+     */
+    private void recopier(List<AdaptateurReseau.LigneGenerateur> lignes) {
+        synchronized (verrou) {
+            int n = lignes.size();
+            charges = new int[n];
+            capacites = new int[n];
+            for (int g = 0; g < n; g++) {
+                charges[g] = lignes.get(g).chargeProperty().get();
+                capacites[g] = lignes.get(g).capaciteProperty().get();
+            }
+        }
+        sale = true;
+    }
+
+    /**
+     * Reçoit les charges de l'optimisation en cours. Les capacités restent
+     * celles des générateurs affichés.
+     */
+    @Override
+    public void charges(int[] nouvelles) {
+        synchronized (verrou) {
+            System.arraycopy(nouvelles, 0, charges, 0, Math.min(nouvelles.length, charges.length));
+        }
+        sale = true;
+    }
+
+    @Override
+    public void deplacement(int depuis, int vers, int demande) {
+        synchronized (verrou) {
+            if (depuis < charges.length && vers < charges.length) {
+                charges[depuis] -= demande;
+                charges[vers] += demande;
+            }
+        }
+        sale = true;
+    }
+
+    private void dessiner() {
+        sale = false;
+        int n;
+        synchronized (verrou) {
+            n = charges.length;
+            if (chargesDessin.length != n) {
+                chargesDessin = new int[n];
+                capacitesDessin = new int[n];
+            }
+            System.arraycopy(charges, 0, chargesDessin, 0, n);
+            System.arraycopy(capacites, 0, capacitesDessin, 0, n);
+        }
+
+        double largeur = canvas.getWidth();
+        double hauteur = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, largeur, hauteur);
+        if (n == 0 || largeur < 1 || hauteur < 1) return;
+
+        double maximum = 0.0;
+        double somme = 0.0;
+        for (int g = 0; g < n; g++) {
+            double t = taux(g);
+            maximum = Math.max(maximum, t);
+            somme += t;
+        }
+        double echelle = (hauteur - 14) / (Math.max(maximum, 1.0) * 1.1);
+
+        int colonnes = (int) Math.min(n, Math.floor(largeur));
+        double pas = largeur / colonnes;
+        for (int c = 0; c < colonnes; c++) {
+            int debut = (int) ((long) c * n / colonnes);
+            int fin = (int) ((long) (c + 1) * n / colonnes);
+            double t = 0.0;
+            for (int g = debut; g < fin; g++) t = Math.max(t, taux(g));
+            double h = t * echelle;
+            gc.setFill(t > 1.0 ? SURCHARGE : NORMAL);
+            gc.fillRect(c * pas, hauteur - h, Math.max(pas - (pas > 3 ? 1 : 0), 1), h);
+        }
+
+        double moyenne = somme / n;
+        gc.setLineWidth(1);
+        gc.setStroke(Color.DIMGRAY);
+        gc.strokeLine(0, hauteur - echelle, largeur, hauteur - echelle);
+        gc.setStroke(Color.DARKORANGE);
+        gc.strokeLine(0, hauteur - moyenne * echelle, largeur, hauteur - moyenne * echelle);
+        gc.setFill(Color.BLACK);
+        gc.fillText(String.format("%d générateurs | moyenne %.1f %% | max %.1f %%",
+                n, moyenne * 100, maximum * 100), 4, 12);
+    }
+
+    private double taux(int g) {
+        return capacitesDessin[g] > 0 ? (double) chargesDessin[g] / capacitesDessin[g] : 0.0;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package Application;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -31,6 +32,9 @@ public class ReseauManuelScene {
     private Stage primaryStage;
     private Reseau reseau;
     private TextArea displayArea;
+    private final AdaptateurReseau adaptateur = new AdaptateurReseau();
+    private final GraphiqueUtilisation graphique = new GraphiqueUtilisation();
+    private VBox buttonBox;
     private TextField lambdaField;
     
     public ReseauManuelScene(Stage primaryStage) {
@@ -70,14 +74,16 @@ public class ReseauManuelScene {
 
         displayArea = new TextArea();
         displayArea.setEditable(false);
-        displayArea.setPrefHeight(400);
-        displayArea.setPrefWidth(500);
+        displayArea.setPrefHeight(120);
+        displayArea.setPrefWidth(700);
         displayArea.setStyle("-fx-font-family: 'Monospaced'; -fx-font-size: 12px;");
 
         Button btnAjouterGen = createActionButton("Ajouter Générateur", "#4CAF50");
         Button btnAjouterMaison = createActionButton("Ajouter Maison", "#2196F3");
         Button btnAjouterConnexion = createActionButton("Ajouter Connexion", "#FF9800");
         Button btnSupprimerConnexion = createActionButton("Supprimer Connexion", "#F44336");
+        Button btnAnnuler = createActionButton("Annuler", "#455A64");
+        Button btnRefaire = createActionButton("Rétablir", "#455A64");
         Button btnAfficherCout = createActionButton("Afficher Coût", "#9C27B0");
         Button btnOptimiser = createActionButton("Optimiser Automatiquement", "#FF5722");
         Button btnSauvegarder = createActionButton("Sauvegarder", "#607D8B");
@@ -88,6 +94,8 @@ public class ReseauManuelScene {
         btnAjouterMaison.setOnAction(e -> ajouterMaison());
         btnAjouterConnexion.setOnAction(e -> ajouterConnexion());
         btnSupprimerConnexion.setOnAction(e -> supprimerConnexion());
+        btnAnnuler.setOnAction(e -> annuler());
+        btnRefaire.setOnAction(e -> refaire());
         btnAfficherCout.setOnAction(e -> afficherCout());
         btnOptimiser.setOnAction(e -> optimiserReseau());
         btnSauvegarder.setOnAction(e -> sauvegarderReseau());
@@ -96,13 +104,16 @@ public class ReseauManuelScene {
             primaryStage.setScene(accueil.getScene());
         });
 
-        VBox buttonBox = new VBox(10, 
+        buttonBox = new VBox(10, 
             btnAjouterGen, 
             btnAjouterMaison, 
             new Separator(),
             btnAjouterConnexion,
             btnSupprimerConnexion,
             new Separator(),
+            btnAnnuler,
+            btnRefaire,
+            new Separator(),
             btnAfficherCout, 
             btnOptimiser, 
             btnSauvegarder,
@@ -111,7 +122,14 @@ public class ReseauManuelScene {
         
         // Layout principal
         HBox mainLayout = new HBox(20);
-        mainLayout.getChildren().addAll(buttonBox, displayArea);
+        adaptateur.setReseau(reseau);
+        TabPane tables = TablesReseau.creer(adaptateur);
+        tables.setPrefHeight(220);
+        graphique.setPrefHeight(140);
+        graphique.suivre(adaptateur);
+        VBox contenu = new VBox(10, tables, graphique, displayArea);
+        HBox.setHgrow(contenu, Priority.ALWAYS);
+        mainLayout.getChildren().addAll(buttonBox, contenu);
         mainLayout.setAlignment(Pos.CENTER);
         mainLayout.setPadding(new Insets(20));
         
@@ -231,6 +249,7 @@ public class ReseauManuelScene {
         ComboBox<String> typeCombo = new ComboBox<>();
         typeCombo.getItems().addAll("BASSE", "NORMAL", "FORTE");
         typeCombo.setValue("NORMAL");
+        typeCombo.setEditable(true);
         
         grid.add(new Label("Nom:"), 0, 0);
         grid.add(nomField, 1, 0);
@@ -253,15 +272,13 @@ public class ReseauManuelScene {
             try {
                 String[] parts = result.split(",");
                 String nom = parts[0].trim();
-                Consommation cons = Consommation.fromString(parts[1]);
-                
-                Maison maison = new Maison(nom, cons);
+                Maison maison = Maison.creer(nom, parts[1].trim());
                 reseau.ajouterMaison(maison);
                 
-                displayArea.appendText("✓ Maison ajoutée: " + nom + " (consommation: " + cons + ")\n");
+                displayArea.appendText("✓ Maison ajoutée: " + nom + " (demande: " + maison.getDemande() + " kW)\n");
                 afficherReseau();
             } catch (Exception e) {
-                showAlert("Erreur", "Format invalide! Utilisez: nom,type\nTypes: BASSE, NORMAL, FORTE");
+                showAlert("Erreur", "Format invalide! Utilisez: nom,type\nTypes: BASSE, NORMAL, FORTE ou demande en kW");
             }
         });
     }
@@ -456,6 +473,32 @@ public class ReseauManuelScene {
     }
     
     
+    /**
+     * Annule la dernière modification du réseau (ajout, connexion, suppression...).
+     */
+    private void annuler() {
+        if (!reseau.annuler()) {
+            showAlert("Information", "Aucune modification à annuler!");
+            return;
+        }
+        displayArea.appendText("↶ Dernière modification annulée\n");
+        afficherReseau();
+    }
+
+
+    /**
+     * Rétablit la dernière modification annulée.
+     */
+    private void refaire() {
+        if (!reseau.refaire()) {
+            showAlert("Information", "Aucune modification à rétablir!");
+            return;
+        }
+        displayArea.appendText("↷ Modification rétablie\n");
+        afficherReseau();
+    }
+    
+    
     /**
      * Calcule et affiche le coût du réseau ainsi que les détails de surcharge et de dispersion.
      */
@@ -488,10 +531,7 @@ public class ReseauManuelScene {
             displayArea.appendText("-".repeat(50) + "\n");
             
             for (Generateur g : reseau.getGenerateurs()) {
-                int charge = 0;
-                for (Maison m : reseau.getMaisonsDuGenerateur(g)) {
-                    charge += m.getConsommation().getValeur();
-                }
+                int charge = reseau.getCharge(g);
                 double taux = (g.getCapaciteMax() > 0) ? (double)charge / g.getCapaciteMax() * 100 : 0;
                 displayArea.appendText(String.format("%s: %d/%d (%.1f%%)", 
                     g.getNom(), charge, g.getCapaciteMax(), taux));
@@ -546,29 +586,26 @@ public class ReseauManuelScene {
             displayArea.appendText(String.format("Paramètre λ utilisé: %.2f\n", reseau.getLambda())); 
             
             OptimisateurReseau opt = new OptimisateurReseau();
-
-            Reseau reseauOptimal;
-
-                reseauOptimal = opt.optimisationMultiDemarrages(reseau, 5);
-
-            
-            double coutInitial = reseau.calculerCout();
-            double coutOptimal = reseauOptimal.calculerCout();
-            
-            reseau = reseauOptimal;
-            
-            displayArea.appendText("\n" + "✅".repeat(25) + "\n");
-            displayArea.appendText("OPTIMISATION TERMINÉE!\n");
-            displayArea.appendText("✅".repeat(25) + "\n");
-            displayArea.appendText(String.format("Coût initial:   %.6f\n", coutInitial));
-            displayArea.appendText(String.format("Coût optimal:   %.6f\n", coutOptimal));
-            
-            if (coutInitial > 0) {
-                double amelioration = ((coutInitial - coutOptimal) / coutInitial) * 100;
-                displayArea.appendText(String.format("Amélioration:   %.2f%%\n", amelioration));
-            }
+            opt.setSuiviCharges(graphique);
+            Reseau depart = reseau;
+            buttonBox.setDisable(true);
+            lambdaField.getParent().setDisable(true);
             
-            afficherReseau();
+            Thread calcul = new Thread(() -> {
+                try {
+                    Reseau reseauOptimal = opt.optimisationMultiDemarrages(depart);
+                    Platform.runLater(() -> terminerOptimisation(depart, reseauOptimal));
+                } catch (RuntimeException e) {
+                    Platform.runLater(() -> {
+                        adaptateur.setReseau(depart);
+                        buttonBox.setDisable(false);
+                        lambdaField.getParent().setDisable(false);
+                        showAlert("Erreur", "Erreur lors de l'optimisation: " + e.getMessage());
+                    });
+                }
+            }, "optimisation");
+            calcul.setDaemon(true);
+            calcul.start();
             
         } catch (Exception e) {
             showAlert("Erreur", "Erreur lors de l'optimisation: " + e.getMessage());
@@ -577,6 +614,34 @@ public class ReseauManuelScene {
     }
     
     
+    /**
+     * Affiche le résultat de l'optimisation, sur le thread JavaFX.
+     */
+    private void terminerOptimisation(Reseau depart, Reseau reseauOptimal) {
+        double coutInitial = depart.calculerCout();
+        double coutOptimal = reseauOptimal.calculerCout();
+        
+        reseau = reseauOptimal;
+        reseau.viderJournal();
+        adaptateur.setReseau(reseau);
+        
+        displayArea.appendText("\n" + "✅".repeat(25) + "\n");
+        displayArea.appendText("OPTIMISATION TERMINÉE!\n");
+        displayArea.appendText("✅".repeat(25) + "\n");
+        displayArea.appendText(String.format("Coût initial:   %.6f\n", coutInitial));
+        displayArea.appendText(String.format("Coût optimal:   %.6f\n", coutOptimal));
+        
+        if (coutInitial > 0) {
+            double amelioration = ((coutInitial - coutOptimal) / coutInitial) * 100;
+            displayArea.appendText(String.format("Amélioration:   %.2f%%\n", amelioration));
+        }
+        
+        afficherReseau();
+        buttonBox.setDisable(false);
+        lambdaField.getParent().setDisable(false);
+    }
+    
+    
     /**
      * Sauvegarde le réseau courant dans un fichier texte choisi par l’utilisateur.
      */
@@ -632,9 +697,9 @@ public class ReseauManuelScene {
         
         displayArea.appendText(String.format("Générateurs: %d | Maisons: %d | Connexions: %d\n", 
             nbGen, nbMaisons, nbConnexions));
-        displayArea.appendText(String.format("Paramètre λ: %.2f\n\n", reseau.getLambda())); // AJOUT
+        displayArea.appendText(String.format("Paramètre λ: %.2f\n", reseau.getLambda())); // AJOUT
         
-        displayArea.appendText(reseau.toString() + "\n");
+        adaptateur.rafraichir();
     }
     
     
@@ -0,0 +1,90 @@
+package Application;
+
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.*;
+import java.util.function.Function;
+
+/**
+ * Tableaux des générateurs et des maisons d'un réseau, dans deux onglets.
+ *
+ * Les TableView ne créent des cellules que pour les lignes visibles : on
+ * peut afficher des réseaux de plusieurs dizaines de milliers de maisons,
+ * là où l'ancien affichage recopiait tout le réseau sous forme de texte.
+ * Les tableaux suivent un {@link AdaptateurReseau} et peuvent être triés
+ * par colonne.
+ */
+public final class TablesReseau {
+
+    private TablesReseau() {
+    }
+
+    /**
+     * Crée les deux onglets.
+     *
+     * @param adaptateur les lignes à afficher
+     * @return le panneau à onglets
+     */
+    public static TabPane creer(AdaptateurReseau adaptateur) {
+        Tab ongletGenerateurs = new Tab("Générateurs", tableGenerateurs(adaptateur));
+        Tab ongletMaisons = new Tab("Maisons", tableMaisons(adaptateur));
+        ongletGenerateurs.setClosable(false);
+        ongletMaisons.setClosable(false);
+        return new TabPane(ongletGenerateurs, ongletMaisons);
+    }
+
+    private static TableView<AdaptateurReseau.LigneGenerateur> tableGenerateurs(AdaptateurReseau adaptateur) {
+        TableView<AdaptateurReseau.LigneGenerateur> table = new TableView<>();
+        table.getColumns().add(colonne("Générateur", AdaptateurReseau.LigneGenerateur::nomProperty));
+        table.getColumns().add(colonne("Capacité (kW)", AdaptateurReseau.LigneGenerateur::capaciteProperty));
+        table.getColumns().add(colonne("Charge (kW)", AdaptateurReseau.LigneGenerateur::chargeProperty));
+        table.getColumns().add(pourcentage(colonne("Utilisation", AdaptateurReseau.LigneGenerateur::tauxProperty)));
+        table.getColumns().add(pourcentage(colonne("Surcharge", AdaptateurReseau.LigneGenerateur::surchargeProperty)));
+        table.setItems(trie(adaptateur.getGenerateurs(), table));
+        table.setPlaceholder(new Label("Aucun générateur"));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        return table;
+    }
+
+    private static TableView<AdaptateurReseau.LigneMaison> tableMaisons(AdaptateurReseau adaptateur) {
+        TableView<AdaptateurReseau.LigneMaison> table = new TableView<>();
+        table.getColumns().add(colonne("Maison", AdaptateurReseau.LigneMaison::nomProperty));
+        table.getColumns().add(colonne("Consommation", AdaptateurReseau.LigneMaison::consommationProperty));
+        table.getColumns().add(colonne("Demande (kW)", AdaptateurReseau.LigneMaison::demandeProperty));
+        table.getColumns().add(colonne("Générateur", AdaptateurReseau.LigneMaison::generateurProperty));
+        table.setItems(trie(adaptateur.getMaisons(), table));
+        table.setPlaceholder(new Label("Aucune maison"));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        return table;
+    }
+
+    private static <L, T> TableColumn<L, T> colonne(String titre, Function<L, ? extends ObservableValue<T>> valeur) {
+        TableColumn<L, T> colonne = new TableColumn<>(titre);
+        colonne.setCellValueFactory(c -> valeur.apply(c.getValue()));
+        return colonne;
+    }
+
+    /**
+     * Affiche un taux (0.25) en pourcentage (25.0 %).
+     */
+    private static <L> TableColumn<L, Number> pourcentage(TableColumn<L, Number> colonne) {
+        colonne.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number valeur, boolean vide) {
+                super.updateItem(valeur, vide);
+                setText(vide || valeur == null ? null : String.format("%.1f %%", valeur.doubleValue() * 100));
+            }
+        });
+        return colonne;
+    }
+
+    /**
+     * Lignes triées selon les colonnes choisies dans la table.
+     */
+    private static <L> SortedList<L> trie(ObservableList<L> lignes, TableView<L> table) {
+        SortedList<L> triees = new SortedList<>(lignes);
+        triees.comparatorProperty().bind(table.comparatorProperty());
+        return triees;
+    }
+}
\ No newline at end of file
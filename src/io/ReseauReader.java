@@ -8,6 +8,7 @@ import reseau.*;
 public class ReseauReader {
     /**
      * Lit le fichier et retourne un réseau construit.
+     * Le journal du réseau est vidé : le contenu du fichier est l'état initial.
      * 
      * @param chemin chemin vers le fichier
      * @return le réseau construit
@@ -63,12 +64,14 @@ public class ReseauReader {
             }
         }
 
+        reseau.viderJournal();
         return reseau;
     }
 
     
     /**
-     * Lit une ligne générateur et l'ajoute au réseau. 
+     * Lit une ligne générateur et l'ajoute au réseau. La position est
+     * facultative (ex: "generateur(gen1,60,2.5,-1).").
      * @param ligne la ligne du fichier à lire (ex: "generateur(gen1,60).")
      * @param reseau le réseau dans lequel ajouter le générateur
      * @param num numéro de la ligne dans le fichier (pour message d'erreur)
@@ -81,13 +84,15 @@ public class ReseauReader {
             String contenu = ligne.substring("generateur(".length(), ligne.length() - 1);
             String[] parts = contenu.split(",");
 
-            if (parts.length != 2)
+            if (parts.length != 2 && parts.length != 4)
                 throw new IllegalArgumentException();
 
             String nom = parts[0];
             int capacite = Integer.parseInt(parts[1]);
 
-            reseau.ajouterGenerateur(new Generateur(nom, capacite));
+            Generateur generateur = new Generateur(nom, capacite);
+            generateur.setPosition(lirePosition(parts));
+            reseau.ajouterGenerateur(generateur);
 
         } catch (Exception e) {
             throw erreur(num, ligne, "Format générateur invalide (ex: generateur(gen1,60))");
@@ -98,6 +103,10 @@ public class ReseauReader {
     /**
      * Lit une ligne maison et l'ajoute au réseau.
      * 
+     * La consommation est un type (BASSE, NORMAL, FORTE) ou une demande
+     * entière en kW (ex: "maison(maison1,37)."), suivi éventuellement de la
+     * position (ex: "maison(maison1,NORMAL,3,4.5).").
+     * 
      * @param ligne la ligne du fichier à lire (ex: "maison(maison1,NORMAL).")
      * @param reseau le réseau dans lequel ajouter la maison
      * @param num numéro de la ligne dans le fichier (pour message d'erreur)
@@ -110,20 +119,29 @@ public class ReseauReader {
             String contenu = ligne.substring("maison(".length(), ligne.length() - 1);
             String[] parts = contenu.split(",");
 
-            if (parts.length != 2)
+            if (parts.length != 2 && parts.length != 4)
                 throw new IllegalArgumentException();
 
             String nom = parts[0];
-            Consommation cons = Consommation.fromString(parts[1]);
-
-            reseau.ajouterMaison(new Maison(nom, cons));
+            Maison maison = Maison.creer(nom, parts[1]);
+            maison.setPosition(lirePosition(parts));
+            reseau.ajouterMaison(maison);
 
         } catch (Exception e) {
             throw erreur(num, ligne,
-                    "Format maison invalide (ex: maison(maison1,NORMAL))");
+                    "Format maison invalide (ex: maison(maison1,NORMAL) ou maison(maison1,37))");
         }
     }
 
+    /**
+     * @param parts nom, valeur, puis éventuellement x et y
+     * @return la position, null s'il n'y en a pas
+     */
+    private static Position lirePosition(String[] parts) {
+        if (parts.length < 4) return null;
+        return new Position(Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+    }
+
     
     
     /**
@@ -11,8 +11,9 @@ public class ReseauWriter {
 	  /**
      * Écrit le contenu du réseau dans un fichier.
      * 
-     * Les générateurs sont écrits en premier, puis les maisons,
-     * puis les connexions entre générateurs et maisons.
+     * Les générateurs sont écrits en premier, puis les maisons (avec leur
+     * position s'ils en ont une), puis les connexions entre générateurs et
+     * maisons.
      * 
      * @param chemin chemin du fichier à créer/écrire
      * @param reseau le réseau à écrire dans le fichier
@@ -22,11 +23,13 @@ public class ReseauWriter {
         FileWriter fw = new FileWriter(chemin);
 
         for (Generateur g : reseau.getGenerateurs()) {
-            fw.write("generateur(" + g.getNom() + "," + g.getCapaciteMax() + ").\n");
+            fw.write("generateur(" + g.getNom() + "," + g.getCapaciteMax() + position(g.getPosition()) + ").\n");
         }
 
         for (Maison m : reseau.getMaisons()) {
-            fw.write("maison(" + m.getNom() + "," + m.getConsommation().name() + ").\n");
+            String consommation = (m.getConsommation() != null)
+                    ? m.getConsommation().name() : Integer.toString(m.getDemande());
+            fw.write("maison(" + m.getNom() + "," + consommation + position(m.getPosition()) + ").\n");
         }
 
         Map<Generateur, List<Maison>> connexions = reseau.getConnexions();
@@ -40,4 +43,11 @@ public class ReseauWriter {
         }
         fw.close();
     }
+
+    /**
+     * @return ",x,y" pour une position, rien sans position
+     */
+    private static String position(Position p) {
+        return (p != null) ? "," + p.getX() + "," + p.getY() : "";
+    }
 }
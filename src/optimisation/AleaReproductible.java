@@ -0,0 +1,52 @@
+package optimisation;
+
+import java.util.Random;
+
+
+/**
+ * Générateur pseudo-aléatoire dont l'état tient dans un long (SplitMix64).
+ *
+ * Contrairement à {@link Random}, l'état courant peut être lu et rétabli :
+ * une optimisation reprise depuis un point de reprise tire exactement les
+ * mêmes nombres que si elle n'avait pas été interrompue.
+ */
+final class AleaReproductible extends Random {
+
+    private static final long serialVersionUID = 1L;
+    static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long etat;
+
+
+    AleaReproductible(long graine) {
+        super(graine);
+    }
+
+    @Override
+    public synchronized void setSeed(long graine) {
+        this.etat = graine;
+    }
+
+    long getEtat() {
+        return etat;
+    }
+
+    void setEtat(long etat) {
+        this.etat = etat;
+    }
+
+    @Override
+    protected int next(int bits) {
+        etat += GAMMA;
+        return (int) (melanger(etat) >>> (64 - bits));
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64 : le terme de la suite pour l'état donné.
+     */
+    static long melanger(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
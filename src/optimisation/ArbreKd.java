@@ -0,0 +1,173 @@
+package optimisation;
+
+
+/**
+ * Arbre k-d en deux dimensions, pour trouver les k points les plus proches
+ * d'une position.
+ *
+ * L'arbre est implicite : les indices des points sont rangés dans un seul
+ * tableau de sorte que, dans chaque plage [debut, fin), l'élément du milieu
+ * soit la médiane de la plage selon x (profondeur paire) ou y (profondeur
+ * impaire), les plus petits avant lui, les plus grands après. Construction
+ * en O(n log n) en moyenne (sélection rapide dans chaque plage), recherche
+ * des k plus proches en O(log n + k log k) pour des points bien répartis.
+ */
+final class ArbreKd {
+
+    private final double[] x;
+    private final double[] y;
+    private final int[] points;
+
+
+    /**
+     * @param x abscisse de chaque point
+     * @param y ordonnée de chaque point
+     */
+    ArbreKd(double[] x, double[] y) {
+        this.x = x.clone();
+        this.y = y.clone();
+        this.points = new int[x.length];
+        for (int i = 0; i < points.length; i++) points[i] = i;
+        construire(0, points.length, 0);
+    }
+
+    int taille() {
+        return points.length;
+    }
+
+    private void construire(int debut, int fin, int profondeur) {
+        if (fin - debut < 2) return;
+        int milieu = (debut + fin) >>> 1;
+        selectionner(debut, fin - 1, milieu, profondeur % 2 == 0);
+        construire(debut, milieu, profondeur + 1);
+        construire(milieu + 1, fin, profondeur + 1);
+    }
+
+    /**
+     * Place en position k l'élément de rang k de points[gauche..droite]
+     * selon la coordonnée choisie, les plus petits avant, les plus grands
+     * après (sélection rapide, pivot au milieu).
+     */
+    private void selectionner(int gauche, int droite, int k, boolean selonX) {
+        double[] c = selonX ? x : y;
+        while (gauche < droite) {
+            double pivot = c[points[(gauche + droite) >>> 1]];
+            int i = gauche;
+            int j = droite;
+            while (i <= j) {
+                while (c[points[i]] < pivot) i++;
+                while (c[points[j]] > pivot) j--;
+                if (i <= j) {
+                    int t = points[i];
+                    points[i++] = points[j];
+                    points[j--] = t;
+                }
+            }
+            if (k <= j) droite = j;
+            else if (k >= i) gauche = i;
+            else return;
+        }
+    }
+
+    /**
+     * Cherche les k points les plus proches de (px, py).
+     *
+     * @param k nombre de points voulus
+     * @param resultat reçoit les indices des points, du plus proche au plus
+     *        lointain (au moins min(k, taille()) cases)
+     * @return le nombre de points trouvés, min(k, taille())
+     */
+    int plusProches(double px, double py, int k, int[] resultat) {
+        Tas tas = new Tas(Math.min(k, points.length));
+        if (tas.capacite > 0) chercher(0, points.length, 0, px, py, tas);
+        int trouves = tas.taille;
+        for (int n = trouves - 1; n >= 0; n--) {
+            resultat[n] = tas.retirerPire();
+        }
+        return trouves;
+    }
+
+    private void chercher(int debut, int fin, int profondeur, double px, double py, Tas tas) {
+        if (debut >= fin) return;
+        int milieu = (debut + fin) >>> 1;
+        int p = points[milieu];
+        double dx = px - x[p];
+        double dy = py - y[p];
+        tas.proposer(p, dx * dx + dy * dy);
+
+        double ecart = (profondeur % 2 == 0) ? dx : dy;
+        boolean gaucheDabord = ecart < 0;
+        if (gaucheDabord) chercher(debut, milieu, profondeur + 1, px, py, tas);
+        else chercher(milieu + 1, fin, profondeur + 1, px, py, tas);
+        // L'autre côté est à au moins |ecart| : on ne le visite que s'il peut améliorer
+        if (!tas.plein() || ecart * ecart < tas.pire()) {
+            if (gaucheDabord) chercher(milieu + 1, fin, profondeur + 1, px, py, tas);
+            else chercher(debut, milieu, profondeur + 1, px, py, tas);
+        }
+    }
+
+
+    /**
+     * Tas max borné des meilleurs points trouvés : le plus lointain est à la racine.
+     */
+    private static final class Tas {
+        private final int capacite;
+        private final int[] indices;
+        private final double[] distances;
+        private int taille;
+
+        Tas(int capacite) {
+            this.capacite = capacite;
+            this.indices = new int[capacite];
+            this.distances = new double[capacite];
+        }
+
+        boolean plein() {
+            return taille == capacite;
+        }
+
+        double pire() {
+            return distances[0];
+        }
+
+        void proposer(int point, double distance) {
+            if (!plein()) {
+                int i = taille++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    indices[i] = indices[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                indices[i] = point;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                descendre(point, distance);
+            }
+        }
+
+        int retirerPire() {
+            int pire = indices[0];
+            taille--;
+            if (taille > 0) descendre(indices[taille], distances[taille]);
+            return pire;
+        }
+
+        /**
+         * Remplace la racine par (point, distance) et le fait descendre.
+         */
+        private void descendre(int point, double distance) {
+            int i = 0;
+            while (true) {
+                int enfant = 2 * i + 1;
+                if (enfant >= taille) break;
+                if (enfant + 1 < taille && distances[enfant + 1] > distances[enfant]) enfant++;
+                if (distances[enfant] <= distance) break;
+                indices[i] = indices[enfant];
+                distances[i] = distances[enfant];
+                i = enfant;
+            }
+            indices[i] = point;
+            distances[i] = distance;
+        }
+    }
+}
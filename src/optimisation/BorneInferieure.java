@@ -0,0 +1,182 @@
+package optimisation;
+
+import java.util.*;
+import reseau.*;
+
+
+/**
+ * Borne inférieure du coût d'un réseau, valable pour toute affectation
+ * des maisons actuellement connectées.
+ *
+ * Les deux termes du coût sont bornés séparément :
+ *
+ * - surcharge : au mieux, tout l'excès de demande (demande - capacité totale)
+ *   est porté par le plus gros générateur, d'où max(0, D - C) / Cmax.
+ *   Si un générateur a une capacité nulle, il peut tout absorber : borne 0.
+ *
+ * - dispersion : la charge d'un générateur est toujours un multiple du PGCD
+ *   des demandes (10 kW pour BASSE/NORMAL/FORTE), donc son taux est sur
+ *   une grille k * pgcd / capacite. Chaque terme | taux_i - moyenne | est au
+ *   moins la distance de la moyenne à la grille du générateur. La moyenne
+ *   elle-même est comprise entre D / (G * Cmax) et D / (G * Cmin) ; on prend
+ *   le minimum de la somme des distances sur cet intervalle, atteint en une
+ *   de ses bornes ou en un point d'une grille.
+ *
+ * Le coût d'une solution moins la borne majore donc l'écart à l'optimum.
+ */
+public final class BorneInferieure {
+
+    /**
+     * Au-delà de ce nombre d'évaluations, la borne de dispersion n'est pas
+     * calculée (elle vaut 0, ce qui reste une borne valide).
+     */
+    private static final long MAX_EVALUATIONS = 2_000_000L;
+
+    private final double borneDispersion;
+    private final double borneSurcharge;
+    private final double lambda;
+
+
+    /**
+     * Calcule la borne pour un réseau (non modifié).
+     *
+     * @param reseau réseau dont on borne le coût
+     */
+    public BorneInferieure(Reseau reseau) {
+        List<Generateur> generateurs = reseau.getGenerateurs();
+        int[] capacites = new int[generateurs.size()];
+        for (int g = 0; g < capacites.length; g++) {
+            capacites[g] = generateurs.get(g).getCapaciteMax();
+        }
+
+        long demande = 0;
+        int pgcd = 0;
+        for (List<Maison> maisons : reseau.getConnexions().values()) {
+            for (Maison m : maisons) {
+                int valeur = m.getDemande();
+                demande += valeur;
+                pgcd = pgcd(pgcd, valeur);
+            }
+        }
+
+        this.lambda = reseau.getLambda();
+        this.borneSurcharge = borneSurcharge(capacites, demande);
+        this.borneDispersion = borneDispersion(capacites, demande, pgcd);
+    }
+
+    public double getBorneDispersion() {
+        return borneDispersion;
+    }
+
+    public double getBorneSurcharge() {
+        return borneSurcharge;
+    }
+
+    /**
+     * @return borne inférieure de dispersion + lambda * surcharge
+     */
+    public double getBorne() {
+        return borneDispersion + lambda * borneSurcharge;
+    }
+
+    /**
+     * Écart relatif entre un coût et la borne : (cout - borne) / cout.
+     *
+     * @param cout coût d'une solution
+     * @return l'écart, 0 si le coût atteint la borne
+     */
+    public double ecart(double cout) {
+        if (cout <= 0 || cout <= getBorne()) {
+            return 0.0;
+        }
+        return (cout - getBorne()) / cout;
+    }
+
+
+    private static double borneSurcharge(int[] capacites, long demande) {
+        long capaciteTotale = 0;
+        int capaciteMax = 0;
+        for (int c : capacites) {
+            if (c <= 0) return 0.0;
+            capaciteTotale += c;
+            capaciteMax = Math.max(capaciteMax, c);
+        }
+        if (capaciteMax == 0 || demande <= capaciteTotale) {
+            return 0.0;
+        }
+        return (double) (demande - capaciteTotale) / capaciteMax;
+    }
+
+    private static double borneDispersion(int[] capacites, long demande, int pgcd) {
+        int nbGen = capacites.length;
+        if (nbGen < 2 || demande == 0 || pgcd == 0) {
+            return 0.0;
+        }
+
+        int capaciteMin = Integer.MAX_VALUE;
+        int capaciteMax = 0;
+        boolean capaciteNulle = false;
+        for (int c : capacites) {
+            if (c <= 0) {
+                capaciteNulle = true;
+            } else {
+                capaciteMin = Math.min(capaciteMin, c);
+                capaciteMax = Math.max(capaciteMax, c);
+            }
+        }
+        if (capaciteMax == 0) {
+            return 0.0;
+        }
+
+        double bas = capaciteNulle ? 0.0 : (double) demande / ((double) nbGen * capaciteMax);
+        double haut = (double) demande / ((double) nbGen * capaciteMin);
+        long pasMax = demande / pgcd;
+
+        long nbCandidats = 2;
+        for (int c : capacites) {
+            if (c > 0) nbCandidats += (long) ((haut - bas) * c / pgcd) + 1;
+        }
+        if (nbCandidats * nbGen > MAX_EVALUATIONS) {
+            return 0.0;
+        }
+
+        double meilleur = Math.min(sommeDistances(capacites, bas, pgcd, pasMax),
+                                   sommeDistances(capacites, haut, pgcd, pasMax));
+        for (int c : capacites) {
+            if (c <= 0) continue;
+            long kMin = (long) Math.ceil(bas * c / pgcd);
+            long kMax = Math.min(pasMax, (long) Math.floor(haut * c / pgcd));
+            for (long k = kMin; k <= kMax; k++) {
+                double m = (double) k * pgcd / c;
+                meilleur = Math.min(meilleur, sommeDistances(capacites, m, pgcd, pasMax));
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Σ distance de m à la grille des taux possibles de chaque générateur.
+     */
+    private static double sommeDistances(int[] capacites, double m, int pgcd, long pasMax) {
+        double somme = 0.0;
+        for (int c : capacites) {
+            if (c <= 0) {
+                somme += Math.abs(m);
+                continue;
+            }
+            long k = Math.round(m * c / pgcd);
+            k = Math.max(0, Math.min(pasMax, k));
+            somme += Math.abs(m - (double) k * pgcd / c);
+        }
+        return somme;
+    }
+
+    private static int pgcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return Math.abs(a);
+    }
+}
@@ -0,0 +1,127 @@
+package optimisation;
+
+import java.util.Arrays;
+
+
+/**
+ * Maisons de chaque générateur rangées par tranche de demande.
+ *
+ * Les tranches sont les classes de {@link ClassesSymetrie} tant qu'il y en
+ * a au plus {@value #MAX_TRANCHES} (toujours le cas avec les trois types de
+ * {@link reseau.Consommation}) ; au-delà, des classes voisines sont
+ * regroupées, pour que le nombre de casiers reste O(G) et que la recherche
+ * d'une maison par tranche sur un générateur ne dépende pas du nombre de
+ * demandes distinctes.
+ *
+ * Chaque casier (générateur, classe) est une liste doublement chaînée
+ * stockée dans des tableaux : ajouter, retirer ou trouver une maison d'un
+ * casier se fait en O(1), sans allocation.
+ */
+final class CasiersMaisons {
+
+    private static final int AUCUNE = -1;
+    static final int MAX_TRANCHES = 32;
+
+    private final ClassesSymetrie classes;
+    private final int nbTranches;
+    private final int[] tete;
+    private final int[] suivante;
+    private final int[] precedente;
+    private final int[] casier;
+
+
+    /**
+     * @param classes classes des maisons
+     * @param affectation générateur de chaque maison (-1 = non connectée)
+     * @param nbGenerateurs nombre de générateurs
+     */
+    CasiersMaisons(ClassesSymetrie classes, int[] affectation, int nbGenerateurs) {
+        this(classes, nbGenerateurs, affectation.length);
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] >= 0) ajouter(i, affectation[i]);
+        }
+    }
+
+    /**
+     * Reconstruit des casiers dans l'ordre donné par {@link #ordre()}.
+     *
+     * @param ordre maisons connectées, casier par casier, dans l'ordre des listes
+     */
+    CasiersMaisons(ClassesSymetrie classes, int[] affectation, int nbGenerateurs, int[] ordre) {
+        this(classes, nbGenerateurs, affectation.length);
+        for (int k = ordre.length - 1; k >= 0; k--) {
+            ajouter(ordre[k], affectation[ordre[k]]);
+        }
+    }
+
+    private CasiersMaisons(ClassesSymetrie classes, int nbGenerateurs, int nbMaisons) {
+        this.classes = classes;
+        this.nbTranches = Math.min(classes.nombreClasses(), MAX_TRANCHES);
+        this.tete = new int[nbGenerateurs * nbTranches];
+        this.suivante = new int[nbMaisons];
+        this.precedente = new int[nbMaisons];
+        this.casier = new int[nbMaisons];
+        Arrays.fill(tete, AUCUNE);
+        Arrays.fill(casier, AUCUNE);
+    }
+
+    /**
+     * @return les maisons connectées, casier par casier, dans l'ordre de leur liste
+     */
+    int[] ordre() {
+        int n = 0;
+        for (int c : casier) {
+            if (c != AUCUNE) n++;
+        }
+        int[] ordre = new int[n];
+        n = 0;
+        for (int k = 0; k < tete.length; k++) {
+            for (int m = tete[k]; m != AUCUNE; m = suivante[m]) ordre[n++] = m;
+        }
+        return ordre;
+    }
+
+    /**
+     * @return une maison de la tranche t connectée au générateur g, -1 s'il n'y en a pas
+     */
+    int premiere(int g, int t) {
+        return tete[g * nbTranches + t];
+    }
+
+    int nombreTranches() {
+        return nbTranches;
+    }
+
+    /**
+     * Les classes étant numérotées par demande croissante, chaque tranche
+     * regroupe des demandes consécutives.
+     */
+    private int tranche(int m) {
+        return (int) ((long) classes.classe(m) * nbTranches / classes.nombreClasses());
+    }
+
+    /**
+     * Range la maison m dans le casier de g (en la retirant de son casier actuel).
+     */
+    void deplacer(int m, int g) {
+        if (casier[m] != AUCUNE) retirer(m);
+        ajouter(m, g);
+    }
+
+    private void ajouter(int m, int g) {
+        int k = g * nbTranches + tranche(m);
+        casier[m] = k;
+        precedente[m] = AUCUNE;
+        suivante[m] = tete[k];
+        if (tete[k] != AUCUNE) precedente[tete[k]] = m;
+        tete[k] = m;
+    }
+
+    private void retirer(int m) {
+        int k = casier[m];
+        if (precedente[m] != AUCUNE) suivante[precedente[m]] = suivante[m];
+        else tete[k] = suivante[m];
+        if (suivante[m] != AUCUNE) precedente[suivante[m]] = precedente[m];
+        casier[m] = AUCUNE;
+    }
+}
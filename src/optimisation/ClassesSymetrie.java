@@ -0,0 +1,379 @@
+package optimisation;
+
+import java.util.*;
+
+
+/**
+ * Symétries d'une instance : maisons et générateurs interchangeables.
+ *
+ * Deux maisons de même demande sont interchangeables pour le coût (même
+ * classe), de même que deux générateurs de même capacité (même groupe).
+ * Une solution est donc entièrement décrite, au coût près, par les classes
+ * des maisons de chaque générateur ({@link #compositions}), à permutation
+ * près des générateurs d'un même groupe.
+ *
+ * Avec des demandes quelconques, il peut y avoir presque autant de classes
+ * que de maisons : les compositions ne gardent que les classes présentes
+ * sur chaque générateur (O(H) en tout, et non O(G x classes)).
+ *
+ * Cette classe permet :
+ *
+ * - de ramener une affectation à une forme canonique, identique pour toutes
+ *   les affectations équivalentes ({@link #canonique}) ;
+ * - de repasser des compositions à une affectation concrète en déplaçant le
+ *   moins de maisons possible ({@link #versAffectation}, {@link #aligner}) ;
+ * - d'identifier un déplacement par sa classe de maison et les générateurs
+ *   d'origine et de destination à l'équivalence près, pour ne pas évaluer
+ *   deux fois le même déplacement ({@link #cleDeplacement}).
+ *
+ * Seules les maisons connectées (affectation >= 0) sont concernées ; les
+ * autres restent non connectées.
+ */
+final class ClassesSymetrie {
+
+    private final int[] classes;
+    private final int[] groupes;
+    private final int nbClasses;
+    private final int nbGroupes;
+    private final int[] ordreParClasse;
+
+
+    /**
+     * @param demandes demande de chaque maison
+     * @param capacites capacité de chaque générateur
+     */
+    ClassesSymetrie(int[] demandes, int[] capacites) {
+        this.classes = numeroter(demandes);
+        this.groupes = numeroter(capacites);
+        this.nbClasses = nombreDistincts(classes);
+        this.nbGroupes = nombreDistincts(groupes);
+        this.ordreParClasse = ordreParClasse(classes, nbClasses);
+    }
+
+    /**
+     * Numérote les valeurs distinctes par ordre croissant.
+     */
+    private static int[] numeroter(int[] valeurs) {
+        int[] triees = Arrays.stream(valeurs).distinct().sorted().toArray();
+        int[] numeros = new int[valeurs.length];
+        for (int i = 0; i < valeurs.length; i++) {
+            numeros[i] = Arrays.binarySearch(triees, valeurs[i]);
+        }
+        return numeros;
+    }
+
+    private static int nombreDistincts(int[] numeros) {
+        int max = -1;
+        for (int n : numeros) max = Math.max(max, n);
+        return max + 1;
+    }
+
+    /**
+     * @return les maisons par classe croissante, puis par indice croissant (tri par dénombrement)
+     */
+    private static int[] ordreParClasse(int[] classes, int nbClasses) {
+        int[] debuts = new int[nbClasses + 1];
+        for (int c : classes) debuts[c + 1]++;
+        for (int c = 0; c < nbClasses; c++) debuts[c + 1] += debuts[c];
+        int[] ordre = new int[classes.length];
+        for (int i = 0; i < classes.length; i++) ordre[debuts[classes[i]]++] = i;
+        return ordre;
+    }
+
+
+    int classe(int maison) {
+        return classes[maison];
+    }
+
+    int groupe(int generateur) {
+        return groupes[generateur];
+    }
+
+    int nombreClasses() {
+        return nbClasses;
+    }
+
+    int nombreGroupes() {
+        return nbGroupes;
+    }
+
+
+    /**
+     * @param affectation générateur de chaque maison (-1 = non connectée)
+     * @return compositions[g] = classes des maisons du générateur g, par
+     *         ordre croissant (avec répétitions), en O(H + G)
+     */
+    int[][] compositions(int[] affectation) {
+        int[][] maisons = maisonsParGenerateur(affectation);
+        int[][] compositions = new int[maisons.length][];
+        for (int g = 0; g < maisons.length; g++) {
+            compositions[g] = new int[maisons[g].length];
+            for (int k = 0; k < maisons[g].length; k++) {
+                compositions[g][k] = classes[maisons[g][k]];
+            }
+        }
+        return compositions;
+    }
+
+    /**
+     * @return les maisons de chaque générateur, par classe puis par indice croissant
+     */
+    private int[][] maisonsParGenerateur(int[] affectation) {
+        int[] tailles = new int[groupes.length];
+        for (int g : affectation) {
+            if (g >= 0) tailles[g]++;
+        }
+        int[][] maisons = new int[groupes.length][];
+        for (int g = 0; g < maisons.length; g++) maisons[g] = new int[tailles[g]];
+        Arrays.fill(tailles, 0);
+        for (int i : ordreParClasse) {
+            int g = affectation[i];
+            if (g >= 0) maisons[g][tailles[g]++] = i;
+        }
+        return maisons;
+    }
+
+    /**
+     * @param places classes à placer sur chaque générateur (par ordre croissant)
+     * @return pour chaque classe, les générateurs où la placer, par indice
+     *         croissant et avec répétitions
+     */
+    private int[][] generateursParClasse(int[][] places) {
+        int[] tailles = new int[nbClasses];
+        for (int[] p : places) {
+            for (int c : p) tailles[c]++;
+        }
+        int[][] generateurs = new int[nbClasses][];
+        for (int c = 0; c < nbClasses; c++) generateurs[c] = new int[tailles[c]];
+        Arrays.fill(tailles, 0);
+        for (int g = 0; g < places.length; g++) {
+            for (int c : places[g]) generateurs[c][tailles[c]++] = g;
+        }
+        return generateurs;
+    }
+
+    /**
+     * Repasse des compositions à une affectation concrète. Chaque maison
+     * reste sur son générateur dans le modèle tant qu'il lui reste de la
+     * place dans sa classe ; les autres sont réparties, par indice croissant,
+     * sur les générateurs auxquels il manque des maisons de cette classe.
+     *
+     * @param compositions classes des maisons de chaque générateur, par
+     *        ordre croissant (mêmes totaux par classe que le modèle)
+     * @param modele affectation de référence (-1 = non connectée, le reste)
+     * @return l'affectation, en O(H + G)
+     */
+    int[] versAffectation(int[][] compositions, int[] modele) {
+        int[] resultat = new int[modele.length];
+        Arrays.fill(resultat, -1);
+        int[][] presentes = maisonsParGenerateur(modele);
+        int[][] manquantes = new int[compositions.length][];
+
+        for (int g = 0; g < compositions.length; g++) {
+            int[] voulues = compositions[g];
+            int[] manque = new int[voulues.length];
+            int nbManque = 0;
+            int a = 0;
+            int b = 0;
+            while (a < voulues.length) {
+                int c = (b < presentes[g].length) ? classes[presentes[g][b]] : Integer.MAX_VALUE;
+                if (c == voulues[a]) {
+                    resultat[presentes[g][b++]] = g;
+                    a++;
+                } else if (c < voulues[a]) {
+                    b++;
+                } else {
+                    manque[nbManque++] = voulues[a++];
+                }
+            }
+            manquantes[g] = Arrays.copyOf(manque, nbManque);
+        }
+
+        int[][] places = generateursParClasse(manquantes);
+        int[] prochain = new int[nbClasses];
+        for (int i = 0; i < modele.length; i++) {
+            if (modele[i] >= 0 && resultat[i] < 0) {
+                int c = classes[i];
+                resultat[i] = places[c][prochain[c]++];
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * @return l'affectation équivalente à affectation la plus proche de
+     *         reference (maisons interchangeables permutées au mieux)
+     */
+    int[] aligner(int[] reference, int[] affectation) {
+        return versAffectation(compositions(affectation), reference);
+    }
+
+    /**
+     * Forme canonique : dans chaque groupe, les compositions sont rangées
+     * par ordre lexicographique sur les générateurs pris par indice
+     * croissant, puis les maisons de chaque classe sont placées par indice
+     * croissant. Deux affectations équivalentes ont la même forme canonique.
+     *
+     * @param affectation générateur de chaque maison (-1 = non connectée)
+     * @return la forme canonique, en O(H + G log G)
+     */
+    int[] canonique(int[] affectation) {
+        int[][] compositions = compositions(affectation);
+        Integer[] ordre = new Integer[compositions.length];
+        for (int g = 0; g < ordre.length; g++) ordre[g] = g;
+        Arrays.sort(ordre, Comparator.<Integer>comparingInt(g -> groupes[g])
+                .thenComparing((a, b) -> Arrays.compare(compositions[a], compositions[b])));
+
+        int[][] canon = new int[compositions.length][];
+        int[] parIndice = ordreParGroupe();
+        for (int k = 0; k < ordre.length; k++) {
+            canon[parIndice[k]] = compositions[ordre[k]];
+        }
+
+        int[][] places = generateursParClasse(canon);
+        int[] resultat = new int[affectation.length];
+        int[] prochain = new int[nbClasses];
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] < 0) {
+                resultat[i] = -1;
+                continue;
+            }
+            int c = classes[i];
+            resultat[i] = places[c][prochain[c]++];
+        }
+        return resultat;
+    }
+
+    /**
+     * @return les générateurs triés par groupe puis par indice
+     */
+    private int[] ordreParGroupe() {
+        Integer[] ordre = new Integer[groupes.length];
+        for (int g = 0; g < ordre.length; g++) ordre[g] = g;
+        Arrays.sort(ordre, Comparator.<Integer>comparingInt(g -> groupes[g]).thenComparingInt(g -> g));
+        int[] resultat = new int[ordre.length];
+        for (int k = 0; k < ordre.length; k++) resultat[k] = ordre[k];
+        return resultat;
+    }
+
+
+    /**
+     * Représentant de chaque générateur : le plus petit indice de même
+     * capacité et de même charge. Deux générateurs de même représentant sont
+     * interchangeables tant que les charges ne changent pas.
+     *
+     * @param charges charge actuelle de chaque générateur (copiées)
+     * @return les représentants, à tenir à jour avec
+     *         {@link Representants#changerCharge}, construits en O(G log G)
+     */
+    Representants representants(int[] charges) {
+        return new Representants(charges);
+    }
+
+    /**
+     * Clé d'un déplacement à l'équivalence près : deux déplacements de même
+     * clé donnent le même coût tant que les charges ne changent pas.
+     *
+     * @param maison maison déplacée
+     * @param depuis générateur d'origine
+     * @param vers générateur de destination
+     * @param representants représentants pour les charges actuelles
+     */
+    long cleDeplacement(int maison, int depuis, int vers, Representants representants) {
+        long n = groupes.length;
+        return ((long) classes[maison] * n + representants.de(depuis)) * n + representants.de(vers);
+    }
+
+    /**
+     * Nombre de déplacements distincts (au sens de {@link #cleDeplacement})
+     * possibles depuis l'affectation : pour chaque couple (classe, générateur
+     * d'origine à l'équivalence près) présent, un déplacement vers chaque
+     * autre représentant, plus un vers un générateur équivalent s'il y en a un.
+     *
+     * @return le nombre de déplacements distincts, en O(H log G)
+     */
+    int nombreDeplacementsDistincts(int[] affectation, Representants representants) {
+        int nbRepresentants = representants.nombre();
+        Set<Long> sources = new HashSet<>();
+        int total = 0;
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] < 0) continue;
+            int r = representants.de(affectation[i]);
+            if (sources.add((long) classes[i] * groupes.length + r)) {
+                total += nbRepresentants - 1 + (representants.effectif(r) > 1 ? 1 : 0);
+            }
+        }
+        return total;
+    }
+
+
+    /**
+     * Générateurs regroupés par (groupe, charge), avec le représentant de
+     * chacun dans un tableau. Changer la charge d'un générateur ne touche
+     * que ses deux ensembles : O(log G), plus la taille d'un ensemble quand
+     * son plus petit indice change. Il n'y a pas à tout recalculer après
+     * chaque déplacement.
+     */
+    final class Representants {
+
+        private final int[] charges;
+        private final int[] representant;
+        private final Map<Long, TreeSet<Integer>> membres = new HashMap<>();
+
+        private Representants(int[] charges) {
+            this.charges = charges.clone();
+            this.representant = new int[charges.length];
+            for (int g = 0; g < charges.length; g++) {
+                TreeSet<Integer> ensemble = membres.computeIfAbsent(cle(g), k -> new TreeSet<>());
+                ensemble.add(g);
+                representant[g] = ensemble.first();
+            }
+        }
+
+        private long cle(int g) {
+            return ((long) groupes[g] << 32) | (charges[g] & 0xFFFFFFFFL);
+        }
+
+        /**
+         * @return le représentant du générateur g, en O(1)
+         */
+        int de(int g) {
+            return representant[g];
+        }
+
+        /**
+         * @return le nombre de générateurs équivalents à g (lui compris)
+         */
+        int effectif(int g) {
+            return membres.get(cle(g)).size();
+        }
+
+        /**
+         * @return le nombre de représentants distincts
+         */
+        int nombre() {
+            return membres.size();
+        }
+
+        void changerCharge(int g, int charge) {
+            long ancienne = cle(g);
+            TreeSet<Integer> avant = membres.get(ancienne);
+            avant.remove(g);
+            if (avant.isEmpty()) {
+                membres.remove(ancienne);
+            } else if (representant[g] == g) {
+                int premier = avant.first();
+                for (int autre : avant) representant[autre] = premier;
+            }
+
+            charges[g] = charge;
+            TreeSet<Integer> apres = membres.computeIfAbsent(cle(g), k -> new TreeSet<>());
+            apres.add(g);
+            if (apres.first() == g) {
+                for (int autre : apres) representant[autre] = g;
+            } else {
+                representant[g] = apres.first();
+            }
+        }
+    }
+}
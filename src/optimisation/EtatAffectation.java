@@ -0,0 +1,359 @@
+package optimisation;
+
+import java.util.*;
+import reseau.*;
+
+
+/**
+ * Représentation compacte d'un réseau sous forme de tableaux d'entiers.
+ *
+ * Chaque maison et chaque générateur reçoit un indice. L'affectation
+ * maison -> générateur et la charge de chaque générateur sont maintenues
+ * dans des tableaux, ce qui permet de déplacer une maison et d'évaluer
+ * le coût sans copier le réseau.
+ *
+ * Les taux sont rangés dans un {@link ArbreTaux} et la surcharge est tenue
+ * à jour : le coût, avant ou après un déplacement, s'obtient en O(log G).
+ * Comme dans les agrégats du réseau, la surcharge, mise à jour par
+ * différence, est recalculée entièrement toutes les
+ * {@value #RECALCUL_PERIODE} modifications pour que les erreurs d'arrondi
+ * ne s'accumulent pas au fil d'une longue recherche.
+ *
+ * Les maisons de chaque générateur forment une liste doublement chaînée
+ * rangée dans des tableaux (comme dans {@link CasiersMaisons}) : elles se
+ * parcourent sans examiner les autres maisons.
+ *
+ * Le coût calculé est identique à celui de {@link Reseau#calculerCout()}.
+ */
+class EtatAffectation {
+
+    private static final int RECALCUL_PERIODE = 1 << 16;
+    private static final int AUCUNE = -1;
+
+    final Maison[] maisons;
+    final Generateur[] generateurs;
+    final int[] demandes;
+    final int[] capacites;
+    final int[] affectation;
+    final int[] charges;
+    final double lambda;
+    private final ArbreTaux arbre;
+    private double surcharge;
+    private int nbSurcharges;
+    private int misesAJour;
+    private final int[] tete;
+    private final int[] suivante;
+    private final int[] precedente;
+
+
+    /**
+     * Construit l'état à partir d'un réseau existant.
+     * Les maisons non connectées ont l'indice de générateur -1.
+     *
+     * @param reseau réseau de départ (non modifié)
+     */
+    EtatAffectation(Reseau reseau) {
+        List<Maison> listeMaisons = reseau.getMaisons();
+        List<Generateur> listeGenerateurs = reseau.getGenerateurs();
+
+        maisons = listeMaisons.toArray(new Maison[0]);
+        generateurs = listeGenerateurs.toArray(new Generateur[0]);
+        demandes = new int[maisons.length];
+        capacites = new int[generateurs.length];
+        affectation = new int[maisons.length];
+        charges = new int[generateurs.length];
+        tete = new int[generateurs.length];
+        suivante = new int[maisons.length];
+        precedente = new int[maisons.length];
+        Arrays.fill(tete, AUCUNE);
+        lambda = reseau.getLambda();
+
+        Map<Maison, Integer> indexMaisons = new HashMap<>();
+        for (int i = 0; i < maisons.length; i++) {
+            indexMaisons.put(maisons[i], i);
+            demandes[i] = maisons[i].getDemande();
+            affectation[i] = -1;
+        }
+
+        Map<Generateur, Integer> indexGenerateurs = new HashMap<>();
+        for (int j = 0; j < generateurs.length; j++) {
+            indexGenerateurs.put(generateurs[j], j);
+            capacites[j] = generateurs[j].getCapaciteMax();
+        }
+
+        for (Map.Entry<Generateur, List<Maison>> entry : reseau.getConnexions().entrySet()) {
+            int g = indexGenerateurs.get(entry.getKey());
+            for (Maison m : entry.getValue()) {
+                int i = indexMaisons.get(m);
+                affectation[i] = g;
+                charges[g] += demandes[i];
+            }
+        }
+        for (int i = 0; i < maisons.length; i++) {
+            if (affectation[i] >= 0) lier(i, affectation[i]);
+        }
+
+        arbre = new ArbreTaux(generateurs.length);
+        for (int g = 0; g < generateurs.length; g++) {
+            arbre.inserer(g, taux(g));
+            ajouterSurcharge(termeSurcharge(charges[g], capacites[g]));
+        }
+    }
+
+    int nombreMaisons() {
+        return maisons.length;
+    }
+
+    int nombreGenerateurs() {
+        return generateurs.length;
+    }
+
+    /**
+     * Taux d'utilisation d'un générateur (0 si sa capacité est nulle).
+     */
+    double taux(int g) {
+        return taux(charges[g], capacites[g]);
+    }
+
+    private static double taux(int charge, int capacite) {
+        return (capacite > 0) ? (double) charge / capacite : 0.0;
+    }
+
+    private static double termeSurcharge(int charge, int capacite) {
+        if (capacite > 0 && charge > capacite) {
+            return (double) (charge - capacite) / capacite;
+        }
+        return 0.0;
+    }
+
+    private void ajouterSurcharge(double terme) {
+        if (terme > 0) {
+            surcharge += terme;
+            nbSurcharges++;
+        }
+    }
+
+    private void retirerSurcharge(double terme) {
+        if (terme > 0) {
+            surcharge -= terme;
+            nbSurcharges--;
+        }
+    }
+
+    /**
+     * dispersion = Σ | taux_i - moyenne |
+     */
+    double dispersion() {
+        if (generateurs.length == 0) return 0.0;
+        return arbre.sommeEcarts(moyenneTaux());
+    }
+
+    /**
+     * surcharge = Σ max(0, (charge_i - capacite_i) / capacite_i)
+     */
+    double surcharge() {
+        return (nbSurcharges > 0) ? surcharge : 0.0;
+    }
+
+    double cout() {
+        return dispersion() + lambda * surcharge();
+    }
+
+    /**
+     * Calcule le coût qu'aurait le réseau si la maison était déplacée
+     * vers un autre générateur, sans modifier l'état.
+     *
+     * @param m indice de la maison
+     * @param g indice du générateur cible
+     * @return le coût après déplacement
+     */
+    double coutApresDeplacement(int m, int g) {
+        int ancien = affectation[m];
+        if (ancien == g) return cout();
+
+        double tauxAncien = 0.0;
+        double surchargeApres = surcharge;
+        int nbSurchargesApres = nbSurcharges;
+        if (ancien >= 0) {
+            int charge = charges[ancien] - demandes[m];
+            tauxAncien = taux(charge, capacites[ancien]);
+            double avant = termeSurcharge(charges[ancien], capacites[ancien]);
+            double apres = termeSurcharge(charge, capacites[ancien]);
+            surchargeApres += apres - avant;
+            nbSurchargesApres += (apres > 0 ? 1 : 0) - (avant > 0 ? 1 : 0);
+        }
+        int charge = charges[g] + demandes[m];
+        double avant = termeSurcharge(charges[g], capacites[g]);
+        double apres = termeSurcharge(charge, capacites[g]);
+        surchargeApres += apres - avant;
+        nbSurchargesApres += (apres > 0 ? 1 : 0) - (avant > 0 ? 1 : 0);
+        if (nbSurchargesApres == 0) surchargeApres = 0.0;
+
+        double dispersion = arbre.dispersionApres(ancien, tauxAncien, g, taux(charge, capacites[g]));
+        return dispersion + lambda * surchargeApres;
+    }
+
+    /**
+     * Prépare le lot pour évaluer des déplacements sur l'état actuel, en O(G).
+     */
+    void preparer(EvaluateurLot lot) {
+        lot.preparer(charges, capacites, generateurs.length, lambda, arbre);
+    }
+
+    /**
+     * Connecte la maison au générateur g (en la retirant de son générateur actuel).
+     *
+     * @param m indice de la maison
+     * @param g indice du générateur cible
+     */
+    void deplacer(int m, int g) {
+        int ancien = affectation[m];
+        if (ancien == g) return;
+        if (ancien >= 0) {
+            changerCharge(ancien, charges[ancien] - demandes[m]);
+            delier(m, ancien);
+        }
+        changerCharge(g, charges[g] + demandes[m]);
+        affectation[m] = g;
+        lier(m, g);
+    }
+
+    /**
+     * Déconnecte la maison de son générateur (sans effet si elle ne l'est pas).
+     *
+     * @param m indice de la maison
+     */
+    void retirer(int m) {
+        int ancien = affectation[m];
+        if (ancien < 0) return;
+        changerCharge(ancien, charges[ancien] - demandes[m]);
+        affectation[m] = -1;
+        delier(m, ancien);
+    }
+
+    /**
+     * Remplace toute l'affectation (seules les maisons qui changent sont déplacées).
+     *
+     * @param nouvelle générateur de chaque maison, -1 pour non connectée
+     */
+    void affecter(int[] nouvelle) {
+        for (int i = 0; i < affectation.length; i++) {
+            if (nouvelle[i] == affectation[i]) continue;
+            if (nouvelle[i] < 0) retirer(i);
+            else deplacer(i, nouvelle[i]);
+        }
+    }
+
+    double moyenneTaux() {
+        return (generateurs.length > 0) ? arbre.somme() / generateurs.length : 0.0;
+    }
+
+    /**
+     * @return le générateur de plus grand taux, en O(log G)
+     */
+    int plusUtilise() {
+        return arbre.dernier();
+    }
+
+    /**
+     * @return le générateur de plus petit taux, en O(log G)
+     */
+    int moinsUtilise() {
+        return arbre.premier();
+    }
+
+    /**
+     * Part d'un générateur dans le coût : | taux - moyenne | + lambda * surcharge.
+     */
+    double contribution(int g) {
+        return Math.abs(taux(g) - moyenneTaux()) + lambda * termeSurcharge(charges[g], capacites[g]);
+    }
+
+    private void changerCharge(int g, int charge) {
+        retirerSurcharge(termeSurcharge(charges[g], capacites[g]));
+        charges[g] = charge;
+        ajouterSurcharge(termeSurcharge(charges[g], capacites[g]));
+        arbre.modifier(g, taux(g));
+        if (++misesAJour >= RECALCUL_PERIODE) {
+            recalculerSurcharge();
+        }
+    }
+
+    private void recalculerSurcharge() {
+        surcharge = 0.0;
+        nbSurcharges = 0;
+        for (int g = 0; g < generateurs.length; g++) {
+            ajouterSurcharge(termeSurcharge(charges[g], capacites[g]));
+        }
+        misesAJour = 0;
+    }
+
+    private void lier(int m, int g) {
+        precedente[m] = AUCUNE;
+        suivante[m] = tete[g];
+        if (tete[g] != AUCUNE) precedente[tete[g]] = m;
+        tete[g] = m;
+    }
+
+    private void delier(int m, int g) {
+        if (precedente[m] != AUCUNE) suivante[precedente[m]] = suivante[m];
+        else tete[g] = suivante[m];
+        if (suivante[m] != AUCUNE) precedente[suivante[m]] = precedente[m];
+    }
+
+    /**
+     * @return une maison connectée au générateur g, -1 s'il n'en a pas
+     */
+    int premiereMaison(int g) {
+        return tete[g];
+    }
+
+    /**
+     * @return la maison suivante du même générateur que m, -1 si m est la dernière
+     */
+    int maisonSuivante(int m) {
+        return suivante[m];
+    }
+
+    /**
+     * Retourne les indices des maisons connectées à un générateur.
+     */
+    List<Integer> maisonsDe(int g) {
+        List<Integer> liste = new ArrayList<>();
+        for (int i = tete[g]; i != AUCUNE; i = suivante[i]) {
+            liste.add(i);
+        }
+        return liste;
+    }
+
+    /**
+     * Construit un nouveau réseau indépendant correspondant à l'état courant.
+     * Les maisons et générateurs sont dupliqués et le paramètre lambda conservé.
+     *
+     * @return le réseau correspondant à l'affectation
+     */
+    Reseau versReseau() {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(lambda);
+
+        Generateur[] copiesGen = new Generateur[generateurs.length];
+        for (int g = 0; g < generateurs.length; g++) {
+            copiesGen[g] = generateurs[g].copie(capacites[g]);
+            reseau.ajouterGenerateur(copiesGen[g]);
+        }
+
+        Maison[] copiesMaisons = new Maison[maisons.length];
+        for (int i = 0; i < maisons.length; i++) {
+            copiesMaisons[i] = maisons[i].copie();
+            reseau.ajouterMaison(copiesMaisons[i]);
+        }
+
+        for (int i = 0; i < maisons.length; i++) {
+            if (affectation[i] >= 0) {
+                reseau.connecter(copiesMaisons[i], copiesGen[affectation[i]]);
+            }
+        }
+        reseau.viderJournal();
+        return reseau;
+    }
+}
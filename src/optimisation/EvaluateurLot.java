@@ -0,0 +1,257 @@
+package optimisation;
+
+import java.util.Arrays;
+import reseau.ArbreTaux;
+
+
+/**
+ * Évaluation par lots de déplacements de maisons : le coût après chacun de
+ * K déplacements (générateur de départ, générateur d'arrivée, demande) est
+ * calculé en un seul appel, sans rien modifier.
+ *
+ * {@link #preparer} range une fois pour toutes les taux triés, leurs sommes
+ * cumulées et la surcharge totale dans des tableaux. Chaque déplacement
+ * coûte ensuite O(log G) : le calcul des nouveaux taux et des termes de
+ * surcharge se fait d'abord pour tout le lot, dans des boucles simples sur
+ * des tableaux de primitifs, puis la dispersion s'obtient par une recherche
+ * dichotomique dans les taux triés. Contrairement à
+ * {@link EtatAffectation#coutApresDeplacement(int, int)}, on ne parcourt
+ * pas un arbre à chaque évaluation : c'est intéressant dès qu'on évalue
+ * tout un voisinage (meilleure insertion, regret).
+ *
+ * Les charges sont copiées par {@link #preparer} ; les capacités ne
+ * doivent pas changer avant la fin des évaluations. Après un déplacement
+ * effectif, {@link #actualiser} met à jour la charge d'un générateur sans
+ * tout préparer de nouveau.
+ */
+public final class EvaluateurLot {
+
+    private int[] charges = new int[0];
+    private int[] capacites;
+    private int nbGenerateurs;
+    private double lambda;
+
+    private double[] actuels = new double[0];
+    private double[] tries = new double[0];
+    private double[] cumules = new double[1];
+    private double surcharge;
+    private int nbSurcharges;
+
+    // Tampons par déplacement, réutilisés d'un lot à l'autre
+    private double[] tauxDepart = new double[0];
+    private double[] tauxArrivee = new double[0];
+    private double[] deltaSurcharge = new double[0];
+    private int[] deltaNombre = new int[0];
+
+
+    /**
+     * Prépare l'évaluation de déplacements sur l'état donné, en O(G log G).
+     *
+     * @param charges charge de chaque générateur
+     * @param capacites capacité de chaque générateur
+     * @param nbGenerateurs nombre de générateurs
+     * @param lambda poids de la surcharge
+     */
+    public void preparer(int[] charges, int[] capacites, int nbGenerateurs, double lambda) {
+        initialiser(charges, capacites, nbGenerateurs, lambda);
+        System.arraycopy(actuels, 0, tries, 0, nbGenerateurs);
+        Arrays.sort(tries, 0, nbGenerateurs);
+        cumuler();
+    }
+
+    /**
+     * Même chose, avec les taux déjà triés dans un arbre : O(G).
+     */
+    void preparer(int[] charges, int[] capacites, int nbGenerateurs, double lambda, ArbreTaux arbre) {
+        initialiser(charges, capacites, nbGenerateurs, lambda);
+        arbre.valeursTriees(tries);
+        cumuler();
+    }
+
+    private void initialiser(int[] charges, int[] capacites, int nbGenerateurs, double lambda) {
+        this.capacites = capacites;
+        this.nbGenerateurs = nbGenerateurs;
+        this.lambda = lambda;
+        if (tries.length < nbGenerateurs) {
+            this.charges = new int[nbGenerateurs];
+            actuels = new double[nbGenerateurs];
+            tries = new double[nbGenerateurs];
+            cumules = new double[nbGenerateurs + 1];
+        }
+        System.arraycopy(charges, 0, this.charges, 0, nbGenerateurs);
+        surcharge = 0.0;
+        nbSurcharges = 0;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            actuels[g] = taux(charges[g], capacites[g]);
+            double terme = termeSurcharge(charges[g], capacites[g]);
+            if (terme > 0) {
+                surcharge += terme;
+                nbSurcharges++;
+            }
+        }
+    }
+
+    private void cumuler() {
+        cumules[0] = 0.0;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            cumules[g + 1] = cumules[g] + tries[g];
+        }
+    }
+
+    /**
+     * Donne sa nouvelle charge au générateur g, après un déplacement : son
+     * taux glisse à son rang parmi les taux triés et les sommes cumulées
+     * sont recalculées à partir de là. C'est O(G) au pire, sans tri ni
+     * parcours d'arbre ; le coût et les évaluations suivantes tiennent
+     * compte de la nouvelle charge.
+     *
+     * @param g générateur dont la charge a changé
+     * @param charge sa nouvelle charge
+     */
+    public void actualiser(int g, int charge) {
+        double avant = termeSurcharge(charges[g], capacites[g]);
+        double apres = termeSurcharge(charge, capacites[g]);
+        surcharge += apres - avant;
+        nbSurcharges += signe(apres) - signe(avant);
+        charges[g] = charge;
+
+        double ancien = actuels[g];
+        double nouveau = taux(charge, capacites[g]);
+        actuels[g] = nouveau;
+        if (nouveau == ancien) return;
+        int depart = premierRang(ancien);
+        int p = depart;
+        if (nouveau > ancien) {
+            while (p + 1 < nbGenerateurs && tries[p + 1] < nouveau) {
+                tries[p] = tries[p + 1];
+                p++;
+            }
+        } else {
+            while (p > 0 && tries[p - 1] > nouveau) {
+                tries[p] = tries[p - 1];
+                p--;
+            }
+        }
+        tries[p] = nouveau;
+        for (int k = Math.min(depart, p); k < nbGenerateurs; k++) {
+            cumules[k + 1] = cumules[k] + tries[k];
+        }
+    }
+
+    /**
+     * @return le coût de l'état préparé
+     */
+    public double cout() {
+        if (nbGenerateurs == 0) return 0.0;
+        return sommeEcarts(cumules[nbGenerateurs] / nbGenerateurs) + lambda * (nbSurcharges > 0 ? surcharge : 0.0);
+    }
+
+    /**
+     * Coût après chacun des k premiers déplacements. Une demande passe de
+     * depuis[i] à vers[i] ; depuis[i] vaut -1 pour une maison non connectée.
+     *
+     * @param depuis générateur de départ de chaque déplacement (-1 = aucun)
+     * @param vers générateur d'arrivée de chaque déplacement
+     * @param demandes demande déplacée
+     * @param k nombre de déplacements
+     * @param couts reçoit le coût après chaque déplacement
+     */
+    public void evaluer(int[] depuis, int[] vers, int[] demandes, int k, double[] couts) {
+        if (tauxDepart.length < k) {
+            tauxDepart = new double[k];
+            tauxArrivee = new double[k];
+            deltaSurcharge = new double[k];
+            deltaNombre = new int[k];
+        }
+
+        // Nouveaux taux et termes de surcharge, déplacement par déplacement
+        for (int i = 0; i < k; i++) {
+            int a = depuis[i];
+            int b = vers[i];
+            double delta = 0.0;
+            int nombre = 0;
+            if (a >= 0 && a != b) {
+                int avant = charges[a];
+                int apres = avant - demandes[i];
+                tauxDepart[i] = taux(apres, capacites[a]);
+                double tAvant = termeSurcharge(avant, capacites[a]);
+                double tApres = termeSurcharge(apres, capacites[a]);
+                delta += tApres - tAvant;
+                nombre += signe(tApres) - signe(tAvant);
+            }
+            if (a != b) {
+                int avant = charges[b];
+                int apres = avant + demandes[i];
+                tauxArrivee[i] = taux(apres, capacites[b]);
+                double tAvant = termeSurcharge(avant, capacites[b]);
+                double tApres = termeSurcharge(apres, capacites[b]);
+                delta += tApres - tAvant;
+                nombre += signe(tApres) - signe(tAvant);
+            }
+            deltaSurcharge[i] = delta;
+            deltaNombre[i] = nombre;
+        }
+
+        // Dispersion autour de la nouvelle moyenne
+        double total = cumules[nbGenerateurs];
+        double coutActuel = cout();
+        for (int i = 0; i < k; i++) {
+            int a = depuis[i];
+            int b = vers[i];
+            if (a == b) {
+                couts[i] = coutActuel;
+                continue;
+            }
+            double tA = (a >= 0) ? actuels[a] : 0.0;
+            double tB = actuels[b];
+            double nouveauTotal = total + tauxArrivee[i] - tB;
+            if (a >= 0) nouveauTotal += tauxDepart[i] - tA;
+            double moyenne = nouveauTotal / nbGenerateurs;
+
+            double dispersion = sommeEcarts(moyenne)
+                    + Math.abs(tauxArrivee[i] - moyenne) - Math.abs(tB - moyenne);
+            if (a >= 0) dispersion += Math.abs(tauxDepart[i] - moyenne) - Math.abs(tA - moyenne);
+
+            double s = (nbSurcharges + deltaNombre[i] > 0) ? surcharge + deltaSurcharge[i] : 0.0;
+            couts[i] = dispersion + lambda * s;
+        }
+    }
+
+    /**
+     * Σ | taux_i - m | sur les taux préparés, par dichotomie.
+     */
+    private double sommeEcarts(double m) {
+        int bas = premierRang(m);
+        double inferieurs = cumules[bas];
+        double superieurs = cumules[nbGenerateurs] - inferieurs;
+        return (m * bas - inferieurs) + (superieurs - m * (nbGenerateurs - bas));
+    }
+
+    /**
+     * @return le nombre de taux préparés strictement inférieurs à m
+     */
+    private int premierRang(double m) {
+        int bas = 0, haut = nbGenerateurs;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (tries[milieu] < m) bas = milieu + 1;
+            else haut = milieu;
+        }
+        return bas;
+    }
+
+    private static double taux(int charge, int capacite) {
+        return (capacite > 0) ? (double) charge / capacite : 0.0;
+    }
+
+    private static double termeSurcharge(int charge, int capacite) {
+        if (capacite > 0 && charge > capacite) {
+            return (double) (charge - capacite) / capacite;
+        }
+        return 0.0;
+    }
+
+    private static int signe(double terme) {
+        return (terme > 0) ? 1 : 0;
+    }
+}
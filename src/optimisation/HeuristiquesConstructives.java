@@ -0,0 +1,522 @@
+package optimisation;
+
+import java.util.*;
+
+
+/**
+ * Construction d'une affectation maisons -> générateurs selon une
+ * {@link StrategieDemarrage}.
+ *
+ * Les générateurs sont rangés par capacité restante dans un TreeSet (ou par
+ * taux d'utilisation dans une file de priorité) : chaque maison est placée en
+ * O(log G). Les clés sont des long (capacité restante sur 32 bits, rang
+ * aléatoire du générateur sur 32 bits), ce qui départage les égalités
+ * différemment à chaque appel.
+ *
+ * Seules les maisons connectées (affectation >= 0) sont placées ; les autres
+ * restent non connectées.
+ *
+ * Les générateurs de chaque maison peuvent être restreints à une liste de
+ * candidats (ses k générateurs les plus proches, par exemple) : chaque
+ * maison est alors placée sur l'un de ses candidats, choisi en O(k).
+ */
+final class HeuristiquesConstructives {
+
+    static final int MAX_GROUPES = 32;
+
+    private HeuristiquesConstructives() {
+    }
+
+
+    /**
+     * @param strategie heuristique à appliquer
+     * @param demandes demande de chaque maison
+     * @param capacites capacité de chaque générateur (au moins un)
+     * @param affectation affectation actuelle (-1 = non connectée), non modifiée
+     * @param random source d'aléa pour les égalités
+     * @return la nouvelle affectation
+     */
+    static int[] construire(StrategieDemarrage strategie, int[] demandes, int[] capacites,
+                            int[] affectation, Random random) {
+        return construire(strategie, demandes, capacites, affectation, null, 0, random);
+    }
+
+    /**
+     * Même chose que {@link #construire(StrategieDemarrage, int[], int[], int[], Random)},
+     * chaque maison n'étant placée que sur l'un de ses générateurs candidats.
+     *
+     * @param candidats candidats de chaque maison à la suite, ceux de la
+     *        maison i commençant à l'indice i * nbCandidats ; null pour
+     *        tous les générateurs
+     * @param nbCandidats nombre de candidats par maison
+     */
+    static int[] construire(StrategieDemarrage strategie, int[] demandes, int[] capacites,
+                            int[] affectation, int[] candidats, int nbCandidats, Random random) {
+        int[] resultat = affectation.clone();
+        int[] rang = permutation(capacites.length, random);
+        if (candidats != null) {
+            construireParmi(strategie, demandes, capacites, affectation, candidats, nbCandidats,
+                            rang, resultat, random);
+            return resultat;
+        }
+
+        switch (strategie) {
+            case ALEATOIRE:
+                for (int i = 0; i < resultat.length; i++) {
+                    if (resultat[i] >= 0) resultat[i] = random.nextInt(capacites.length);
+                }
+                break;
+            case MEILLEUR_AJUSTEMENT:
+                meilleurAjustement(ordreDecroissant(demandes, affectation, random),
+                        demandes, capacites, rang, resultat);
+                break;
+            case MOINS_CHARGE:
+                moinsCharge(ordreDecroissant(demandes, affectation, random),
+                        demandes, capacites, rang, resultat);
+                break;
+            case REGRET:
+                regret(demandes, capacites, rang, affectation, resultat, random);
+                break;
+        }
+        return resultat;
+    }
+
+
+    /**
+     * Best-fit décroissant : le générateur de plus petite capacité restante
+     * suffisante, ou à défaut celui qui a le plus de capacité restante.
+     */
+    private static void meilleurAjustement(List<Integer> ordre, int[] demandes, int[] capacites,
+                                           int[] rang, int[] resultat) {
+        CapacitesRestantes libres = new CapacitesRestantes(capacites, rang);
+        for (int i : ordre) {
+            int g = libres.meilleur(demandes[i]);
+            libres.placer(g, demandes[i]);
+            resultat[i] = g;
+        }
+    }
+
+    /**
+     * Worst-fit par taux : le générateur dont le taux d'utilisation est le
+     * plus faible. Les générateurs de capacité nulle ne sont utilisés que
+     * s'il n'y en a pas d'autre.
+     */
+    private static void moinsCharge(List<Integer> ordre, int[] demandes, int[] capacites,
+                                    int[] rang, int[] resultat) {
+        int[] charges = new int[capacites.length];
+        boolean aucunePositive = Arrays.stream(capacites).noneMatch(c -> c > 0);
+
+        Comparator<Integer> parTaux = Comparator
+                .comparingDouble((Integer g) -> capacites[g] > 0
+                        ? (double) charges[g] / capacites[g] : charges[g])
+                .thenComparingInt(g -> rang[g]);
+        PriorityQueue<Integer> file = new PriorityQueue<>(parTaux);
+        for (int g = 0; g < capacites.length; g++) {
+            if (capacites[g] > 0 || aucunePositive) file.add(g);
+        }
+
+        for (int i : ordre) {
+            int g = file.poll();
+            charges[g] += demandes[i];
+            file.add(g);
+            resultat[i] = g;
+        }
+    }
+
+    /**
+     * Insertion par regret. Le coût d'insertion d'une maison de demande d sur
+     * un générateur est la variation de sa part dans le coût final visé :
+     * |taux - cible| + surcharge, où la cible est le taux commun D / C que
+     * tous les générateurs auraient si la demande totale D était répartie
+     * au prorata des capacités C. Il dépend donc de la capacité et de la
+     * charge du générateur. Le regret est l'écart entre ce coût sur le
+     * deuxième meilleur générateur et sur le meilleur ; à chaque étape on
+     * place une maison de regret maximal (à égalité, la plus grosse) sur
+     * son meilleur générateur.
+     *
+     * Les maisons sont regroupées par demande en au plus {@value #MAX_GROUPES}
+     * groupes de demandes voisines (les trois types de
+     * {@link reseau.Consommation} font trois groupes) ; seule la plus grosse
+     * maison restante de chaque groupe est candidate. Chaque groupe range
+     * les générateurs par coût d'insertion de sa plus grande demande (exact
+     * quand le groupe n'a qu'une demande) dans un TreeSet : ses deux
+     * meilleurs sont les deux premiers. Un placement ne change que la
+     * charge d'un générateur, qui est reclassé dans chaque groupe en
+     * O(log G) : une maison est placée en O({@value #MAX_GROUPES} log G),
+     * l'heuristique tourne en O(H log G) après une initialisation en
+     * O(G log G) par groupe.
+     */
+    private static void regret(int[] demandes, int[] capacites, int[] rang,
+                               int[] affectation, int[] resultat, Random random) {
+        List<Integer> ordre = ordreDecroissant(demandes, affectation, random);
+        if (ordre.isEmpty()) return;
+
+        InsertionRegret insertion = new InsertionRegret(capacites, rang, cible(ordre, demandes, capacites));
+
+        // Groupes de demandes voisines : plages consécutives de l'ordre décroissant
+        int nbDistinctes = 1;
+        for (int k = 1; k < ordre.size(); k++) {
+            if (demandes[ordre.get(k)] != demandes[ordre.get(k - 1)]) nbDistinctes++;
+        }
+        int nbGroupes = Math.min(nbDistinctes, MAX_GROUPES);
+        int[] tete = new int[nbGroupes];
+        int[] fin = new int[nbGroupes];
+        int distincte = 0;
+        int groupe = 0;
+        for (int k = 1; k <= ordre.size(); k++) {
+            if (k == ordre.size() || demandes[ordre.get(k)] != demandes[ordre.get(k - 1)]) {
+                distincte++;
+                int suivant = (int) ((long) distincte * nbGroupes / nbDistinctes);
+                if (suivant > groupe) {
+                    fin[groupe] = k;
+                    if (groupe + 1 < nbGroupes) tete[groupe + 1] = k;
+                    groupe = suivant;
+                }
+            }
+        }
+
+        List<TreeSet<Integer>> parCout = new ArrayList<>();
+        double[][] couts = new double[nbGroupes][capacites.length];
+        int[] demandeGroupe = new int[nbGroupes];
+        for (int k = 0; k < nbGroupes; k++) {
+            demandeGroupe[k] = demandes[ordre.get(tete[k])];
+            double[] c = couts[k];
+            TreeSet<Integer> generateurs = new TreeSet<>((a, b) -> {
+                int cmp = Double.compare(c[a], c[b]);
+                return (cmp != 0) ? cmp : Integer.compare(rang[a], rang[b]);
+            });
+            for (int g = 0; g < capacites.length; g++) {
+                c[g] = insertion.cout(g, demandeGroupe[k]);
+                generateurs.add(g);
+            }
+            parCout.add(generateurs);
+        }
+
+        for (int n = 0; n < ordre.size(); n++) {
+            int choix = -1;
+            double regretChoix = 0.0;
+            for (int k = 0; k < nbGroupes; k++) {
+                if (tete[k] == fin[k]) continue;
+                TreeSet<Integer> generateurs = parCout.get(k);
+                int premier = generateurs.first();
+                Integer deuxieme = generateurs.higher(premier);
+                double regret = (deuxieme != null) ? couts[k][deuxieme] - couts[k][premier] : 0.0;
+                if (choix < 0 || regret > regretChoix) {
+                    choix = k;
+                    regretChoix = regret;
+                }
+            }
+            int i = ordre.get(tete[choix]++);
+            int g = parCout.get(choix).first();
+            insertion.placer(g, demandes[i]);
+            resultat[i] = g;
+
+            for (int k = 0; k < nbGroupes; k++) {
+                if (tete[k] == fin[k]) continue;
+                TreeSet<Integer> generateurs = parCout.get(k);
+                generateurs.remove(g);
+                couts[k][g] = insertion.cout(g, demandeGroupe[k]);
+                generateurs.add(g);
+            }
+        }
+    }
+
+
+    /**
+     * Les mêmes heuristiques, chaque maison choisissant parmi ses k
+     * candidats : best-fit et worst-fit examinent ses candidats en O(k) ;
+     * l'insertion par regret garde pour chaque maison ses deux meilleurs
+     * candidats, et un placement sur g ne réévalue, en O(k + log H), que les
+     * maisons en attente dont l'un des deux meilleurs était g.
+     */
+    private static void construireParmi(StrategieDemarrage strategie, int[] demandes, int[] capacites,
+                                        int[] affectation, int[] candidats, int k, int[] rang,
+                                        int[] resultat, Random random) {
+        switch (strategie) {
+            case ALEATOIRE:
+                for (int i = 0; i < resultat.length; i++) {
+                    if (resultat[i] >= 0) resultat[i] = candidats[i * k + random.nextInt(k)];
+                }
+                break;
+            case MEILLEUR_AJUSTEMENT: {
+                int[] restantes = capacites.clone();
+                for (int i : ordreDecroissant(demandes, affectation, random)) {
+                    int choix = -1;
+                    for (int t = i * k; t < (i + 1) * k; t++) {
+                        int g = candidats[t];
+                        if (choix < 0 || ajusteMieux(restantes[g], rang[g], restantes[choix], rang[choix], demandes[i])) {
+                            choix = g;
+                        }
+                    }
+                    restantes[choix] -= demandes[i];
+                    resultat[i] = choix;
+                }
+                break;
+            }
+            case MOINS_CHARGE: {
+                int[] charges = new int[capacites.length];
+                for (int i : ordreDecroissant(demandes, affectation, random)) {
+                    int choix = -1;
+                    for (int t = i * k; t < (i + 1) * k; t++) {
+                        int g = candidats[t];
+                        if (choix < 0 || moinsChargeQue(g, choix, charges, capacites, rang)) choix = g;
+                    }
+                    charges[choix] += demandes[i];
+                    resultat[i] = choix;
+                }
+                break;
+            }
+            case REGRET:
+                regretParmi(demandes, capacites, rang, affectation, candidats, k, resultat, random);
+                break;
+        }
+    }
+
+    /**
+     * Best-fit : la plus petite capacité restante suffisante, ou à défaut
+     * la plus grande capacité restante, à égalité le plus petit rang.
+     */
+    private static boolean ajusteMieux(int restante, int rang, int restanteChoix, int rangChoix, int demande) {
+        boolean suffit = restante >= demande;
+        boolean suffitChoix = restanteChoix >= demande;
+        if (suffit != suffitChoix) return suffit;
+        if (restante != restanteChoix) return suffit ? restante < restanteChoix : restante > restanteChoix;
+        return rang < rangChoix;
+    }
+
+    /**
+     * Worst-fit par taux ; un générateur de capacité nulle passe après ceux
+     * de capacité positive.
+     */
+    private static boolean moinsChargeQue(int g, int choix, int[] charges, int[] capacites, int[] rang) {
+        boolean positif = capacites[g] > 0;
+        if (positif != capacites[choix] > 0) return positif;
+        double taux = positif ? (double) charges[g] / capacites[g] : charges[g];
+        double tauxChoix = positif ? (double) charges[choix] / capacites[choix] : charges[choix];
+        if (taux != tauxChoix) return taux < tauxChoix;
+        return rang[g] < rang[choix];
+    }
+
+    /**
+     * Insertion par regret restreinte aux candidats (voir
+     * {@link #regret(int[], int[], int[], int[], int[], Random)} pour le coût
+     * d'insertion). Les maisons en attente sont rangées par regret
+     * décroissant, puis dans l'ordre décroissant des demandes.
+     */
+    private static void regretParmi(int[] demandes, int[] capacites, int[] rang, int[] affectation,
+                                    int[] candidats, int k, int[] resultat, Random random) {
+        List<Integer> ordre = ordreDecroissant(demandes, affectation, random);
+        if (ordre.isEmpty()) return;
+        InsertionRegret insertion = new InsertionRegret(capacites, rang, cible(ordre, demandes, capacites));
+
+        int n = affectation.length;
+        int[] position = new int[n];
+        for (int p = 0; p < ordre.size(); p++) position[ordre.get(p)] = p;
+
+        // Maisons en attente ayant g pour candidat : voisines[debut[g]..debut[g + 1])
+        int[] debut = new int[capacites.length + 1];
+        for (int i : ordre) {
+            for (int t = i * k; t < (i + 1) * k; t++) debut[candidats[t] + 1]++;
+        }
+        for (int g = 0; g < capacites.length; g++) debut[g + 1] += debut[g];
+        int[] voisines = new int[debut[capacites.length]];
+        int[] remplies = Arrays.copyOf(debut, capacites.length);
+        for (int i : ordre) {
+            for (int t = i * k; t < (i + 1) * k; t++) voisines[remplies[candidats[t]]++] = i;
+        }
+
+        int[] meilleur = new int[n];
+        int[] second = new int[n];
+        double[] coutMeilleur = new double[n];
+        double[] coutSecond = new double[n];
+        TreeSet<Integer> attente = new TreeSet<>((a, b) -> {
+            int c = Double.compare(coutSecond[b] - coutMeilleur[b], coutSecond[a] - coutMeilleur[a]);
+            return (c != 0) ? c : Integer.compare(position[a], position[b]);
+        });
+        boolean[] enAttente = new boolean[n];
+        for (int i : ordre) {
+            insertion.evaluer(demandes[i], candidats, i * k, k, i, meilleur, second, coutMeilleur, coutSecond);
+            attente.add(i);
+            enAttente[i] = true;
+        }
+
+        while (!attente.isEmpty()) {
+            int i = attente.pollFirst();
+            enAttente[i] = false;
+            int g = meilleur[i];
+            insertion.placer(g, demandes[i]);
+            resultat[i] = g;
+
+            for (int p = debut[g]; p < debut[g + 1]; p++) {
+                int j = voisines[p];
+                if (!enAttente[j] || (meilleur[j] != g && second[j] != g)) continue;
+                attente.remove(j);
+                insertion.evaluer(demandes[j], candidats, j * k, k, j, meilleur, second, coutMeilleur, coutSecond);
+                attente.add(j);
+            }
+        }
+    }
+
+    /**
+     * Taux commun D / C visé par l'insertion par regret.
+     */
+    private static double cible(List<Integer> ordre, int[] demandes, int[] capacites) {
+        long demandeTotale = 0;
+        long capaciteTotale = 0;
+        for (int i : ordre) demandeTotale += demandes[i];
+        for (int c : capacites) capaciteTotale += Math.max(c, 0);
+        return (capaciteTotale > 0) ? (double) demandeTotale / capaciteTotale : 0.0;
+    }
+
+
+    /**
+     * Charges des générateurs pendant l'insertion par regret, et coûts
+     * d'insertion par rapport au taux cible.
+     */
+    private static final class InsertionRegret {
+
+        private final int[] capacites;
+        private final int[] rang;
+        private final double cible;
+        private final int[] charges;
+        private final boolean aucunePositive;
+
+        InsertionRegret(int[] capacites, int[] rang, double cible) {
+            this.capacites = capacites;
+            this.rang = rang;
+            this.cible = cible;
+            this.charges = new int[capacites.length];
+            this.aucunePositive = Arrays.stream(capacites).noneMatch(c -> c > 0);
+        }
+
+        /**
+         * Coût d'insertion d'une demande sur g. Un générateur de capacité
+         * nulle ne compte pas dans le coût du réseau : il n'est choisi que
+         * s'il n'y en a pas d'autre, et alors par charge.
+         */
+        double cout(int g, int demande) {
+            int capacite = capacites[g];
+            if (capacite <= 0) {
+                return aucunePositive ? charges[g] + demande : Double.MAX_VALUE;
+            }
+            return part(charges[g] + demande, capacite) - part(charges[g], capacite);
+        }
+
+        private double part(int charge, int capacite) {
+            double taux = (double) charge / capacite;
+            return Math.abs(taux - cible) + Math.max(0.0, taux - 1.0);
+        }
+
+        /**
+         * Range dans les tableaux, à l'indice k, les deux générateurs de plus
+         * petit coût d'insertion pour la demande (égalités départagées par
+         * rang) parmi generateurs[debut..debut + nombre), ou parmi les
+         * nombre premiers si generateurs est null. S'il n'y a qu'un
+         * générateur, le second est le même, de regret nul.
+         */
+        void evaluer(int demande, int[] generateurs, int debut, int nombre, int k,
+                     int[] meilleur, int[] second, double[] coutMeilleur, double[] coutSecond) {
+            int m = -1;
+            int s = -1;
+            double cm = Double.MAX_VALUE;
+            double cs = Double.MAX_VALUE;
+            for (int t = 0; t < nombre; t++) {
+                int g = (generateurs != null) ? generateurs[debut + t] : t;
+                double c = cout(g, demande);
+                if (m < 0 || c < cm || (c == cm && rang[g] < rang[m])) {
+                    s = m;
+                    cs = cm;
+                    m = g;
+                    cm = c;
+                } else if (s < 0 || c < cs || (c == cs && rang[g] < rang[s])) {
+                    s = g;
+                    cs = c;
+                }
+            }
+            meilleur[k] = m;
+            coutMeilleur[k] = cm;
+            second[k] = (s >= 0) ? s : m;
+            coutSecond[k] = (s >= 0) ? cs : cm;
+        }
+
+        void placer(int g, int demande) {
+            charges[g] += demande;
+        }
+    }
+
+
+    /**
+     * Générateurs rangés par capacité restante croissante.
+     */
+    private static final class CapacitesRestantes {
+
+        private final TreeSet<Long> cles = new TreeSet<>();
+        private final int[] restantes;
+        private final int[] rang;
+        private final int[] parRang;
+
+        CapacitesRestantes(int[] capacites, int[] rang) {
+            this.restantes = capacites.clone();
+            this.rang = rang;
+            this.parRang = new int[rang.length];
+            for (int g = 0; g < rang.length; g++) {
+                parRang[rang[g]] = g;
+                cles.add(cle(g));
+            }
+        }
+
+        private long cle(int g) {
+            return ((long) restantes[g] << 32) | rang[g];
+        }
+
+        private int generateur(long cle) {
+            return parRang[(int) (cle & 0xFFFFFFFFL)];
+        }
+
+        /**
+         * @return le générateur de plus petite capacité restante >= demande,
+         *         ou à défaut celui de plus grande capacité restante
+         */
+        int meilleur(int demande) {
+            Long cle = cles.ceiling((long) demande << 32);
+            return generateur(cle != null ? cle : cles.last());
+        }
+
+        void placer(int g, int demande) {
+            cles.remove(cle(g));
+            restantes[g] -= demande;
+            cles.add(cle(g));
+        }
+    }
+
+
+    private static List<Integer> maisonsConnectees(int[] affectation) {
+        List<Integer> maisons = new ArrayList<>();
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] >= 0) maisons.add(i);
+        }
+        return maisons;
+    }
+
+    /**
+     * Maisons connectées par demande décroissante, les égalités en ordre aléatoire.
+     */
+    private static List<Integer> ordreDecroissant(int[] demandes, int[] affectation, Random random) {
+        List<Integer> ordre = maisonsConnectees(affectation);
+        Collections.shuffle(ordre, random);
+        ordre.sort((a, b) -> Integer.compare(demandes[b], demandes[a]));
+        return ordre;
+    }
+
+    private static int[] permutation(int n, Random random) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+}
@@ -0,0 +1,116 @@
+package optimisation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Meilleur coût connu, partagé sans verrou entre des stratégies qui tournent
+ * en parallèle (voir {@link OptimisateurPortefeuille}).
+ *
+ * Le coût est rangé dans un AtomicLong (bits du double) et n'est remplacé
+ * que par un coût plus petit, par compareAndSet. Quand une stratégie atteint
+ * la borne inférieure, la solution est optimale : l'indicateur d'arrêt est
+ * levé et les autres stratégies s'arrêtent dès qu'elles le voient. Sinon,
+ * chaque stratégie compare sa progression au meilleur coût connu pour
+ * abandonner plus tôt une recherche en retard qui ne progresse plus.
+ *
+ * Une stratégie peut aussi publier l'affectation qui atteint ce coût : elle
+ * est copiée (sous verrou, seulement si elle améliore) pour qu'une solution
+ * reste disponible même si la stratégie ne rend pas la main à temps. Les
+ * affectations sont indexées comme les maisons du réseau de départ, le même
+ * pour toutes les stratégies.
+ */
+public final class MeilleurConnu {
+
+    private static final double EPSILON = 1e-12;
+
+    private final AtomicLong bits = new AtomicLong(Double.doubleToLongBits(Double.MAX_VALUE));
+    private final double borne;
+    private volatile boolean arret;
+    private int[] affectation;
+    private double coutAffectation = Double.MAX_VALUE;
+
+
+    /**
+     * @param borne borne inférieure du coût (0 si inconnue)
+     */
+    public MeilleurConnu(double borne) {
+        this.borne = borne;
+    }
+
+    public double getCout() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    public double getBorne() {
+        return borne;
+    }
+
+    /**
+     * Propose un coût. Il est retenu s'il est meilleur que le coût connu.
+     *
+     * @param cout coût d'une solution trouvée
+     * @return true si c'est le nouveau meilleur coût
+     */
+    public boolean proposer(double cout) {
+        long actuel = bits.get();
+        while (cout < Double.longBitsToDouble(actuel)) {
+            if (bits.compareAndSet(actuel, Double.doubleToLongBits(cout))) {
+                if (cout <= borne + EPSILON) {
+                    arreter();
+                }
+                return true;
+            }
+            actuel = bits.get();
+        }
+        return false;
+    }
+
+    /**
+     * Propose un coût et l'affectation qui l'atteint. L'affectation est
+     * copiée si elle est la meilleure publiée jusqu'ici.
+     *
+     * @param cout coût de la solution
+     * @param affectation générateur de chaque maison (-1 = non connectée)
+     * @return true si c'est le nouveau meilleur coût
+     */
+    public boolean proposer(double cout, int[] affectation) {
+        boolean meilleur = proposer(cout);
+        synchronized (this) {
+            if (cout < coutAffectation) {
+                this.affectation = affectation.clone();
+                coutAffectation = cout;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * @return une copie de la meilleure affectation publiée, null si aucune
+     */
+    public synchronized int[] getAffectation() {
+        return (affectation != null) ? affectation.clone() : null;
+    }
+
+    /**
+     * @return le coût de la meilleure affectation publiée (Double.MAX_VALUE si aucune)
+     */
+    public synchronized double getCoutAffectation() {
+        return coutAffectation;
+    }
+
+    /**
+     * @return true si le meilleur coût connu atteint la borne
+     */
+    public boolean optimumAtteint() {
+        return getCout() <= borne + EPSILON;
+    }
+
+    public void arreter() {
+        arret = true;
+    }
+
+    public boolean estArrete() {
+        return arret;
+    }
+}
@@ -0,0 +1,74 @@
+package optimisation;
+
+import java.util.*;
+import reseau.*;
+
+
+/**
+ * Ensemble de modifications apportées à un réseau déjà optimisé.
+ *
+ * Les modifications suivent la même logique que {@link Reseau} :
+ * - ajouter une maison existante met à jour sa consommation,
+ * - ajouter un générateur existant met à jour sa capacité,
+ * - une maison peut être retirée du réseau par son nom.
+ */
+public class ModificationsReseau {
+
+    private final List<Maison> maisonsAjoutees = new ArrayList<>();
+    private final Set<String> maisonsSupprimees = new HashSet<>();
+    private final List<Generateur> generateursAjoutes = new ArrayList<>();
+
+
+    /**
+     * Ajoute une maison, ou met à jour la consommation d'une maison existante.
+     *
+     * @param maison la maison à ajouter
+     * @return cet ensemble de modifications
+     */
+    public ModificationsReseau ajouterMaison(Maison maison) {
+        maisonsSupprimees.remove(maison.getNom());
+        maisonsAjoutees.remove(maison);
+        maisonsAjoutees.add(maison);
+        return this;
+    }
+
+    /**
+     * Retire une maison du réseau.
+     *
+     * @param nom nom de la maison à retirer
+     * @return cet ensemble de modifications
+     */
+    public ModificationsReseau supprimerMaison(String nom) {
+        maisonsAjoutees.remove(new Maison(nom, null));
+        maisonsSupprimees.add(nom);
+        return this;
+    }
+
+    /**
+     * Ajoute un générateur, ou met à jour la capacité d'un générateur existant.
+     *
+     * @param generateur le générateur à ajouter
+     * @return cet ensemble de modifications
+     */
+    public ModificationsReseau ajouterGenerateur(Generateur generateur) {
+        generateursAjoutes.remove(generateur);
+        generateursAjoutes.add(generateur);
+        return this;
+    }
+
+    public List<Maison> getMaisonsAjoutees() {
+        return new ArrayList<>(maisonsAjoutees);
+    }
+
+    public Set<String> getMaisonsSupprimees() {
+        return new HashSet<>(maisonsSupprimees);
+    }
+
+    public List<Generateur> getGenerateursAjoutes() {
+        return new ArrayList<>(generateursAjoutes);
+    }
+
+    public boolean estVide() {
+        return maisonsAjoutees.isEmpty() && maisonsSupprimees.isEmpty() && generateursAjoutes.isEmpty();
+    }
+}
@@ -0,0 +1,450 @@
+package optimisation;
+
+import java.util.*;
+import reseau.*;
+
+
+/**
+ * Recherche adaptative à grand voisinage (ALNS).
+ *
+ * À chaque itération, un opérateur de destruction déconnecte un groupe de
+ * maisons, puis un opérateur de réparation les reconnecte :
+ *
+ * - destruction : maisons tirées au hasard, maisons du générateur le plus
+ *   surchargé, maisons des générateurs qui contribuent le plus au coût ;
+ * - réparation : insertion gloutonne (chaque maison au meilleur générateur),
+ *   insertion par regret (d'abord la maison qui perdrait le plus à ne pas
+ *   aller sur son meilleur générateur).
+ *
+ * Les opérateurs sont tirés à la roulette ; leurs poids sont ajustés tous
+ * les {@value #SEGMENT} itérations selon les solutions qu'ils ont produites.
+ * La nouvelle solution est acceptée selon le critère du recuit simulé.
+ *
+ * En version coopérative, le meilleur coût connu des autres stratégies sert
+ * à couper court : un segment qui s'achève sans nouvelle meilleure solution,
+ * alors que le meilleur connu est meilleur que la nôtre, arrête la
+ * recherche.
+ *
+ * Tout se fait sur un seul {@link EtatAffectation} modifié sur place : une
+ * solution refusée est défaite en remettant les maisons retirées sur leur
+ * ancien générateur. Les tableaux de travail sont alloués une fois par appel.
+ */
+public class OptimisateurALNS implements StrategieOptimisation {
+
+    private static final int SEGMENT = 100;
+    private static final double REACTION = 0.1;
+    private static final double POIDS_MIN = 0.1;
+    private static final double SCORE_MEILLEURE = 33;
+    private static final double SCORE_AMELIORATION = 9;
+    private static final double SCORE_ACCEPTEE = 13;
+    private static final double PART_DETRUITE = 0.3;
+    private static final int DESTRUCTION_MAX = 40;
+    private static final double EPSILON = 1e-12;
+
+    private static final int DESTRUCTION_ALEATOIRE = 0;
+    private static final int DESTRUCTION_PLUS_SURCHARGE = 1;
+    private static final int DESTRUCTION_PIRES_GENERATEURS = 2;
+    private static final int REPARATION_GLOUTONNE = 0;
+    private static final int REPARATION_REGRET = 1;
+
+    private final Random random;
+    private MeilleurConnu partage;
+    private int nombreIterations;
+
+    private EtatAffectation etat;
+    private int[] connectees;
+    private int[] retirees;
+    private int[] anciens;
+    private int nbRetirees;
+    private int[] tampon;
+
+    // Voisinage d'une maison (tous les générateurs), évalué par lot
+    private final EvaluateurLot lot = new EvaluateurLot();
+    private int[] depuis;
+    private int[] vers;
+    private int[] demandesLot;
+    private double[] coutsLot;
+
+    private final double[] poidsDestruction = new double[3];
+    private final double[] scoresDestruction = new double[3];
+    private final int[] usagesDestruction = new int[3];
+    private final double[] poidsReparation = new double[2];
+    private final double[] scoresReparation = new double[2];
+    private final int[] usagesReparation = new int[2];
+
+
+    public OptimisateurALNS() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source d'aléa (une graine fixe donne des résultats reproductibles)
+     */
+    public OptimisateurALNS(Random random) {
+        this.random = random;
+    }
+
+
+    /**
+     * @param reseau réseau de départ (non modifié)
+     * @param iterations nombre d'itérations destruction/réparation
+     * @return la meilleure solution trouvée
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int iterations) {
+        etat = new EtatAffectation(reseau);
+        connectees = maisonsConnectees(etat);
+        nombreIterations = 0;
+        if (connectees.length == 0 || etat.nombreGenerateurs() < 2 || iterations <= 0) {
+            return etat.versReseau();
+        }
+
+        retirees = new int[connectees.length];
+        anciens = new int[connectees.length];
+        tampon = new int[etat.nombreMaisons()];
+        int nbGenerateurs = etat.nombreGenerateurs();
+        depuis = new int[nbGenerateurs];
+        vers = new int[nbGenerateurs];
+        demandesLot = new int[nbGenerateurs];
+        coutsLot = new double[nbGenerateurs];
+        for (int g = 0; g < nbGenerateurs; g++) vers[g] = g;
+        Arrays.fill(poidsDestruction, 1.0);
+        Arrays.fill(poidsReparation, 1.0);
+        Arrays.fill(scoresDestruction, 0.0);
+        Arrays.fill(scoresReparation, 0.0);
+        Arrays.fill(usagesDestruction, 0);
+        Arrays.fill(usagesReparation, 0);
+
+        int[] meilleure = etat.affectation.clone();
+        double meilleurCout = etat.cout();
+        double coutCourant = meilleurCout;
+        double temperature = Math.max(1e-9, 0.05 * coutCourant / Math.log(2));
+        double refroidissement = Math.pow(0.001, 1.0 / iterations);
+        int tailleMax = Math.max(1, Math.min(DESTRUCTION_MAX, (int) (PART_DETRUITE * connectees.length)));
+        boolean meilleureDansSegment = false;
+
+        for (int it = 0; it < iterations; it++) {
+            if (partage != null && partage.estArrete()) break;
+            nombreIterations++;
+            int d = roulette(poidsDestruction);
+            int r = roulette(poidsReparation);
+
+            nbRetirees = 0;
+            detruire(d, 1 + random.nextInt(tailleMax));
+            reparer(r);
+            double cout = etat.cout();
+
+            double score;
+            if (cout < meilleurCout - EPSILON) {
+                meilleurCout = cout;
+                coutCourant = cout;
+                System.arraycopy(etat.affectation, 0, meilleure, 0, meilleure.length);
+                if (partage != null) partage.proposer(cout, meilleure);
+                meilleureDansSegment = true;
+                score = SCORE_MEILLEURE;
+            } else if (cout < coutCourant - EPSILON) {
+                coutCourant = cout;
+                score = SCORE_AMELIORATION;
+            } else if (random.nextDouble() < Math.exp((coutCourant - cout) / temperature)) {
+                coutCourant = cout;
+                score = SCORE_ACCEPTEE;
+            } else {
+                restaurer();
+                score = 0;
+            }
+
+            scoresDestruction[d] += score;
+            usagesDestruction[d]++;
+            scoresReparation[r] += score;
+            usagesReparation[r]++;
+            temperature *= refroidissement;
+
+            if ((it + 1) % SEGMENT == 0) {
+                ajusterPoids(poidsDestruction, scoresDestruction, usagesDestruction);
+                ajusterPoids(poidsReparation, scoresReparation, usagesReparation);
+                if (partage != null && !meilleureDansSegment && partage.getCout() < meilleurCout - EPSILON) break;
+                meilleureDansSegment = false;
+            }
+        }
+
+        etat.affecter(meilleure);
+        return etat.versReseau();
+    }
+
+
+    /**
+     * Version coopérative : chaque nouvelle meilleure solution est publiée
+     * dans partage, et les itérations s'arrêtent dès que l'arrêt est demandé
+     * ou qu'un segment s'achève sans nouvelle meilleure solution alors que
+     * le meilleur coût connu de partage est meilleur.
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int iterations, MeilleurConnu partage) {
+        this.partage = partage;
+        try {
+            Reseau resultat = optimiser(reseau, iterations);
+            partage.proposer(resultat.calculerCout());
+            return resultat;
+        } finally {
+            this.partage = null;
+        }
+    }
+
+    /**
+     * @return le nombre d'itérations effectuées lors du dernier appel
+     */
+    public int getNombreIterations() {
+        return nombreIterations;
+    }
+
+
+    // ----- Destruction -----
+
+    private void detruire(int operateur, int taille) {
+        switch (operateur) {
+            case DESTRUCTION_PLUS_SURCHARGE:
+                retirerDuGenerateur(plusSurcharge());
+                break;
+            case DESTRUCTION_PIRES_GENERATEURS:
+                retirerDesPiresGenerateurs(taille);
+                break;
+            default:
+                retirerAleatoires(taille);
+        }
+        if (nbRetirees == 0) {
+            retirerAleatoires(taille);
+        }
+    }
+
+    private void retirerAleatoires(int taille) {
+        for (int j = 0; j < taille && j < connectees.length; j++) {
+            int k = j + random.nextInt(connectees.length - j);
+            int m = connectees[k];
+            connectees[k] = connectees[j];
+            connectees[j] = m;
+            retirer(m);
+        }
+    }
+
+    /**
+     * Retire toutes les maisons du générateur (au plus {@value #DESTRUCTION_MAX}).
+     */
+    private void retirerDuGenerateur(int g) {
+        int n = maisonsDe(g, -1);
+        retirerParmi(n, DESTRUCTION_MAX);
+    }
+
+    /**
+     * Retire des maisons prises sur les deux générateurs de plus forte contribution au coût.
+     */
+    private void retirerDesPiresGenerateurs(int taille) {
+        int premier = -1, second = -1;
+        double c1 = -1, c2 = -1;
+        for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+            double c = etat.contribution(g);
+            if (c > c1) {
+                second = premier;
+                c2 = c1;
+                premier = g;
+                c1 = c;
+            } else if (c > c2) {
+                second = g;
+                c2 = c;
+            }
+        }
+        int n = maisonsDe(premier, second);
+        retirerParmi(n, taille);
+    }
+
+    /**
+     * Retire au plus taille maisons tirées parmi les n premières du tampon.
+     */
+    private void retirerParmi(int n, int taille) {
+        for (int j = 0; j < taille && j < n; j++) {
+            int k = j + random.nextInt(n - j);
+            int m = tampon[k];
+            tampon[k] = tampon[j];
+            tampon[j] = m;
+            retirer(m);
+        }
+    }
+
+    private int plusSurcharge() {
+        int pire = 0;
+        for (int g = 1; g < etat.nombreGenerateurs(); g++) {
+            if (etat.taux(g) > etat.taux(pire)) pire = g;
+        }
+        return pire;
+    }
+
+    /**
+     * Range dans le tampon les maisons des générateurs a et b (b peut valoir
+     * -1), en parcourant leurs seules listes.
+     *
+     * @return le nombre de maisons trouvées
+     */
+    private int maisonsDe(int a, int b) {
+        int n = 0;
+        for (int i = etat.premiereMaison(a); i >= 0; i = etat.maisonSuivante(i)) tampon[n++] = i;
+        if (b >= 0) {
+            for (int i = etat.premiereMaison(b); i >= 0; i = etat.maisonSuivante(i)) tampon[n++] = i;
+        }
+        return n;
+    }
+
+    private void retirer(int m) {
+        retirees[nbRetirees] = m;
+        anciens[nbRetirees] = etat.affectation[m];
+        nbRetirees++;
+        etat.retirer(m);
+    }
+
+    /**
+     * Remet chaque maison retirée sur son ancien générateur.
+     */
+    private void restaurer() {
+        for (int j = nbRetirees - 1; j >= 0; j--) {
+            etat.deplacer(retirees[j], anciens[j]);
+        }
+    }
+
+
+    // ----- Réparation -----
+
+    private void reparer(int operateur) {
+        System.arraycopy(retirees, 0, tampon, 0, nbRetirees);
+        if (operateur == REPARATION_REGRET) {
+            insererParRegret(nbRetirees);
+        } else {
+            insererGlouton(nbRetirees);
+        }
+    }
+
+    private void insererGlouton(int n) {
+        for (int j = n - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            int t = tampon[j];
+            tampon[j] = tampon[k];
+            tampon[k] = t;
+        }
+        etat.preparer(lot);
+        for (int j = 0; j < n; j++) {
+            int m = tampon[j];
+            placer(m, meilleurGenerateur(m));
+        }
+    }
+
+    /**
+     * Regret-2 : à chaque étape, on place la maison dont l'écart de coût entre
+     * son deuxième meilleur et son meilleur générateur est le plus grand.
+     * Le lot est préparé une fois par réparation, puis actualisé après
+     * chaque placement.
+     */
+    private void insererParRegret(int n) {
+        int restantes = n;
+        etat.preparer(lot);
+        while (restantes > 0) {
+            int choix = 0;
+            int cible = -1;
+            double regretMax = -1;
+            for (int j = 0; j < restantes; j++) {
+                int m = tampon[j];
+                double premier = Double.MAX_VALUE, second = Double.MAX_VALUE;
+                int meilleur = 0;
+                evaluerVoisinage(m);
+                for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+                    double cout = coutsLot[g];
+                    if (cout < premier) {
+                        second = premier;
+                        premier = cout;
+                        meilleur = g;
+                    } else if (cout < second) {
+                        second = cout;
+                    }
+                }
+                double regret = second - premier;
+                if (regret > regretMax) {
+                    regretMax = regret;
+                    choix = j;
+                    cible = meilleur;
+                }
+            }
+            placer(tampon[choix], cible);
+            tampon[choix] = tampon[--restantes];
+        }
+    }
+
+    /**
+     * Connecte une maison retirée et répercute la nouvelle charge sur le lot.
+     */
+    private void placer(int m, int g) {
+        etat.deplacer(m, g);
+        lot.actualiser(g, etat.charges[g]);
+    }
+
+    /**
+     * Le lot doit avoir été préparé sur l'état actuel.
+     */
+    private int meilleurGenerateur(int m) {
+        int meilleur = 0;
+        double meilleurCout = Double.MAX_VALUE;
+        evaluerVoisinage(m);
+        for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+            double cout = coutsLot[g];
+            if (cout < meilleurCout) {
+                meilleurCout = cout;
+                meilleur = g;
+            }
+        }
+        return meilleur;
+    }
+
+
+    /**
+     * Coût après déplacement de la maison vers chaque générateur, dans coutsLot.
+     */
+    private void evaluerVoisinage(int m) {
+        int nbGenerateurs = etat.nombreGenerateurs();
+        Arrays.fill(depuis, 0, nbGenerateurs, etat.affectation[m]);
+        Arrays.fill(demandesLot, 0, nbGenerateurs, etat.demandes[m]);
+        lot.evaluer(depuis, vers, demandesLot, nbGenerateurs, coutsLot);
+    }
+
+
+    // ----- Poids adaptatifs -----
+
+    private int roulette(double[] poids) {
+        double total = 0;
+        for (double p : poids) total += p;
+        double tirage = random.nextDouble() * total;
+        for (int i = 0; i < poids.length - 1; i++) {
+            tirage -= poids[i];
+            if (tirage < 0) return i;
+        }
+        return poids.length - 1;
+    }
+
+    private static void ajusterPoids(double[] poids, double[] scores, int[] usages) {
+        for (int i = 0; i < poids.length; i++) {
+            if (usages[i] > 0) {
+                poids[i] = (1 - REACTION) * poids[i] + REACTION * scores[i] / usages[i];
+                poids[i] = Math.max(POIDS_MIN, poids[i]);
+            }
+            scores[i] = 0;
+            usages[i] = 0;
+        }
+    }
+
+    private static int[] maisonsConnectees(EtatAffectation etat) {
+        int n = 0;
+        for (int g : etat.affectation) {
+            if (g >= 0) n++;
+        }
+        int[] maisons = new int[n];
+        n = 0;
+        for (int i = 0; i < etat.affectation.length; i++) {
+            if (etat.affectation[i] >= 0) maisons[n++] = i;
+        }
+        return maisons;
+    }
+}
@@ -0,0 +1,327 @@
+package optimisation;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import reseau.*;
+
+
+/**
+ * Optimisation par décomposition, pour les très grands réseaux.
+ *
+ * 1. Les générateurs sont répartis en groupes de capacités totales
+ *    équilibrées (le plus gros générateur restant va au groupe le moins
+ *    doté).
+ * 2. Les maisons connectées sont réparties entre les groupes de façon à
+ *    égaliser leur taux d'utilisation moyen (la plus grosse maison restante
+ *    va au groupe de plus faible taux).
+ * 3. Chaque groupe forme un sous-réseau, optimisé indépendamment des
+ *    autres sur le pool de threads fourni.
+ * 4. Coordination : la dispersion dépend de la moyenne globale des taux,
+ *    que les sous-problèmes ignorent. Sur le réseau entier, on déplace
+ *    alors des maisons du générateur le plus utilisé vers le moins utilisé
+ *    (quel que soit leur groupe) tant que le coût baisse.
+ *
+ * Les maisons non connectées restent non connectées. Si la solution obtenue
+ * est moins bonne que le réseau de départ, c'est une copie de celui-ci qui
+ * est retournée.
+ */
+public class OptimisateurDecomposition implements StrategieOptimisation {
+
+    private static final int GENERATEURS_PAR_GROUPE = 16;
+    private static final double EPSILON = 1e-12;
+
+    private final ExecutorService pool;
+    private Supplier<StrategieOptimisation> strategie = OptimisateurALNS::new;
+    private int nombreGroupes;
+    private int derniersDeplacements;
+
+
+    /**
+     * @param pool pool de threads où sont résolus les sous-problèmes
+     *        (il n'est pas arrêté par l'optimiseur)
+     */
+    public OptimisateurDecomposition(ExecutorService pool) {
+        this.pool = pool;
+    }
+
+
+    /**
+     * @param reseau réseau de départ (non modifié)
+     * @param effort effort passé à la stratégie de chaque sous-problème
+     * @return la meilleure solution trouvée
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int effort) {
+        EtatAffectation etat = new EtatAffectation(reseau);
+        double coutInitial = etat.cout();
+        int[] initiale = etat.affectation.clone();
+        int nbGroupes = Math.min(nombreGroupesEffectif(etat.nombreGenerateurs()), etat.nombreGenerateurs());
+        if (nbGroupes < 1) {
+            return etat.versReseau();
+        }
+
+        int[] groupeGenerateur = repartirGenerateurs(etat.capacites, nbGroupes);
+        int[] groupeMaison = repartirMaisons(etat, groupeGenerateur, nbGroupes);
+        etat.affecter(resoudreSousProblemes(etat, groupeGenerateur, groupeMaison, nbGroupes, effort));
+        derniersDeplacements = coordonner(etat);
+
+        if (etat.cout() > coutInitial) {
+            etat.affecter(initiale);
+        }
+        return etat.versReseau();
+    }
+
+
+    /**
+     * Choisit la stratégie utilisée sur chaque sous-problème (une nouvelle
+     * instance par sous-problème). Par défaut : {@link OptimisateurALNS}.
+     */
+    public void setStrategie(Supplier<StrategieOptimisation> strategie) {
+        this.strategie = Objects.requireNonNull(strategie);
+    }
+
+    /**
+     * @param nombreGroupes nombre de sous-problèmes, 0 pour un choix automatique
+     *        (un groupe par {@value #GENERATEURS_PAR_GROUPE} générateurs)
+     */
+    public void setNombreGroupes(int nombreGroupes) {
+        if (nombreGroupes < 0) {
+            throw new IllegalArgumentException("Le nombre de groupes doit être positif");
+        }
+        this.nombreGroupes = nombreGroupes;
+    }
+
+    public int getNombreGroupes() {
+        return nombreGroupes;
+    }
+
+    /**
+     * @return le nombre de maisons déplacées par la phase de coordination
+     *         lors de la dernière optimisation
+     */
+    public int getDerniersDeplacements() {
+        return derniersDeplacements;
+    }
+
+    private int nombreGroupesEffectif(int nbGenerateurs) {
+        if (nombreGroupes > 0) return nombreGroupes;
+        return Math.max(1, nbGenerateurs / GENERATEURS_PAR_GROUPE);
+    }
+
+
+    // ----- Partition -----
+
+    /**
+     * @return le groupe de chaque générateur, capacités totales équilibrées
+     *         (à égalité, le groupe qui a le moins de générateurs)
+     */
+    static int[] repartirGenerateurs(int[] capacites, int nbGroupes) {
+        Integer[] ordre = new Integer[capacites.length];
+        for (int g = 0; g < ordre.length; g++) ordre[g] = g;
+        Arrays.sort(ordre, (a, b) -> Integer.compare(capacites[b], capacites[a]));
+
+        long[] totaux = new long[nbGroupes];
+        int[] effectifs = new int[nbGroupes];
+        PriorityQueue<Integer> file = new PriorityQueue<>(
+                Comparator.comparingLong((Integer k) -> totaux[k])
+                        .thenComparingInt(k -> effectifs[k])
+                        .thenComparingInt(k -> k));
+        for (int k = 0; k < nbGroupes; k++) file.add(k);
+
+        int[] groupe = new int[capacites.length];
+        for (int g : ordre) {
+            int k = file.poll();
+            groupe[g] = k;
+            totaux[k] += capacites[g];
+            effectifs[k]++;
+            file.add(k);
+        }
+        return groupe;
+    }
+
+    /**
+     * @return le groupe de chaque maison connectée (-1 pour les autres),
+     *         taux moyens des groupes équilibrés
+     */
+    private static int[] repartirMaisons(EtatAffectation etat, int[] groupeGenerateur, int nbGroupes) {
+        long[] capacites = new long[nbGroupes];
+        for (int g = 0; g < groupeGenerateur.length; g++) {
+            capacites[groupeGenerateur[g]] += Math.max(0, etat.capacites[g]);
+        }
+        long[] charges = new long[nbGroupes];
+        PriorityQueue<Integer> file = new PriorityQueue<>(
+                Comparator.comparingDouble((Integer k) -> capacites[k] > 0
+                        ? (double) charges[k] / capacites[k] : Double.MAX_VALUE)
+                        .thenComparingInt(k -> k));
+        for (int k = 0; k < nbGroupes; k++) file.add(k);
+
+        Integer[] ordre = new Integer[etat.nombreMaisons()];
+        for (int i = 0; i < ordre.length; i++) ordre[i] = i;
+        Arrays.sort(ordre, (a, b) -> Integer.compare(etat.demandes[b], etat.demandes[a]));
+
+        int[] groupe = new int[etat.nombreMaisons()];
+        for (int i : ordre) {
+            if (etat.affectation[i] < 0) {
+                groupe[i] = -1;
+                continue;
+            }
+            int k = file.poll();
+            groupe[i] = k;
+            charges[k] += etat.demandes[i];
+            file.add(k);
+        }
+        return groupe;
+    }
+
+
+    // ----- Sous-problèmes -----
+
+    /**
+     * Construit et résout un sous-réseau par groupe, en parallèle.
+     *
+     * @return l'affectation globale assemblée à partir des sous-solutions
+     */
+    private int[] resoudreSousProblemes(EtatAffectation etat, int[] groupeGenerateur, int[] groupeMaison,
+                                        int nbGroupes, int effort) {
+        List<List<Integer>> generateurs = membres(groupeGenerateur, nbGroupes);
+        List<List<Integer>> maisons = membres(groupeMaison, nbGroupes);
+
+        List<Future<Reseau>> taches = new ArrayList<>();
+        for (int k = 0; k < nbGroupes; k++) {
+            Reseau sousReseau = sousReseau(etat, generateurs.get(k), maisons.get(k));
+            StrategieOptimisation s = strategie.get();
+            taches.add(pool.submit(() -> s.optimiser(sousReseau, effort)));
+        }
+
+        int[] affectation = etat.affectation.clone();
+        try {
+            for (int k = 0; k < nbGroupes; k++) {
+                Reseau resultat = taches.get(k).get();
+                recopier(resultat, generateurs.get(k), maisons.get(k), affectation);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<Reseau> tache : taches) tache.cancel(true);
+            return etat.affectation.clone();
+        } catch (ExecutionException e) {
+            for (Future<Reseau> tache : taches) tache.cancel(true);
+            throw new IllegalStateException("Échec d'un sous-problème", e.getCause());
+        }
+        return affectation;
+    }
+
+    private static List<List<Integer>> membres(int[] groupe, int nbGroupes) {
+        List<List<Integer>> membres = new ArrayList<>();
+        for (int k = 0; k < nbGroupes; k++) membres.add(new ArrayList<>());
+        for (int i = 0; i < groupe.length; i++) {
+            if (groupe[i] >= 0) membres.get(groupe[i]).add(i);
+        }
+        return membres;
+    }
+
+    /**
+     * Sous-réseau d'un groupe : ses générateurs et ses maisons, placées au
+     * départ par la stratégie du meilleur ajustement.
+     */
+    private static Reseau sousReseau(EtatAffectation etat, List<Integer> generateurs, List<Integer> maisons) {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(etat.lambda);
+        Generateur[] copiesGen = new Generateur[generateurs.size()];
+        int[] capacites = new int[generateurs.size()];
+        for (int j = 0; j < copiesGen.length; j++) {
+            int g = generateurs.get(j);
+            copiesGen[j] = etat.generateurs[g].copie(etat.capacites[g]);
+            capacites[j] = etat.capacites[g];
+            reseau.ajouterGenerateur(copiesGen[j]);
+        }
+
+        int[] demandes = new int[maisons.size()];
+        for (int j = 0; j < demandes.length; j++) {
+            demandes[j] = etat.demandes[maisons.get(j)];
+        }
+        int[] depart = HeuristiquesConstructives.construire(StrategieDemarrage.MEILLEUR_AJUSTEMENT,
+                demandes, capacites, new int[demandes.length], new Random(maisons.size()));
+
+        for (int j = 0; j < demandes.length; j++) {
+            Maison m = etat.maisons[maisons.get(j)];
+            Maison copie = m.copie();
+            reseau.ajouterMaison(copie);
+            reseau.connecter(copie, copiesGen[depart[j]]);
+        }
+        reseau.viderJournal();
+        return reseau;
+    }
+
+    /**
+     * Reporte l'affectation d'un sous-réseau résolu dans l'affectation globale.
+     * Les maisons et générateurs du sous-réseau sont dans l'ordre du groupe.
+     */
+    private static void recopier(Reseau resultat, List<Integer> generateurs, List<Integer> maisons,
+                                 int[] affectation) {
+        Map<Generateur, Integer> index = new HashMap<>();
+        List<Generateur> liste = resultat.getGenerateurs();
+        for (int j = 0; j < liste.size(); j++) {
+            index.put(liste.get(j), generateurs.get(j));
+        }
+        List<Maison> sousMaisons = resultat.getMaisons();
+        for (int j = 0; j < sousMaisons.size(); j++) {
+            Generateur g = resultat.getGenerateurDeMaison(sousMaisons.get(j));
+            if (g != null) affectation[maisons.get(j)] = index.get(g);
+        }
+    }
+
+
+    // ----- Coordination -----
+
+    /**
+     * Déplace des maisons du générateur le plus utilisé vers le moins utilisé
+     * tant que le coût global baisse. Pour chaque déplacement, une seule
+     * maison par valeur de demande est évaluée (elles sont interchangeables).
+     *
+     * @return le nombre de maisons déplacées
+     */
+    private static int coordonner(EtatAffectation etat) {
+        List<List<Integer>> parGenerateur = membres(etat.affectation, etat.nombreGenerateurs());
+        int[] position = new int[etat.nombreMaisons()];
+        for (List<Integer> liste : parGenerateur) {
+            for (int p = 0; p < liste.size(); p++) position[liste.get(p)] = p;
+        }
+
+        int deplacements = 0;
+        Set<Integer> demandesVues = new HashSet<>();
+        while (true) {
+            int chaud = etat.plusUtilise();
+            int froid = etat.moinsUtilise();
+            if (chaud < 0 || chaud == froid) break;
+
+            double cout = etat.cout();
+            int choix = -1;
+            demandesVues.clear();
+            for (int m : parGenerateur.get(chaud)) {
+                if (!demandesVues.add(etat.demandes[m])) continue;
+                double apres = etat.coutApresDeplacement(m, froid);
+                if (apres < cout - EPSILON) {
+                    cout = apres;
+                    choix = m;
+                }
+            }
+            if (choix < 0) break;
+
+            retirerDe(parGenerateur.get(chaud), position, choix);
+            position[choix] = parGenerateur.get(froid).size();
+            parGenerateur.get(froid).add(choix);
+            etat.deplacer(choix, froid);
+            deplacements++;
+        }
+        return deplacements;
+    }
+
+    private static void retirerDe(List<Integer> liste, int[] position, int m) {
+        int dernier = liste.remove(liste.size() - 1);
+        if (dernier != m) {
+            liste.set(position[m], dernier);
+            position[dernier] = position[m];
+        }
+    }
+}
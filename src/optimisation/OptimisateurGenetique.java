@@ -0,0 +1,399 @@
+package optimisation;
+
+import java.util.*;
+import java.util.concurrent.*;
+import reseau.*;
+
+
+/**
+ * Algorithme génétique à îles.
+ *
+ * Chaque île fait évoluer sa propre population d'affectations (un tableau
+ * maison -> générateur par individu) dans sa propre tâche : la première sur
+ * le thread appelant, les autres sur l'exécuteur de l'optimiseur (par
+ * défaut, un pool de threads démons partagé par tous les optimiseurs) :
+ *
+ * - croisement par générateur : pour chaque générateur, l'enfant garde les
+ *   maisons que l'un ou l'autre parent (tiré au hasard) y avait placées ;
+ * - mutation : une ou deux maisons déplacées vers un générateur au hasard ;
+ * - réparation : les maisons d'un générateur surchargé sont déplacées vers
+ *   le générateur qui a le plus de capacité restante, si le coût baisse ;
+ * - remplacement : l'enfant prend la place du pire individu s'il est meilleur.
+ *
+ * Toutes les {@code periodeMigration} générations, les îles s'attendent
+ * (un {@link Phaser}) et chacune envoie ses meilleurs individus à la
+ * suivante (anneau), qui les met à la place de ses pires.
+ *
+ * Les îles s'attendant aux migrations, l'exécuteur doit pouvoir faire
+ * tourner toutes les autres îles en même temps.
+ *
+ * Les génomes sont alloués une fois au départ ; un enfant est construit dans
+ * un tampon puis recopié dans la population s'il y entre.
+ */
+public class OptimisateurGenetique implements StrategieOptimisation {
+
+    private static final StrategieDemarrage[] STRATEGIES_INITIALES = {
+        StrategieDemarrage.MEILLEUR_AJUSTEMENT,
+        StrategieDemarrage.MOINS_CHARGE,
+        StrategieDemarrage.REGRET,
+        StrategieDemarrage.ALEATOIRE
+    };
+
+    private static final ExecutorService ILES = Executors.newCachedThreadPool(tache -> {
+        Thread t = new Thread(tache, "ile");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Random random;
+    private final ExecutorService executeur;
+    private int nombreIles = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private int taillePopulation = 30;
+    private int periodeMigration = 10;
+    private int nombreMigrants = 2;
+
+
+    public OptimisateurGenetique() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source des graines des îles (une graine fixe donne des
+     *        résultats reproductibles)
+     */
+    public OptimisateurGenetique(Random random) {
+        this(random, ILES);
+    }
+
+    /**
+     * @param random source des graines des îles
+     * @param executeur exécute les îles autres que la première ; il doit
+     *        pouvoir en faire tourner nombreIles - 1 en même temps
+     */
+    public OptimisateurGenetique(Random random, ExecutorService executeur) {
+        this.random = random;
+        this.executeur = executeur;
+    }
+
+
+    /**
+     * @param reseau réseau de départ (non modifié)
+     * @param generations nombre de générations de chaque île
+     * @return le meilleur individu de toutes les îles
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int generations) {
+        return evoluer(reseau, generations, null);
+    }
+
+    /**
+     * Version coopérative : chaque île publie son meilleur individu à chaque
+     * génération et s'arrête dès que l'arrêt est demandé, ou quand une
+     * période de migration s'achève sans que son meilleur individu ait
+     * progressé alors que le meilleur coût connu de partage est meilleur.
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int generations, MeilleurConnu partage) {
+        Reseau resultat = evoluer(reseau, generations, partage);
+        partage.proposer(resultat.calculerCout());
+        return resultat;
+    }
+
+    private Reseau evoluer(Reseau reseau, int generations, MeilleurConnu partage) {
+        EtatAffectation depart = new EtatAffectation(reseau);
+        if (depart.nombreGenerateurs() < 2 || generations <= 0) {
+            return depart.versReseau();
+        }
+
+        Ile[] iles = new Ile[nombreIles];
+        int[][][] sortants = new int[nombreIles][nombreMigrants][];
+        Phaser barriere = new Phaser(nombreIles);
+        for (int k = 0; k < nombreIles; k++) {
+            iles[k] = new Ile(k, new EtatAffectation(reseau), new Random(random.nextLong()),
+                              sortants, barriere, partage);
+        }
+
+        List<Future<?>> taches = new ArrayList<>();
+        try {
+            for (int k = 1; k < nombreIles; k++) {
+                final Ile ile = iles[k];
+                taches.add(executeur.submit(() -> ile.evoluer(generations)));
+            }
+            iles[0].evoluer(generations);
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> tache : taches) {
+                tache.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur dans une île", e.getCause());
+        }
+
+        Ile meilleure = iles[0];
+        for (Ile ile : iles) {
+            if (ile.erreur != null) {
+                throw new IllegalStateException("Erreur dans l'île " + ile.numero, ile.erreur);
+            }
+            if (ile.meilleurCout() < meilleure.meilleurCout()) meilleure = ile;
+        }
+        depart.affecter(meilleure.meilleurIndividu());
+        return depart.versReseau();
+    }
+
+
+
+    public void setNombreIles(int nombreIles) {
+        if (nombreIles < 1) {
+            throw new IllegalArgumentException("Il faut au moins une île");
+        }
+        this.nombreIles = nombreIles;
+    }
+
+    public void setTaillePopulation(int taillePopulation) {
+        if (taillePopulation < 2) {
+            throw new IllegalArgumentException("La population doit compter au moins 2 individus");
+        }
+        this.taillePopulation = taillePopulation;
+        this.nombreMigrants = Math.min(nombreMigrants, taillePopulation - 1);
+    }
+
+    /**
+     * @param periodeMigration nombre de générations entre deux migrations
+     */
+    public void setPeriodeMigration(int periodeMigration) {
+        if (periodeMigration < 1) {
+            throw new IllegalArgumentException("La période de migration doit être positive");
+        }
+        this.periodeMigration = periodeMigration;
+    }
+
+    public int getNombreIles() {
+        return nombreIles;
+    }
+
+    public int getTaillePopulation() {
+        return taillePopulation;
+    }
+
+    public int getPeriodeMigration() {
+        return periodeMigration;
+    }
+
+
+    /**
+     * Une population et la tâche qui la fait évoluer.
+     */
+    private final class Ile {
+
+        private final int numero;
+        private final EtatAffectation etat;
+        private final Random alea;
+        private final int[][] sortants;
+        private final int[][][] tousSortants;
+        private final Phaser barriere;
+        private final MeilleurConnu partage;
+
+        private final int[][] population;
+        private final double[] couts;
+        private final int[] enfant;
+        private final int[] connectees;
+        private final boolean[] choixGenerateur;
+        private volatile Throwable erreur;
+
+        Ile(int numero, EtatAffectation etat, Random alea, int[][][] tousSortants, Phaser barriere,
+            MeilleurConnu partage) {
+            this.numero = numero;
+            this.etat = etat;
+            this.alea = alea;
+            this.tousSortants = tousSortants;
+            this.sortants = tousSortants[numero];
+            this.barriere = barriere;
+            this.partage = partage;
+
+            int nbMaisons = etat.nombreMaisons();
+            population = new int[taillePopulation][nbMaisons];
+            couts = new double[taillePopulation];
+            enfant = new int[nbMaisons];
+            choixGenerateur = new boolean[etat.nombreGenerateurs()];
+            for (int j = 0; j < sortants.length; j++) {
+                sortants[j] = new int[nbMaisons];
+            }
+
+            int n = 0;
+            for (int g : etat.affectation) {
+                if (g >= 0) n++;
+            }
+            connectees = new int[n];
+            n = 0;
+            for (int i = 0; i < nbMaisons; i++) {
+                if (etat.affectation[i] >= 0) connectees[n++] = i;
+            }
+        }
+
+        void evoluer(int generations) {
+            try {
+                initialiser();
+                double coutPeriode = meilleurCout();
+                for (int gen = 1; gen <= generations; gen++) {
+                    if (partage != null && partage.estArrete()) break;
+                    for (int k = 0; k < taillePopulation; k++) {
+                        reproduire();
+                    }
+                    if (partage != null) partage.proposer(meilleurCout(), meilleurIndividu());
+                    if (gen % periodeMigration == 0) {
+                        // Une période sans progrès, avec un meilleur connu ailleurs : l'île s'arrête
+                        if (partage != null && meilleurCout() >= coutPeriode && partage.getCout() < meilleurCout()) {
+                            break;
+                        }
+                        coutPeriode = meilleurCout();
+                        if (nombreIles > 1) migrer();
+                    }
+                }
+            } catch (Throwable t) {
+                erreur = t;
+            } finally {
+                barriere.arriveAndDeregister();
+            }
+        }
+
+        private void initialiser() {
+            int[] initiale = etat.affectation.clone();
+            System.arraycopy(initiale, 0, population[0], 0, initiale.length);
+            couts[0] = evaluer(population[0]);
+            for (int[] sortant : sortants) {
+                System.arraycopy(population[0], 0, sortant, 0, sortant.length);
+            }
+            for (int p = 1; p < taillePopulation; p++) {
+                StrategieDemarrage s = STRATEGIES_INITIALES[(p + numero) % STRATEGIES_INITIALES.length];
+                int[] genome = HeuristiquesConstructives.construire(
+                        s, etat.demandes, etat.capacites, initiale, alea);
+                System.arraycopy(genome, 0, population[p], 0, genome.length);
+                couts[p] = evaluer(population[p]);
+            }
+        }
+
+        /**
+         * Produit un enfant et le met à la place du pire individu s'il est
+         * meilleur que lui et qu'aucun individu n'a déjà le même coût.
+         */
+        private void reproduire() {
+            int[] a = population[tournoi()];
+            int[] b = population[tournoi()];
+            croiser(a, b);
+            muter();
+            double cout = evaluer(enfant);
+
+            int pire = 0;
+            for (int p = 0; p < taillePopulation; p++) {
+                if (couts[p] == cout) return;
+                if (couts[p] > couts[pire]) pire = p;
+            }
+            if (cout < couts[pire]) {
+                System.arraycopy(enfant, 0, population[pire], 0, enfant.length);
+                couts[pire] = cout;
+            }
+        }
+
+        private int tournoi() {
+            int a = alea.nextInt(taillePopulation);
+            int b = alea.nextInt(taillePopulation);
+            return couts[a] <= couts[b] ? a : b;
+        }
+
+        /**
+         * Croisement par générateur : chaque générateur « appartient » à un
+         * parent ; une maison suit le parent propriétaire de son générateur
+         * chez a, sinon elle prend son générateur chez b.
+         */
+        private void croiser(int[] a, int[] b) {
+            for (int g = 0; g < choixGenerateur.length; g++) {
+                choixGenerateur[g] = alea.nextBoolean();
+            }
+            for (int i = 0; i < enfant.length; i++) {
+                enfant[i] = (a[i] < 0 || choixGenerateur[a[i]]) ? a[i] : b[i];
+            }
+        }
+
+        private void muter() {
+            if (connectees.length == 0) return;
+            int nb = 1 + alea.nextInt(2);
+            for (int k = 0; k < nb; k++) {
+                int i = connectees[alea.nextInt(connectees.length)];
+                enfant[i] = alea.nextInt(choixGenerateur.length);
+            }
+        }
+
+        /**
+         * Applique le génome à l'état, le répare, y recopie le résultat
+         * et retourne son coût.
+         */
+        private double evaluer(int[] genome) {
+            etat.affecter(genome);
+            reparer();
+            System.arraycopy(etat.affectation, 0, genome, 0, genome.length);
+            return etat.cout();
+        }
+
+        private void reparer() {
+            for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+                if (etat.capacites[g] <= 0 || etat.charges[g] <= etat.capacites[g]) continue;
+                for (int i = 0; i < etat.nombreMaisons() && etat.charges[g] > etat.capacites[g]; i++) {
+                    if (etat.affectation[i] != g) continue;
+                    int cible = plusLibre();
+                    if (cible != g && etat.coutApresDeplacement(i, cible) < etat.cout()) {
+                        etat.deplacer(i, cible);
+                    }
+                }
+            }
+        }
+
+        private int plusLibre() {
+            int meilleur = 0;
+            for (int g = 1; g < etat.nombreGenerateurs(); g++) {
+                if (etat.capacites[g] - etat.charges[g] > etat.capacites[meilleur] - etat.charges[meilleur]) {
+                    meilleur = g;
+                }
+            }
+            return meilleur;
+        }
+
+        /**
+         * Échange des meilleurs individus avec les îles voisines. Une île qui
+         * a terminé (ou échoué) quitte le Phaser : les autres ne l'attendent pas.
+         */
+        private void migrer() {
+            Integer[] ordre = new Integer[taillePopulation];
+            for (int p = 0; p < taillePopulation; p++) ordre[p] = p;
+            Arrays.sort(ordre, (x, y) -> Double.compare(couts[x], couts[y]));
+
+            for (int j = 0; j < sortants.length; j++) {
+                System.arraycopy(population[ordre[j]], 0, sortants[j], 0, enfant.length);
+            }
+            barriere.arriveAndAwaitAdvance();
+            int[][] entrants = tousSortants[(numero + nombreIles - 1) % nombreIles];
+            for (int j = 0; j < entrants.length; j++) {
+                int pire = ordre[taillePopulation - 1 - j];
+                System.arraycopy(entrants[j], 0, population[pire], 0, enfant.length);
+                couts[pire] = evaluer(population[pire]);
+            }
+            barriere.arriveAndAwaitAdvance();
+        }
+
+        double meilleurCout() {
+            double min = Double.MAX_VALUE;
+            for (double c : couts) min = Math.min(min, c);
+            return min;
+        }
+
+        int[] meilleurIndividu() {
+            int meilleur = 0;
+            for (int p = 1; p < taillePopulation; p++) {
+                if (couts[p] < couts[meilleur]) meilleur = p;
+            }
+            return population[meilleur];
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package optimisation;
+
+import java.util.*;
+import java.util.concurrent.*;
+import reseau.*;
+
+
+/**
+ * Portefeuille de stratégies lancées en parallèle sur le même réseau.
+ *
+ * Chaque stratégie reçoit sa propre copie du réseau et tourne sur le pool de
+ * threads fourni. Elles partagent un {@link MeilleurConnu} : le meilleur coût
+ * trouvé par l'une est visible par les autres sans verrou, et dès qu'une
+ * stratégie atteint la borne inférieure (optimum prouvé), toutes s'arrêtent.
+ *
+ * L'appel retourne dès que l'optimum est prouvé, que toutes les stratégies
+ * ont terminé, ou que le temps imparti est écoulé. Dans ce dernier cas,
+ * l'arrêt est demandé et les stratégies ont encore un court délai pour
+ * rendre leur meilleure solution. Celles qui ne l'ont pas rendue à temps ne
+ * sont pas perdues : les stratégies publient leurs meilleures affectations
+ * dans le {@link MeilleurConnu}, et la meilleure publiée est retournée si
+ * elle bat toutes les solutions rendues.
+ */
+public class OptimisateurPortefeuille implements StrategieOptimisation {
+
+    private static final long DELAI_ARRET_MS = 1000;
+
+    private final ExecutorService pool;
+    private final List<StrategieOptimisation> strategies = new ArrayList<>();
+    private final List<Integer> efforts = new ArrayList<>();
+    private MeilleurConnu dernierPartage;
+
+
+    /**
+     * @param pool pool de threads partagé (il n'est pas arrêté par le portefeuille)
+     */
+    public OptimisateurPortefeuille(ExecutorService pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Portefeuille par défaut : multi-démarrages (autant de démarrages que le
+     * profil courant, {@link ProfilParametres#actuel()}), ALNS et algorithme
+     * génétique.
+     *
+     * @param pool pool de threads partagé
+     * @param reseau réseau à optimiser (pour dimensionner les efforts)
+     */
+    public static OptimisateurPortefeuille parDefaut(ExecutorService pool, Reseau reseau) {
+        int taille = Math.max(1, reseau.getMaisons().size());
+        int demarrages = ProfilParametres.actuel().demarrages(reseau.getMaisons().size(),
+                                                              reseau.getGenerateurs().size());
+        return new OptimisateurPortefeuille(pool)
+                .ajouter(new OptimisateurReseau(), demarrages)
+                .ajouter(new OptimisateurALNS(), 200 * taille)
+                .ajouter(new OptimisateurGenetique(), 500);
+    }
+
+    /**
+     * Ajoute une stratégie au portefeuille.
+     *
+     * @param strategie la stratégie
+     * @param effort effort qui lui sera passé
+     * @return ce portefeuille
+     */
+    public OptimisateurPortefeuille ajouter(StrategieOptimisation strategie, int effort) {
+        strategies.add(strategie);
+        efforts.add(effort);
+        return this;
+    }
+
+
+    /**
+     * @param reseau réseau de départ (non modifié)
+     * @param dureeMaxMs temps imparti en millisecondes
+     * @return la meilleure solution rendue ou publiée par les stratégies
+     * @throws IllegalStateException si le portefeuille est vide
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int dureeMaxMs) {
+        if (strategies.isEmpty()) {
+            throw new IllegalStateException("Aucune stratégie dans le portefeuille");
+        }
+        MeilleurConnu partage = new MeilleurConnu(new BorneInferieure(reseau).getBorne());
+        dernierPartage = partage;
+        return lancer(reseau, dureeMaxMs, partage);
+    }
+
+    /**
+     * Le portefeuille peut lui-même faire partie d'un portefeuille.
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int dureeMaxMs, MeilleurConnu partage) {
+        dernierPartage = partage;
+        return lancer(reseau, dureeMaxMs, partage);
+    }
+
+    /**
+     * @return le meilleur coût partagé lors du dernier appel, null avant
+     */
+    public MeilleurConnu getDernierPartage() {
+        return dernierPartage;
+    }
+
+
+    private Reseau lancer(Reseau reseau, long dureeMaxMs, MeilleurConnu partage) {
+        InstantaneReseau instantane = reseau.instantane();
+        CompletionService<Reseau> service = new ExecutorCompletionService<>(pool);
+        List<Future<Reseau>> taches = new ArrayList<>();
+        for (int k = 0; k < strategies.size(); k++) {
+            StrategieOptimisation strategie = strategies.get(k);
+            int effort = efforts.get(k);
+            Reseau copie = instantane.versReseau();
+            taches.add(service.submit(() -> strategie.optimiser(copie, effort, partage)));
+        }
+
+        Reseau meilleur = null;
+        double meilleurCout = Double.MAX_VALUE;
+        long fin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dureeMaxMs);
+        int restantes = taches.size();
+        try {
+            while (restantes > 0) {
+                long attente = fin - System.nanoTime();
+                if (attente <= 0 || partage.estArrete()) {
+                    partage.arreter();
+                    attente = TimeUnit.MILLISECONDS.toNanos(DELAI_ARRET_MS);
+                    fin = Long.MAX_VALUE;
+                }
+                Future<Reseau> terminee = service.poll(attente, TimeUnit.NANOSECONDS);
+                if (terminee == null) {
+                    if (fin == Long.MAX_VALUE) break;
+                    continue;
+                }
+                restantes--;
+                Reseau resultat = resultat(terminee);
+                if (resultat != null && resultat.calculerCout() < meilleurCout) {
+                    meilleur = resultat;
+                    meilleurCout = resultat.calculerCout();
+                }
+                if (meilleurCout <= partage.getBorne() + 1e-12) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            partage.arreter();
+            for (Future<Reseau> tache : taches) {
+                tache.cancel(true);
+            }
+        }
+        int[] publiee = partage.getAffectation();
+        if (publiee != null && partage.getCoutAffectation() < meilleurCout) {
+            EtatAffectation etat = new EtatAffectation(instantane.versReseau());
+            etat.affecter(publiee);
+            return etat.versReseau();
+        }
+        return (meilleur != null) ? meilleur : instantane.versReseau();
+    }
+
+    private static Reseau resultat(Future<Reseau> tache) throws InterruptedException {
+        try {
+            return tache.get();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
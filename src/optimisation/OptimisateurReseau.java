@@ -1,5 +1,7 @@
 package optimisation;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import reseau.*;
 
@@ -9,9 +11,49 @@ import reseau.*;
  * 
  * L'objectif est de minimiser le coût global du réseau.
  */
-public class OptimisateurReseau {
+public class OptimisateurReseau implements StrategieOptimisation {
 
-    private Random random = new Random();
+    private AleaReproductible random = new AleaReproductible(new Random().nextLong());
+    private double toleranceEcart = 0.0;
+    private StrategieDemarrage[] strategies = {
+        StrategieDemarrage.MEILLEUR_AJUSTEMENT,
+        StrategieDemarrage.MOINS_CHARGE,
+        StrategieDemarrage.REGRET
+    };
+    private ProfilParametres profil = ProfilParametres.actuel();
+    private int stagnation;
+    private BorneInferieure derniereBorne;
+    private double dernierCout;
+
+    private static final int TAILLE_ELITE = 8;
+    private static final int DIVISEUR_RETARD = 4;
+    private static final int MAX_VISITES = 1 << 12;
+    private TableZobrist zobrist;
+    private ClassesSymetrie symetrie;
+    private Set<Long> visites;
+    private int nombreDoublons;
+    private MeilleurConnu partage;
+    private SuiviCharges suivi;
+    private int nombreCandidats;
+    private int[] candidats;
+    private int nbCandidats;
+
+    private static final int PAS_REPRISE = 1024;
+    private Path fichierReprise;
+    private long periodeReprise;
+    private long derniereReprise;
+
+    // État de l'optimisation en cours, enregistré dans les points de reprise
+    private Reseau initial;
+    private long graineZobrist;
+    private PoolElite elite;
+    private boolean reliage;
+    private int indice;
+    private int cible;
+    private int[] meilleure;
+    private double meilleurCout;
+    private int[] meilleureReliee;
+    private double coutRelie;
 
 
     /**
@@ -25,10 +67,11 @@ public class OptimisateurReseau {
      */
     private Reseau copierReseau(Reseau r) {
         Reseau copie = new Reseau();
+        copie.setLambda(r.getLambda());
         for (Generateur g : r.getGenerateurs())
-            copie.ajouterGenerateur(new Generateur(g.getNom(), g.getCapaciteMax()));
+            copie.ajouterGenerateur(g.copie(g.getCapaciteMax()));
         for (Maison m : r.getMaisons())
-            copie.ajouterMaison(new Maison(m.getNom(), m.getConsommation()));
+            copie.ajouterMaison(m.copie());
 
         for (Maison m : r.getMaisons()) {
             Generateur g = r.getGenerateurDeMaison(m);
@@ -38,14 +81,21 @@ public class OptimisateurReseau {
                 copie.connecter(m2, g2);
             }
         }
+        copie.viderJournal();
         return copie;
     }
 
     /**
      * Applique une optimisation gloutonne sur le réseau.
      * 
-     * Pour chaque maison, on teste tous les générateurs possibles
-     * et on choisit celui qui minimise le coût du réseau.
+     * Pour chaque maison, on teste tous les générateurs possibles (ses
+     * générateurs candidats, voir {@link #setNombreCandidats(int)})
+     * et on choisit celui qui minimise le coût du réseau. Une maison
+     * connectée hors de ses candidats est placée sur le meilleur d'entre
+     * eux, même si le coût augmente.
+     * Chaque essai est évalué sans copier ni modifier le réseau.
+     * Si l'arrêt est demandé, les maisons restantes ne sont pas
+     * replacées.
      * 
      * @param reseau réseau de départ
      * @return réseau optimisé
@@ -53,20 +103,21 @@ public class OptimisateurReseau {
 
     private Reseau optimisationGloutonne(Reseau reseau) {   
         Reseau best = copierReseau(reseau);
-        for (Maison m : best.getMaisons()) {
+        List<Maison> maisons = best.getMaisons();
+        List<Generateur> generateurs = best.getGenerateurs();
+        int[] depart = affectation(best);
+        for (int i = 0; i < maisons.size() && !arretDemande(); i++) {
+            Maison m = maisons.get(i);
             Generateur actuel = best.getGenerateurDeMaison(m);
-            double coutActuel = best.calculerCout();
+            boolean horsCandidats = depart[i] >= 0 && !estCandidat(i, depart[i]);
+            double coutActuel = horsCandidats ? Double.MAX_VALUE : best.calculerCout();
             Generateur meilleurGen = actuel;
 
-            for (Generateur g : best.getGenerateurs()) {
+            int nb = (candidats != null) ? nbCandidats : generateurs.size();
+            for (int k = 0; k < nb; k++) {
+                Generateur g = generateurs.get(candidats != null ? candidats[i * nbCandidats + k] : k);
                 if (g.equals(actuel)) continue;
-                Reseau tentative = copierReseau(best);
-                tentative.modifierConnexion(
-                        tentative.trouverMaisonParNom(m.getNom()),
-                        tentative.trouverGenerateurParNom(actuel.getNom()),
-                        tentative.trouverGenerateurParNom(g.getNom())
-                );
-                double newCout = tentative.calculerCout();
+                double newCout = best.coutApresDeplacement(m, g);
                 if (newCout < coutActuel) {
                     coutActuel = newCout;
                     meilleurGen = g;
@@ -84,7 +135,7 @@ public class OptimisateurReseau {
      * Génère une solution aléatoire à partir d'un réseau.
      * 
      * Chaque maison peut être reconnectée à un générateur choisi
-     * aléatoirement.
+     * aléatoirement parmi ses candidats.
      * 
      * @param reseau réseau de départ
      * @return nouvelle solution aléatoire
@@ -94,9 +145,12 @@ public class OptimisateurReseau {
         List<Maison> maisons = solution.getMaisons();
         List<Generateur> generateurs = solution.getGenerateurs();
         
-        for (Maison m : maisons) {
+        for (int i = 0; i < maisons.size(); i++) {
+            Maison m = maisons.get(i);
             Generateur actuel = solution.getGenerateurDeMaison(m);
-            Generateur nouveau = generateurs.get(random.nextInt(generateurs.size()));
+            Generateur nouveau = generateurs.get(candidats != null
+                    ? candidats[i * nbCandidats + random.nextInt(nbCandidats)]
+                    : random.nextInt(generateurs.size()));
             
             if (actuel != null && !actuel.equals(nouveau)) {
                 solution.modifierConnexion(m, actuel, nouveau);
@@ -106,46 +160,189 @@ public class OptimisateurReseau {
         return solution;
     }
 
+    /**
+     * Construit une solution de départ avec une heuristique constructive.
+     * Seules les maisons connectées sont replacées, chacune sur l'un de
+     * ses candidats.
+     * 
+     * @param reseau réseau de départ
+     * @param strategie heuristique à utiliser
+     * @return nouvelle solution
+     */
+    private Reseau genererSolution(Reseau reseau, StrategieDemarrage strategie) {
+        if (strategie == StrategieDemarrage.ALEATOIRE) {
+            return genererSolutionAleatoire(reseau);
+        }
+        Reseau solution = copierReseau(reseau);
+        List<Maison> maisons = solution.getMaisons();
+        List<Generateur> generateurs = solution.getGenerateurs();
+
+        int[] resultat = HeuristiquesConstructives.construire(
+                strategie, demandes(solution), capacites(solution), affectation(solution),
+                candidats, nbCandidats, random);
+        for (int i = 0; i < resultat.length; i++) {
+            if (resultat[i] < 0) continue;
+            Maison m = maisons.get(i);
+            Generateur actuel = solution.getGenerateurDeMaison(m);
+            Generateur nouveau = generateurs.get(resultat[i]);
+            if (!actuel.equals(nouveau)) {
+                solution.modifierConnexion(m, actuel, nouveau);
+            }
+        }
+        return solution;
+    }
+
     
     
     /**
      * Applique une amélioration locale complète sur un réseau.
      * 
-     * Des modifications aléatoires sont testées et conservées
-     * uniquement si elles améliorent le coût.
+     * Après chaque amélioration, on essaie d'abord un déplacement guidé :
+     * une maison du générateur le plus utilisé vers le moins utilisé (deux
+     * tas indexés par taux), une seule maison évaluée par tranche de demande
+     * (voir {@link CasiersMaisons}). S'il n'améliore pas le
+     * coût, des modifications aléatoires sont testées et conservées
+     * uniquement si elles améliorent le coût. Chaque modification est
+     * évaluée en O(log G) avant d'être appliquée : une modification
+     * refusée ne touche pas au réseau.
      * 
-     * L'algorithme s'arrête après un nombre maximal d'itérations
-     * ou après trop d'itérations sans amélioration.
+     * Les maisons de même demande et les générateurs de même capacité
+     * et de même charge sont interchangeables : un déplacement refusé l'est
+     * aussi pour toutes les maisons et générateurs équivalents, jusqu'à la
+     * prochaine amélioration. Ces déplacements ne sont pas réévalués, et
+     * la recherche s'arrête dès qu'ils ont tous été refusés (optimum local).
      * 
-     * @param reseau réseau de départ
+     * L'algorithme s'arrête après un nombre maximal d'itérations,
+     * après trop d'itérations sans amélioration (voir
+     * {@link ProfilParametres}), ou dès que l'écart
+     * à la borne inférieure passe sous la tolérance.
+     * 
+     * Toutes les {@value #PAS_REPRISE} itérations au moins, la surcharge
+     * est recalculée entièrement : le coût ne dépend alors plus que de
+     * l'affectation, et un point de reprise peut être écrit.
+     * 
+     * @param reseau réseau de départ (le réseau initial en cas de reprise)
      * @param maxIterations nombre maximal d'itérations
+     * @param borne borne inférieure du coût
+     * @param reprise recherche interrompue à reprendre, null pour une nouvelle recherche
      * @return réseau amélioré
      */
-    private Reseau ameliorationLocaleComplete(Reseau reseau, int maxIterations) {
+    private Reseau ameliorationLocaleComplete(Reseau reseau, int maxIterations, BorneInferieure borne,
+                                              PointDeReprise.Recherche reprise) {
         Reseau current = copierReseau(reseau);
+        if (reprise != null) {
+            appliquer(current, reprise.affectation);
+            current.recalculerAgregats();
+        }
         double coutActuel = current.calculerCout();
         
         List<Maison> maisons = current.getMaisons();
         List<Generateur> generateurs = current.getGenerateurs();
+        int[] affectation = affectation(current);
+        int[] demandes = demandes(current);
+        int[] charges = charges(demandes, affectation, generateurs.size());
+        ClassesSymetrie.Representants representants = symetrie.representants(charges);
+        int distincts = -1;
+        Set<Long> refuses = new HashSet<>();
+
+        TasIndexe plusCharges = new TasIndexe(generateurs.size(), true);
+        TasIndexe moinsCharges = new TasIndexe(generateurs.size(), false);
+        for (int g = 0; g < generateurs.size(); g++) {
+            plusCharges.inserer(g, taux(charges[g], generateurs.get(g)));
+            moinsCharges.inserer(g, taux(charges[g], generateurs.get(g)));
+        }
+        CasiersMaisons casiers;
+        boolean guideEssaye = false;
         
         int iterationsSansAmelioration = 0;
+        int debut = 0;
+        if (reprise != null) {
+            for (long cle : reprise.refuses) refuses.add(cle);
+            casiers = new CasiersMaisons(symetrie, affectation, generateurs.size(), reprise.ordreCasiers);
+            guideEssaye = reprise.guideEssaye;
+            iterationsSansAmelioration = reprise.iterationsSansAmelioration;
+            debut = reprise.iteration;
+        } else {
+            casiers = new CasiersMaisons(symetrie, affectation, generateurs.size());
+        }
+        int pas = Math.max(PAS_REPRISE, Integer.highestOneBit(generateurs.size()) << 1);
+        if (suivi != null) suivi.charges(charges);
         
-        for (int i = 0; i < maxIterations && iterationsSansAmelioration < 1000; i++) {
-            Maison m = maisons.get(random.nextInt(maisons.size()));
+        for (int i = debut; i < maxIterations && iterationsSansAmelioration < patience(coutActuel); i++) {
+            if (i > debut && i % pas == 0) {
+                current.recalculerAgregats();
+                coutActuel = current.calculerCout();
+                if (repriseDue()) {
+                    enregistrerReprise(new PointDeReprise.Recherche(affectation.clone(), i,
+                            iterationsSansAmelioration, guideEssaye,
+                            refuses.stream().mapToLong(Long::longValue).toArray(), casiers.ordre()));
+                }
+            }
+            if (borne.ecart(coutActuel) <= toleranceEcart || arretDemande()) break;
+
+            int im = -1;
+            int jn = -1;
+            double nouveauCout = coutActuel;
+            long cle = 0L;
+            if (!guideEssaye) {
+                guideEssaye = true;
+                int chaud = plusCharges.sommet();
+                int froid = moinsCharges.sommet();
+                for (int t = 0; t < casiers.nombreTranches() && chaud != froid; t++) {
+                    int candidate = casiers.premiere(chaud, t);
+                    if (candidate < 0 || !estCandidat(candidate, froid)) continue;
+                    double cout = current.coutApresDeplacement(maisons.get(candidate), generateurs.get(froid));
+                    if (cout < nouveauCout) {
+                        nouveauCout = cout;
+                        im = candidate;
+                        jn = froid;
+                    }
+                }
+            }
+            if (im < 0) {
+                im = random.nextInt(maisons.size());
+                jn = (candidats != null) ? candidats[im * nbCandidats + random.nextInt(nbCandidats)]
+                                         : random.nextInt(generateurs.size());
+                if (affectation[im] < 0 || affectation[im] == jn) continue;
+                cle = symetrie.cleDeplacement(im, affectation[im], jn, representants);
+                if (refuses.contains(cle)) {
+                    iterationsSansAmelioration++;
+                    continue;
+                }
+                nouveauCout = current.coutApresDeplacement(maisons.get(im), generateurs.get(jn));
+            }
+            Maison m = maisons.get(im);
             Generateur ancien = current.getGenerateurDeMaison(m);
-            Generateur nouveau = generateurs.get(random.nextInt(generateurs.size()));
-            
-            if (ancien.equals(nouveau)) continue;
-            
-            current.modifierConnexion(m, ancien, nouveau);
-            double nouveauCout = current.calculerCout();
+            Generateur nouveau = generateurs.get(jn);
+            int ia = affectation[im];
             
             if (nouveauCout < coutActuel) {
-                coutActuel = nouveauCout;
+                current.modifierConnexion(m, ancien, nouveau);
+                coutActuel = current.calculerCout();
                 iterationsSansAmelioration = 0;
+                affectation[im] = jn;
+                charges[ia] -= demandes[im];
+                charges[jn] += demandes[im];
+                if (suivi != null) suivi.deplacement(ia, jn, demandes[im]);
+                plusCharges.modifier(ia, taux(charges[ia], ancien));
+                moinsCharges.modifier(ia, taux(charges[ia], ancien));
+                plusCharges.modifier(jn, taux(charges[jn], nouveau));
+                moinsCharges.modifier(jn, taux(charges[jn], nouveau));
+                casiers.deplacer(im, jn);
+                guideEssaye = false;
+                representants.changerCharge(ia, charges[ia]);
+                representants.changerCharge(jn, charges[jn]);
+                distincts = -1;
+                refuses.clear();
             } else {
-                current.modifierConnexion(m, nouveau, ancien);
                 iterationsSansAmelioration++;
+                refuses.add(cle);
+                // Il y a au moins un déplacement distinct par autre représentant :
+                // on ne compte les déplacements distincts, en O(H), qu'à l'approche
+                if (candidats == null && refuses.size() >= representants.nombre() - 1) {
+                    if (distincts < 0) distincts = symetrie.nombreDeplacementsDistincts(affectation, representants);
+                    if (refuses.size() >= distincts) break;
+                }
             }
         }
         
@@ -159,39 +356,653 @@ public class OptimisateurReseau {
      * Lance une optimisation par multi-démarrages.
      * 
      * La première solution est obtenue par optimisation gloutonne"intelligente",
-     * les suivantes sont générées aléatoirement.
+     * les suivantes par les stratégies de démarrage, utilisées à tour de rôle
+     * (voir {@link #setStrategiesDemarrage(StrategieDemarrage...)}).
      * 
      * Chaque solution est ensuite améliorée localement,
      * et la meilleure solution globale est conservée.
      * 
+     * Les solutions sont hachées (Zobrist) sous forme canonique : deux
+     * solutions qui ne diffèrent que par une permutation de maisons de même
+     * demande ou de générateurs de même capacité ont le même hash. Les
+     * hashs des points de départ et des optimums locaux sont retenus (au
+     * plus {@value #MAX_VISITES}) : un redémarrage qui part de l'un d'eux
+     * est abandonné. Les meilleures solutions distinctes sont gardées
+     * dans un pool d'élite ; à la fin, on explore le chemin entre la
+     * meilleure et chacune des autres (path relinking).
+     * 
+     * Une borne inférieure du coût est calculée au départ : la recherche
+     * s'arrête dès que l'écart relatif à cette borne est inférieur ou égal
+     * à la tolérance (voir {@link #setToleranceEcart(double)}). La borne et
+     * l'écart obtenus restent consultables après l'appel.
+     * 
      * @param reseau réseau initial
      * @param nombreDemarrages nombre de redémarrages
      * @return la meilleure solution trouvée
      */
     public Reseau optimisationMultiDemarrages(Reseau reseau, int nombreDemarrages) {
-        Reseau meilleurGlobal = null;
-        double meilleurCoutGlobal = Double.MAX_VALUE;
-        int itt= reseau.getMaisons().size() * reseau.getGenerateurs().size()*1000;
-        for (int restart = 0; restart < nombreDemarrages; restart++) {
-            Reseau solution;
-            
-            if (restart == 0) {
+        return executer(reseau, nombreDemarrages, null);
+    }
 
-                solution = optimisationGloutonne(reseau);
-            } else {
+    /**
+     * Même chose que {@link #optimisationMultiDemarrages(Reseau, int)}, avec
+     * le nombre de redémarrages conseillé par le profil pour cette taille
+     * de réseau.
+     */
+    public Reseau optimisationMultiDemarrages(Reseau reseau) {
+        return executer(reseau, profil.demarrages(reseau.getMaisons().size(), reseau.getGenerateurs().size()),
+                        null);
+    }
+
+    /**
+     * Reprend une optimisation multi-démarrages depuis un point de reprise
+     * (voir {@link #setPointDeReprise(Path, long)}). Avec le même réseau
+     * initial et le même nombre de redémarrages, la suite du calcul est
+     * identique à celle de l'optimisation interrompue.
+     * 
+     * @param reseau réseau initial de l'optimisation interrompue
+     * @param nombreDemarrages nombre de redémarrages
+     * @param fichier point de reprise
+     * @return la meilleure solution trouvée
+     * @throws IOException si le point de reprise est illisible ou ne
+     *         correspond pas au réseau
+     */
+    public Reseau reprendre(Reseau reseau, int nombreDemarrages, Path fichier) throws IOException {
+        PointDeReprise reprise = PointDeReprise.lire(fichier);
+        if (reprise.nbMaisons != reseau.getMaisons().size()
+                || reprise.nbGenerateurs != reseau.getGenerateurs().size()) {
+            throw new IOException("Le point de reprise ne correspond pas au réseau");
+        }
+        return executer(reseau, nombreDemarrages, reprise);
+    }
 
-                solution = genererSolutionAleatoire(reseau);
-            }      
+    /**
+     * Version coopérative de {@link #reprendre(Reseau, int, Path)} (voir
+     * {@link #optimiser(Reseau, int, MeilleurConnu)}).
+     */
+    public Reseau reprendre(Reseau reseau, int nombreDemarrages, Path fichier, MeilleurConnu partage)
+            throws IOException {
+        this.partage = partage;
+        try {
+            return reprendre(reseau, nombreDemarrages, fichier);
+        } finally {
+            this.partage = null;
+        }
+    }
 
-            solution = ameliorationLocaleComplete(solution, itt);
-            
-            double cout = solution.calculerCout();
-            if (cout < meilleurCoutGlobal) {
-                meilleurGlobal = solution;
-                meilleurCoutGlobal = cout;
+    private Reseau executer(Reseau reseau, int nombreDemarrages, PointDeReprise reprise) {
+        int nbMaisons = reseau.getMaisons().size();
+        int nbGenerateurs = reseau.getGenerateurs().size();
+        int itt = profil.iterations(nbMaisons, nbGenerateurs);
+        stagnation = profil.stagnation(nbMaisons, nbGenerateurs);
+        BorneInferieure borne = new BorneInferieure(reseau);
+        symetrie = new ClassesSymetrie(demandes(reseau), capacites(reseau));
+        candidats = candidats(reseau);
+        initial = reseau;
+        derniereReprise = System.nanoTime();
+        PointDeReprise.Recherche recherche = null;
+        if (reprise == null) {
+            graineZobrist = random.nextLong();
+            visites = new HashSet<>();
+            nombreDoublons = 0;
+            elite = new PoolElite(TAILLE_ELITE);
+            reliage = false;
+            indice = 0;
+            meilleure = null;
+            meilleurCout = Double.MAX_VALUE;
+        } else {
+            restaurer(reprise);
+            recherche = reprise.recherche;
+        }
+        zobrist = new TableZobrist(nbGenerateurs, graineZobrist);
+
+        if (!reliage) {
+            for (; indice < nombreDemarrages; indice++) {
+                Reseau solution = reseau;
+                long depart = 0L;
+                if (recherche == null) {
+                    pointDeReprise();
+                    if (indice == 0) {
+
+                        solution = optimisationGloutonne(reseau);
+                    } else {
+
+                        solution = genererSolution(reseau, strategies[(indice - 1) % strategies.length]);
+                        depart = hashCanonique(affectation(solution));
+                        if (dejaVisitee(depart)) {
+                            nombreDoublons++;
+                            continue;
+                        }
+                    }
+                }
+
+                solution = ameliorationLocaleComplete(solution, itt, borne, recherche);
+                recherche = null;
+
+                double cout = solution.calculerCout();
+                int[] affectation = affectation(solution);
+                long hash = hashCanonique(affectation);
+                if (hash != depart && dejaVisitee(hash)) nombreDoublons++;
+                elite.proposer(affectation, hash, cout);
+                if (cout < meilleurCout) {
+                    meilleure = affectation;
+                    meilleurCout = cout;
+                    publier(cout, affectation);
+                }
+                if (borne.ecart(meilleurCout) <= toleranceEcart || arretDemande()) break;
+            }
+
+            if (meilleure != null && borne.ecart(meilleurCout) > toleranceEcart && !arretDemande()) {
+                reliage = true;
+                indice = 0;
+                cible = elite.meilleure();
+                meilleureReliee = null;
+                coutRelie = Double.MAX_VALUE;
+            }
+        }
+
+        if (reliage) {
+            relierElites(reseau, itt, borne, recherche);
+            if (meilleureReliee != null && coutRelie < meilleurCout) {
+                meilleure = meilleureReliee;
+                meilleurCout = coutRelie;
+                publier(meilleurCout, meilleure);
             }
         }
         
+        derniereBorne = borne;
+        dernierCout = meilleurCout;
+        initial = null;
+        if (meilleure == null) return null;
+        if (suivi != null) suivi.charges(charges(demandes(reseau), meilleure, nbGenerateurs));
+        Reseau meilleurGlobal = copierReseau(reseau);
+        appliquer(meilleurGlobal, meilleure);
         return meilleurGlobal;
     }
+
+
+    /**
+     * Path relinking : de chaque solution d'élite vers la meilleure, on
+     * applique un à un les changements qui les séparent (à chaque pas le
+     * moins coûteux) et on garde la meilleure solution intermédiaire,
+     * améliorée ensuite localement. La meilleure est d'abord alignée sur
+     * la solution de départ (maisons équivalentes permutées) pour ne pas
+     * parcourir de simples permutations.
+     * 
+     * La meilleure solution obtenue est rangée dans meilleureReliee.
+     */
+    private void relierElites(Reseau reseau, int itt, BorneInferieure borne, PointDeReprise.Recherche recherche) {
+        for (; indice < elite.taille() && !arretDemande(); indice++) {
+            Reseau solution = reseau;
+            if (recherche == null) {
+                pointDeReprise();
+                if (indice == cible) continue;
+                int[] depart = elite.solution(indice);
+                int[] intermediaire = relier(reseau, depart, symetrie.aligner(depart, elite.solution(cible)));
+                if (intermediaire == null) continue;
+
+                solution = copierReseau(reseau);
+                appliquer(solution, intermediaire);
+            }
+            solution = ameliorationLocaleComplete(solution, itt, borne, recherche);
+            recherche = null;
+            double cout = solution.calculerCout();
+            int[] affectation = affectation(solution);
+            elite.proposer(affectation, hashCanonique(affectation), cout);
+            if (cout < coutRelie) {
+                meilleureReliee = affectation;
+                coutRelie = cout;
+            }
+        }
+    }
+
+    /**
+     * Une maison n'est amenée sur son générateur d'arrivée que s'il est l'un
+     * de ses candidats : l'alignement peut lui donner celui d'une maison
+     * équivalente, lointaine.
+     *
+     * @return la meilleure affectation strictement entre depart et arrivee,
+     *         null si elles diffèrent d'au plus une maison
+     */
+    private int[] relier(Reseau reseau, int[] depart, int[] arrivee) {
+        Reseau courant = copierReseau(reseau);
+        appliquer(courant, depart);
+        List<Maison> maisons = courant.getMaisons();
+        List<Generateur> generateurs = courant.getGenerateurs();
+
+        List<Integer> differences = new ArrayList<>();
+        for (int i = 0; i < depart.length; i++) {
+            if (depart[i] >= 0 && arrivee[i] >= 0 && depart[i] != arrivee[i] && estCandidat(i, arrivee[i])) {
+                differences.add(i);
+            }
+        }
+
+        int[] affectation = depart.clone();
+        int[] meilleure = null;
+        double meilleurCout = Double.MAX_VALUE;
+        while (differences.size() > 1) {
+            int choix = 0;
+            double coutChoix = Double.MAX_VALUE;
+            for (int k = 0; k < differences.size(); k++) {
+                int i = differences.get(k);
+                double cout = courant.coutApresDeplacement(maisons.get(i), generateurs.get(arrivee[i]));
+                if (cout < coutChoix) {
+                    coutChoix = cout;
+                    choix = k;
+                }
+            }
+            int i = differences.get(choix);
+            differences.set(choix, differences.get(differences.size() - 1));
+            differences.remove(differences.size() - 1);
+
+            Maison m = maisons.get(i);
+            courant.modifierConnexion(m, courant.getGenerateurDeMaison(m), generateurs.get(arrivee[i]));
+            affectation[i] = arrivee[i];
+            double cout = courant.calculerCout();
+            if (cout < meilleurCout) {
+                meilleurCout = cout;
+                meilleure = affectation.clone();
+            }
+        }
+        return meilleure;
+    }
+
+    /**
+     * Écrit un point de reprise entre deux recherches locales, si la
+     * période est écoulée.
+     */
+    private void pointDeReprise() {
+        if (repriseDue()) enregistrerReprise(null);
+    }
+
+    private boolean repriseDue() {
+        return fichierReprise != null && System.nanoTime() - derniereReprise >= periodeReprise;
+    }
+
+    private void enregistrerReprise(PointDeReprise.Recherche recherche) {
+        PointDeReprise p = new PointDeReprise();
+        p.nbMaisons = initial.getMaisons().size();
+        p.nbGenerateurs = initial.getGenerateurs().size();
+        p.etatAlea = random.getEtat();
+        p.graineZobrist = graineZobrist;
+        p.reliage = reliage;
+        p.indice = indice;
+        p.cible = cible;
+        p.meilleure = meilleure;
+        p.meilleurCout = meilleurCout;
+        p.meilleureReliee = meilleureReliee;
+        p.coutRelie = coutRelie;
+        p.nombreDoublons = nombreDoublons;
+        p.visites = visites.stream().mapToLong(Long::longValue).toArray();
+        p.elites = new int[elite.taille()][];
+        p.coutsElites = new double[elite.taille()];
+        p.hashsElites = new long[elite.taille()];
+        for (int k = 0; k < elite.taille(); k++) {
+            p.elites[k] = elite.solution(k).clone();
+            p.coutsElites[k] = elite.cout(k);
+            p.hashsElites[k] = elite.hash(k);
+        }
+        p.recherche = recherche;
+        ecrirePointDeReprise(p);
+        derniereReprise = System.nanoTime();
+    }
+
+    /**
+     * Écrit le point de reprise dans le fichier choisi.
+     * 
+     * @throws IllegalStateException si le fichier ne peut pas être écrit
+     */
+    void ecrirePointDeReprise(PointDeReprise p) {
+        try {
+            p.ecrire(fichierReprise);
+        } catch (IOException e) {
+            throw new IllegalStateException("Échec de l'écriture du point de reprise", e);
+        }
+    }
+
+    private void restaurer(PointDeReprise p) {
+        graineZobrist = p.graineZobrist;
+        reliage = p.reliage;
+        indice = p.indice;
+        cible = p.cible;
+        meilleure = p.meilleure;
+        meilleurCout = p.meilleurCout;
+        meilleureReliee = p.meilleureReliee;
+        coutRelie = p.coutRelie;
+        nombreDoublons = p.nombreDoublons;
+        visites = new HashSet<>();
+        for (long h : p.visites) visites.add(h);
+        elite = new PoolElite(TAILLE_ELITE);
+        for (int k = 0; k < p.elites.length; k++) {
+            elite.proposer(p.elites[k], p.hashsElites[k], p.coutsElites[k]);
+        }
+        random.setEtat(p.etatAlea);
+    }
+
+    /**
+     * Marque une solution comme visitée.
+     * 
+     * @return true si elle l'était déjà
+     */
+    private boolean dejaVisitee(long hash) {
+        if (visites.size() >= MAX_VISITES) {
+            return visites.contains(hash);
+        }
+        return !visites.add(hash);
+    }
+
+    /**
+     * @return le hash de la forme canonique de l'affectation
+     */
+    private long hashCanonique(int[] affectation) {
+        return zobrist.hash(symetrie.canonique(affectation));
+    }
+
+    /**
+     * Générateurs candidats de chaque maison : ses nombreCandidats plus
+     * proches, trouvés avec un arbre k-d des générateurs en
+     * O(G log G + H (log G + k log k)). Rangés à la suite dans un seul
+     * tableau, ceux de la maison i commençant à l'indice i * nbCandidats.
+     *
+     * @return les candidats, null si les déplacements ne sont pas restreints
+     */
+    private int[] candidats(Reseau reseau) {
+        List<Maison> maisons = reseau.getMaisons();
+        List<Generateur> generateurs = reseau.getGenerateurs();
+        if (nombreCandidats == 0 || nombreCandidats >= generateurs.size()) return null;
+
+        double[] x = new double[generateurs.size()];
+        double[] y = new double[generateurs.size()];
+        for (int g = 0; g < x.length; g++) {
+            Position p = generateurs.get(g).getPosition();
+            if (p == null) return null;
+            x[g] = p.getX();
+            y[g] = p.getY();
+        }
+        for (Maison m : maisons) {
+            if (m.getPosition() == null) return null;
+        }
+
+        ArbreKd arbre = new ArbreKd(x, y);
+        nbCandidats = nombreCandidats;
+        int[] resultat = new int[maisons.size() * nbCandidats];
+        int[] proches = new int[nbCandidats];
+        for (int i = 0; i < maisons.size(); i++) {
+            Position p = maisons.get(i).getPosition();
+            arbre.plusProches(p.getX(), p.getY(), nbCandidats, proches);
+            System.arraycopy(proches, 0, resultat, i * nbCandidats, nbCandidats);
+        }
+        return resultat;
+    }
+
+    private boolean estCandidat(int maison, int generateur) {
+        if (candidats == null) return true;
+        for (int k = maison * nbCandidats; k < (maison + 1) * nbCandidats; k++) {
+            if (candidats[k] == generateur) return true;
+        }
+        return false;
+    }
+
+    private static double taux(int charge, Generateur g) {
+        return g.getCapaciteMax() > 0 ? (double) charge / g.getCapaciteMax() : 0.0;
+    }
+
+    private static int[] demandes(Reseau r) {
+        List<Maison> maisons = r.getMaisons();
+        int[] demandes = new int[maisons.size()];
+        for (int i = 0; i < demandes.length; i++) {
+            demandes[i] = maisons.get(i).getDemande();
+        }
+        return demandes;
+    }
+
+    private static int[] capacites(Reseau r) {
+        List<Generateur> generateurs = r.getGenerateurs();
+        int[] capacites = new int[generateurs.size()];
+        for (int g = 0; g < capacites.length; g++) {
+            capacites[g] = generateurs.get(g).getCapaciteMax();
+        }
+        return capacites;
+    }
+
+    private static int[] charges(int[] demandes, int[] affectation, int nbGenerateurs) {
+        int[] charges = new int[nbGenerateurs];
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] >= 0) charges[affectation[i]] += demandes[i];
+        }
+        return charges;
+    }
+
+    private static Map<Generateur, Integer> indexGenerateurs(Reseau r) {
+        Map<Generateur, Integer> index = new HashMap<>();
+        List<Generateur> generateurs = r.getGenerateurs();
+        for (int g = 0; g < generateurs.size(); g++) {
+            index.put(generateurs.get(g), g);
+        }
+        return index;
+    }
+
+    /**
+     * @return l'indice du générateur de chaque maison, -1 si elle n'est pas connectée
+     */
+    private static int[] affectation(Reseau r) {
+        Map<Generateur, Integer> index = indexGenerateurs(r);
+        List<Maison> maisons = r.getMaisons();
+        int[] affectation = new int[maisons.size()];
+        for (int i = 0; i < affectation.length; i++) {
+            Generateur g = r.getGenerateurDeMaison(maisons.get(i));
+            affectation[i] = (g != null) ? index.get(g) : -1;
+        }
+        return affectation;
+    }
+
+    /**
+     * Reconnecte les maisons connectées de r selon l'affectation donnée.
+     */
+    private static void appliquer(Reseau r, int[] affectation) {
+        List<Maison> maisons = r.getMaisons();
+        List<Generateur> generateurs = r.getGenerateurs();
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] < 0) continue;
+            Maison m = maisons.get(i);
+            Generateur actuel = r.getGenerateurDeMaison(m);
+            Generateur nouveau = generateurs.get(affectation[i]);
+            if (actuel != null && !actuel.equals(nouveau)) {
+                r.modifierConnexion(m, actuel, nouveau);
+            }
+        }
+    }
+
+
+    /**
+     * Même chose que {@link #optimisationMultiDemarrages(Reseau, int)}.
+     * 
+     * @param effort nombre de redémarrages
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int effort) {
+        return optimisationMultiDemarrages(reseau, effort);
+    }
+
+    /**
+     * Version coopérative : les meilleures solutions des redémarrages sont
+     * publiées dans partage, et la passe gloutonne, la recherche locale
+     * comme les redémarrages s'arrêtent dès que l'arrêt est demandé ; la
+     * meilleure solution trouvée jusque-là est alors retournée. Une
+     * recherche locale dont le coût est moins bon que le meilleur connu de
+     * partage (celui d'une autre stratégie ou d'un redémarrage précédent)
+     * s'arrête après {@value #DIVISEUR_RETARD} fois moins d'itérations sans
+     * amélioration.
+     * 
+     * @param effort nombre de redémarrages
+     */
+    @Override
+    public Reseau optimiser(Reseau reseau, int effort, MeilleurConnu partage) {
+        this.partage = partage;
+        try {
+            return optimisationMultiDemarrages(reseau, effort);
+        } finally {
+            this.partage = null;
+        }
+    }
+
+    private boolean arretDemande() {
+        return partage != null && partage.estArrete();
+    }
+
+    /**
+     * @return le nombre d'itérations sans amélioration tolérées pour une
+     *         recherche locale au coût donné
+     */
+    private int patience(double cout) {
+        if (partage != null && partage.getCout() < cout) {
+            return Math.max(1, stagnation / DIVISEUR_RETARD);
+        }
+        return stagnation;
+    }
+
+    private void publier(double cout, int[] affectation) {
+        if (partage != null) partage.proposer(cout, affectation);
+    }
+
+    /**
+     * Fixe l'écart relatif (coût - borne) / coût en dessous duquel
+     * l'optimisation s'arrête. Par défaut 0 : on ne s'arrête avant la fin
+     * que si la borne est atteinte.
+     * 
+     * @param tolerance écart toléré (0.05 pour 5 %)
+     * @throws IllegalArgumentException si la tolérance est négative
+     */
+    public void setToleranceEcart(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("La tolérance doit être positive");
+        }
+        this.toleranceEcart = tolerance;
+    }
+
+    public double getToleranceEcart() {
+        return toleranceEcart;
+    }
+
+    /**
+     * Choisit les stratégies de démarrage des redémarrages (après le premier,
+     * glouton). Elles sont utilisées à tour de rôle, dans l'ordre donné.
+     * Par défaut : meilleur ajustement, moins chargé, regret.
+     * 
+     * @param strategies au moins une stratégie
+     * @throws IllegalArgumentException si aucune stratégie n'est donnée
+     */
+    public void setStrategiesDemarrage(StrategieDemarrage... strategies) {
+        if (strategies == null || strategies.length == 0) {
+            throw new IllegalArgumentException("Il faut au moins une stratégie de démarrage");
+        }
+        this.strategies = strategies.clone();
+    }
+
+    public StrategieDemarrage[] getStrategiesDemarrage() {
+        return strategies.clone();
+    }
+
+    /**
+     * Choisit les paramètres de la recherche (par défaut
+     * {@link ProfilParametres#actuel()}).
+     */
+    public void setProfil(ProfilParametres profil) {
+        this.profil = Objects.requireNonNull(profil);
+    }
+
+    public ProfilParametres getProfil() {
+        return profil;
+    }
+
+    /**
+     * Fixe la graine du générateur aléatoire : deux optimisations lancées
+     * avec la même graine sur le même réseau donnent le même résultat.
+     */
+    public void setGraine(long graine) {
+        random.setSeed(graine);
+    }
+
+    /**
+     * Active l'écriture de points de reprise pendant les optimisations
+     * multi-démarrages, pour les reprendre avec
+     * {@link #reprendre(Reseau, int, Path)} après un arrêt.
+     * 
+     * Un point est écrit au plus une fois par période, entre deux
+     * redémarrages ou toutes les {@value #PAS_REPRISE} itérations au moins
+     * d'une recherche locale ; il remplace le précédent.
+     * 
+     * @param fichier fichier du point de reprise, null pour désactiver
+     * @param periodeMs temps minimal entre deux points, en millisecondes
+     * @throws IllegalArgumentException si la période est négative
+     */
+    public void setPointDeReprise(Path fichier, long periodeMs) {
+        if (periodeMs < 0) {
+            throw new IllegalArgumentException("La période doit être positive");
+        }
+        this.fichierReprise = fichier;
+        this.periodeReprise = periodeMs * 1_000_000L;
+    }
+
+    /**
+     * Fait suivre les charges des générateurs pendant les optimisations
+     * multi-démarrages : celles de la recherche locale en cours, puis celles
+     * de la meilleure solution à la fin.
+     * 
+     * @param suivi destinataire des charges, null pour désactiver
+     */
+    public void setSuiviCharges(SuiviCharges suivi) {
+        this.suivi = suivi;
+    }
+
+    /**
+     * Restreint les déplacements de chaque maison à ses k générateurs les
+     * plus proches, quand toutes les maisons et tous les générateurs ont une
+     * position : le voisinage d'une maison passe de G à k déplacements.
+     * Sans positions, ou si k >= G, les déplacements ne sont pas restreints.
+     * 
+     * L'optimisation gloutonne, les heuristiques de démarrage, la recherche
+     * locale et le path relinking ne placent une maison que sur l'un de ses
+     * candidats ; une maison connectée ailleurs dans le réseau initial y est
+     * ramenée par l'optimisation gloutonne. La recherche locale ne s'arrête
+     * alors plus quand tous les déplacements distincts ont été refusés,
+     * seulement par stagnation.
+     * 
+     * @param k nombre de candidats par maison, 0 pour tous les générateurs
+     * @throws IllegalArgumentException si k est négatif
+     */
+    public void setNombreCandidats(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Le nombre de candidats doit être positif");
+        }
+        this.nombreCandidats = k;
+    }
+
+    public int getNombreCandidats() {
+        return nombreCandidats;
+    }
+
+    /**
+     * @return la borne inférieure calculée lors de la dernière optimisation, null avant
+     */
+    public BorneInferieure getDerniereBorne() {
+        return derniereBorne;
+    }
+
+    /**
+     * @return l'écart relatif entre le coût trouvé lors de la dernière
+     *         optimisation et sa borne inférieure
+     */
+    public double getDernierEcart() {
+        return derniereBorne != null ? derniereBorne.ecart(dernierCout) : 0.0;
+    }
+
+    /**
+     * @return le nombre de redémarrages de la dernière optimisation qui
+     *         partaient d'une solution déjà visitée (ils sont abandonnés) ou
+     *         aboutissaient à un optimum local déjà trouvé
+     */
+    public int getNombreDoublons() {
+        return nombreDoublons;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package optimisation;
+
+import java.io.*;
+import java.nio.file.*;
+
+
+/**
+ * État d'une optimisation multi-démarrages de {@link OptimisateurReseau},
+ * suffisant pour la reprendre exactement là où elle s'est arrêtée.
+ *
+ * On y trouve l'état du générateur aléatoire, la graine des clés de Zobrist,
+ * la phase (redémarrages ou path relinking) et l'indice en cours, la meilleure
+ * solution, le pool d'élite, les hashs des points de départ et optimums locaux
+ * déjà visités (quelques milliers au plus) et, si le point a été pris pendant
+ * une recherche locale, l'état de celle-ci.
+ *
+ * Le fichier est binaire ; il est écrit dans un fichier temporaire puis
+ * renommé, pour qu'un arrêt pendant l'écriture laisse le point précédent
+ * intact.
+ */
+final class PointDeReprise {
+
+    private static final int MAGIQUE = 0x52455052;
+    private static final int VERSION = 2;
+
+    /**
+     * État d'une recherche locale interrompue.
+     */
+    static final class Recherche {
+        final int[] affectation;
+        final int iteration;
+        final int iterationsSansAmelioration;
+        final boolean guideEssaye;
+        final long[] refuses;
+        final int[] ordreCasiers;
+
+        Recherche(int[] affectation, int iteration, int iterationsSansAmelioration,
+                  boolean guideEssaye, long[] refuses, int[] ordreCasiers) {
+            this.affectation = affectation;
+            this.iteration = iteration;
+            this.iterationsSansAmelioration = iterationsSansAmelioration;
+            this.guideEssaye = guideEssaye;
+            this.refuses = refuses;
+            this.ordreCasiers = ordreCasiers;
+        }
+    }
+
+    int nbMaisons;
+    int nbGenerateurs;
+    long etatAlea;
+    long graineZobrist;
+    boolean reliage;
+    int indice;
+    int cible;
+    int[] meilleure;
+    double meilleurCout;
+    int[] meilleureReliee;
+    double coutRelie;
+    int nombreDoublons;
+    long[] visites;
+    int[][] elites;
+    double[] coutsElites;
+    long[] hashsElites;
+    Recherche recherche;
+
+
+    /**
+     * Écrit le point de reprise (fichier temporaire puis renommage).
+     */
+    void ecrire(Path fichier) throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaire)))) {
+            out.writeInt(MAGIQUE);
+            out.writeInt(VERSION);
+            out.writeInt(nbMaisons);
+            out.writeInt(nbGenerateurs);
+            out.writeLong(etatAlea);
+            out.writeLong(graineZobrist);
+            out.writeBoolean(reliage);
+            out.writeInt(indice);
+            out.writeInt(cible);
+            ecrireTableau(out, meilleure);
+            out.writeDouble(meilleurCout);
+            ecrireTableau(out, meilleureReliee);
+            out.writeDouble(coutRelie);
+            out.writeInt(nombreDoublons);
+            ecrireTableau(out, visites);
+            out.writeInt(elites.length);
+            for (int k = 0; k < elites.length; k++) {
+                ecrireTableau(out, elites[k]);
+                out.writeDouble(coutsElites[k]);
+                out.writeLong(hashsElites[k]);
+            }
+            out.writeBoolean(recherche != null);
+            if (recherche != null) {
+                ecrireTableau(out, recherche.affectation);
+                out.writeInt(recherche.iteration);
+                out.writeInt(recherche.iterationsSansAmelioration);
+                out.writeBoolean(recherche.guideEssaye);
+                ecrireTableau(out, recherche.refuses);
+                ecrireTableau(out, recherche.ordreCasiers);
+            }
+        }
+        try {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @throws IOException si le fichier est illisible ou n'est pas un point de reprise
+     */
+    static PointDeReprise lire(Path fichier) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (in.readInt() != MAGIQUE || in.readInt() != VERSION) {
+                throw new IOException("Point de reprise invalide : " + fichier);
+            }
+            PointDeReprise p = new PointDeReprise();
+            p.nbMaisons = in.readInt();
+            p.nbGenerateurs = in.readInt();
+            p.etatAlea = in.readLong();
+            p.graineZobrist = in.readLong();
+            p.reliage = in.readBoolean();
+            p.indice = in.readInt();
+            p.cible = in.readInt();
+            p.meilleure = lireEntiers(in);
+            p.meilleurCout = in.readDouble();
+            p.meilleureReliee = lireEntiers(in);
+            p.coutRelie = in.readDouble();
+            p.nombreDoublons = in.readInt();
+            p.visites = lireLongs(in);
+            int nbElites = in.readInt();
+            p.elites = new int[nbElites][];
+            p.coutsElites = new double[nbElites];
+            p.hashsElites = new long[nbElites];
+            for (int k = 0; k < nbElites; k++) {
+                p.elites[k] = lireEntiers(in);
+                p.coutsElites[k] = in.readDouble();
+                p.hashsElites[k] = in.readLong();
+            }
+            if (in.readBoolean()) {
+                p.recherche = new Recherche(lireEntiers(in), in.readInt(), in.readInt(),
+                                            in.readBoolean(), lireLongs(in), lireEntiers(in));
+            }
+            return p;
+        } catch (EOFException | NegativeArraySizeException e) {
+            throw new IOException("Point de reprise tronqué : " + fichier, e);
+        }
+    }
+
+
+    /**
+     * Un tableau absent est écrit avec la longueur -1.
+     */
+    private static void ecrireTableau(DataOutputStream out, int[] t) throws IOException {
+        out.writeInt(t != null ? t.length : -1);
+        if (t == null) return;
+        for (int v : t) out.writeInt(v);
+    }
+
+    private static void ecrireTableau(DataOutputStream out, long[] t) throws IOException {
+        out.writeInt(t.length);
+        for (long v : t) out.writeLong(v);
+    }
+
+    private static int[] lireEntiers(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) return null;
+        int[] t = new int[n];
+        for (int k = 0; k < n; k++) t[k] = in.readInt();
+        return t;
+    }
+
+    private static long[] lireLongs(DataInputStream in) throws IOException {
+        long[] t = new long[in.readInt()];
+        for (int k = 0; k < t.length; k++) t[k] = in.readLong();
+        return t;
+    }
+}
@@ -0,0 +1,85 @@
+package optimisation;
+
+import java.util.*;
+
+
+/**
+ * Ensemble des meilleures solutions distinctes trouvées par les redémarrages.
+ *
+ * Les solutions sont identifiées par leur hash de Zobrist : une solution déjà
+ * présente n'est pas ajoutée deux fois. Quand le pool est plein, une nouvelle
+ * solution remplace la pire si elle est meilleure.
+ */
+final class PoolElite {
+
+    private final int capacite;
+    private final List<int[]> solutions = new ArrayList<>();
+    private final List<Double> couts = new ArrayList<>();
+    private final List<Long> hashs = new ArrayList<>();
+
+
+    PoolElite(int capacite) {
+        if (capacite < 1) {
+            throw new IllegalArgumentException("Le pool doit pouvoir contenir une solution");
+        }
+        this.capacite = capacite;
+    }
+
+    /**
+     * Propose une solution au pool.
+     *
+     * @param affectation l'affectation (copiée si elle est retenue)
+     * @param hash son hash de Zobrist
+     * @param cout son coût
+     * @return true si la solution a été ajoutée
+     */
+    boolean proposer(int[] affectation, long hash, double cout) {
+        if (hashs.contains(hash)) {
+            return false;
+        }
+        if (solutions.size() < capacite) {
+            solutions.add(affectation.clone());
+            couts.add(cout);
+            hashs.add(hash);
+            return true;
+        }
+        int pire = 0;
+        for (int k = 1; k < couts.size(); k++) {
+            if (couts.get(k) > couts.get(pire)) pire = k;
+        }
+        if (cout >= couts.get(pire)) {
+            return false;
+        }
+        solutions.set(pire, affectation.clone());
+        couts.set(pire, cout);
+        hashs.set(pire, hash);
+        return true;
+    }
+
+    int taille() {
+        return solutions.size();
+    }
+
+    int[] solution(int k) {
+        return solutions.get(k);
+    }
+
+    double cout(int k) {
+        return couts.get(k);
+    }
+
+    long hash(int k) {
+        return hashs.get(k);
+    }
+
+    /**
+     * @return l'indice de la meilleure solution, -1 si le pool est vide
+     */
+    int meilleure() {
+        int meilleure = -1;
+        for (int k = 0; k < couts.size(); k++) {
+            if (meilleure < 0 || couts.get(k) < couts.get(meilleure)) meilleure = k;
+        }
+        return meilleure;
+    }
+}
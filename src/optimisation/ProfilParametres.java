@@ -0,0 +1,201 @@
+package optimisation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+
+
+/**
+ * Paramètres de {@link OptimisateurReseau} en fonction de la taille du
+ * réseau (H maisons, G générateurs) :
+ *
+ * - le nombre de redémarrages conseillé ;
+ * - le nombre maximal d'itérations d'une recherche locale ;
+ * - le nombre d'itérations sans amélioration qui arrête une recherche locale.
+ *
+ * Chaque paramètre suit une loi c · H^a · G^b (voir {@link Loi}). Le profil
+ * par défaut reproduit les anciennes constantes : 10 redémarrages,
+ * 1000 · H · G itérations, arrêt après 1000 itérations sans amélioration.
+ * Un profil réglé par {@link ReglageParametres} est enregistré dans un
+ * fichier de propriétés, chargé au démarrage (voir {@link #actuel()}).
+ */
+public final class ProfilParametres {
+
+    /**
+     * Fichier du profil chargé au démarrage, sauf si la propriété système
+     * {@value #PROPRIETE_FICHIER} en désigne un autre.
+     */
+    public static final String FICHIER_PAR_DEFAUT = "profil.properties";
+    public static final String PROPRIETE_FICHIER = "optimisation.profil";
+
+    private static final ProfilParametres DEFAUT = new ProfilParametres(
+            new Loi(10, 0, 0), new Loi(1000, 1, 1), new Loi(1000, 0, 0));
+    private static volatile ProfilParametres actuel;
+
+    /**
+     * Loi c · H^a · G^b, arrondie et bornée entre 1 et Integer.MAX_VALUE.
+     */
+    public static final class Loi {
+        private final double coefficient;
+        private final double exposantMaisons;
+        private final double exposantGenerateurs;
+
+        public Loi(double coefficient, double exposantMaisons, double exposantGenerateurs) {
+            if (!(coefficient > 0) || Double.isInfinite(coefficient)
+                    || !Double.isFinite(exposantMaisons) || !Double.isFinite(exposantGenerateurs)) {
+                throw new IllegalArgumentException("Loi invalide : " + coefficient + " "
+                        + exposantMaisons + " " + exposantGenerateurs);
+            }
+            this.coefficient = coefficient;
+            this.exposantMaisons = exposantMaisons;
+            this.exposantGenerateurs = exposantGenerateurs;
+        }
+
+        public int valeur(int nbMaisons, int nbGenerateurs) {
+            double v = coefficient * Math.pow(Math.max(nbMaisons, 1), exposantMaisons)
+                                   * Math.pow(Math.max(nbGenerateurs, 1), exposantGenerateurs);
+            return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(v)));
+        }
+
+        /**
+         * @return "c a b", la forme lue par {@link #lire(String)}
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %s %s", coefficient, exposantMaisons, exposantGenerateurs);
+        }
+
+        static Loi lire(String texte) {
+            String[] morceaux = texte.trim().split("\\s+");
+            if (morceaux.length != 3) {
+                throw new IllegalArgumentException("Loi invalide : " + texte);
+            }
+            return new Loi(Double.parseDouble(morceaux[0]), Double.parseDouble(morceaux[1]),
+                           Double.parseDouble(morceaux[2]));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Loi l && l.coefficient == coefficient
+                    && l.exposantMaisons == exposantMaisons && l.exposantGenerateurs == exposantGenerateurs;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(coefficient, exposantMaisons, exposantGenerateurs);
+        }
+    }
+
+    private final Loi demarrages;
+    private final Loi iterations;
+    private final Loi stagnation;
+
+
+    public ProfilParametres(Loi demarrages, Loi iterations, Loi stagnation) {
+        this.demarrages = demarrages;
+        this.iterations = iterations;
+        this.stagnation = stagnation;
+    }
+
+    /**
+     * @return le profil reproduisant les anciennes constantes
+     */
+    public static ProfilParametres parDefaut() {
+        return DEFAUT;
+    }
+
+    /**
+     * Profil utilisé par les optimiseurs créés sans profil explicite : celui
+     * du fichier désigné par la propriété système {@value #PROPRIETE_FICHIER},
+     * sinon celui de {@value #FICHIER_PAR_DEFAUT} dans le dossier courant
+     * s'il existe, sinon le profil par défaut. Il est chargé une seule fois.
+     * Un fichier illisible est ignoré.
+     */
+    public static ProfilParametres actuel() {
+        ProfilParametres p = actuel;
+        if (p == null) {
+            Path fichier = Paths.get(System.getProperty(PROPRIETE_FICHIER, FICHIER_PAR_DEFAUT));
+            p = DEFAUT;
+            if (Files.isRegularFile(fichier)) {
+                try {
+                    p = charger(fichier);
+                } catch (IOException e) {
+                    System.err.println("Profil ignoré : " + e.getMessage());
+                }
+            }
+            actuel = p;
+        }
+        return p;
+    }
+
+    public int demarrages(int nbMaisons, int nbGenerateurs) {
+        return demarrages.valeur(nbMaisons, nbGenerateurs);
+    }
+
+    public int iterations(int nbMaisons, int nbGenerateurs) {
+        return iterations.valeur(nbMaisons, nbGenerateurs);
+    }
+
+    public int stagnation(int nbMaisons, int nbGenerateurs) {
+        return stagnation.valeur(nbMaisons, nbGenerateurs);
+    }
+
+    public Loi getDemarrages() {
+        return demarrages;
+    }
+
+    public Loi getIterations() {
+        return iterations;
+    }
+
+    public Loi getStagnation() {
+        return stagnation;
+    }
+
+    /**
+     * Enregistre le profil dans un fichier de propriétés.
+     */
+    public void enregistrer(Path fichier, String commentaire) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("demarrages", demarrages.toString());
+        p.setProperty("iterations", iterations.toString());
+        p.setProperty("stagnation", stagnation.toString());
+        try (Writer w = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            p.store(w, commentaire);
+        }
+    }
+
+    /**
+     * Lit un profil enregistré par {@link #enregistrer(Path, String)}. Un
+     * paramètre absent garde sa loi par défaut.
+     *
+     * @throws IOException si le fichier est illisible ou une loi invalide
+     */
+    public static ProfilParametres charger(Path fichier) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            p.load(r);
+        }
+        try {
+            return new ProfilParametres(
+                    loi(p, "demarrages", DEFAUT.demarrages),
+                    loi(p, "iterations", DEFAUT.iterations),
+                    loi(p, "stagnation", DEFAUT.stagnation));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(fichier + " : " + e.getMessage(), e);
+        }
+    }
+
+    private static Loi loi(Properties p, String cle, Loi defaut) {
+        String texte = p.getProperty(cle);
+        return (texte != null) ? Loi.lire(texte) : defaut;
+    }
+
+    @Override
+    public String toString() {
+        return "demarrages=" + demarrages + ", iterations=" + iterations + ", stagnation=" + stagnation;
+    }
+}
@@ -0,0 +1,244 @@
+package optimisation;
+
+import java.util.*;
+import java.util.concurrent.*;
+import reseau.Reseau;
+
+
+/**
+ * Réglage automatique d'un {@link ProfilParametres} par course (racing) sur
+ * un ensemble d'instances d'entraînement.
+ *
+ * Chaque profil candidat optimise chaque instance, avec la même graine et
+ * le même budget de temps (l'optimisation est arrêtée au bout du budget).
+ * Sur une instance, les candidats sont classés par coût obtenu, puis par
+ * temps à coût égal : un profil qui converge plus vite vers le même coût
+ * est meilleur, un profil qui cherche trop longtemps est arrêté avant
+ * d'avoir fini.
+ *
+ * Après chaque instance (à partir de {@value #INSTANCES_MIN}), les
+ * candidats dont le rang moyen dépasse celui du meilleur de plus que la
+ * différence critique (test de Friedman, approximation normale au seuil
+ * de 5 %) sont éliminés. La course s'arrête quand il ne reste qu'un
+ * candidat ou que les instances sont épuisées ; le candidat de meilleur
+ * rang moyen est retenu.
+ */
+public final class ReglageParametres {
+
+    static final int INSTANCES_MIN = 3;
+    private static final double Z = 1.96;
+    private static final double EPSILON = 1e-9;
+
+    private final List<Reseau> instances;
+    private final long budgetMs;
+    private long graine = 1L;
+    private int tours = 1;
+    private int nombreEvaluations;
+
+
+    /**
+     * @param instances réseaux d'entraînement
+     * @param budgetMs temps maximal d'une optimisation, en millisecondes
+     * @throws IllegalArgumentException si aucune instance n'est donnée ou si
+     *         le budget n'est pas positif
+     */
+    public ReglageParametres(List<Reseau> instances, long budgetMs) {
+        if (instances.isEmpty() || budgetMs < 1) {
+            throw new IllegalArgumentException("Il faut au moins une instance et un budget positif");
+        }
+        this.instances = List.copyOf(instances);
+        this.budgetMs = budgetMs;
+    }
+
+    /**
+     * Candidats explorés par défaut : trois lois pour chaque paramètre, dont
+     * celles du profil par défaut.
+     *
+     * - redémarrages : 10, 4, ou 40 / √H (plus pour les petits réseaux) ;
+     * - itérations : 1000 · H · G, 100 · H · G, ou 200 · H · √G ;
+     * - stagnation : 1000, 5 · H, ou 20 · √(H · G).
+     */
+    public static List<ProfilParametres> candidatsParDefaut() {
+        ProfilParametres.Loi[] demarrages = {
+            new ProfilParametres.Loi(10, 0, 0),
+            new ProfilParametres.Loi(4, 0, 0),
+            new ProfilParametres.Loi(40, -0.5, 0)
+        };
+        ProfilParametres.Loi[] iterations = {
+            new ProfilParametres.Loi(1000, 1, 1),
+            new ProfilParametres.Loi(100, 1, 1),
+            new ProfilParametres.Loi(200, 1, 0.5)
+        };
+        ProfilParametres.Loi[] stagnations = {
+            new ProfilParametres.Loi(1000, 0, 0),
+            new ProfilParametres.Loi(5, 1, 0),
+            new ProfilParametres.Loi(20, 0.5, 0.5)
+        };
+        List<ProfilParametres> candidats = new ArrayList<>();
+        for (ProfilParametres.Loi d : demarrages) {
+            for (ProfilParametres.Loi i : iterations) {
+                for (ProfilParametres.Loi s : stagnations) {
+                    candidats.add(new ProfilParametres(d, i, s));
+                }
+            }
+        }
+        return candidats;
+    }
+
+    /**
+     * Lance la course.
+     *
+     * @param candidats profils à comparer
+     * @return le meilleur profil
+     * @throws IllegalArgumentException si aucun candidat n'est donné
+     */
+    public ProfilParametres regler(List<ProfilParametres> candidats) {
+        if (candidats.isEmpty()) {
+            throw new IllegalArgumentException("Il faut au moins un candidat");
+        }
+        int n = candidats.size();
+        List<double[]> couts = new ArrayList<>();
+        List<long[]> temps = new ArrayList<>();
+        boolean[] elimine = new boolean[n];
+        int restants = n;
+        nombreEvaluations = 0;
+
+        ScheduledExecutorService minuterie = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int tour = 0; tour < tours && restants > 1; tour++) {
+                for (int k = 0; k < instances.size() && restants > 1; k++) {
+                    double[] c = new double[n];
+                    long[] t = new long[n];
+                    for (int j = 0; j < n; j++) {
+                        if (elimine[j]) continue;
+                        long debut = System.nanoTime();
+                        c[j] = evaluer(candidats.get(j), instances.get(k), graine + tour, minuterie);
+                        t[j] = System.nanoTime() - debut;
+                        nombreEvaluations++;
+                    }
+                    couts.add(c);
+                    temps.add(t);
+                    if (couts.size() >= INSTANCES_MIN) {
+                        restants -= eliminer(couts, temps, elimine);
+                    }
+                }
+            }
+        } finally {
+            minuterie.shutdownNow();
+        }
+
+        double[] rangs = rangsMoyens(couts, temps, elimine);
+        int meilleur = -1;
+        for (int j = 0; j < n; j++) {
+            if (!elimine[j] && (meilleur < 0 || rangs[j] < rangs[meilleur])) meilleur = j;
+        }
+        return candidats.get(meilleur);
+    }
+
+    /**
+     * @return le coût obtenu par le profil sur l'instance dans le budget
+     */
+    private double evaluer(ProfilParametres profil, Reseau reseau, long graine, ScheduledExecutorService minuterie) {
+        OptimisateurReseau opt = new OptimisateurReseau();
+        opt.setProfil(profil);
+        opt.setGraine(graine);
+        MeilleurConnu partage = new MeilleurConnu(0.0);
+        ScheduledFuture<?> arret = minuterie.schedule(partage::arreter, budgetMs, TimeUnit.MILLISECONDS);
+        try {
+            int demarrages = profil.demarrages(reseau.getMaisons().size(), reseau.getGenerateurs().size());
+            Reseau resultat = opt.optimiser(reseau, demarrages, partage);
+            return (resultat != null) ? resultat.calculerCout() : reseau.calculerCout();
+        } finally {
+            arret.cancel(false);
+        }
+    }
+
+    /**
+     * Élimine les candidats trop loin du meilleur rang moyen.
+     *
+     * @return le nombre de candidats éliminés
+     */
+    static int eliminer(List<double[]> couts, List<long[]> temps, boolean[] elimine) {
+        double[] rangs = rangsMoyens(couts, temps, elimine);
+        int restants = 0;
+        double meilleur = Double.MAX_VALUE;
+        for (int j = 0; j < rangs.length; j++) {
+            if (elimine[j]) continue;
+            restants++;
+            meilleur = Math.min(meilleur, rangs[j]);
+        }
+        double critique = Z * Math.sqrt(restants * (restants + 1) / (6.0 * couts.size()));
+        int nb = 0;
+        for (int j = 0; j < rangs.length; j++) {
+            if (!elimine[j] && rangs[j] - meilleur > critique) {
+                elimine[j] = true;
+                nb++;
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Rang moyen de chaque candidat restant sur les instances déjà courues
+     * (rangs calculés parmi les candidats restants, ex aequo au rang moyen).
+     */
+    static double[] rangsMoyens(List<double[]> couts, List<long[]> temps, boolean[] elimine) {
+        int n = elimine.length;
+        double[] somme = new double[n];
+        for (int k = 0; k < couts.size(); k++) {
+            double[] c = couts.get(k);
+            long[] t = temps.get(k);
+            Integer[] ordre = new Integer[n];
+            int taille = 0;
+            for (int j = 0; j < n; j++) {
+                if (!elimine[j]) ordre[taille++] = j;
+            }
+            Comparator<Integer> parCout = (a, b) -> comparer(c[a], t[a], c[b], t[b]);
+            Arrays.sort(ordre, 0, taille, parCout);
+            for (int debut = 0; debut < taille; ) {
+                int fin = debut + 1;
+                while (fin < taille && parCout.compare(ordre[debut], ordre[fin]) == 0) fin++;
+                double rang = (debut + 1 + fin) / 2.0;
+                for (int r = debut; r < fin; r++) somme[ordre[r]] += rang;
+                debut = fin;
+            }
+        }
+        for (int j = 0; j < n; j++) somme[j] /= Math.max(couts.size(), 1);
+        return somme;
+    }
+
+    private static int comparer(double coutA, long tempsA, double coutB, long tempsB) {
+        if (Math.abs(coutA - coutB) > EPSILON * Math.max(1.0, Math.abs(coutB))) {
+            return Double.compare(coutA, coutB);
+        }
+        return Long.compare(tempsA, tempsB);
+    }
+
+    /**
+     * Graine des optimisations du premier tour (les tours suivants
+     * utilisent les graines suivantes).
+     */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /**
+     * Nombre de passages sur les instances (1 par défaut), utile quand il y
+     * a peu d'instances.
+     *
+     * @throws IllegalArgumentException si tours < 1
+     */
+    public void setTours(int tours) {
+        if (tours < 1) {
+            throw new IllegalArgumentException("Il faut au moins un tour");
+        }
+        this.tours = tours;
+    }
+
+    /**
+     * @return le nombre d'optimisations lancées par le dernier réglage
+     */
+    public int getNombreEvaluations() {
+        return nombreEvaluations;
+    }
+}
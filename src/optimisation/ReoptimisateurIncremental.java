@@ -0,0 +1,244 @@
+package optimisation;
+
+import java.util.*;
+import reseau.*;
+
+
+/**
+ * Ré-optimise un réseau déjà optimisé après quelques modifications.
+ *
+ * Au lieu de relancer {@link OptimisateurReseau#optimisationMultiDemarrages(Reseau, int)}
+ * depuis zéro, on part de la solution précédente :
+ * - les nouvelles maisons sont connectées au générateur qui coûte le moins,
+ * - seuls les générateurs touchés par les modifications (capacité changée,
+ *   maisons ajoutées ou retirées) sont réparés par recherche locale,
+ * - un générateur qui reçoit ou perd une maison pendant un tour de
+ *   réparation est réparé au tour suivant.
+ */
+public class ReoptimisateurIncremental {
+
+    private static final double EPSILON = 1e-12;
+
+    private int maxTours = 100;
+
+
+    /**
+     * Applique les modifications au réseau précédent puis répare la solution.
+     *
+     * @param precedent réseau optimisé précédemment (non modifié)
+     * @param modifications les modifications à appliquer
+     * @return un nouveau réseau réparé
+     */
+    public Reseau reoptimiser(Reseau precedent, ModificationsReseau modifications) {
+        Set<String> touches = new HashSet<>();
+        Reseau modifie = appliquerModifications(precedent, modifications, touches);
+
+        EtatAffectation etat = new EtatAffectation(modifie);
+        if (etat.nombreGenerateurs() == 0) {
+            return etat.versReseau();
+        }
+
+        boolean[] affecte = new boolean[etat.nombreGenerateurs()];
+        for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+            affecte[g] = touches.contains(etat.generateurs[g].getNom());
+        }
+
+        connecterNouvellesMaisons(etat, affecte);
+        reparer(etat, affecte);
+
+        return etat.versReseau();
+    }
+
+
+    /**
+     * Construit une copie du réseau précédent avec les modifications appliquées.
+     * Les noms des générateurs concernés sont ajoutés à l'ensemble touches.
+     */
+    private Reseau appliquerModifications(Reseau precedent, ModificationsReseau modifications,
+                                          Set<String> touches) {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(precedent.getLambda());
+
+        Map<String, Generateur> generateursAjoutes = new LinkedHashMap<>();
+        for (Generateur g : modifications.getGenerateursAjoutes()) {
+            generateursAjoutes.put(g.getNom(), g);
+        }
+
+        for (Generateur g : precedent.getGenerateurs()) {
+            Generateur ajoute = generateursAjoutes.remove(g.getNom());
+            if (ajoute != null && ajoute.getCapaciteMax() != g.getCapaciteMax()) {
+                touches.add(g.getNom());
+            }
+            Generateur source = (ajoute != null) ? ajoute : g;
+            reseau.ajouterGenerateur(source.copie(source.getCapaciteMax()));
+        }
+        for (Generateur nouveau : generateursAjoutes.values()) {
+            reseau.ajouterGenerateur(nouveau.copie(nouveau.getCapaciteMax()));
+            touches.add(nouveau.getNom());
+        }
+
+        Map<String, Maison> ajoutees = new LinkedHashMap<>();
+        for (Maison m : modifications.getMaisonsAjoutees()) {
+            ajoutees.put(m.getNom(), m);
+        }
+        Set<String> supprimees = modifications.getMaisonsSupprimees();
+        Set<String> modifiees = new HashSet<>();
+
+        for (Maison m : precedent.getMaisons()) {
+            if (supprimees.contains(m.getNom())) continue;
+
+            Maison ajoutee = ajoutees.remove(m.getNom());
+            if (ajoutee != null && ajoutee.getDemande() != m.getDemande()) {
+                modifiees.add(m.getNom());
+            }
+            reseau.ajouterMaison((ajoutee != null ? ajoutee : m).copie());
+        }
+        for (Maison nouvelle : ajoutees.values()) {
+            reseau.ajouterMaison(nouvelle.copie());
+        }
+
+        for (Map.Entry<Generateur, List<Maison>> entry : precedent.getConnexions().entrySet()) {
+            String nomGen = entry.getKey().getNom();
+            for (Maison m : entry.getValue()) {
+                if (supprimees.contains(m.getNom()) || modifiees.contains(m.getNom())) {
+                    touches.add(nomGen);
+                }
+                if (!supprimees.contains(m.getNom())) {
+                    reseau.connecter(reseau.trouverMaisonParNom(m.getNom()),
+                            reseau.trouverGenerateurParNom(nomGen));
+                }
+            }
+        }
+        return reseau;
+    }
+
+
+    /**
+     * Connecte chaque maison non connectée (par demande décroissante)
+     * au générateur qui minimise le coût.
+     */
+    private void connecterNouvellesMaisons(EtatAffectation etat, boolean[] affecte) {
+        List<Integer> nonConnectees = new ArrayList<>();
+        for (int i = 0; i < etat.nombreMaisons(); i++) {
+            if (etat.affectation[i] < 0) nonConnectees.add(i);
+        }
+        nonConnectees.sort((a, b) -> etat.demandes[b] - etat.demandes[a]);
+
+        for (int i : nonConnectees) {
+            int meilleur = 0;
+            double meilleurCout = Double.MAX_VALUE;
+            for (int g = 0; g < etat.nombreGenerateurs(); g++) {
+                double cout = etat.coutApresDeplacement(i, g);
+                if (cout < meilleurCout) {
+                    meilleurCout = cout;
+                    meilleur = g;
+                }
+            }
+            etat.deplacer(i, meilleur);
+            affecte[meilleur] = true;
+        }
+    }
+
+
+    /**
+     * Recherche locale limitée aux générateurs touchés.
+     *
+     * À chaque tour, les maisons des générateurs sources sont déplacées vers
+     * le générateur qui diminue le plus le coût. Les sources du premier tour
+     * sont les générateurs touchés par les modifications ; celles des tours
+     * suivants, seulement les générateurs qui ont reçu ou perdu une maison
+     * au tour précédent : la réparation ne s'étend qu'autour des derniers
+     * déplacements. Le générateur le plus chargé n'est ajouté aux sources
+     * que si l'une d'elles est sous le taux moyen (un générateur ajouté ou
+     * agrandi à remplir). S'arrête dès qu'un tour n'apporte plus
+     * d'amélioration.
+     *
+     * Les maisons de chaque générateur sont tenues dans des listes mises à
+     * jour à chaque déplacement : un tour coûte O(G + M G log G) pour M
+     * maisons sur les sources, sans parcourir toutes les maisons.
+     */
+    private void reparer(EtatAffectation etat, boolean[] affecte) {
+        int nbGenerateurs = etat.nombreGenerateurs();
+        List<List<Integer>> maisons = new ArrayList<>(nbGenerateurs);
+        for (int g = 0; g < nbGenerateurs; g++) maisons.add(new ArrayList<>());
+        for (int i = 0; i < etat.nombreMaisons(); i++) {
+            if (etat.affectation[i] >= 0) maisons.get(etat.affectation[i]).add(i);
+        }
+
+        double coutActuel = etat.cout();
+        boolean[] sources = affecte;
+        for (int tour = 0; tour < maxTours; tour++) {
+            boolean[] suivantes = new boolean[nbGenerateurs];
+            boolean ameliore = false;
+            int plusCharge = aRemplir(etat, sources) ? plusCharge(etat) : -1;
+
+            for (int source = 0; source < nbGenerateurs; source++) {
+                if (!sources[source] && source != plusCharge) continue;
+
+                // À rebours : le retrait par échange avec la dernière ne saute aucune maison
+                List<Integer> liste = maisons.get(source);
+                for (int k = liste.size() - 1; k >= 0; k--) {
+                    int i = liste.get(k);
+                    int meilleur = source;
+                    double meilleurCout = coutActuel;
+                    for (int g = 0; g < nbGenerateurs; g++) {
+                        if (g == source) continue;
+                        double cout = etat.coutApresDeplacement(i, g);
+                        if (cout < meilleurCout - EPSILON) {
+                            meilleurCout = cout;
+                            meilleur = g;
+                        }
+                    }
+                    if (meilleur != source) {
+                        etat.deplacer(i, meilleur);
+                        retirer(liste, k);
+                        maisons.get(meilleur).add(i);
+                        coutActuel = meilleurCout;
+                        suivantes[source] = true;
+                        suivantes[meilleur] = true;
+                        ameliore = true;
+                    }
+                }
+            }
+
+            if (!ameliore) break;
+            sources = suivantes;
+        }
+    }
+
+    /**
+     * @return true si l'une des sources est sous le taux moyen
+     */
+    private static boolean aRemplir(EtatAffectation etat, boolean[] sources) {
+        double moyenne = etat.moyenneTaux();
+        for (int g = 0; g < sources.length; g++) {
+            if (sources[g] && etat.taux(g) < moyenne - EPSILON) return true;
+        }
+        return false;
+    }
+
+    private static int plusCharge(EtatAffectation etat) {
+        int plusCharge = 0;
+        for (int g = 1; g < etat.nombreGenerateurs(); g++) {
+            if (etat.taux(g) > etat.taux(plusCharge)) plusCharge = g;
+        }
+        return plusCharge;
+    }
+
+    /**
+     * Retire l'élément d'indice k en O(1) : le dernier prend sa place.
+     */
+    private static void retirer(List<Integer> liste, int k) {
+        int dernier = liste.remove(liste.size() - 1);
+        if (k < liste.size()) liste.set(k, dernier);
+    }
+
+
+    public void setMaxTours(int maxTours) {
+        this.maxTours = maxTours;
+    }
+
+    public int getMaxTours() {
+        return maxTours;
+    }
+}
@@ -0,0 +1,35 @@
+package optimisation;
+
+
+/**
+ * Façon de construire la solution de départ d'un redémarrage
+ * de {@link OptimisateurReseau#optimisationMultiDemarrages(reseau.Reseau, int)}.
+ *
+ * Les heuristiques constructives placent les maisons en tenant compte de la
+ * capacité restante des générateurs, ce qui évite les départs très surchargés
+ * du tirage aléatoire. Les égalités sont départagées au hasard, si bien que
+ * deux redémarrages avec la même stratégie donnent des solutions différentes.
+ */
+public enum StrategieDemarrage {
+
+    /** Chaque maison est reconnectée à un générateur tiré au hasard. */
+    ALEATOIRE,
+
+    /**
+     * Maisons par demande décroissante, chacune sur le générateur dont la
+     * capacité restante est la plus petite tout en suffisant (best-fit).
+     */
+    MEILLEUR_AJUSTEMENT,
+
+    /**
+     * Maisons par demande décroissante, chacune sur le générateur
+     * le moins utilisé (taux d'utilisation le plus faible).
+     */
+    MOINS_CHARGE,
+
+    /**
+     * Insertion par regret : on place d'abord la maison qui perdrait le plus
+     * si elle ne pouvait pas aller sur le meilleur générateur.
+     */
+    REGRET
+}
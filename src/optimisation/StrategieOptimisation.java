@@ -0,0 +1,39 @@
+package optimisation;
+
+import reseau.Reseau;
+
+
+/**
+ * Algorithme d'optimisation d'un réseau.
+ *
+ * Toutes les stratégies ont la même entrée : le réseau de départ (qui n'est
+ * pas modifié) et un effort dont le sens dépend de l'algorithme (nombre de
+ * redémarrages, d'itérations, de générations...). Elles retournent un nouveau
+ * réseau dans lequel les maisons connectées le restent.
+ */
+public interface StrategieOptimisation {
+
+    /**
+     * @param reseau réseau de départ (non modifié)
+     * @param effort quantité de travail à fournir
+     * @return la meilleure solution trouvée
+     */
+    Reseau optimiser(Reseau reseau, int effort);
+
+    /**
+     * Variante coopérative, utilisée quand plusieurs stratégies tournent en
+     * parallèle : la stratégie publie ses meilleurs coûts dans partage et
+     * s'arrête au plus tôt (avec sa meilleure solution) quand l'arrêt est
+     * demandé. Par défaut, la stratégie ignore partage.
+     *
+     * @param reseau réseau de départ (non modifié)
+     * @param effort quantité de travail à fournir
+     * @param partage meilleur coût connu et indicateur d'arrêt
+     * @return la meilleure solution trouvée
+     */
+    default Reseau optimiser(Reseau reseau, int effort, MeilleurConnu partage) {
+        Reseau resultat = optimiser(reseau, effort);
+        partage.proposer(resultat.calculerCout());
+        return resultat;
+    }
+}
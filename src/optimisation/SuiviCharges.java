@@ -0,0 +1,32 @@
+package optimisation;
+
+
+/**
+ * Reçoit l'évolution des charges des générateurs pendant une optimisation
+ * (voir {@link OptimisateurReseau#setSuiviCharges(SuiviCharges)}), par
+ * exemple pour les afficher en direct.
+ *
+ * Les méthodes sont appelées depuis le thread de l'optimisation, au milieu
+ * de la recherche : elles doivent rendre la main tout de suite.
+ */
+public interface SuiviCharges {
+
+    /**
+     * Toutes les charges : au début de chaque recherche locale et, à la fin,
+     * celles de la meilleure solution.
+     *
+     * @param charges charge de chaque générateur, dans l'ordre du réseau ;
+     *        le tableau est réutilisé par l'optimiseur et doit être copié
+     */
+    void charges(int[] charges);
+
+    /**
+     * Une demande passe d'un générateur à un autre : O(1) par déplacement
+     * accepté, sans recopier les charges.
+     *
+     * @param depuis générateur de départ
+     * @param vers générateur d'arrivée
+     * @param demande demande déplacée
+     */
+    void deplacement(int depuis, int vers, int demande);
+}
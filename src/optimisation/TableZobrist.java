@@ -0,0 +1,43 @@
+package optimisation;
+
+
+/**
+ * Hachage de Zobrist des affectations maisons -> générateurs.
+ *
+ * Chaque couple (maison, générateur) a une clé pseudo-aléatoire de 64 bits ;
+ * le hash d'une affectation est le XOR des clés de ses couples, calculé en
+ * O(H). Deux affectations différentes ont le même hash avec une probabilité de 2^-64.
+ *
+ * Les clés ne sont pas stockées : celle du couple (i, g) est le terme
+ * i * G + g de la suite SplitMix64 de la graine, calculé à la demande. La
+ * table tient donc en O(1) mémoire quelle que soit la taille du réseau, et
+ * se crée sans délai.
+ */
+final class TableZobrist {
+
+    private final int nbGenerateurs;
+    private final long graine;
+
+
+    TableZobrist(int nbGenerateurs, long graine) {
+        this.nbGenerateurs = nbGenerateurs;
+        this.graine = graine;
+    }
+
+    /**
+     * @param affectation générateur de chaque maison (-1 = non connectée)
+     * @return le hash de l'affectation, en O(H)
+     */
+    long hash(int[] affectation) {
+        long h = 0L;
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] >= 0) h ^= cle(i, affectation[i]);
+        }
+        return h;
+    }
+
+    private long cle(int maison, int generateur) {
+        long rang = (long) maison * nbGenerateurs + generateur + 1;
+        return AleaReproductible.melanger(graine + rang * AleaReproductible.GAMMA);
+    }
+}
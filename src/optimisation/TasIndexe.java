@@ -0,0 +1,106 @@
+package optimisation;
+
+import java.util.Arrays;
+
+
+/**
+ * Tas binaire indexé : des éléments 0..n-1 rangés par clé, dont la clé peut
+ * être modifiée en O(log n) grâce à la position de chaque élément dans le tas.
+ * Le sommet est l'élément de plus petite clé, ou de plus grande clé pour un
+ * tas max ; à clé égale, celui de plus petit indice. Le sommet ne dépend
+ * donc que des clés, pas de l'ordre des modifications.
+ */
+final class TasIndexe {
+
+    private final int[] tas;
+    private final int[] position;
+    private final double[] cles;
+    private final boolean max;
+    private int taille;
+
+
+    /**
+     * @param capacite nombre d'éléments possibles (indices 0..capacite-1)
+     * @param max true pour avoir la plus grande clé au sommet
+     */
+    TasIndexe(int capacite, boolean max) {
+        this.tas = new int[capacite];
+        this.position = new int[capacite];
+        this.cles = new double[capacite];
+        this.max = max;
+        Arrays.fill(position, -1);
+    }
+
+    boolean estVide() {
+        return taille == 0;
+    }
+
+    boolean contient(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * @return l'élément au sommet, -1 si le tas est vide
+     */
+    int sommet() {
+        return taille > 0 ? tas[0] : -1;
+    }
+
+    double cle(int id) {
+        return cles[id];
+    }
+
+    void inserer(int id, double cle) {
+        if (contient(id)) {
+            throw new IllegalArgumentException("Élément déjà présent : " + id);
+        }
+        cles[id] = cle;
+        tas[taille] = id;
+        position[id] = taille;
+        taille++;
+        monter(position[id]);
+    }
+
+    /**
+     * Change la clé d'un élément présent, en O(log n).
+     */
+    void modifier(int id, double cle) {
+        cles[id] = cle;
+        monter(position[id]);
+        descendre(position[id]);
+    }
+
+    private boolean avant(int a, int b) {
+        if (cles[a] != cles[b]) return max ? cles[a] > cles[b] : cles[a] < cles[b];
+        return a < b;
+    }
+
+    private void monter(int p) {
+        while (p > 0) {
+            int parent = (p - 1) / 2;
+            if (!avant(tas[p], tas[parent])) break;
+            echanger(p, parent);
+            p = parent;
+        }
+    }
+
+    private void descendre(int p) {
+        while (true) {
+            int gauche = 2 * p + 1;
+            if (gauche >= taille) break;
+            int enfant = gauche;
+            if (gauche + 1 < taille && avant(tas[gauche + 1], tas[gauche])) enfant = gauche + 1;
+            if (!avant(tas[enfant], tas[p])) break;
+            echanger(p, enfant);
+            p = enfant;
+        }
+    }
+
+    private void echanger(int a, int b) {
+        int t = tas[a];
+        tas[a] = tas[b];
+        tas[b] = t;
+        position[tas[a]] = a;
+        position[tas[b]] = b;
+    }
+}
@@ -0,0 +1,231 @@
+package reseau;
+
+import java.util.Arrays;
+
+
+/**
+ * Valeurs agrégées d'un {@link Reseau}, tenues à jour à chaque modification.
+ *
+ * Le réseau n'a plus besoin de parcourir ses maisons pour calculer :
+ * - la demande totale et la capacité totale (O(1)),
+ * - la charge de chaque générateur (O(1) par générateur),
+ * - la somme des taux d'utilisation et la surcharge (O(1)),
+ * - la dispersion (O(log G), grâce à l'{@link ArbreTaux} des taux),
+ * - le coût après déplacement d'une maison, sans modifier le réseau (O(log G)).
+ *
+ * La surcharge est mise à jour par différence ; elle est recalculée
+ * entièrement de temps en temps pour éviter l'accumulation d'erreurs
+ * d'arrondi. La somme des taux est celle de l'arbre, recalculée à partir
+ * des sous-arbres à chaque modification.
+ */
+final class AgregatsReseau {
+
+    private static final int RECALCUL_PERIODE = 1 << 16;
+
+    private int[] charges = new int[16];
+    private int[] capacites = new int[16];
+    private int[] nbConnexions = new int[16];
+    private int nbGenerateurs;
+    private int nbMaisons;
+
+    private long demandeTotale;
+    private long capaciteTotale;
+    private final ArbreTaux arbre = new ArbreTaux(16);
+    private double surcharge;
+    private int nbSurcharges;
+    private int misesAJour;
+
+
+    void ajouterMaison(int demande) {
+        if (nbMaisons == nbConnexions.length) {
+            nbConnexions = Arrays.copyOf(nbConnexions, nbMaisons * 2);
+        }
+        nbConnexions[nbMaisons++] = 0;
+        demandeTotale += demande;
+    }
+
+    void retirerDerniereMaison(int demande) {
+        nbMaisons--;
+        demandeTotale -= demande;
+    }
+
+    void ajouterGenerateur(int capacite) {
+        if (nbGenerateurs == charges.length) {
+            charges = Arrays.copyOf(charges, nbGenerateurs * 2);
+            capacites = Arrays.copyOf(capacites, nbGenerateurs * 2);
+        }
+        charges[nbGenerateurs] = 0;
+        capacites[nbGenerateurs] = capacite;
+        arbre.inserer(nbGenerateurs, 0.0);
+        nbGenerateurs++;
+        capaciteTotale += capacite;
+    }
+
+    /**
+     * Le dernier générateur n'a plus de maison quand il est retiré.
+     */
+    void retirerDernierGenerateur() {
+        nbGenerateurs--;
+        arbre.supprimer(nbGenerateurs);
+        capaciteTotale -= capacites[nbGenerateurs];
+    }
+
+    void connecter(int maison, int generateur, int demande) {
+        nbConnexions[maison]++;
+        changerCharge(generateur, charges[generateur] + demande);
+    }
+
+    void deconnecter(int maison, int generateur, int demande) {
+        nbConnexions[maison]--;
+        changerCharge(generateur, charges[generateur] - demande);
+    }
+
+    /**
+     * Ajuste la charge d'un générateur dont une maison change de consommation.
+     */
+    void ajusterCharge(int generateur, int delta) {
+        changerCharge(generateur, charges[generateur] + delta);
+    }
+
+    void changerDemandeTotale(int delta) {
+        demandeTotale += delta;
+    }
+
+    void changerCapacite(int generateur, int capacite) {
+        retirerTermes(generateur);
+        capaciteTotale += capacite - capacites[generateur];
+        capacites[generateur] = capacite;
+        ajouterTermes(generateur);
+        arbre.modifier(generateur, taux(generateur));
+        apresMiseAJour();
+    }
+
+    private void changerCharge(int generateur, int charge) {
+        retirerTermes(generateur);
+        charges[generateur] = charge;
+        ajouterTermes(generateur);
+        arbre.modifier(generateur, taux(generateur));
+        apresMiseAJour();
+    }
+
+    private void retirerTermes(int g) {
+        double terme = termeSurcharge(g);
+        if (terme > 0) {
+            surcharge -= terme;
+            nbSurcharges--;
+        }
+    }
+
+    private void ajouterTermes(int g) {
+        double terme = termeSurcharge(g);
+        if (terme > 0) {
+            surcharge += terme;
+            nbSurcharges++;
+        }
+    }
+
+    private void apresMiseAJour() {
+        if (++misesAJour >= RECALCUL_PERIODE) {
+            recalculer();
+        }
+    }
+
+    void recalculer() {
+        surcharge = 0.0;
+        nbSurcharges = 0;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            ajouterTermes(g);
+        }
+        misesAJour = 0;
+    }
+
+
+    int charge(int g) {
+        return charges[g];
+    }
+
+    int nbConnexions(int maison) {
+        return nbConnexions[maison];
+    }
+
+    long demandeTotale() {
+        return demandeTotale;
+    }
+
+    long capaciteTotale() {
+        return capaciteTotale;
+    }
+
+    double taux(int g) {
+        return taux(charges[g], capacites[g]);
+    }
+
+    private static double taux(int charge, int capacite) {
+        return (capacite > 0) ? (double) charge / capacite : 0.0;
+    }
+
+    private double termeSurcharge(int g) {
+        return termeSurcharge(charges[g], capacites[g]);
+    }
+
+    private static double termeSurcharge(int charge, int capacite) {
+        if (capacite > 0 && charge > capacite) {
+            return (double) (charge - capacite) / capacite;
+        }
+        return 0.0;
+    }
+
+    double moyenneTaux() {
+        return (nbGenerateurs > 0) ? arbre.somme() / nbGenerateurs : 0.0;
+    }
+
+    /**
+     * dispersion = Σ | taux_i - moyenne |, lue dans l'arbre des taux en O(log G).
+     */
+    double dispersion() {
+        return arbre.sommeEcarts(moyenneTaux());
+    }
+
+    /**
+     * Coût du réseau si une demande passait du générateur a au générateur b,
+     * sans rien modifier. a ou b peut valoir -1 (maison non connectée avant,
+     * ou plus connectée après). O(log G).
+     */
+    double coutApresDeplacement(int a, int b, int demande, double lambda) {
+        if (a == b) {
+            return dispersion() + lambda * surcharge();
+        }
+        double tauxA = 0.0, tauxB = 0.0;
+        double surchargeApres = surcharge;
+        int nbSurchargesApres = nbSurcharges;
+        if (a >= 0) {
+            int charge = charges[a] - demande;
+            tauxA = taux(charge, capacites[a]);
+            double terme = termeSurcharge(charge, capacites[a]);
+            surchargeApres += terme - termeSurcharge(a);
+            nbSurchargesApres += signe(terme) - signe(termeSurcharge(a));
+        }
+        if (b >= 0) {
+            int charge = charges[b] + demande;
+            tauxB = taux(charge, capacites[b]);
+            double terme = termeSurcharge(charge, capacites[b]);
+            surchargeApres += terme - termeSurcharge(b);
+            nbSurchargesApres += signe(terme) - signe(termeSurcharge(b));
+        }
+        if (nbSurchargesApres == 0) {
+            surchargeApres = 0.0;
+        }
+        return arbre.dispersionApres(a, tauxA, b, tauxB) + lambda * surchargeApres;
+    }
+
+    private static int signe(double terme) {
+        return (terme > 0) ? 1 : 0;
+    }
+
+    /**
+     * @return la surcharge, exactement 0 si aucun générateur n'est surchargé
+     */
+    double surcharge() {
+        return (nbSurcharges > 0) ? surcharge : 0.0;
+    }
+}
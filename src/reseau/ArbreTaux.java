@@ -0,0 +1,273 @@
+package reseau;
+
+import java.util.Arrays;
+
+
+/**
+ * Arbre ordonné des taux d'utilisation des générateurs, augmenté par le
+ * nombre d'éléments et la somme des taux de chaque sous-arbre.
+ *
+ * Il permet de calculer Σ |taux_i - m| pour n'importe quelle valeur m en
+ * O(log G) : on cumule le nombre et la somme des taux inférieurs à m en
+ * descendant une seule branche, le reste s'en déduit avec les totaux.
+ *
+ * C'est un arbre-tas (treap) stocké dans des tableaux : le noeud d'un
+ * générateur est son indice, il n'y a donc aucune allocation par opération.
+ * Les priorités sont dérivées de l'indice par mélange de bits.
+ */
+public final class ArbreTaux {
+
+    private static final int AUCUN = -1;
+
+    private int[] gauche;
+    private int[] droite;
+    private int[] taille;
+    private long[] priorite;
+    private double[] taux;
+    private double[] somme;
+    private boolean[] present;
+    private int racine = AUCUN;
+
+
+    public ArbreTaux(int capacite) {
+        int n = Math.max(capacite, 4);
+        gauche = new int[n];
+        droite = new int[n];
+        taille = new int[n];
+        priorite = new long[n];
+        taux = new double[n];
+        somme = new double[n];
+        present = new boolean[n];
+    }
+
+    /**
+     * Insère le générateur id avec le taux donné.
+     *
+     * @throws IllegalArgumentException si id est déjà présent
+     */
+    public void inserer(int id, double t) {
+        assurerCapacite(id + 1);
+        if (present[id]) {
+            throw new IllegalArgumentException("Générateur " + id + " déjà présent");
+        }
+        present[id] = true;
+        gauche[id] = AUCUN;
+        droite[id] = AUCUN;
+        taux[id] = t;
+        priorite[id] = melanger(id);
+        mettreAJour(id);
+
+        int[] parts = new int[2];
+        separer(racine, t, id, parts);
+        racine = fusionner(fusionner(parts[0], id), parts[1]);
+    }
+
+    /**
+     * Retire le générateur id.
+     */
+    public void supprimer(int id) {
+        if (id >= present.length || !present[id]) {
+            throw new IllegalArgumentException("Générateur " + id + " absent");
+        }
+        racine = retirer(racine, id);
+        present[id] = false;
+    }
+
+    /**
+     * Change le taux du générateur id (retrait puis insertion).
+     */
+    public void modifier(int id, double t) {
+        supprimer(id);
+        inserer(id, t);
+    }
+
+    public boolean contient(int id) {
+        return id < present.length && present[id];
+    }
+
+    public double getTaux(int id) {
+        return taux[id];
+    }
+
+    public int taille() {
+        return taille(racine);
+    }
+
+    /**
+     * @return la somme de tous les taux
+     */
+    public double somme() {
+        return somme(racine);
+    }
+
+    /**
+     * @return le générateur de plus petit taux, -1 si l'arbre est vide
+     */
+    public int premier() {
+        int n = racine;
+        while (n != AUCUN && gauche[n] != AUCUN) n = gauche[n];
+        return n;
+    }
+
+    /**
+     * @return le générateur de plus grand taux, -1 si l'arbre est vide
+     */
+    public int dernier() {
+        int n = racine;
+        while (n != AUCUN && droite[n] != AUCUN) n = droite[n];
+        return n;
+    }
+
+    /**
+     * Copie les taux dans l'ordre croissant, en O(G).
+     *
+     * @param sortie tableau d'au moins {@link #taille()} cases
+     * @return le nombre de taux copiés
+     */
+    public int valeursTriees(double[] sortie) {
+        return copier(racine, sortie, 0);
+    }
+
+    /**
+     * Calcule Σ | taux_i - m | sur tous les générateurs, en O(log G).
+     *
+     * @param m valeur de référence (en général la moyenne des taux)
+     * @return la somme des écarts absolus
+     */
+    public double sommeEcarts(double m) {
+        int nbInferieurs = 0;
+        double sommeInferieurs = 0.0;
+        int n = racine;
+        while (n != AUCUN) {
+            if (taux[n] < m) {
+                nbInferieurs += taille(gauche[n]) + 1;
+                sommeInferieurs += somme(gauche[n]) + taux[n];
+                n = droite[n];
+            } else {
+                n = gauche[n];
+            }
+        }
+        int nbSuperieurs = taille(racine) - nbInferieurs;
+        double sommeSuperieurs = somme(racine) - sommeInferieurs;
+        return (m * nbInferieurs - sommeInferieurs) + (sommeSuperieurs - m * nbSuperieurs);
+    }
+
+    /**
+     * Calcule Σ | taux_i - moyenne | comme si les générateurs a et b avaient
+     * les taux donnés, sans modifier l'arbre : O(log G). La moyenne utilisée
+     * est celle des taux après changement. a ou b peut valoir -1 (inchangé).
+     *
+     * @return la dispersion après changement des deux taux
+     */
+    public double dispersionApres(int a, double tauxA, int b, double tauxB) {
+        int n = taille();
+        if (n == 0) return 0.0;
+        double total = somme();
+        if (a >= 0) total += tauxA - taux[a];
+        if (b >= 0) total += tauxB - taux[b];
+        double moyenne = total / n;
+
+        double dispersion = sommeEcarts(moyenne);
+        if (a >= 0) dispersion += Math.abs(tauxA - moyenne) - Math.abs(taux[a] - moyenne);
+        if (b >= 0) dispersion += Math.abs(tauxB - moyenne) - Math.abs(taux[b] - moyenne);
+        return dispersion;
+    }
+
+
+    private int copier(int n, double[] sortie, int k) {
+        if (n == AUCUN) return k;
+        k = copier(gauche[n], sortie, k);
+        sortie[k++] = taux[n];
+        return copier(droite[n], sortie, k);
+    }
+
+    private int taille(int n) {
+        return n == AUCUN ? 0 : taille[n];
+    }
+
+    private double somme(int n) {
+        return n == AUCUN ? 0.0 : somme[n];
+    }
+
+    private void mettreAJour(int n) {
+        taille[n] = 1 + taille(gauche[n]) + taille(droite[n]);
+        somme[n] = taux[n] + somme(gauche[n]) + somme(droite[n]);
+    }
+
+    /**
+     * Ordre des noeuds : par taux, puis par indice pour départager les égalités.
+     */
+    private boolean avant(int n, double t, int id) {
+        return taux[n] < t || (taux[n] == t && n < id);
+    }
+
+    /**
+     * Sépare l'arbre n en parts[0] (noeuds avant (t, id)) et parts[1] (le reste).
+     */
+    private void separer(int n, double t, int id, int[] parts) {
+        if (n == AUCUN) {
+            parts[0] = AUCUN;
+            parts[1] = AUCUN;
+            return;
+        }
+        if (avant(n, t, id)) {
+            separer(droite[n], t, id, parts);
+            droite[n] = parts[0];
+            mettreAJour(n);
+            parts[0] = n;
+        } else {
+            separer(gauche[n], t, id, parts);
+            gauche[n] = parts[1];
+            mettreAJour(n);
+            parts[1] = n;
+        }
+    }
+
+    /**
+     * Fusionne deux arbres dont toutes les clés de a précèdent celles de b.
+     */
+    private int fusionner(int a, int b) {
+        if (a == AUCUN) return b;
+        if (b == AUCUN) return a;
+        if (priorite[a] > priorite[b]) {
+            droite[a] = fusionner(droite[a], b);
+            mettreAJour(a);
+            return a;
+        }
+        gauche[b] = fusionner(a, gauche[b]);
+        mettreAJour(b);
+        return b;
+    }
+
+    private int retirer(int n, int id) {
+        if (n == id) {
+            return fusionner(gauche[n], droite[n]);
+        }
+        if (avant(n, taux[id], id)) {
+            droite[n] = retirer(droite[n], id);
+        } else {
+            gauche[n] = retirer(gauche[n], id);
+        }
+        mettreAJour(n);
+        return n;
+    }
+
+    private void assurerCapacite(int n) {
+        if (n <= present.length) return;
+        int nouvelle = Math.max(n, present.length * 2);
+        gauche = Arrays.copyOf(gauche, nouvelle);
+        droite = Arrays.copyOf(droite, nouvelle);
+        taille = Arrays.copyOf(taille, nouvelle);
+        priorite = Arrays.copyOf(priorite, nouvelle);
+        taux = Arrays.copyOf(taux, nouvelle);
+        somme = Arrays.copyOf(somme, nouvelle);
+        present = Arrays.copyOf(present, nouvelle);
+    }
+
+    private static long melanger(int id) {
+        long z = (id + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -5,12 +5,14 @@ package reseau;
 /**
  * Représente un générateur.
  * 
- * Chaque générateur a un nom et une capacité maximale.
+ * Chaque générateur a un nom, une capacité maximale et éventuellement une
+ * position ({@link Position}).
  * On peut comparer deux générateurs par leur nom.
  */
 public class Generateur {
     private String nom;
     private int capaciteMax;
+    private Position position;
 
     
     /**
@@ -35,10 +37,40 @@ public class Generateur {
         return capaciteMax;
     }
 
-    public void setCapaciteMax(int capaciteMax) {
+    /**
+     * Réservé au réseau, qui tient ses agrégats à jour : pour changer la
+     * capacité d'un générateur enregistré, passer par {@link Reseau#ajouterGenerateur}.
+     */
+    void setCapaciteMax(int capaciteMax) {
         this.capaciteMax = capaciteMax;
     }
 
+    /**
+     * @return la position du générateur, null s'il n'en a pas
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Comme le nom, la position est celle qu'a le générateur quand il est
+     * ajouté au réseau.
+     * 
+     * @param position la position, null pour aucune
+     */
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+
+    /**
+     * @return un nouveau générateur de même nom, de même position et de capacité donnée
+     */
+    public Generateur copie(int capacite) {
+        Generateur copie = new Generateur(nom, capacite);
+        copie.position = position;
+        return copie;
+    }
+
 
     @Override
     public String toString(){
@@ -0,0 +1,191 @@
+package reseau;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Vue immuable d'un réseau à un instant donné.
+ *
+ * Un instantané est obtenu en O(1) par {@link Reseau#instantane()} : il partage
+ * la structure des données du réseau, qui ne sont jamais modifiées sur place.
+ * Il peut être lu par autant de threads que nécessaire, sans verrou,
+ * pendant qu'un autre thread continue de modifier le réseau.
+ *
+ * Les maisons et générateurs sont désignés par leur indice, dans l'ordre
+ * d'ajout au réseau. Une maison non connectée a le générateur -1.
+ */
+public final class InstantaneReseau {
+
+    private final ListePersistante<String> nomsMaisons;
+    private final ListePersistante<String> nomsGenerateurs;
+    private final ListePersistante<Position> positionsMaisons;
+    private final ListePersistante<Position> positionsGenerateurs;
+    private final VecteurPersistant codesDemandes;
+    private final VecteurPersistant affectation;
+    private final VecteurPersistant capacites;
+    private final VecteurPersistant charges;
+    private final double lambda;
+
+
+    InstantaneReseau(ListePersistante<String> nomsMaisons, ListePersistante<String> nomsGenerateurs,
+                     ListePersistante<Position> positionsMaisons, ListePersistante<Position> positionsGenerateurs,
+                     VecteurPersistant codesDemandes, VecteurPersistant affectation,
+                     VecteurPersistant capacites, VecteurPersistant charges, double lambda) {
+        this.nomsMaisons = nomsMaisons;
+        this.nomsGenerateurs = nomsGenerateurs;
+        this.positionsMaisons = positionsMaisons;
+        this.positionsGenerateurs = positionsGenerateurs;
+        this.codesDemandes = codesDemandes;
+        this.affectation = affectation;
+        this.capacites = capacites;
+        this.charges = charges;
+        this.lambda = lambda;
+    }
+
+    public int nombreMaisons() {
+        return nomsMaisons.taille();
+    }
+
+    public int nombreGenerateurs() {
+        return nomsGenerateurs.taille();
+    }
+
+    public String getNomMaison(int i) {
+        return nomsMaisons.get(i);
+    }
+
+    public String getNomGenerateur(int g) {
+        return nomsGenerateurs.get(g);
+    }
+
+    /**
+     * @return la position de la maison i, null si elle n'en a pas
+     */
+    public Position getPositionMaison(int i) {
+        return positionsMaisons.get(i);
+    }
+
+    /**
+     * @return la position du générateur g, null s'il n'en a pas
+     */
+    public Position getPositionGenerateur(int g) {
+        return positionsGenerateurs.get(g);
+    }
+
+    public int getDemande(int i) {
+        return Reseau.demandeDe(codesDemandes.get(i));
+    }
+
+    public int getCapacite(int g) {
+        return capacites.get(g);
+    }
+
+    public int getCharge(int g) {
+        return charges.get(g);
+    }
+
+    /**
+     * @param i indice de la maison
+     * @return indice du générateur de la maison, -1 si elle n'est pas connectée
+     */
+    public int getGenerateurDeMaison(int i) {
+        return affectation.get(i);
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * Indices des maisons connectées à un générateur.
+     *
+     * @param g indice du générateur
+     * @return liste des indices de maisons
+     */
+    public List<Integer> getMaisonsDuGenerateur(int g) {
+        List<Integer> liste = new ArrayList<>();
+        for (int i = 0; i < affectation.taille(); i++) {
+            if (affectation.get(i) == g) liste.add(i);
+        }
+        return liste;
+    }
+
+    /**
+     * dispersion = Σ | (charge_i / capacite_i) - moyenne |
+     *
+     * @return la dispersion, identique à {@link Reseau#calculerDispersion()}
+     */
+    public double calculerDispersion() {
+        int[] c = charges.versTableau();
+        int[] cap = capacites.versTableau();
+        int nbGen = c.length;
+
+        double somme = 0.0;
+        for (int g = 0; g < nbGen; g++) {
+            somme += (cap[g] > 0) ? (double) c[g] / cap[g] : 0.0;
+        }
+        double moyenne = (nbGen > 0) ? somme / nbGen : 0.0;
+
+        double dispersion = 0.0;
+        for (int g = 0; g < nbGen; g++) {
+            double taux = (cap[g] > 0) ? (double) c[g] / cap[g] : 0.0;
+            dispersion += Math.abs(taux - moyenne);
+        }
+        return dispersion;
+    }
+
+    /**
+     * surcharge = Σ max(0, (charge_i - capacite_i) / capacite_i)
+     *
+     * @return la surcharge, identique à {@link Reseau#calculerSurcharge()}
+     */
+    public double calculerSurcharge() {
+        double surcharge = 0.0;
+        for (int g = 0; g < charges.taille(); g++) {
+            int capacite = capacites.get(g);
+            int charge = charges.get(g);
+            if (capacite > 0 && charge > capacite) {
+                surcharge += (double) (charge - capacite) / capacite;
+            }
+        }
+        return surcharge;
+    }
+
+    public double calculerCout() {
+        return calculerDispersion() + lambda * calculerSurcharge();
+    }
+
+    /**
+     * Reconstruit un réseau modifiable indépendant à partir de l'instantané.
+     *
+     * @return un nouveau réseau
+     */
+    public Reseau versReseau() {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(lambda);
+
+        Generateur[] gens = new Generateur[nombreGenerateurs()];
+        for (int g = 0; g < gens.length; g++) {
+            gens[g] = new Generateur(getNomGenerateur(g), getCapacite(g));
+            gens[g].setPosition(getPositionGenerateur(g));
+            reseau.ajouterGenerateur(gens[g]);
+        }
+
+        Maison[] ms = new Maison[nombreMaisons()];
+        for (int i = 0; i < ms.length; i++) {
+            int code = codesDemandes.get(i);
+            ms[i] = (code < 0) ? new Maison(getNomMaison(i), Consommation.values()[-1 - code])
+                               : new Maison(getNomMaison(i), code);
+            ms[i].setPosition(getPositionMaison(i));
+            reseau.ajouterMaison(ms[i]);
+        }
+
+        for (int i = 0; i < ms.length; i++) {
+            int g = getGenerateurDeMaison(i);
+            if (g >= 0) reseau.connecter(ms[i], gens[g]);
+        }
+        reseau.viderJournal();
+        return reseau;
+    }
+}
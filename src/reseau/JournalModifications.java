@@ -0,0 +1,117 @@
+package reseau;
+
+import java.util.Arrays;
+
+
+/**
+ * Journal des modifications d'un réseau.
+ *
+ * Chaque modification est codée par quatre entiers (type, cible, ancien, nouveau)
+ * rangés à la suite dans un tableau, sans créer d'objet par entrée :
+ * - cible est l'indice de la maison ou du générateur concerné,
+ * - ancien/nouveau sont des indices de générateurs (-1 = aucun),
+ *   des capacités ou des demandes de maisons selon le type (pour une
+ *   demande, -1 - ordinal d'un {@link Consommation}, ou la valeur si >= 0).
+ *
+ * Le journal garde aussi les entrées annulées (au-delà de la position courante)
+ * tant qu'aucune nouvelle modification n'est enregistrée, ce qui permet de
+ * les refaire.
+ */
+public class JournalModifications {
+
+    public static final int CONNEXION = 0;
+    public static final int DECONNEXION = 1;
+    public static final int MODIFICATION = 2;
+    public static final int CONSOMMATION = 3;
+    public static final int CAPACITE = 4;
+    public static final int AJOUT_MAISON = 5;
+    public static final int AJOUT_GENERATEUR = 6;
+
+    private static final int TAILLE_ENTREE = 4;
+
+    private int[] donnees = new int[16 * TAILLE_ENTREE];
+    private int position;
+    private int fin;
+    private long version;
+
+
+    /**
+     * Ajoute une entrée à la position courante.
+     * Les entrées annulées qui suivaient sont oubliées.
+     */
+    void enregistrer(int type, int cible, int ancien, int nouveau) {
+        int debut = position * TAILLE_ENTREE;
+        if (debut + TAILLE_ENTREE > donnees.length) {
+            donnees = Arrays.copyOf(donnees, donnees.length * 2);
+        }
+        donnees[debut] = type;
+        donnees[debut + 1] = cible;
+        donnees[debut + 2] = ancien;
+        donnees[debut + 3] = nouveau;
+        position++;
+        fin = position;
+        version++;
+    }
+
+    void reculer() {
+        position--;
+        version++;
+    }
+
+    void avancer() {
+        position++;
+        version++;
+    }
+
+    void vider() {
+        position = 0;
+        fin = 0;
+        version++;
+    }
+
+    /**
+     * Nombre d'opérations faites sur le journal depuis sa création
+     * (enregistrement, annulation, rétablissement ou vidage).
+     *
+     * Un observateur qui a noté la position et la version peut savoir si
+     * seules des entrées ont été ajoutées ou refaites, ou seulement annulées,
+     * depuis : l'écart de version est alors égal à l'écart de position, et
+     * les entrées entre les deux positions sont exactement celles qui ont
+     * changé le réseau.
+     *
+     * @return la version du journal
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return nombre d'entrées actuellement appliquées au réseau
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return nombre total d'entrées, y compris celles annulées qui peuvent être refaites
+     */
+    public int getFin() {
+        return fin;
+    }
+
+    public int getType(int entree) {
+        return donnees[entree * TAILLE_ENTREE];
+    }
+
+    public int getCible(int entree) {
+        return donnees[entree * TAILLE_ENTREE + 1];
+    }
+
+    public int getAncien(int entree) {
+        return donnees[entree * TAILLE_ENTREE + 2];
+    }
+
+    public int getNouveau(int entree) {
+        return donnees[entree * TAILLE_ENTREE + 3];
+    }
+}
@@ -0,0 +1,89 @@
+package reseau;
+
+import java.util.Arrays;
+
+
+/**
+ * Liste immuable d'objets, utilisée pour les noms des maisons et générateurs
+ * d'un {@link InstantaneReseau}.
+ *
+ * Même principe que {@link VecteurPersistant} : arbre de branchement 32,
+ * ajout et retrait en fin de liste par recopie du seul chemin modifié.
+ *
+ * @param <E> type des éléments (immuables)
+ */
+public final class ListePersistante<E> {
+
+    private static final int BITS = 5;
+    private static final int LARGEUR = 1 << BITS;
+    private static final int MASQUE = LARGEUR - 1;
+
+    private static final ListePersistante<?> VIDE = new ListePersistante<>(0, 0, new Object[LARGEUR]);
+
+    private final int taille;
+    private final int decalage;
+    private final Object[] racine;
+
+
+    private ListePersistante(int taille, int decalage, Object[] racine) {
+        this.taille = taille;
+        this.decalage = decalage;
+        this.racine = racine;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> ListePersistante<E> vide() {
+        return (ListePersistante<E>) VIDE;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int i) {
+        if (i < 0 || i >= taille) {
+            throw new IndexOutOfBoundsException("Indice " + i + " hors de la liste de taille " + taille);
+        }
+        Object[] noeud = racine;
+        for (int d = decalage; d > 0; d -= BITS) {
+            noeud = (Object[]) noeud[(i >>> d) & MASQUE];
+        }
+        return (E) noeud[i & MASQUE];
+    }
+
+    /**
+     * Retourne une nouvelle version avec e ajouté à la fin.
+     */
+    public ListePersistante<E> ajouter(E e) {
+        int i = taille;
+        if (i == (LARGEUR << decalage)) {
+            Object[] nouvelleRacine = new Object[LARGEUR];
+            nouvelleRacine[0] = racine;
+            return new ListePersistante<>(taille + 1, decalage + BITS,
+                    placer(nouvelleRacine, decalage + BITS, i, e));
+        }
+        return new ListePersistante<>(taille + 1, decalage, placer(racine, decalage, i, e));
+    }
+
+    /**
+     * Retourne une nouvelle version sans le dernier élément.
+     */
+    public ListePersistante<E> retirerDernier() {
+        if (taille == 0) {
+            throw new IllegalStateException("Liste vide");
+        }
+        return new ListePersistante<>(taille - 1, decalage, racine);
+    }
+
+    private static Object[] placer(Object[] noeud, int decalage, int i, Object e) {
+        Object[] copie = (noeud == null) ? new Object[LARGEUR] : Arrays.copyOf(noeud, LARGEUR);
+        if (decalage == 0) {
+            copie[i & MASQUE] = e;
+        } else {
+            int j = (i >>> decalage) & MASQUE;
+            copie[j] = placer((Object[]) copie[j], decalage - BITS, i, e);
+        }
+        return copie;
+    }
+}
@@ -3,45 +3,137 @@ package reseau;
 /**
  * Représente une maison dans le réseau.
  * 
- * Chaque maison a un nom et un type de consommation d'énergie.
+ * Chaque maison a un nom et une demande en énergie (kW). La demande est
+ * donnée soit par un type de consommation ({@link Consommation}), soit
+ * directement par une valeur entière, par exemple relevée par un compteur ;
+ * dans ce cas le type de consommation est null.
+ * 
+ * Une maison peut avoir une position ({@link Position}), utilisée pour ne
+ * la relier qu'à des générateurs proches.
  */
 public class Maison {
     
     private Consommation consommation;
+    private int demande;
     private String nom;
+    private Position position;
     
     /**
      * Crée une maison avec un nom et une consommation donnée.
      * 
      * @param nom nom de la maison
-     * @param consommation type de consommation
+     * @param consommation type de consommation (null = demande nulle)
      */
     public Maison(String nom, Consommation consommation) {
         this.nom = nom;
-        this.consommation = consommation;
+        setConsommation(consommation);
     }
 
+    /**
+     * Crée une maison avec un nom et une demande quelconque.
+     * 
+     * @param nom nom de la maison
+     * @param demande demande en kW
+     * @throws IllegalArgumentException si la demande est négative
+     */
+    public Maison(String nom, int demande) {
+        this.nom = nom;
+        setDemande(demande);
+    }
+
+    /**
+     * Crée une maison à partir d'une consommation écrite sous forme de texte :
+     * un type (BASSE, NORMAL, FORTE) ou une demande entière en kW ("37").
+     * 
+     * @param nom nom de la maison
+     * @param consommation type ou demande
+     * @return la maison
+     * @throws IllegalArgumentException si la consommation est invalide
+     */
+    public static Maison creer(String nom, String consommation) {
+        if (!consommation.isEmpty() && Character.isDigit(consommation.charAt(0))) {
+            return new Maison(nom, Integer.parseInt(consommation));
+        }
+        return new Maison(nom, Consommation.fromString(consommation));
+    }
+
+    /**
+     * @return une nouvelle maison de même nom, de même demande et de même position
+     */
+    public Maison copie() {
+        Maison copie = (consommation != null) ? new Maison(nom, consommation) : new Maison(nom, demande);
+        copie.position = position;
+        return copie;
+    }
+
+    /**
+     * @return le type de consommation, null si la demande est donnée par une valeur
+     */
     public Consommation getConsommation() {
         return consommation;
     }
 
+    /**
+     * @return la demande en kW
+     */
+    public int getDemande() {
+        return demande;
+    }
+
     public String getNom() {
         return nom;
     }
 
-    public void setConsommation(Consommation consommation) {
+    /**
+     * Réservé au réseau, qui tient ses agrégats à jour : pour changer la
+     * demande d'une maison enregistrée, passer par {@link Reseau#ajouterMaison}.
+     */
+    void setConsommation(Consommation consommation) {
         this.consommation = consommation;
+        this.demande = (consommation != null) ? consommation.getValeur() : 0;
+    }
+
+    /**
+     * Donne une demande quelconque à la maison ; son type de consommation
+     * devient null. Réservé au réseau, comme {@link #setConsommation}.
+     * 
+     * @param demande demande en kW
+     * @throws IllegalArgumentException si la demande est négative
+     */
+    void setDemande(int demande) {
+        if (demande < 0) {
+            throw new IllegalArgumentException("Demande négative : " + demande);
+        }
+        this.consommation = null;
+        this.demande = demande;
     }
     
     public void setNom(String nom) {
         this.nom = nom;
     }
 
+    /**
+     * @return la position de la maison, null si elle n'en a pas
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Comme le nom, la position est celle qu'a la maison quand elle est
+     * ajoutée au réseau.
+     * 
+     * @param position la position, null pour aucune
+     */
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+
     @Override
     public String toString() {
         return "Maison{" +
                 "nom='" + nom + '\'' +
-                ", consommation=" + consommation +
+                ", consommation=" + (consommation != null ? consommation : demande) +
                 '}';
     }
 
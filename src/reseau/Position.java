@@ -0,0 +1,63 @@
+package reseau;
+
+
+/**
+ * Position d'une maison ou d'un générateur dans le plan, dans une unité
+ * quelconque (par exemple des kilomètres). Une position est immuable : elle
+ * peut être partagée entre un élément et ses copies.
+ */
+public final class Position {
+
+    private final double x;
+    private final double y;
+
+
+    /**
+     * @param x abscisse
+     * @param y ordonnée
+     * @throws IllegalArgumentException si une coordonnée n'est pas un nombre fini
+     */
+    public Position(double x, double y) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            throw new IllegalArgumentException("Coordonnées invalides : " + x + ", " + y);
+        }
+        this.x = x;
+        this.y = y;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return le carré de la distance à l'autre position
+     */
+    public double distance2(Position autre) {
+        double dx = x - autre.x;
+        double dy = y - autre.y;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Position p = (Position) o;
+        return Double.compare(x, p.x) == 0 && Double.compare(y, p.y) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(x) + Double.hashCode(y);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
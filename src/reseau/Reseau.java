@@ -10,7 +10,12 @@ import java.util.*;
  * - ajouter des maisons et des générateurs,
  * - connecter et déconnecter des maisons aux générateurs,
  * - calculer la charge, la dispersion, la surcharge et le coût global du réseau,
- * - vérifier la structure du réseau pour détecter des problèmes.
+ * - vérifier la structure du réseau pour détecter des problèmes,
+ * - annuler et refaire les modifications grâce au journal,
+ * - prendre un instantané immuable pour une lecture concurrente.
+ * 
+ * Toutes les modifications doivent passer par les méthodes du réseau :
+ * elles tiennent à jour le journal et les données des instantanés.
  */
 
 public class Reseau {
@@ -18,6 +23,13 @@ public class Reseau {
     private List<Maison> maisons;
     private List<Generateur> generateurs;
     private Map<Generateur, List<Maison>> connexions;
+    private Map<Maison, Integer> indexMaisons;
+    private Map<Generateur, Integer> indexGenerateurs;
+    private JournalModifications journal;
+    private List<Maison> maisonsAnnulees;
+    private List<Generateur> generateursAnnules;
+    private StructurePersistante persistante;
+    private AgregatsReseau agregats;
     private double lambda = 10.0; 
 
     
@@ -28,26 +40,35 @@ public class Reseau {
         maisons = new ArrayList<>();
         generateurs = new ArrayList<>();
         connexions = new HashMap<>();
+        indexMaisons = new HashMap<>();
+        indexGenerateurs = new HashMap<>();
+        journal = new JournalModifications();
+        maisonsAnnulees = new ArrayList<>();
+        generateursAnnules = new ArrayList<>();
+        persistante = new StructurePersistante();
+        agregats = new AgregatsReseau();
     }
 
     
     /**
      * Ajoute une maison au réseau.
-     * Si la maison existe déjà, met à jour sa consommation.
+     * Si la maison existe déjà, met à jour sa demande.
      * 
      * @param maison la maison à ajouter
      * @return true si la maison est ajoutée, false si elle existait déjà
      */
     public boolean ajouterMaison(Maison maison) {
-           	int index = maisons.indexOf(maison);
-            if (index >= 0) {
-
-                maisons.get(index).setConsommation(maison.getConsommation());
-                return false; 
-            } else {
-                maisons.add(maison);
-                return true; 
-            }
+        Integer index = indexMaisons.get(maison);
+        if (index != null) {
+            Maison existante = maisons.get(index);
+            enregistrer(JournalModifications.CONSOMMATION, index, code(existante), code(maison));
+            appliquerDemande(index, code(maison));
+            return false; 
+        } else {
+            enregistrer(JournalModifications.AJOUT_MAISON, maisons.size(), -1, -1);
+            appliquerAjoutMaison(maison);
+            return true; 
+        }
     }
 
     
@@ -59,14 +80,16 @@ public class Reseau {
      * @return true si ajouté, false si déjà présent
      */
     public boolean ajouterGenerateur(Generateur generateur) {
-        int index = generateurs.indexOf(generateur);
-        if (index >= 0) {
-       
-            generateurs.get(index).setCapaciteMax(generateur.getCapaciteMax());
+        Integer index = indexGenerateurs.get(generateur);
+        if (index != null) {
+            Generateur existant = generateurs.get(index);
+            enregistrer(JournalModifications.CAPACITE, index,
+                    existant.getCapaciteMax(), generateur.getCapaciteMax());
+            appliquerCapacite(index, generateur.getCapaciteMax());
             return false; 
         } else {
-            generateurs.add(generateur);
-            connexions.put(generateur, new ArrayList<>()); 
+            enregistrer(JournalModifications.AJOUT_GENERATEUR, generateurs.size(), -1, -1);
+            appliquerAjoutGenerateur(generateur);
             return true; 
         }
     }
@@ -80,27 +103,30 @@ public class Reseau {
      * @throws IllegalArgumentException si la maison ou le générateur n'existe pas
      */
     public void connecter(Maison maison, Generateur generateur) {
-	    if (!maisons.contains(maison)) {
+	    if (!indexMaisons.containsKey(maison)) {
 	        throw new IllegalArgumentException("Maison non enregistrée");
 	    }
-	    if (!generateurs.contains(generateur)) {
+	    if (!indexGenerateurs.containsKey(generateur)) {
 	        throw new IllegalArgumentException("Générateur non enregistré");
 	    }
 	
-	    connexions.get(generateur).add(maison);
+	    int m = indexMaisons.get(maison);
+	    int g = indexGenerateurs.get(generateur);
+	    enregistrer(JournalModifications.CONNEXION, m, -1, g);
+	    appliquerConnexion(m, g);
 	}
 
 
     
     
     public void modifierConnexion(Maison maison, Generateur ancien, Generateur nouveau) {
-        if (!maisons.contains(maison))
+        if (!indexMaisons.containsKey(maison))
             throw new IllegalArgumentException("Maison inconnue");
 
-        if (!generateurs.contains(ancien))
+        if (!indexGenerateurs.containsKey(ancien))
             throw new IllegalArgumentException("Ancien générateur inconnu");
 
-        if (!generateurs.contains(nouveau))
+        if (!indexGenerateurs.containsKey(nouveau))
             throw new IllegalArgumentException("Nouveau générateur inconnu");
 
         Generateur actuel = trouverGenerateurDeMaison(maison);
@@ -109,17 +135,21 @@ public class Reseau {
             throw new IllegalArgumentException("La maison n'est pas connectée à l'ancien générateur");
         }
 
-        connexions.get(ancien).remove(maison);
-        connexions.get(nouveau).add(maison);
+        int m = indexMaisons.get(maison);
+        int a = indexGenerateurs.get(ancien);
+        int n = indexGenerateurs.get(nouveau);
+        enregistrer(JournalModifications.MODIFICATION, m, a, n);
+        appliquerDeconnexion(m, a);
+        appliquerConnexion(m, n);
     }
 
 
     public void deconnecter(Maison maison, Generateur generateur) {
-        if (!maisons.contains(maison)) {
+        if (!indexMaisons.containsKey(maison)) {
             throw new IllegalArgumentException("Maison non enregistrée dans le réseau");
         }
         
-        if (!generateurs.contains(generateur)) {
+        if (!indexGenerateurs.containsKey(generateur)) {
             throw new IllegalArgumentException("Générateur non enregistré dans le réseau");
         }
         Generateur genActuel = trouverGenerateurDeMaison(maison);
@@ -131,17 +161,30 @@ public class Reseau {
             throw new IllegalArgumentException("La maison n'est pas connectée à ce générateur");
         }
         
-        
-        connexions.get(generateur).remove(maison);
+        int m = indexMaisons.get(maison);
+        int g = indexGenerateurs.get(generateur);
+        enregistrer(JournalModifications.DECONNEXION, m, g, -1);
+        appliquerDeconnexion(m, g);
     }
     
     /**
      * Trouve le générateur auquel une maison est connectée.
      * 
+     * Le cas courant (une seule connexion) est résolu directement par l'indice ;
+     * on ne parcourt les connexions que si la maison est connectée plusieurs fois.
+     * 
      * @param maison la maison recherchée
      * @return le générateur ou null si non connecté
      */
     private Generateur trouverGenerateurDeMaison(Maison maison) {
+        Integer m = indexMaisons.get(maison);
+        if (m == null || agregats.nbConnexions(m) == 0) {
+            return null;
+        }
+        if (agregats.nbConnexions(m) == 1) {
+            int g = persistante.generateurDe(m);
+            if (g >= 0) return generateurs.get(g);
+        }
         for (Map.Entry<Generateur, List<Maison>> entry : connexions.entrySet()) {
             if (entry.getValue().contains(maison)) {
                 return entry.getKey();
@@ -152,60 +195,44 @@ public class Reseau {
 
     
     /**
-     * Calcule la charge (total consommation) de chaque générateur.
+     * Retourne la charge (total consommation) de chaque générateur.
+     * Les charges sont tenues à jour à chaque modification : O(G).
      * 
      * @return map générateur -> charge
      */
     
     public Map<Generateur, Integer> calculerCharges() {
         Map<Generateur, Integer> charges = new HashMap<>();
-
-        for (Map.Entry<Generateur, List<Maison>> entry : connexions.entrySet()) {
-            Generateur gen = entry.getKey();
-            int charge = 0;
-
-            for (Maison m : entry.getValue()) {
-                charge += m.getConsommation().getValeur();
-            }
-
-            charges.put(gen, charge);
+        for (int g = 0; g < generateurs.size(); g++) {
+            charges.put(generateurs.get(g), agregats.charge(g));
         }
-
         return charges;
     }
 
     
+    /**
+     * Retourne la charge d'un générateur, en O(1).
+     * 
+     * @param generateur le générateur
+     * @return sa charge, 0 s'il n'appartient pas au réseau
+     */
+    public int getCharge(Generateur generateur) {
+        Integer g = indexGenerateurs.get(generateur);
+        return g != null ? agregats.charge(g) : 0;
+    }
+
+    
     /**
      * Calcule la dispersion des charges entre générateurs.
      * 
      * dispersion = Σ | (charge_i / capacite_i) - moyenne |
      * 
+     * Les taux sont rangés dans un arbre ordonné augmenté : O(log G).
+     * 
      * @return la dispersion
      */
     public double calculerDispersion() {
-        Map<Generateur, Integer> charges = calculerCharges();
-        double somme = 0.0;
-        int nbGen = generateurs.size();
-
-        for (Generateur gen : generateurs) {
-            double capacite = gen.getCapaciteMax();
-            int charge = charges.getOrDefault(gen, 0);
-            double taux = (capacite > 0) ? charge / capacite : 0.0;
-            somme += taux;
-        }
-
-        double moyenne = (nbGen > 0) ? somme / nbGen : 0.0;
-
-       
-        double dispersion = 0.0;
-        for (Generateur gen : generateurs) {
-            double capacite = gen.getCapaciteMax();
-            int charge = charges.getOrDefault(gen, 0);
-            double taux = (capacite > 0) ? charge / capacite : 0.0;
-            dispersion += Math.abs(taux - moyenne);
-        }
-
-        return dispersion;
+        return agregats.dispersion();
     }
     
     
@@ -214,22 +241,23 @@ public class Reseau {
      * 
      * surcharge = Σ max(0, (charge_i - capacite_i) / capacite_i)
      * 
+     * La somme est tenue à jour à chaque modification : O(1).
+     * 
      * @return la surcharge
      */
     public double calculerSurcharge() {
-        Map<Generateur, Integer> charges = calculerCharges();
-        double surcharge = 0.0;
-
-        for (Generateur gen : generateurs) {
-            double capacite = gen.getCapaciteMax();
-            int charge = charges.getOrDefault(gen, 0);
-
-            if (capacite > 0 && charge > capacite) {
-                surcharge += (double)(charge - capacite) / capacite;
-            }
-        }
+        return agregats.surcharge();
+    }
 
-        return surcharge;
+    /**
+     * Recalcule entièrement la surcharge, tenue à jour par différence.
+     * 
+     * Le coût ne change qu'aux erreurs d'arrondi près ; après cet appel, il
+     * ne dépend plus que de l'affectation actuelle et plus de l'historique
+     * des modifications (utile pour reprendre un calcul à l'identique).
+     */
+    public void recalculerAgregats() {
+        agregats.recalculer();
     }
     
     
@@ -244,6 +272,30 @@ public class Reseau {
         return calculerDispersion() + (lambda * calculerSurcharge());
     }
 
+    /**
+     * Calcule le coût qu'aurait le réseau si la maison était connectée au
+     * générateur donné à la place de son générateur actuel, sans modifier
+     * le réseau : O(log G).
+     * 
+     * @param maison la maison à déplacer (connectée ou non)
+     * @param nouveau le générateur cible
+     * @return le coût après déplacement
+     * @throws IllegalArgumentException si la maison ou le générateur n'existe pas
+     */
+    public double coutApresDeplacement(Maison maison, Generateur nouveau) {
+        Integer m = indexMaisons.get(maison);
+        if (m == null) {
+            throw new IllegalArgumentException("Maison non enregistrée");
+        }
+        Integer n = indexGenerateurs.get(nouveau);
+        if (n == null) {
+            throw new IllegalArgumentException("Générateur non enregistré");
+        }
+        Generateur actuel = trouverGenerateurDeMaison(maison);
+        int a = (actuel != null) ? indexGenerateurs.get(actuel) : -1;
+        return agregats.coutApresDeplacement(a, n, maison.getDemande(), lambda);
+    }
+
     /**
      * Cherche une maison dans le réseau par son nom.
      * 
@@ -251,9 +303,8 @@ public class Reseau {
      * @return la maison si trouvée, sinon null
      */
     public Maison trouverMaisonParNom(String nom) {
-        Maison temp = new Maison(nom, null);
-        int index = maisons.indexOf(temp);
-        return index >= 0 ? maisons.get(index) : null;
+        Integer index = indexMaisons.get(new Maison(nom, null));
+        return index != null ? maisons.get(index) : null;
     }
 
     /**
@@ -263,9 +314,8 @@ public class Reseau {
      * @return le générateur si trouvé, sinon null
      */
     public Generateur trouverGenerateurParNom(String nom) {
-        Generateur temp = new Generateur(nom, 0);
-        int index = generateurs.indexOf(temp);
-        return index >= 0 ? generateurs.get(index) : null;
+        Integer index = indexGenerateurs.get(new Generateur(nom, 0));
+        return index != null ? generateurs.get(index) : null;
     }
 
     /**
@@ -296,11 +346,7 @@ public class Reseau {
      * @return somme des consommations
      */
     private int sommeConsommations() {
-        int somme = 0;
-        for (Maison m : maisons) {
-            somme += m.getConsommation().getValeur();
-        }
-        return somme;
+        return (int) agregats.demandeTotale();
     }
 
     /**
@@ -309,11 +355,7 @@ public class Reseau {
      * @return somme des capacités
      */
     private double sommeCapacites() {
-        double somme = 0.0;
-        for (Generateur g : generateurs) {
-            somme += g.getCapaciteMax();
-        }
-        return somme;
+        return agregats.capaciteTotale();
     }
 
 
@@ -377,6 +419,263 @@ public class Reseau {
     }
     
 
+    /**
+     * Retourne la position courante du journal, à utiliser comme point de contrôle.
+     * 
+     * @return le point de contrôle
+     */
+    public int pointDeControle() {
+        return journal.getPosition();
+    }
+
+    /**
+     * Annule toutes les modifications faites depuis un point de contrôle.
+     * Les modifications annulées peuvent être refaites avec {@link #rejouerJusqua(int)}
+     * tant qu'aucune nouvelle modification n'est faite.
+     * 
+     * Les opérations inverses sont appliquées directement, sans vérification.
+     * 
+     * @param point point de contrôle obtenu par {@link #pointDeControle()}
+     */
+    public void revenirA(int point) {
+        while (journal.getPosition() > point) {
+            annulerEntree();
+        }
+    }
+
+    /**
+     * Refait les modifications annulées jusqu'au point donné.
+     * 
+     * @param point position du journal à atteindre
+     */
+    public void rejouerJusqua(int point) {
+        while (journal.getPosition() < point && journal.getPosition() < journal.getFin()) {
+            refaireEntree();
+        }
+    }
+
+    /**
+     * Annule la dernière modification.
+     * 
+     * @return true si une modification a été annulée
+     */
+    public boolean annuler() {
+        if (!peutAnnuler()) return false;
+        annulerEntree();
+        return true;
+    }
+
+    /**
+     * Refait la dernière modification annulée.
+     * 
+     * @return true si une modification a été refaite
+     */
+    public boolean refaire() {
+        if (!peutRefaire()) return false;
+        refaireEntree();
+        return true;
+    }
+
+    public boolean peutAnnuler() {
+        return journal.getPosition() > 0;
+    }
+
+    public boolean peutRefaire() {
+        return journal.getPosition() < journal.getFin();
+    }
+
+    /**
+     * Oublie l'historique : l'état courant devient l'état initial.
+     */
+    public void viderJournal() {
+        journal.vider();
+        maisonsAnnulees.clear();
+        generateursAnnules.clear();
+    }
+
+    public JournalModifications getJournal() {
+        return journal;
+    }
+
+    private void enregistrer(int type, int cible, int ancien, int nouveau) {
+        if (journal.getPosition() < journal.getFin()) {
+            maisonsAnnulees.clear();
+            generateursAnnules.clear();
+        }
+        journal.enregistrer(type, cible, ancien, nouveau);
+    }
+
+    /**
+     * Code de la demande d'une maison dans le journal : -1 - ordinal pour
+     * un type de consommation, la demande elle-même (>= 0) sinon. Les
+     * instantanés gardent aussi ce code, pour rendre les maisons telles
+     * qu'elles ont été créées.
+     */
+    static int code(Maison maison) {
+        Consommation c = maison.getConsommation();
+        return (c != null) ? -1 - c.ordinal() : maison.getDemande();
+    }
+
+    static int demandeDe(int code) {
+        return (code < 0) ? Consommation.values()[-1 - code].getValeur() : code;
+    }
+
+    /**
+     * Applique l'inverse de la dernière entrée du journal.
+     * Les ajouts sont toujours les derniers éléments des listes
+     * puisque les entrées sont annulées dans l'ordre inverse.
+     */
+    private void annulerEntree() {
+        journal.reculer();
+        int e = journal.getPosition();
+        int cible = journal.getCible(e);
+        int ancien = journal.getAncien(e);
+        int nouveau = journal.getNouveau(e);
+
+        switch (journal.getType(e)) {
+            case JournalModifications.CONNEXION -> appliquerDeconnexion(cible, nouveau);
+            case JournalModifications.DECONNEXION -> appliquerConnexion(cible, ancien);
+            case JournalModifications.MODIFICATION -> {
+                appliquerDeconnexion(cible, nouveau);
+                appliquerConnexion(cible, ancien);
+            }
+            case JournalModifications.CONSOMMATION -> appliquerDemande(cible, ancien);
+            case JournalModifications.CAPACITE -> appliquerCapacite(cible, ancien);
+            case JournalModifications.AJOUT_MAISON -> maisonsAnnulees.add(retirerDerniereMaison());
+            case JournalModifications.AJOUT_GENERATEUR -> generateursAnnules.add(retirerDernierGenerateur());
+            default -> throw new IllegalStateException("Entrée de journal invalide");
+        }
+    }
+
+    /**
+     * Applique de nouveau l'entrée du journal située à la position courante.
+     */
+    private void refaireEntree() {
+        int e = journal.getPosition();
+        int cible = journal.getCible(e);
+        int ancien = journal.getAncien(e);
+        int nouveau = journal.getNouveau(e);
+
+        switch (journal.getType(e)) {
+            case JournalModifications.CONNEXION -> appliquerConnexion(cible, nouveau);
+            case JournalModifications.DECONNEXION -> appliquerDeconnexion(cible, ancien);
+            case JournalModifications.MODIFICATION -> {
+                appliquerDeconnexion(cible, ancien);
+                appliquerConnexion(cible, nouveau);
+            }
+            case JournalModifications.CONSOMMATION -> appliquerDemande(cible, nouveau);
+            case JournalModifications.CAPACITE -> appliquerCapacite(cible, nouveau);
+            case JournalModifications.AJOUT_MAISON ->
+                appliquerAjoutMaison(maisonsAnnulees.remove(maisonsAnnulees.size() - 1));
+            case JournalModifications.AJOUT_GENERATEUR ->
+                appliquerAjoutGenerateur(generateursAnnules.remove(generateursAnnules.size() - 1));
+            default -> throw new IllegalStateException("Entrée de journal invalide");
+        }
+        journal.avancer();
+    }
+
+
+    /*
+     * Opérations élémentaires, sans vérification ni journal.
+     * Elles sont utilisées par les méthodes publiques après validation,
+     * ainsi que pour annuler et refaire.
+     */
+
+    private void appliquerAjoutMaison(Maison maison) {
+        indexMaisons.put(maison, maisons.size());
+        maisons.add(maison);
+        persistante.ajouterMaison(maison.getNom(), maison.getPosition(), code(maison));
+        agregats.ajouterMaison(maison.getDemande());
+    }
+
+    private Maison retirerDerniereMaison() {
+        Maison maison = maisons.remove(maisons.size() - 1);
+        indexMaisons.remove(maison);
+        persistante.retirerDerniereMaison();
+        agregats.retirerDerniereMaison(maison.getDemande());
+        return maison;
+    }
+
+    private void appliquerAjoutGenerateur(Generateur generateur) {
+        indexGenerateurs.put(generateur, generateurs.size());
+        generateurs.add(generateur);
+        connexions.put(generateur, new ArrayList<>());
+        persistante.ajouterGenerateur(generateur.getNom(), generateur.getPosition(), generateur.getCapaciteMax());
+        agregats.ajouterGenerateur(generateur.getCapaciteMax());
+    }
+
+    private Generateur retirerDernierGenerateur() {
+        Generateur generateur = generateurs.remove(generateurs.size() - 1);
+        indexGenerateurs.remove(generateur);
+        connexions.remove(generateur);
+        persistante.retirerDernierGenerateur();
+        agregats.retirerDernierGenerateur();
+        return generateur;
+    }
+
+    private void appliquerConnexion(int m, int g) {
+        Maison maison = maisons.get(m);
+        connexions.get(generateurs.get(g)).add(maison);
+        persistante.connecter(m, g);
+        agregats.connecter(m, g, maison.getDemande());
+    }
+
+    private void appliquerDeconnexion(int m, int g) {
+        Maison maison = maisons.get(m);
+        connexions.get(generateurs.get(g)).remove(maison);
+        persistante.deconnecter(m, g);
+        agregats.deconnecter(m, g, maison.getDemande());
+    }
+
+    private void appliquerCapacite(int g, int capacite) {
+        generateurs.get(g).setCapaciteMax(capacite);
+        persistante.changerCapacite(g, capacite);
+        agregats.changerCapacite(g, capacite);
+    }
+
+    private void appliquerDemande(int m, int code) {
+        Maison maison = maisons.get(m);
+        int delta = demandeDe(code) - maison.getDemande();
+        if (delta != 0) {
+            int nb = agregats.nbConnexions(m);
+            int unique = persistante.generateurDe(m);
+            if (nb == 1 && unique >= 0) {
+                ajusterCharge(unique, delta);
+            } else if (nb > 0) {
+                for (Map.Entry<Generateur, List<Maison>> entry : connexions.entrySet()) {
+                    for (Maison connectee : entry.getValue()) {
+                        if (connectee.equals(maison)) {
+                            ajusterCharge(indexGenerateurs.get(entry.getKey()), delta);
+                        }
+                    }
+                }
+            }
+            agregats.changerDemandeTotale(delta);
+        }
+        if (code < 0) maison.setConsommation(Consommation.values()[-1 - code]);
+        else maison.setDemande(code);
+        persistante.changerDemande(m, code);
+    }
+
+    private void ajusterCharge(int g, int delta) {
+        persistante.ajusterCharge(g, delta);
+        agregats.ajusterCharge(g, delta);
+    }
+
+
+    /**
+     * Prend un instantané immuable du réseau, en temps constant.
+     * 
+     * L'instantané peut être lu depuis d'autres threads (calcul du coût,
+     * export, affichage) pendant que ce réseau continue d'être modifié.
+     * 
+     * @return l'instantané du réseau dans son état actuel
+     */
+    public InstantaneReseau instantane() {
+        return persistante.instantane(lambda);
+    }
+    
+
     @Override
    
     public String toString() {
@@ -429,13 +728,25 @@ public class Reseau {
         return trouverGenerateurDeMaison(maison);
     }
 
+    /**
+     * Retourne les maisons d'un générateur, en lecture seule.
+     * Pour une lecture depuis un autre thread, utiliser {@link #instantane()}.
+     */
     public List<Maison> getMaisonsDuGenerateur(Generateur gen) {
-        return connexions.getOrDefault(gen, new ArrayList<>());
+        return Collections.unmodifiableList(connexions.getOrDefault(gen, new ArrayList<>()));
     }
 
 
+    /**
+     * Retourne les connexions du réseau, en lecture seule.
+     * Pour une lecture depuis un autre thread, utiliser {@link #instantane()}.
+     */
     public Map<Generateur,List<Maison>> getConnexions(){
-    	return connexions;
+        Map<Generateur, List<Maison>> lecture = new HashMap<>();
+        for (Map.Entry<Generateur, List<Maison>> entry : connexions.entrySet()) {
+            lecture.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(lecture);
     }
 
 
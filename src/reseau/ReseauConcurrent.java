@@ -0,0 +1,310 @@
+package reseau;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Variante de {@link Reseau} pouvant être modifiée par plusieurs threads à la fois.
+ *
+ * Les maisons et générateurs sont fixés à la construction ; seules les
+ * connexions changent. Chaque générateur a son propre verrou :
+ * - connecter/déconnecter une maison verrouille son générateur,
+ * - déplacer une maison verrouille les deux générateurs concernés,
+ *   toujours dans l'ordre croissant des indices (pas d'interblocage).
+ *
+ * Les charges sont des compteurs atomiques : {@link #calculerCharges()} et
+ * {@link #calculerCout()} se lisent à tout moment sans verrou global. Chaque
+ * charge lue est exacte, mais pendant un déplacement une maison peut être
+ * comptée sur les deux générateurs (la cible est incrémentée avant que la
+ * source soit décrémentée). Pour une lecture cohérente de tout le réseau,
+ * utiliser {@link #versReseau()}.
+ *
+ * Contrairement à {@link Reseau}, une maison ne peut être connectée qu'à un
+ * seul générateur.
+ */
+public class ReseauConcurrent {
+
+    private final Maison[] maisons;
+    private final Generateur[] generateurs;
+    private final Map<Maison, Integer> indexMaisons = new HashMap<>();
+    private final Map<Generateur, Integer> indexGenerateurs = new HashMap<>();
+    private final int[] demandes;
+    private final int[] capacites;
+    private final AtomicIntegerArray affectation;
+    private final AtomicIntegerArray charges;
+    private final ReentrantLock[] verrous;
+    private final double lambda;
+
+
+    /**
+     * Crée un réseau concurrent à partir des maisons, générateurs et connexions
+     * d'un réseau existant (qui n'est pas modifié).
+     *
+     * @param reseau réseau de départ
+     * @throws IllegalArgumentException si une maison est connectée à plusieurs générateurs
+     */
+    public ReseauConcurrent(Reseau reseau) {
+        maisons = reseau.getMaisons().toArray(new Maison[0]);
+        generateurs = reseau.getGenerateurs().toArray(new Generateur[0]);
+        demandes = new int[maisons.length];
+        capacites = new int[generateurs.length];
+        affectation = new AtomicIntegerArray(maisons.length);
+        charges = new AtomicIntegerArray(generateurs.length);
+        verrous = new ReentrantLock[generateurs.length];
+        lambda = reseau.getLambda();
+
+        for (int i = 0; i < maisons.length; i++) {
+            indexMaisons.put(maisons[i], i);
+            demandes[i] = maisons[i].getDemande();
+            affectation.set(i, -1);
+        }
+        for (int g = 0; g < generateurs.length; g++) {
+            indexGenerateurs.put(generateurs[g], g);
+            capacites[g] = generateurs[g].getCapaciteMax();
+            verrous[g] = new ReentrantLock();
+        }
+
+        for (Map.Entry<Generateur, List<Maison>> entry : reseau.getConnexions().entrySet()) {
+            int g = indexGenerateurs.get(entry.getKey());
+            for (Maison m : entry.getValue()) {
+                int i = indexMaisons.get(m);
+                if (affectation.get(i) >= 0) {
+                    throw new IllegalArgumentException(
+                            "La maison " + m.getNom() + " est connectée à plusieurs générateurs");
+                }
+                affectation.set(i, g);
+                charges.addAndGet(g, demandes[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Connecte une maison non connectée à un générateur.
+     *
+     * @throws IllegalArgumentException si la maison ou le générateur n'existe pas,
+     *         ou si la maison est déjà connectée
+     */
+    public void connecter(Maison maison, Generateur generateur) {
+        int m = indice(indexMaisons, maison, "Maison non enregistrée");
+        int g = indice(indexGenerateurs, generateur, "Générateur non enregistré");
+
+        verrous[g].lock();
+        try {
+            if (!affectation.compareAndSet(m, -1, g)) {
+                throw new IllegalArgumentException("La maison est déjà connectée");
+            }
+            charges.addAndGet(g, demandes[m]);
+        } finally {
+            verrous[g].unlock();
+        }
+    }
+
+    /**
+     * Déconnecte une maison de son générateur.
+     *
+     * @throws IllegalArgumentException si la maison n'est pas connectée à ce générateur
+     */
+    public void deconnecter(Maison maison, Generateur generateur) {
+        int m = indice(indexMaisons, maison, "Maison non enregistrée dans le réseau");
+        int g = indice(indexGenerateurs, generateur, "Générateur non enregistré dans le réseau");
+
+        verrous[g].lock();
+        try {
+            if (affectation.get(m) != g) {
+                throw new IllegalArgumentException("La maison n'est pas connectée à ce générateur");
+            }
+            affectation.set(m, -1);
+            charges.addAndGet(g, -demandes[m]);
+        } finally {
+            verrous[g].unlock();
+        }
+    }
+
+    /**
+     * Déplace une maison d'un générateur vers un autre.
+     *
+     * @throws IllegalArgumentException si la maison n'est pas connectée à l'ancien générateur
+     */
+    public void modifierConnexion(Maison maison, Generateur ancien, Generateur nouveau) {
+        int m = indice(indexMaisons, maison, "Maison inconnue");
+        int a = indice(indexGenerateurs, ancien, "Ancien générateur inconnu");
+        int n = indice(indexGenerateurs, nouveau, "Nouveau générateur inconnu");
+
+        if (!deplacer(m, a, n)) {
+            throw new IllegalArgumentException("La maison n'est pas connectée à l'ancien générateur");
+        }
+    }
+
+    /**
+     * Déplace la maison m du générateur a vers le générateur n, si elle y est
+     * toujours connectée. Le déplacement est atomique : les autres écrivains
+     * le voient entièrement ou pas du tout.
+     *
+     * @param m indice de la maison
+     * @param a indice du générateur actuel attendu
+     * @param n indice du générateur cible
+     * @return false si la maison n'était plus connectée à a
+     * @throws IllegalArgumentException si un indice est hors limites (une
+     *         maison non connectée n'a pas de générateur actuel : a = -1
+     *         est refusé)
+     */
+    public boolean deplacer(int m, int a, int n) {
+        if (m < 0 || m >= maisons.length) {
+            throw new IllegalArgumentException("Indice de maison invalide : " + m);
+        }
+        if (a < 0 || a >= generateurs.length) {
+            throw new IllegalArgumentException("Indice de l'ancien générateur invalide : " + a);
+        }
+        if (n < 0 || n >= generateurs.length) {
+            throw new IllegalArgumentException("Indice du nouveau générateur invalide : " + n);
+        }
+        if (a == n) {
+            return affectation.get(m) == a;
+        }
+        ReentrantLock premier = verrous[Math.min(a, n)];
+        ReentrantLock second = verrous[Math.max(a, n)];
+
+        premier.lock();
+        second.lock();
+        try {
+            if (affectation.get(m) != a) {
+                return false;
+            }
+            charges.addAndGet(n, demandes[m]);
+            affectation.set(m, n);
+            charges.addAndGet(a, -demandes[m]);
+            return true;
+        } finally {
+            second.unlock();
+            premier.unlock();
+        }
+    }
+
+
+    public Generateur getGenerateurDeMaison(Maison maison) {
+        int g = affectation.get(indice(indexMaisons, maison, "Maison non enregistrée"));
+        return g >= 0 ? generateurs[g] : null;
+    }
+
+    public int getCharge(Generateur generateur) {
+        return charges.get(indice(indexGenerateurs, generateur, "Générateur non enregistré"));
+    }
+
+    public int indiceMaison(Maison maison) {
+        return indice(indexMaisons, maison, "Maison non enregistrée");
+    }
+
+    public int indiceGenerateur(Generateur generateur) {
+        return indice(indexGenerateurs, generateur, "Générateur non enregistré");
+    }
+
+    /**
+     * @return indice du générateur de la maison, -1 si elle n'est pas connectée
+     */
+    public int getAffectation(int m) {
+        return affectation.get(m);
+    }
+
+    public int nombreMaisons() {
+        return maisons.length;
+    }
+
+    public int nombreGenerateurs() {
+        return generateurs.length;
+    }
+
+
+    /**
+     * Lit la charge de chaque générateur, sans verrou.
+     *
+     * @return map générateur -> charge
+     */
+    public Map<Generateur, Integer> calculerCharges() {
+        Map<Generateur, Integer> resultat = new HashMap<>();
+        for (int g = 0; g < generateurs.length; g++) {
+            resultat.put(generateurs[g], charges.get(g));
+        }
+        return resultat;
+    }
+
+    public double calculerDispersion() {
+        int nbGen = generateurs.length;
+        double[] taux = new double[nbGen];
+        double somme = 0.0;
+        for (int g = 0; g < nbGen; g++) {
+            taux[g] = (capacites[g] > 0) ? (double) charges.get(g) / capacites[g] : 0.0;
+            somme += taux[g];
+        }
+        double moyenne = (nbGen > 0) ? somme / nbGen : 0.0;
+
+        double dispersion = 0.0;
+        for (int g = 0; g < nbGen; g++) {
+            dispersion += Math.abs(taux[g] - moyenne);
+        }
+        return dispersion;
+    }
+
+    public double calculerSurcharge() {
+        double surcharge = 0.0;
+        for (int g = 0; g < generateurs.length; g++) {
+            int charge = charges.get(g);
+            if (capacites[g] > 0 && charge > capacites[g]) {
+                surcharge += (double) (charge - capacites[g]) / capacites[g];
+            }
+        }
+        return surcharge;
+    }
+
+    public double calculerCout() {
+        return calculerDispersion() + lambda * calculerSurcharge();
+    }
+
+
+    /**
+     * Construit un {@link Reseau} cohérent à partir de l'état courant.
+     * Tous les verrous sont pris (dans l'ordre) pendant la lecture.
+     *
+     * @return un nouveau réseau indépendant
+     */
+    public Reseau versReseau() {
+        for (ReentrantLock verrou : verrous) {
+            verrou.lock();
+        }
+        try {
+            Reseau reseau = new Reseau();
+            reseau.setLambda(lambda);
+
+            Generateur[] copiesGen = new Generateur[generateurs.length];
+            for (int g = 0; g < generateurs.length; g++) {
+                copiesGen[g] = generateurs[g].copie(capacites[g]);
+                reseau.ajouterGenerateur(copiesGen[g]);
+            }
+            Maison[] copiesMaisons = new Maison[maisons.length];
+            for (int i = 0; i < maisons.length; i++) {
+                copiesMaisons[i] = maisons[i].copie();
+                reseau.ajouterMaison(copiesMaisons[i]);
+            }
+            for (int i = 0; i < maisons.length; i++) {
+                int g = affectation.get(i);
+                if (g >= 0) reseau.connecter(copiesMaisons[i], copiesGen[g]);
+            }
+            reseau.viderJournal();
+            return reseau;
+        } finally {
+            for (int g = verrous.length - 1; g >= 0; g--) {
+                verrous[g].unlock();
+            }
+        }
+    }
+
+    private static <T> int indice(Map<T, Integer> index, T cle, String message) {
+        Integer i = index.get(cle);
+        if (i == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,87 @@
+package reseau;
+
+
+/**
+ * Copie persistante des données d'un {@link Reseau}, tenue à jour à chaque
+ * modification, à partir de laquelle on prend des {@link InstantaneReseau} en O(1).
+ *
+ * Chaque maison a un seul générateur dans l'affectation : pour une maison
+ * connectée à plusieurs générateurs (réseau invalide), c'est le dernier
+ * connecté. Les charges, elles, comptent toutes les connexions. La demande
+ * de chaque maison est gardée sous la forme du code du journal (voir
+ * {@link Reseau#code(Maison)}), qui distingue un type de consommation d'une
+ * demande numérique de même valeur.
+ */
+final class StructurePersistante {
+
+    private ListePersistante<String> nomsMaisons = ListePersistante.vide();
+    private ListePersistante<String> nomsGenerateurs = ListePersistante.vide();
+    private ListePersistante<Position> positionsMaisons = ListePersistante.vide();
+    private ListePersistante<Position> positionsGenerateurs = ListePersistante.vide();
+    private VecteurPersistant codesDemandes = VecteurPersistant.vide();
+    private VecteurPersistant affectation = VecteurPersistant.vide();
+    private VecteurPersistant capacites = VecteurPersistant.vide();
+    private VecteurPersistant charges = VecteurPersistant.vide();
+
+
+    void ajouterMaison(String nom, Position position, int codeDemande) {
+        nomsMaisons = nomsMaisons.ajouter(nom);
+        positionsMaisons = positionsMaisons.ajouter(position);
+        codesDemandes = codesDemandes.ajouter(codeDemande);
+        affectation = affectation.ajouter(-1);
+    }
+
+    void retirerDerniereMaison() {
+        nomsMaisons = nomsMaisons.retirerDernier();
+        positionsMaisons = positionsMaisons.retirerDernier();
+        codesDemandes = codesDemandes.retirerDernier();
+        affectation = affectation.retirerDernier();
+    }
+
+    void ajouterGenerateur(String nom, Position position, int capacite) {
+        nomsGenerateurs = nomsGenerateurs.ajouter(nom);
+        positionsGenerateurs = positionsGenerateurs.ajouter(position);
+        capacites = capacites.ajouter(capacite);
+        charges = charges.ajouter(0);
+    }
+
+    void retirerDernierGenerateur() {
+        nomsGenerateurs = nomsGenerateurs.retirerDernier();
+        positionsGenerateurs = positionsGenerateurs.retirerDernier();
+        capacites = capacites.retirerDernier();
+        charges = charges.retirerDernier();
+    }
+
+    void connecter(int maison, int generateur) {
+        affectation = affectation.avec(maison, generateur);
+        ajusterCharge(generateur, Reseau.demandeDe(codesDemandes.get(maison)));
+    }
+
+    void deconnecter(int maison, int generateur) {
+        if (affectation.get(maison) == generateur) {
+            affectation = affectation.avec(maison, -1);
+        }
+        ajusterCharge(generateur, -Reseau.demandeDe(codesDemandes.get(maison)));
+    }
+
+    void changerDemande(int maison, int codeDemande) {
+        codesDemandes = codesDemandes.avec(maison, codeDemande);
+    }
+
+    void changerCapacite(int generateur, int capacite) {
+        capacites = capacites.avec(generateur, capacite);
+    }
+
+    void ajusterCharge(int generateur, int delta) {
+        charges = charges.avec(generateur, charges.get(generateur) + delta);
+    }
+
+    int generateurDe(int maison) {
+        return affectation.get(maison);
+    }
+
+    InstantaneReseau instantane(double lambda) {
+        return new InstantaneReseau(nomsMaisons, nomsGenerateurs, positionsMaisons, positionsGenerateurs,
+                codesDemandes, affectation, capacites, charges, lambda);
+    }
+}
@@ -0,0 +1,118 @@
+package reseau;
+
+import java.util.Arrays;
+
+
+/**
+ * Vecteur d'entiers immuable avec partage de structure.
+ *
+ * Les valeurs sont rangées dans un arbre de branchement 32 : chaque
+ * modification ne recopie que le chemin de la racine à la feuille concernée
+ * (O(log32 n)) et partage tout le reste avec l'ancienne version.
+ * Une version n'est jamais modifiée après sa création, elle peut donc être
+ * lue par plusieurs threads sans synchronisation.
+ */
+public final class VecteurPersistant {
+
+    private static final int BITS = 5;
+    private static final int LARGEUR = 1 << BITS;
+    private static final int MASQUE = LARGEUR - 1;
+
+    private static final VecteurPersistant VIDE = new VecteurPersistant(0, 0, new int[LARGEUR]);
+
+    private final int taille;
+    private final int decalage;
+    private final Object racine;
+
+
+    private VecteurPersistant(int taille, int decalage, Object racine) {
+        this.taille = taille;
+        this.decalage = decalage;
+        this.racine = racine;
+    }
+
+    public static VecteurPersistant vide() {
+        return VIDE;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= taille) {
+            throw new IndexOutOfBoundsException("Indice " + i + " hors du vecteur de taille " + taille);
+        }
+        Object noeud = racine;
+        for (int d = decalage; d > 0; d -= BITS) {
+            noeud = ((Object[]) noeud)[(i >>> d) & MASQUE];
+        }
+        return ((int[]) noeud)[i & MASQUE];
+    }
+
+    /**
+     * Retourne une nouvelle version où l'élément i vaut v.
+     */
+    public VecteurPersistant avec(int i, int v) {
+        if (i < 0 || i >= taille) {
+            throw new IndexOutOfBoundsException("Indice " + i + " hors du vecteur de taille " + taille);
+        }
+        return new VecteurPersistant(taille, decalage, modifier(racine, decalage, i, v));
+    }
+
+    /**
+     * Retourne une nouvelle version avec v ajouté à la fin.
+     */
+    public VecteurPersistant ajouter(int v) {
+        int i = taille;
+        if (i == (LARGEUR << decalage)) {
+            Object[] nouvelleRacine = new Object[LARGEUR];
+            nouvelleRacine[0] = racine;
+            return new VecteurPersistant(taille + 1, decalage + BITS,
+                    modifier(nouvelleRacine, decalage + BITS, i, v));
+        }
+        return new VecteurPersistant(taille + 1, decalage, modifier(racine, decalage, i, v));
+    }
+
+    /**
+     * Retourne une nouvelle version sans le dernier élément.
+     * L'emplacement libéré sera recopié lors du prochain ajout.
+     */
+    public VecteurPersistant retirerDernier() {
+        if (taille == 0) {
+            throw new IllegalStateException("Vecteur vide");
+        }
+        return new VecteurPersistant(taille - 1, decalage, racine);
+    }
+
+    /**
+     * Copie le contenu dans un tableau.
+     */
+    public int[] versTableau() {
+        int[] tableau = new int[taille];
+        for (int i = 0; i < taille; i += LARGEUR) {
+            Object noeud = racine;
+            for (int d = decalage; d > 0; d -= BITS) {
+                noeud = ((Object[]) noeud)[(i >>> d) & MASQUE];
+            }
+            System.arraycopy((int[]) noeud, 0, tableau, i, Math.min(LARGEUR, taille - i));
+        }
+        return tableau;
+    }
+
+    /**
+     * Recopie le chemin vers l'indice i en y plaçant la valeur v.
+     * Les noeuds absents (ajout en fin de vecteur) sont créés.
+     */
+    private static Object modifier(Object noeud, int decalage, int i, int v) {
+        if (decalage == 0) {
+            int[] feuille = (noeud == null) ? new int[LARGEUR] : Arrays.copyOf((int[]) noeud, LARGEUR);
+            feuille[i & MASQUE] = v;
+            return feuille;
+        }
+        Object[] interne = (noeud == null) ? new Object[LARGEUR] : Arrays.copyOf((Object[]) noeud, LARGEUR);
+        int j = (i >>> decalage) & MASQUE;
+        interne[j] = modifier(interne[j], decalage - BITS, i, v);
+        return interne;
+    }
+}
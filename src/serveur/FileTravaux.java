@@ -0,0 +1,166 @@
+package serveur;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * File des travaux, conservée sur disque pour survivre à un redémarrage.
+ *
+ * Chaque travail occupe trois fichiers dans le dossier de la file :
+ *
+ * - {@code <id>.reseau} : le réseau soumis, au format des fichiers d'instance ;
+ * - {@code <id>.proprietes} : lambda, effort, état, coût et erreur ;
+ * - {@code <id>.resultat} : le réseau optimisé, une fois le travail terminé.
+ *
+ * Un travail en cours peut aussi avoir un point de reprise
+ * ({@code <id>.reprise}), supprimé à la fin du travail.
+ *
+ * Les propriétés sont réécrites à chaque changement d'état (fichier
+ * temporaire puis renommage atomique). Au redémarrage, les travaux en
+ * attente ou interrompus en cours sont à relancer ({@link #aReprendre()}).
+ */
+public final class FileTravaux {
+
+    private static final String RESEAU = ".reseau";
+    private static final String PROPRIETES = ".proprietes";
+    private static final String RESULTAT = ".resultat";
+    private static final String REPRISE = ".reprise";
+
+    private final Path dossier;
+    private final Map<Long, Travail> travaux = new ConcurrentHashMap<>();
+    private final AtomicLong prochainId = new AtomicLong(1);
+
+
+    /**
+     * Ouvre la file (le dossier est créé s'il n'existe pas) et recharge
+     * les travaux qu'il contient.
+     *
+     * @param dossier dossier de la file
+     * @throws IOException si le dossier ne peut pas être lu ou créé
+     */
+    public FileTravaux(Path dossier) throws IOException {
+        this.dossier = dossier;
+        Files.createDirectories(dossier);
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dossier, "*" + PROPRIETES)) {
+            for (Path fichier : fichiers) {
+                Travail t = charger(fichier);
+                if (t != null) {
+                    travaux.put(t.getId(), t);
+                    prochainId.accumulateAndGet(t.getId() + 1, Math::max);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enregistre un nouveau travail en attente.
+     *
+     * @param reseau contenu du fichier réseau
+     * @return le travail créé
+     * @throws IOException si les fichiers ne peuvent pas être écrits
+     */
+    public Travail creer(String reseau, double lambda, int effort) throws IOException {
+        long id = prochainId.getAndIncrement();
+        Travail t = new Travail(id, lambda, effort, Travail.Etat.EN_ATTENTE);
+        Files.writeString(fichierReseau(id), reseau, StandardCharsets.UTF_8);
+        enregistrer(t);
+        travaux.put(id, t);
+        return t;
+    }
+
+    /**
+     * Réécrit les propriétés d'un travail.
+     */
+    public void enregistrer(Travail t) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("lambda", Double.toString(t.getLambda()));
+        p.setProperty("effort", Integer.toString(t.getEffort()));
+        p.setProperty("etat", t.getEtat().name());
+        if (t.getEtat().estFinal() && !Double.isNaN(t.getCout())) {
+            p.setProperty("cout", Double.toString(t.getCout()));
+        }
+        if (t.getErreur() != null) {
+            p.setProperty("erreur", t.getErreur());
+        }
+
+        Path cible = dossier.resolve(t.getId() + PROPRIETES);
+        Path temporaire = dossier.resolve(t.getId() + PROPRIETES + ".tmp");
+        try (Writer w = Files.newBufferedWriter(temporaire, StandardCharsets.UTF_8)) {
+            p.store(w, null);
+        }
+        try {
+            Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Supprime un travail et ses fichiers.
+     */
+    public void supprimer(long id) throws IOException {
+        travaux.remove(id);
+        Files.deleteIfExists(fichierReseau(id));
+        Files.deleteIfExists(fichierResultat(id));
+        Files.deleteIfExists(fichierReprise(id));
+        Files.deleteIfExists(dossier.resolve(id + PROPRIETES));
+    }
+
+    /**
+     * @return le travail, null s'il n'existe pas
+     */
+    public Travail get(long id) {
+        return travaux.get(id);
+    }
+
+    /**
+     * @return les travaux en attente ou interrompus en cours, par ordre de soumission
+     */
+    public List<Travail> aReprendre() {
+        List<Travail> liste = new ArrayList<>();
+        for (Travail t : travaux.values()) {
+            if (!t.getEtat().estFinal()) liste.add(t);
+        }
+        liste.sort(Comparator.comparingLong(Travail::getId));
+        return liste;
+    }
+
+    public Path fichierReseau(long id) {
+        return dossier.resolve(id + RESEAU);
+    }
+
+    public Path fichierResultat(long id) {
+        return dossier.resolve(id + RESULTAT);
+    }
+
+    public Path fichierReprise(long id) {
+        return dossier.resolve(id + REPRISE);
+    }
+
+
+    /**
+     * @return le travail décrit par le fichier, null s'il est illisible
+     */
+    private static Travail charger(Path fichier) {
+        String nom = fichier.getFileName().toString();
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            p.load(r);
+            long id = Long.parseLong(nom.substring(0, nom.length() - PROPRIETES.length()));
+            Travail t = new Travail(id,
+                    Double.parseDouble(p.getProperty("lambda")),
+                    Integer.parseInt(p.getProperty("effort")),
+                    Travail.Etat.valueOf(p.getProperty("etat")));
+            String cout = p.getProperty("cout");
+            t.restaurer(cout != null ? Double.parseDouble(cout) : Double.NaN, p.getProperty("erreur"));
+            return t;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
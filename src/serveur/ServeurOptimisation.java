@@ -0,0 +1,383 @@
+package serveur;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.ReseauReader;
+import io.ReseauWriter;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import optimisation.BorneInferieure;
+import optimisation.MeilleurConnu;
+import optimisation.OptimisateurReseau;
+import optimisation.ProfilParametres;
+import reseau.Reseau;
+
+
+/**
+ * Serveur d'optimisation sans interface, accessible en HTTP sur la machine
+ * locale uniquement.
+ *
+ * Requêtes (réponses en texte brut) :
+ *
+ * - {@code POST /travaux?lambda=10&effort=10} : le corps est un réseau au
+ *   format des fichiers d'instance ; répond 202 et l'identifiant du travail
+ *   (400 si le réseau est invalide, 503 si la file est pleine). Sans effort,
+ *   le nombre de redémarrages est celui du {@link ProfilParametres} ;
+ * - {@code GET /travaux/<id>} : état, meilleur coût et borne inférieure ;
+ * - {@code GET /travaux/<id>/progression} : une ligne d'état à chaque
+ *   amélioration du coût, jusqu'à la fin du travail (réponse en flux ; 503
+ *   s'il y a déjà {@value #MAX_SUIVIS} flux ouverts) ;
+ * - {@code GET /travaux/<id>/resultat} : le réseau optimisé, écrit par
+ *   {@link ReseauWriter} (409 tant que le travail n'est pas terminé).
+ *
+ * Les travaux sont exécutés par {@link OptimisateurReseau} sur un pool de
+ * taille fixe, avec une file d'attente bornée. Ils sont enregistrés dans une
+ * {@link FileTravaux} : après un arrêt, les travaux non terminés sont
+ * relancés au démarrage suivant, depuis leur dernier point de reprise
+ * s'ils en ont un. Ceux qui ne tiennent pas dans la file sont relancés au
+ * fur et à mesure que des travaux se terminent.
+ *
+ * Les flux de progression ne bloquent pas les threads HTTP : chaque flux
+ * est une tâche qui écrit sa ligne puis se replanifie, sur un petit pool
+ * à part.
+ */
+public class ServeurOptimisation {
+
+    private static final int THREADS_HTTP = 4;
+    private static final int THREADS_SUIVI = 2;
+    private static final int MAX_SUIVIS = 64;
+    private static final long PERIODE_PROGRESSION_MS = 200;
+    private static final long PERIODE_REPRISE_MS = 60_000;
+
+    private final FileTravaux file;
+    private final int port;
+    private final ThreadPoolExecutor executeur;
+    private final Deque<Travail> aRelancer = new ArrayDeque<>();
+    private final Semaphore suivis = new Semaphore(MAX_SUIVIS);
+    private HttpServer serveur;
+    private ExecutorService executeurHttp;
+    private ScheduledExecutorService executeurSuivi;
+    private volatile boolean arrete;
+
+
+    /**
+     * @param port port d'écoute (0 pour un port libre quelconque)
+     * @param file file des travaux
+     * @param concurrence nombre de travaux exécutés en même temps
+     * @param capaciteFile nombre maximal de travaux en attente
+     */
+    public ServeurOptimisation(int port, FileTravaux file, int concurrence, int capaciteFile) {
+        if (concurrence < 1 || capaciteFile < 1) {
+            throw new IllegalArgumentException("La concurrence et la capacité doivent être positives");
+        }
+        this.port = port;
+        this.file = file;
+        this.executeur = new ThreadPoolExecutor(concurrence, concurrence, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capaciteFile));
+    }
+
+    /**
+     * Démarre l'écoute et relance les travaux non terminés.
+     *
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public void demarrer() throws IOException {
+        serveur = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executeurHttp = Executors.newFixedThreadPool(THREADS_HTTP);
+        executeurSuivi = Executors.newScheduledThreadPool(THREADS_SUIVI);
+        serveur.setExecutor(executeurHttp);
+        serveur.createContext("/travaux", this::traiter);
+        serveur.start();
+
+        synchronized (aRelancer) {
+            aRelancer.addAll(file.aReprendre());
+        }
+        relancer();
+    }
+
+    /**
+     * Confie à l'exécuteur les travaux à reprendre, tant qu'il reste de la
+     * place dans sa file. Appelé au démarrage puis à la fin de chaque travail.
+     */
+    private void relancer() {
+        synchronized (aRelancer) {
+            while (!aRelancer.isEmpty() && !arrete) {
+                try {
+                    soumettreTravail(aRelancer.peek());
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+                aRelancer.poll();
+            }
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException si la file d'attente est pleine
+     */
+    private void soumettreTravail(Travail t) {
+        executeur.execute(() -> {
+            try {
+                executer(t);
+            } finally {
+                relancer();
+            }
+        });
+    }
+
+    /**
+     * Arrête le serveur. Les travaux en cours sont interrompus sans être
+     * marqués terminés : ils seront relancés au prochain démarrage.
+     */
+    public void arreter() {
+        arrete = true;
+        if (serveur != null) serveur.stop(0);
+        if (executeurHttp != null) executeurHttp.shutdownNow();
+        if (executeurSuivi != null) executeurSuivi.shutdownNow();
+        executeur.shutdownNow(); // les travaux jamais démarrés restent en attente sur disque
+        for (Travail t : file.aReprendre()) {
+            t.interrompre();
+        }
+    }
+
+    /**
+     * @return le port effectivement ouvert
+     */
+    public int getPort() {
+        return serveur.getAddress().getPort();
+    }
+
+
+    // ----- Exécution -----
+
+    private void executer(Travail t) {
+        if (arrete) return;
+        try {
+            Reseau reseau = new ReseauReader().lireFichier(file.fichierReseau(t.getId()).toString());
+            reseau.setLambda(t.getLambda());
+            MeilleurConnu partage = new MeilleurConnu(new BorneInferieure(reseau).getBorne());
+            partage.proposer(reseau.calculerCout());
+            t.demarrer(partage);
+            file.enregistrer(t);
+
+            OptimisateurReseau opt = new OptimisateurReseau();
+            int effort = (t.getEffort() > 0) ? t.getEffort()
+                    : opt.getProfil().demarrages(reseau.getMaisons().size(), reseau.getGenerateurs().size());
+            Path reprise = file.fichierReprise(t.getId());
+            opt.setPointDeReprise(reprise, PERIODE_REPRISE_MS);
+            Reseau resultat = null;
+            if (Files.exists(reprise)) {
+                try {
+                    resultat = opt.reprendre(reseau, effort, reprise, partage);
+                } catch (IOException e) {
+                    // point de reprise inutilisable : on repart de zéro
+                }
+            }
+            if (resultat == null) {
+                resultat = opt.optimiser(reseau, effort, partage);
+            }
+            if (arrete) return;
+
+            new ReseauWriter().ecrireFichier(file.fichierResultat(t.getId()).toString(), resultat);
+            t.terminer(resultat.calculerCout());
+            file.enregistrer(t);
+            Files.deleteIfExists(reprise);
+        } catch (IOException | RuntimeException e) {
+            if (arrete) return;
+            t.echouer(e.getMessage() != null ? e.getMessage() : e.toString());
+            try {
+                file.enregistrer(t);
+            } catch (IOException ignoree) {
+                // l'état en mémoire reste consultable
+            }
+        }
+    }
+
+
+    // ----- Requêtes -----
+
+    private void traiter(HttpExchange echange) throws IOException {
+        boolean enFlux = false;
+        try {
+            String[] morceaux = echange.getRequestURI().getPath().split("/");
+            String methode = echange.getRequestMethod();
+            if (morceaux.length == 2 && methode.equals("POST")) {
+                soumettre(echange);
+                return;
+            }
+            if (morceaux.length < 3 || morceaux.length > 4 || !methode.equals("GET")) {
+                repondre(echange, 404, "Requête inconnue");
+                return;
+            }
+
+            Travail t;
+            try {
+                t = file.get(Long.parseLong(morceaux[2]));
+            } catch (NumberFormatException e) {
+                t = null;
+            }
+            if (t == null) {
+                repondre(echange, 404, "Travail inconnu");
+            } else if (morceaux.length == 3) {
+                repondre(echange, 200, t.resume());
+            } else if (morceaux[3].equals("progression")) {
+                enFlux = suivre(echange, t);
+            } else if (morceaux[3].equals("resultat")) {
+                envoyerResultat(echange, t);
+            } else {
+                repondre(echange, 404, "Requête inconnue");
+            }
+        } finally {
+            if (!enFlux) echange.close();
+        }
+    }
+
+    private void soumettre(HttpExchange echange) throws IOException {
+        Map<String, String> parametres = parametres(echange.getRequestURI().getRawQuery());
+        double lambda;
+        int effort;
+        try {
+            lambda = parametres.containsKey("lambda")
+                    ? Double.parseDouble(parametres.get("lambda")) : new Reseau().getLambda();
+            effort = parametres.containsKey("effort")
+                    ? Integer.parseInt(parametres.get("effort")) : 0;
+        } catch (NumberFormatException e) {
+            repondre(echange, 400, "Paramètre lambda ou effort invalide");
+            return;
+        }
+        if (parametres.containsKey("effort") && effort < 1) {
+            repondre(echange, 400, "L'effort doit être positif");
+            return;
+        }
+
+        String contenu = new String(echange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Travail t = file.creer(contenu, lambda, effort);
+        try {
+            new ReseauReader().lireFichier(file.fichierReseau(t.getId()).toString());
+        } catch (IOException e) {
+            file.supprimer(t.getId());
+            repondre(echange, 400, e.getMessage());
+            return;
+        }
+
+        try {
+            soumettreTravail(t);
+        } catch (RejectedExecutionException e) {
+            file.supprimer(t.getId());
+            repondre(echange, 503, "File d'attente pleine");
+            return;
+        }
+        repondre(echange, 202, Long.toString(t.getId()));
+    }
+
+    /**
+     * Ouvre un flux de progression, servi par l'exécuteur des flux.
+     *
+     * @return true si le flux est ouvert (l'échange sera fermé à sa fin)
+     */
+    private boolean suivre(HttpExchange echange, Travail t) throws IOException {
+        if (!suivis.tryAcquire()) {
+            repondre(echange, 503, "Trop de flux de progression ouverts");
+            return false;
+        }
+        try {
+            echange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            echange.sendResponseHeaders(200, 0);
+        } catch (IOException e) {
+            suivis.release();
+            throw e;
+        }
+        Suivi suivi = new Suivi(echange, t);
+        try {
+            executeurSuivi.execute(suivi);
+        } catch (RejectedExecutionException e) {
+            suivi.fermer(); // serveur arrêté
+        }
+        return true;
+    }
+
+    /**
+     * Flux de progression : écrit une ligne si l'état a changé, puis se
+     * replanifie, jusqu'à la fin du travail.
+     */
+    private final class Suivi implements Runnable {
+
+        private final HttpExchange echange;
+        private final Writer sortie;
+        private final Travail travail;
+        private String precedent;
+
+        Suivi(HttpExchange echange, Travail travail) {
+            this.echange = echange;
+            this.sortie = new OutputStreamWriter(echange.getResponseBody(), StandardCharsets.UTF_8);
+            this.travail = travail;
+        }
+
+        @Override
+        public void run() {
+            boolean fini = travail.getEtat().estFinal();
+            try {
+                String ligne = travail.resume();
+                if (!ligne.equals(precedent)) {
+                    sortie.write(ligne + "\n");
+                    sortie.flush();
+                    precedent = ligne;
+                }
+                if (!fini && !arrete) {
+                    executeurSuivi.schedule(this, PERIODE_PROGRESSION_MS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            } catch (IOException | RejectedExecutionException e) {
+                // client parti ou serveur arrêté : on ferme le flux
+            }
+            fermer();
+        }
+
+        void fermer() {
+            try {
+                sortie.close();
+            } catch (IOException ignoree) {
+                // le client est déjà parti
+            }
+            echange.close();
+            suivis.release();
+        }
+    }
+
+    private void envoyerResultat(HttpExchange echange, Travail t) throws IOException {
+        if (t.getEtat() != Travail.Etat.TERMINE) {
+            repondre(echange, 409, t.resume());
+            return;
+        }
+        byte[] contenu = Files.readAllBytes(file.fichierResultat(t.getId()));
+        echange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        echange.sendResponseHeaders(200, contenu.length);
+        echange.getResponseBody().write(contenu);
+    }
+
+    private static void repondre(HttpExchange echange, int code, String texte) throws IOException {
+        byte[] contenu = (texte + "\n").getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        echange.sendResponseHeaders(code, contenu.length);
+        echange.getResponseBody().write(contenu);
+    }
+
+    private static Map<String, String> parametres(String requete) {
+        Map<String, String> parametres = new HashMap<>();
+        if (requete == null) return parametres;
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            if (egal <= 0) continue;
+            parametres.put(URLDecoder.decode(paire.substring(0, egal), StandardCharsets.UTF_8),
+                           URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8));
+        }
+        return parametres;
+    }
+}
@@ -0,0 +1,126 @@
+package serveur;
+
+import optimisation.MeilleurConnu;
+
+
+/**
+ * Un travail d'optimisation soumis au serveur.
+ *
+ * Le travail est persisté par {@link FileTravaux} ; son état et son meilleur
+ * coût sont lus par les requêtes HTTP pendant qu'un thread l'exécute, d'où
+ * les champs volatils.
+ */
+public final class Travail {
+
+    /**
+     * Étapes de la vie d'un travail.
+     */
+    public enum Etat {
+        EN_ATTENTE, EN_COURS, TERMINE, ECHEC;
+
+        public boolean estFinal() {
+            return this == TERMINE || this == ECHEC;
+        }
+    }
+
+    private final long id;
+    private final double lambda;
+    private final int effort;
+    private volatile Etat etat;
+    private volatile double cout = Double.NaN;
+    private volatile String erreur;
+    private volatile MeilleurConnu partage;
+
+
+    Travail(long id, double lambda, int effort, Etat etat) {
+        this.id = id;
+        this.lambda = lambda;
+        this.effort = effort;
+        this.etat = etat;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * @return le nombre de redémarrages, 0 pour celui du profil des paramètres
+     */
+    public int getEffort() {
+        return effort;
+    }
+
+    public Etat getEtat() {
+        return etat;
+    }
+
+    /**
+     * @return le meilleur coût connu : celui de l'optimisation en cours,
+     *         le coût final une fois terminé, NaN avant le démarrage
+     */
+    public double getCout() {
+        MeilleurConnu p = partage;
+        return (p != null && etat == Etat.EN_COURS) ? p.getCout() : cout;
+    }
+
+    /**
+     * @return la borne inférieure du coût, NaN avant le démarrage
+     */
+    public double getBorne() {
+        MeilleurConnu p = partage;
+        return (p != null) ? p.getBorne() : Double.NaN;
+    }
+
+    /**
+     * @return le message d'erreur si le travail a échoué, null sinon
+     */
+    public String getErreur() {
+        return erreur;
+    }
+
+    void demarrer(MeilleurConnu partage) {
+        this.partage = partage;
+        this.etat = Etat.EN_COURS;
+    }
+
+    void terminer(double cout) {
+        this.cout = cout;
+        this.etat = Etat.TERMINE;
+    }
+
+    void echouer(String erreur) {
+        this.erreur = erreur;
+        this.etat = Etat.ECHEC;
+    }
+
+    void restaurer(double cout, String erreur) {
+        this.cout = cout;
+        this.erreur = erreur;
+    }
+
+    /**
+     * Demande l'arrêt de l'optimisation en cours (sans effet sinon).
+     */
+    void interrompre() {
+        MeilleurConnu p = partage;
+        if (p != null) p.arreter();
+    }
+
+    /**
+     * @return une ligne "etat=... cout=... borne=..." décrivant le travail
+     */
+    public String resume() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("id=").append(id).append(" etat=").append(etat);
+        double c = getCout();
+        if (!Double.isNaN(c) && c != Double.MAX_VALUE) sb.append(" cout=").append(c);
+        double b = getBorne();
+        if (!Double.isNaN(b)) sb.append(" borne=").append(b);
+        if (erreur != null) sb.append(" erreur=").append(erreur.replace('\n', ' '));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,262 @@
+package test;
+
+import io.ReseauReader;
+import io.ReseauWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import optimisation.BorneInferieure;
+import optimisation.OptimisateurPortefeuille;
+import optimisation.OptimisateurReseau;
+import optimisation.ProfilParametres;
+import reseau.Reseau;
+
+
+/**
+ * Commandes non interactives, pour lancer le programme depuis un script ou
+ * un ordonnanceur :
+ *
+ * - {@code --valider fichier} : vérifie la structure du réseau ;
+ * - {@code --cout fichier [--lambda x]} : coût, dispersion, surcharge et
+ *   borne inférieure ;
+ * - {@code --optimiser fichier [--lambda x] [--demarrages n] [--budget ms]
+ *   [--threads n] [--graine g] [--candidats k] [--sortie fichier]} :
+ *   optimisation multi-démarrages, répartie sur plusieurs threads et arrêtée
+ *   au bout du budget s'il est donné, chaque maison n'allant que vers ses k
+ *   générateurs les plus proches si k est donné (réseau avec positions) ;
+ *   le réseau optimisé est écrit dans le fichier de sortie ;
+ * - {@code --convertir entree sortie} : relit un réseau et le réécrit au
+ *   format de {@link ReseauWriter}.
+ *
+ * Le résultat est écrit sur une ligne de la forme {@code cle=valeur cle=valeur},
+ * les erreurs sur la sortie d'erreur. Le code de sortie vaut
+ * {@value #SUCCES} en cas de succès, {@value #RESEAU_INVALIDE} si le réseau
+ * est invalide, {@value #USAGE} si les arguments sont incorrects et
+ * {@value #ERREUR_FICHIER} si un fichier ne peut pas être lu ou écrit.
+ */
+public final class Commandes {
+
+    public static final int SUCCES = 0;
+    public static final int RESEAU_INVALIDE = 1;
+    public static final int USAGE = 2;
+    public static final int ERREUR_FICHIER = 3;
+
+    private static final Set<String> COMMANDES = Set.of("--valider", "--cout", "--optimiser", "--convertir");
+
+    private final PrintStream sortie;
+    private final PrintStream erreurs;
+
+
+    /**
+     * @param sortie reçoit les résultats
+     * @param erreurs reçoit les messages d'erreur
+     */
+    public Commandes(PrintStream sortie, PrintStream erreurs) {
+        this.sortie = sortie;
+        this.erreurs = erreurs;
+    }
+
+    /**
+     * @return true si l'argument désigne une commande non interactive
+     */
+    public static boolean estCommande(String argument) {
+        return COMMANDES.contains(argument);
+    }
+
+    /**
+     * Exécute la commande désignée par le premier argument.
+     *
+     * @param args la commande, puis ses arguments
+     * @return le code de sortie
+     */
+    public int executer(String[] args) {
+        try {
+            Arguments a = new Arguments(args);
+            switch (args[0]) {
+                case "--valider":
+                    return valider(a);
+                case "--cout":
+                    return cout(a);
+                case "--optimiser":
+                    return optimiser(a);
+                case "--convertir":
+                    return convertir(a);
+                default:
+                    throw new IllegalArgumentException("Commande inconnue : " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            erreurs.println(e.getMessage());
+            return USAGE;
+        } catch (IOException e) {
+            erreurs.println(e.getMessage());
+            return ERREUR_FICHIER;
+        }
+    }
+
+    private int valider(Arguments a) throws IOException {
+        a.verifier(1, Set.of());
+        Reseau reseau = lire(a.position(0));
+        List<String> problemes = reseau.verifierStructure();
+        sortie.println("valide=" + problemes.isEmpty()
+                + " generateurs=" + reseau.getGenerateurs().size()
+                + " maisons=" + reseau.getMaisons().size()
+                + " erreurs=" + problemes.size());
+        for (String p : problemes) {
+            erreurs.println(p);
+        }
+        return problemes.isEmpty() ? SUCCES : RESEAU_INVALIDE;
+    }
+
+    private int cout(Arguments a) throws IOException {
+        a.verifier(1, Set.of("--lambda"));
+        Reseau reseau = lire(a.position(0));
+        reseau.setLambda(a.reel("--lambda", reseau.getLambda()));
+        sortie.println("cout=" + reseau.calculerCout()
+                + " dispersion=" + reseau.calculerDispersion()
+                + " surcharge=" + reseau.calculerSurcharge()
+                + " lambda=" + reseau.getLambda()
+                + " borne=" + new BorneInferieure(reseau).getBorne());
+        return SUCCES;
+    }
+
+    private int optimiser(Arguments a) throws IOException {
+        a.verifier(1, Set.of("--lambda", "--demarrages", "--budget", "--threads", "--graine", "--candidats",
+                "--sortie"));
+        Reseau reseau = lire(a.position(0));
+        reseau.setLambda(a.reel("--lambda", reseau.getLambda()));
+        int nbMaisons = reseau.getMaisons().size();
+        int nbGenerateurs = reseau.getGenerateurs().size();
+        int demarrages = a.entier("--demarrages", ProfilParametres.actuel().demarrages(nbMaisons, nbGenerateurs));
+        int budget = a.entier("--budget", Integer.MAX_VALUE);
+        int threads = a.entier("--threads", 1);
+        long graine = a.entierLong("--graine", new Random().nextLong());
+        int candidats = (a.option("--candidats") != null) ? a.entier("--candidats", 0) : 0;
+
+        List<String> problemes = reseau.verifierStructure();
+        if (!problemes.isEmpty()) {
+            for (String p : problemes) {
+                erreurs.println(p);
+            }
+            return RESEAU_INVALIDE;
+        }
+
+        long debut = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Reseau resultat;
+        try {
+            OptimisateurPortefeuille portefeuille = new OptimisateurPortefeuille(pool);
+            for (int k = 0; k < threads; k++) {
+                OptimisateurReseau opt = new OptimisateurReseau();
+                opt.setGraine(graine + k);
+                opt.setNombreCandidats(candidats);
+                int part = demarrages / threads + (k < demarrages % threads ? 1 : 0);
+                portefeuille.ajouter(opt, Math.max(part, 1));
+            }
+            resultat = portefeuille.optimiser(reseau, budget);
+        } finally {
+            pool.shutdownNow();
+        }
+        long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+
+        String fichier = a.option("--sortie");
+        if (fichier != null) {
+            new ReseauWriter().ecrireFichier(fichier, resultat);
+        }
+        BorneInferieure borne = new BorneInferieure(reseau);
+        double cout = resultat.calculerCout();
+        sortie.println("cout_initial=" + reseau.calculerCout()
+                + " cout=" + cout
+                + " borne=" + borne.getBorne()
+                + " ecart=" + borne.ecart(cout)
+                + " duree_ms=" + dureeMs
+                + (fichier != null ? " sortie=" + fichier : ""));
+        return SUCCES;
+    }
+
+    private int convertir(Arguments a) throws IOException {
+        a.verifier(2, Set.of());
+        Reseau reseau = lire(a.position(0));
+        new ReseauWriter().ecrireFichier(a.position(1), reseau);
+        sortie.println("generateurs=" + reseau.getGenerateurs().size()
+                + " maisons=" + reseau.getMaisons().size()
+                + " sortie=" + a.position(1));
+        return SUCCES;
+    }
+
+    private static Reseau lire(String fichier) throws IOException {
+        return new ReseauReader().lireFichier(fichier);
+    }
+
+
+    /**
+     * Arguments d'une commande : des valeurs positionnelles et des options
+     * {@code --nom valeur}.
+     */
+    private static final class Arguments {
+        private final String commande;
+        private final List<String> positions = new ArrayList<>();
+        private final Map<String, String> options = new HashMap<>();
+
+        Arguments(String[] args) {
+            commande = args[0];
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].startsWith("--")) {
+                    if (i + 1 == args.length) {
+                        throw new IllegalArgumentException("Valeur manquante pour " + args[i]);
+                    }
+                    options.put(args[i], args[++i]);
+                } else {
+                    positions.add(args[i]);
+                }
+            }
+        }
+
+        void verifier(int nbPositions, Set<String> permises) {
+            if (positions.size() != nbPositions) {
+                throw new IllegalArgumentException(commande + " : " + nbPositions
+                        + " argument(s) attendu(s), " + positions.size() + " reçu(s)");
+            }
+            for (String o : options.keySet()) {
+                if (!permises.contains(o)) {
+                    throw new IllegalArgumentException(commande + " : option inconnue " + o);
+                }
+            }
+        }
+
+        String position(int i) {
+            return positions.get(i);
+        }
+
+        String option(String nom) {
+            return options.get(nom);
+        }
+
+        double reel(String nom, double defaut) {
+            String v = options.get(nom);
+            try {
+                return (v != null) ? Double.parseDouble(v) : defaut;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(nom + " : un nombre est attendu");
+            }
+        }
+
+        int entier(String nom, int defaut) {
+            long v = entierLong(nom, defaut);
+            if (v < 1 || v > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(nom + " : un entier positif est attendu");
+            }
+            return (int) v;
+        }
+
+        long entierLong(String nom, long defaut) {
+            String v = options.get(nom);
+            try {
+                return (v != null) ? Long.parseLong(v) : defaut;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(nom + " : un entier est attendu");
+            }
+        }
+    }
+}
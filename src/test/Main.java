@@ -1,5 +1,15 @@
 package test;
 
+import io.ReseauReader;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import optimisation.ProfilParametres;
+import optimisation.ReglageParametres;
+import reseau.Reseau;
+import serveur.FileTravaux;
+import serveur.ServeurOptimisation;
 
 
 /**
@@ -8,12 +18,35 @@ package test;
  * Gère le lancement de l'application selon les arguments fournis :
  * - sans argument : lancement en mode manuel
  * - avec un fichier et un paramètre lambda : chargement automatique du réseau
+ * - avec --serveur, un port, un dossier et éventuellement une concurrence :
+ *   serveur d'optimisation HTTP sur la machine locale (voir {@link ServeurOptimisation})
+ * - avec --regler, un dossier d'instances, un fichier de profil et
+ *   éventuellement un budget en millisecondes : réglage des paramètres de
+ *   l'optimisation (voir {@link ReglageParametres})
+ * - avec --valider, --cout, --optimiser ou --convertir : commande non
+ *   interactive, dont le code de retour est le code de sortie du programme
+ *   (voir {@link Commandes})
  */
 public class Main {
 
-    public static void main(String[] args) {
+    private static final int CAPACITE_FILE = 100;
+    private static final long BUDGET_REGLAGE_MS = 2000;
+
+    public static void main(String[] args) throws IOException {
         MenuReseau menu;
 
+        if (args.length > 0 && Commandes.estCommande(args[0])) {
+            System.exit(new Commandes(System.out, System.err).executer(args));
+        }
+        if (args.length > 0 && args[0].equals("--serveur")) {
+            lancerServeur(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--regler")) {
+            regler(args);
+            return;
+        }
+
         if (args.length == 0) {
             menu = new MenuReseau();
 
@@ -36,4 +69,75 @@ public class Main {
 
         menu.demarrer();
     }
+
+    /**
+     * Lance le serveur d'optimisation jusqu'à l'arrêt du programme.
+     * Arguments : --serveur port dossier [concurrence]
+     */
+    private static void lancerServeur(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            throw new IllegalArgumentException(
+                "Usage : --serveur port dossier [concurrence]"
+            );
+        }
+        int port;
+        int concurrence;
+        try {
+            port = Integer.parseInt(args[1]);
+            concurrence = (args.length == 4) ? Integer.parseInt(args[3]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "Port ou concurrence invalide : un entier est attendu."
+            );
+        }
+
+        ServeurOptimisation serveur = new ServeurOptimisation(
+                port, new FileTravaux(Paths.get(args[2])), concurrence, CAPACITE_FILE);
+        serveur.demarrer();
+        Runtime.getRuntime().addShutdownHook(new Thread(serveur::arreter));
+        System.out.println("Serveur d'optimisation sur http://localhost:" + serveur.getPort() + "/travaux");
+    }
+
+    /**
+     * Règle les paramètres de l'optimisation sur les instances d'un dossier
+     * (fichiers .txt) et enregistre le profil obtenu.
+     * Arguments : --regler dossier profil [budgetMs]
+     */
+    private static void regler(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            throw new IllegalArgumentException(
+                "Usage : --regler dossier profil [budgetMs]"
+            );
+        }
+        long budget;
+        try {
+            budget = (args.length == 4) ? Long.parseLong(args[3]) : BUDGET_REGLAGE_MS;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "Budget invalide : un entier est attendu."
+            );
+        }
+
+        List<Reseau> instances = new ArrayList<>();
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(Paths.get(args[1]), "*.txt")) {
+            for (Path fichier : fichiers) {
+                try {
+                    instances.add(new ReseauReader().lireFichier(fichier.toString()));
+                } catch (IOException e) {
+                    System.out.println("Instance ignorée : " + fichier + " (" + e.getMessage() + ")");
+                }
+            }
+        }
+        if (instances.isEmpty()) {
+            throw new IllegalArgumentException("Aucune instance lisible dans " + args[1]);
+        }
+
+        List<ProfilParametres> candidats = ReglageParametres.candidatsParDefaut();
+        System.out.println("Réglage : " + candidats.size() + " profils, " + instances.size()
+                + " instances, " + budget + " ms par optimisation");
+        ReglageParametres reglage = new ReglageParametres(instances, budget);
+        ProfilParametres profil = reglage.regler(candidats);
+        profil.enregistrer(Paths.get(args[2]), "Réglé sur " + instances.size() + " instances de " + args[1]);
+        System.out.println("Profil retenu (" + reglage.getNombreEvaluations() + " optimisations) : " + profil);
+    }
 }
@@ -251,28 +251,28 @@ public class MenuReseau {
     /**
      * Ajoute une maison au réseau de manière interactive.
      * Demande à l'utilisateur de saisir le nom et le type de consommation
-     * de la maison. Si la maison existe déjà, met à jour sa consommation.
+     * (ou la demande en kW) de la maison. Si la maison existe déjà, met à
+     * jour sa consommation.
      */
     private void ajouterMaison() {
-        System.out.print("Entrez le nom et le type de maison (ex: M1 NORMAL) : ");
+        System.out.print("Entrez le nom et le type de maison (ex: M1 NORMAL ou M1 37) : ");
         String[] parts = scanner.nextLine().trim().split("\\s+");
         
         if (parts.length != 2) {
-            System.err.println("Format invalide ! Utilisez : nom TYPE (BASSE, NORMAL ou FORTE)\n");
+            System.err.println("Format invalide ! Utilisez : nom TYPE (BASSE, NORMAL, FORTE ou demande en kW)\n");
             return;
         }
         
         String nom = parts[0];
-        Consommation cons;
+        Maison nouvelle;
         
         try {
-            cons = Consommation.fromString(parts[1]);
+            nouvelle = Maison.creer(nom, parts[1]);
         } catch (IllegalArgumentException e) {
-            System.err.println("Type invalide ! Utilisez : BASSE, NORMAL ou FORTE\n");
+            System.err.println("Type invalide ! Utilisez : BASSE, NORMAL, FORTE ou une demande entière\n");
             return;
         }
 
-        Maison nouvelle = new Maison(nom, cons);
         boolean ajoutee = reseau.ajouterMaison(nouvelle);
 
         if (ajoutee) {
@@ -381,14 +381,16 @@ public class MenuReseau {
 
         System.out.println("=== Lancement de l'algo d'optimisation ===");
 
-        Reseau reseauOptimal = opt.optimisationMultiDemarrages(reseau, 10);
+        Reseau reseauOptimal = opt.optimisationMultiDemarrages(reseau);
         double coutOptimal = reseauOptimal.calculerCout();
 
         this.reseau = reseauOptimal;
 
         System.out.println("=== Réseau optimal ===");
         System.out.println(reseau);
-        System.out.printf("Coût minimal : %.6f\n\n", coutOptimal);
+        System.out.printf("Coût minimal : %.6f\n", coutOptimal);
+        System.out.printf("Borne inférieure : %.6f (écart %.2f %%)\n\n",
+                opt.getDerniereBorne().getBorne(), 100 * opt.getDernierEcart());
     }
 
     
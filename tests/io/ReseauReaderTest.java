@@ -145,6 +145,59 @@ class ReseauReaderTests {
         assertTrue(ex.getMessage().contains("Connexion invalide"));
     }
 
+    @Test
+    void lireFichier_demandeEntiere_maisonSansType() throws IOException {
+        String contenu = """
+            generateur(g1,100).
+            maison(m1,37).
+            maison(m2,NORMAL).
+            connexion(g1,m1).
+            connexion(g1,m2).
+            """;
+
+        Path fichier = creerFichierTemp(contenu);
+        Reseau reseau = new ReseauReader().lireFichier(fichier.toString());
+
+        Maison m1 = reseau.trouverMaisonParNom("m1");
+        assertEquals(37, m1.getDemande());
+        assertNull(m1.getConsommation());
+        assertEquals(57, reseau.getCharge(reseau.trouverGenerateurParNom("g1")));
+    }
+
+    @Test
+    void lireFichier_demandeNegative_exception() throws IOException {
+        Path fichier = creerFichierTemp("maison(m1,-3).");
+
+        assertThrows(IOException.class, () -> new ReseauReader().lireFichier(fichier.toString()));
+    }
+
+    @Test
+    void lireFichier_positions_facultatives() throws IOException {
+        String contenu = """
+            generateur(g1,100,2.5,-1).
+            generateur(g2,100).
+            maison(m1,NORMAL,3,4).
+            maison(m2,37).
+            connexion(g1,m1).
+            connexion(g2,m2).
+            """;
+
+        Path fichier = creerFichierTemp(contenu);
+        Reseau reseau = new ReseauReader().lireFichier(fichier.toString());
+
+        assertEquals(new Position(2.5, -1), reseau.trouverGenerateurParNom("g1").getPosition());
+        assertNull(reseau.trouverGenerateurParNom("g2").getPosition());
+        assertEquals(new Position(3, 4), reseau.trouverMaisonParNom("m1").getPosition());
+        assertNull(reseau.trouverMaisonParNom("m2").getPosition());
+    }
+
+    @Test
+    void lireFichier_positionIncomplete_exception() throws IOException {
+        Path fichier = creerFichierTemp("generateur(g1,100,2.5).");
+
+        assertThrows(IOException.class, () -> new ReseauReader().lireFichier(fichier.toString()));
+    }
+
     @Test
     void lireFichier_maisonConsommationInvalide_exception() throws IOException {
         String contenu = "maison(m1,ULTRA).";
@@ -54,6 +54,33 @@ class ReseauWriterTests {
         assertTrue(contenu.contains("connexion(g2,m2)."));
     }
 
+    @Test
+    void ecrireFichier_demandeEntiereEtPositions_relusALIdentique() throws IOException {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        Maison m1 = new Maison("m1", 37);
+        Maison m2 = new Maison("m2", Consommation.BASSE);
+        g1.setPosition(new Position(1.5, -2));
+        m2.setPosition(new Position(0, 3));
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterMaison(m1);
+        reseau.ajouterMaison(m2);
+        reseau.connecter(m1, g1);
+        reseau.connecter(m2, g1);
+
+        Path fichier = Files.createTempFile("reseau_writer_demande", ".txt");
+        new ReseauWriter().ecrireFichier(fichier.toString(), reseau);
+
+        String contenu = Files.readString(fichier);
+        assertTrue(contenu.contains("maison(m1,37)."));
+        assertTrue(contenu.contains("maison(m2,BASSE,0.0,3.0)."));
+        assertTrue(contenu.contains("generateur(g1,100,1.5,-2.0)."));
+        Reseau relu = new ReseauReader().lireFichier(fichier.toString());
+        assertEquals(reseau.calculerCout(), relu.calculerCout());
+        assertEquals(37, relu.trouverMaisonParNom("m1").getDemande());
+        assertEquals(new Position(0, 3), relu.trouverMaisonParNom("m2").getPosition());
+    }
+
     @Test
     void ecrireFichier_reseauVide_fichierVide() throws IOException {
         Reseau reseau = new Reseau();
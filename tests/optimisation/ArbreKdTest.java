@@ -0,0 +1,50 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ArbreKdTest {
+
+    @Test
+    void plusProches_pointsAleatoires_commeLaRechercheExhaustive() {
+        Random random = new Random(3);
+        int n = 300;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Coordonnées entières : beaucoup d'égalités sur un axe
+            x[i] = random.nextInt(40);
+            y[i] = random.nextDouble() * 40;
+        }
+        ArbreKd arbre = new ArbreKd(x, y);
+        int[] resultat = new int[7];
+
+        for (int q = 0; q < 200; q++) {
+            double px = random.nextDouble() * 50 - 5;
+            double py = random.nextDouble() * 50 - 5;
+            double[] d = new double[n];
+            for (int i = 0; i < n; i++) d[i] = (x[i] - px) * (x[i] - px) + (y[i] - py) * (y[i] - py);
+            Integer[] tries = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+            Arrays.sort(tries, Comparator.comparingDouble(i -> d[i]));
+
+            assertEquals(7, arbre.plusProches(px, py, 7, resultat));
+            for (int k = 0; k < 7; k++) {
+                assertEquals(d[tries[k]], d[resultat[k]], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void plusProches_kSuperieurAuNombreDePoints_tousLesPoints() {
+        ArbreKd arbre = new ArbreKd(new double[] {0, 5, 1}, new double[] {0, 5, 1});
+        int[] resultat = new int[3];
+
+        assertEquals(3, arbre.plusProches(0.2, 0.2, 10, resultat));
+        assertArrayEquals(new int[] {0, 2, 1}, resultat);
+    }
+}
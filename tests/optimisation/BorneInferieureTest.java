@@ -0,0 +1,138 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class BorneInferieureTest {
+
+    /**
+     * Coût minimal par énumération de toutes les affectations (petits réseaux).
+     */
+    private static double coutOptimal(Reseau reseau) {
+        List<Maison> maisons = reseau.getMaisons();
+        List<Generateur> gens = reseau.getGenerateurs();
+        int nbGen = gens.size();
+        int total = (int) Math.pow(nbGen, maisons.size());
+        double meilleur = Double.MAX_VALUE;
+        for (int code = 0; code < total; code++) {
+            int c = code;
+            for (Maison m : maisons) {
+                Generateur actuel = reseau.getGenerateurDeMaison(m);
+                Generateur cible = gens.get(c % nbGen);
+                c /= nbGen;
+                if (!actuel.equals(cible)) reseau.modifierConnexion(m, actuel, cible);
+            }
+            meilleur = Math.min(meilleur, reseau.calculerCout());
+        }
+        return meilleur;
+    }
+
+    @Test
+    void borne_petitsReseauxAleatoires_inferieureAuCoutOptimal() {
+        Random random = new Random(5);
+        Consommation[] types = Consommation.values();
+        for (int essai = 0; essai < 30; essai++) {
+            Reseau reseau = new Reseau();
+            reseau.setLambda(1 + random.nextInt(20));
+            int nbGen = 2 + random.nextInt(2);
+            for (int g = 0; g < nbGen; g++) {
+                reseau.ajouterGenerateur(new Generateur("g" + g, 20 + 10 * random.nextInt(8)));
+            }
+            int nbMaisons = 3 + random.nextInt(4);
+            for (int i = 0; i < nbMaisons; i++) {
+                Maison m = new Maison("m" + i, types[random.nextInt(3)]);
+                reseau.ajouterMaison(m);
+                reseau.connecter(m, reseau.getGenerateurs().get(0));
+            }
+
+            BorneInferieure borne = new BorneInferieure(reseau);
+
+            assertTrue(borne.getBorne() <= coutOptimal(reseau) + 1e-9);
+        }
+    }
+
+    @Test
+    void borne_deuxGenerateursIdentiques_atteintLOptimum() {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 100));
+        Maison m1 = new Maison("m1", Consommation.BASSE);
+        Maison m2 = new Maison("m2", Consommation.NORMAL);
+        reseau.ajouterMaison(m1);
+        reseau.ajouterMaison(m2);
+        reseau.connecter(m1, g1);
+        reseau.connecter(m2, g1);
+
+        BorneInferieure borne = new BorneInferieure(reseau);
+
+        assertEquals(0.1, borne.getBorneDispersion(), 1e-9);
+        assertEquals(0.0, borne.getBorneSurcharge());
+    }
+
+    @Test
+    void borneSurcharge_demandeSuperieureALaCapacite_excesSurLePlusGros() {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 40);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 20));
+        for (int i = 0; i < 3; i++) {
+            Maison m = new Maison("m" + i, Consommation.FORTE);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, g1);
+        }
+
+        BorneInferieure borne = new BorneInferieure(reseau);
+
+        assertEquals(60.0 / 40, borne.getBorneSurcharge(), 1e-12);
+    }
+
+    @Test
+    void ecart_coutDoubleDeLaBorne_moitie() {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 100));
+        Maison m1 = new Maison("m1", Consommation.BASSE);
+        reseau.ajouterMaison(m1);
+        reseau.connecter(m1, g1);
+
+        BorneInferieure borne = new BorneInferieure(reseau);
+
+        assertEquals(0.0, borne.ecart(borne.getBorne()));
+        assertEquals(0.5, borne.ecart(2 * borne.getBorne()), 1e-12);
+    }
+
+    @Test
+    void optimisation_toleranceAtteinte_ecartRapporte() {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 100));
+        for (int i = 0; i < 4; i++) {
+            Maison m = new Maison("m" + i, Consommation.NORMAL);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, g1);
+        }
+        OptimisateurReseau optimisateur = new OptimisateurReseau();
+        optimisateur.setToleranceEcart(0.01);
+
+        Reseau resultat = optimisateur.optimisationMultiDemarrages(reseau, 50);
+
+        assertNotNull(optimisateur.getDerniereBorne());
+        assertEquals(0.0, optimisateur.getDerniereBorne().getBorne(), 1e-12);
+        assertEquals(0.0, resultat.calculerCout(), 1e-12);
+        assertEquals(0.0, optimisateur.getDernierEcart());
+    }
+
+    @Test
+    void setToleranceEcart_negative_exception() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisateurReseau().setToleranceEcart(-0.1));
+    }
+}
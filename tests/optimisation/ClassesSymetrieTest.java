@@ -0,0 +1,116 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ClassesSymetrieTest {
+
+    private static final int[] DEMANDES = {10, 20, 10, 40, 20, 10};
+    private static final int[] CAPACITES = {60, 60, 90};
+
+    @Test
+    void classes_valeursDistinctes_numeroteesParOrdreCroissant() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+
+        assertEquals(3, symetrie.nombreClasses());
+        assertEquals(2, symetrie.nombreGroupes());
+        assertEquals(symetrie.classe(0), symetrie.classe(2));
+        assertEquals(2, symetrie.classe(3));
+        assertEquals(symetrie.groupe(0), symetrie.groupe(1));
+    }
+
+    @Test
+    void canonique_maisonsEquivalentesPermutees_memeForme() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+        int[] a = {0, 1, 2, 2, 0, -1};
+        int[] b = {2, 0, 0, 2, 1, -1};
+
+        assertArrayEquals(symetrie.canonique(a), symetrie.canonique(b));
+    }
+
+    @Test
+    void canonique_generateursEquivalentsPermutes_memeForme() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+        int[] a = {0, 1, 0, 2, 1, 2};
+        int[] b = {1, 0, 1, 2, 0, 2};
+
+        assertArrayEquals(symetrie.canonique(a), symetrie.canonique(b));
+    }
+
+    @Test
+    void canonique_generateursDeCapacitesDifferentes_formesDifferentes() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+        int[] a = {0, 1, 0, 2, 1, 2};
+        int[] b = {2, 1, 2, 0, 1, 0};
+
+        assertFalse(java.util.Arrays.equals(symetrie.canonique(a), symetrie.canonique(b)));
+    }
+
+    @Test
+    void aligner_permutationDeMaisons_retrouveLaReference() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+        int[] reference = {0, 1, 2, 2, 0, -1};
+        int[] permutee = {2, 0, 0, 2, 1, -1};
+
+        assertArrayEquals(reference, symetrie.aligner(reference, permutee));
+    }
+
+    @Test
+    void versAffectation_compositionsConservees() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(DEMANDES, CAPACITES);
+        int[] modele = {0, 0, 0, 0, 0, 0};
+        int[][] compositions = symetrie.compositions(new int[] {1, 2, 2, 0, 1, 0});
+
+        int[] resultat = symetrie.versAffectation(compositions, modele);
+
+        for (int g = 0; g < CAPACITES.length; g++) {
+            assertArrayEquals(compositions[g], symetrie.compositions(resultat)[g]);
+        }
+    }
+
+    @Test
+    void canonique_demandesToutesDistinctes_maisonsNonPermutables() {
+        int[] demandes = {11, 12, 13, 14, 15, 16};
+        ClassesSymetrie symetrie = new ClassesSymetrie(demandes, CAPACITES);
+        int[] a = {0, 1, 2, 2, 0, 1};
+        int[] b = {1, 0, 2, 2, 1, 0};
+        int[] c = {1, 1, 2, 2, 0, 0};
+
+        assertEquals(demandes.length, symetrie.nombreClasses());
+        assertArrayEquals(symetrie.canonique(a), symetrie.canonique(b));
+        assertFalse(java.util.Arrays.equals(symetrie.canonique(a), symetrie.canonique(c)));
+        assertArrayEquals(b, symetrie.aligner(a, b));
+    }
+
+    @Test
+    void nombreDeplacementsDistincts_generateursIdentiques_regroupes() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(new int[] {10, 10, 10}, new int[] {50, 50, 50});
+        int[] affectation = {0, 1, 2};
+        ClassesSymetrie.Representants representants = symetrie.representants(new int[] {10, 10, 10});
+
+        // Une seule classe, trois générateurs identiques : un seul déplacement distinct
+        assertEquals(1, symetrie.nombreDeplacementsDistincts(affectation, representants));
+        assertEquals(symetrie.cleDeplacement(0, 0, 1, representants),
+                     symetrie.cleDeplacement(2, 2, 0, representants));
+    }
+
+    @Test
+    void representants_changerCharge_commeUnCalculComplet() {
+        ClassesSymetrie symetrie = new ClassesSymetrie(new int[] {10, 20}, new int[] {50, 50, 50, 80});
+        int[] charges = {10, 10, 20, 10};
+        ClassesSymetrie.Representants representants = symetrie.representants(charges);
+
+        representants.changerCharge(0, 20);
+        charges[0] = 20;
+        ClassesSymetrie.Representants complet = symetrie.representants(charges);
+
+        for (int g = 0; g < charges.length; g++) {
+            assertEquals(complet.de(g), representants.de(g));
+            assertEquals(complet.effectif(g), representants.effectif(g));
+        }
+        assertEquals(0, representants.de(2));
+        assertEquals(1, representants.de(1));
+        assertEquals(3, representants.nombre());
+    }
+}
@@ -0,0 +1,100 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class EvaluateurLotTest {
+
+    private static EtatAffectation etat(long graine) {
+        Random random = new Random(graine);
+        Reseau reseau = ReseauxAleatoires.reseau(random, 9, g -> 20 + 20 * random.nextInt(4), 40,
+                                                 () -> random.nextInt(9));
+        EtatAffectation etat = new EtatAffectation(reseau);
+        etat.retirer(0);
+        etat.retirer(1);
+        return etat;
+    }
+
+    private static void verifierVoisinages(EtatAffectation etat, EvaluateurLot lot) {
+        int nbGen = etat.nombreGenerateurs();
+        int k = etat.nombreMaisons() * nbGen;
+        int[] depuis = new int[k];
+        int[] vers = new int[k];
+        int[] demandes = new int[k];
+        for (int m = 0; m < etat.nombreMaisons(); m++) {
+            for (int g = 0; g < nbGen; g++) {
+                depuis[m * nbGen + g] = etat.affectation[m];
+                vers[m * nbGen + g] = g;
+                demandes[m * nbGen + g] = etat.demandes[m];
+            }
+        }
+        double[] couts = new double[k];
+
+        lot.evaluer(depuis, vers, demandes, k, couts);
+
+        assertEquals(etat.cout(), lot.cout(), 1e-9);
+        for (int m = 0; m < etat.nombreMaisons(); m++) {
+            for (int g = 0; g < nbGen; g++) {
+                assertEquals(etat.coutApresDeplacement(m, g), couts[m * nbGen + g], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void evaluer_tousLesDeplacements_commeEvaluationUnitaire() {
+        for (long graine = 0; graine < 5; graine++) {
+            EtatAffectation etat = etat(graine);
+            EvaluateurLot lot = new EvaluateurLot();
+            lot.preparer(etat.charges, etat.capacites, etat.nombreGenerateurs(), etat.lambda);
+
+            verifierVoisinages(etat, lot);
+        }
+    }
+
+    @Test
+    void preparer_depuisLArbre_memesCouts() {
+        EtatAffectation etat = etat(7);
+        EvaluateurLot lot = new EvaluateurLot();
+        etat.deplacer(0, 3);
+        etat.preparer(lot);
+
+        verifierVoisinages(etat, lot);
+    }
+
+    @Test
+    void actualiser_apresPlacements_commeUnePreparationComplete() {
+        EtatAffectation etat = etat(8);
+        EvaluateurLot lot = new EvaluateurLot();
+        etat.preparer(lot);
+
+        Random random = new Random(8);
+        for (int k = 0; k < 30; k++) {
+            int m = random.nextInt(etat.nombreMaisons());
+            int ancien = etat.affectation[m];
+            int g = random.nextInt(etat.nombreGenerateurs());
+            etat.deplacer(m, g);
+            if (ancien >= 0) lot.actualiser(ancien, etat.charges[ancien]);
+            lot.actualiser(g, etat.charges[g]);
+        }
+
+        verifierVoisinages(etat, lot);
+    }
+
+    @Test
+    void preparer_reutilise_aucunResteDuLotPrecedent() {
+        EvaluateurLot lot = new EvaluateurLot();
+        lot.preparer(new int[] {90, 10, 50}, new int[] {50, 50, 50}, 3, 10.0);
+        lot.evaluer(new int[] {0}, new int[] {1}, new int[] {40}, 1, new double[1]);
+
+        lot.preparer(new int[] {10, 10}, new int[] {50, 50}, 2, 10.0);
+        double[] couts = new double[1];
+        lot.evaluer(new int[] {-1}, new int[] {1}, new int[] {10}, 1, couts);
+
+        // taux 0.2 et 0.4 : moyenne 0.3, dispersion 0.2, aucune surcharge
+        assertEquals(0.2, couts[0], 1e-12);
+    }
+}
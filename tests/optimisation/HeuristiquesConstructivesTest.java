@@ -0,0 +1,156 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class HeuristiquesConstructivesTest {
+
+    private static int[] charges(int[] affectation, int[] demandes, int nbGen) {
+        int[] charges = new int[nbGen];
+        for (int i = 0; i < affectation.length; i++) {
+            if (affectation[i] >= 0) charges[affectation[i]] += demandes[i];
+        }
+        return charges;
+    }
+
+    @Test
+    void meilleurAjustement_capaciteSuffisante_aucuneSurcharge() {
+        int[] demandes = {20, 40, 10, 20, 40, 10};
+        int[] capacites = {60, 50, 30};
+        int[] affectation = {0, 0, 0, 0, 0, 0};
+
+        for (int essai = 0; essai < 20; essai++) {
+            int[] resultat = HeuristiquesConstructives.construire(StrategieDemarrage.MEILLEUR_AJUSTEMENT,
+                    demandes, capacites, affectation, new Random(essai));
+            int[] charges = charges(resultat, demandes, capacites.length);
+            for (int g = 0; g < capacites.length; g++) {
+                assertTrue(charges[g] <= capacites[g]);
+            }
+        }
+    }
+
+    @Test
+    void moinsCharge_generateursIdentiques_chargesEquilibrees() {
+        int[] demandes = {20, 20, 20, 20};
+        int[] capacites = {100, 100};
+
+        int[] resultat = HeuristiquesConstructives.construire(StrategieDemarrage.MOINS_CHARGE,
+                demandes, capacites, new int[] {0, 0, 0, 0}, new Random(1));
+
+        assertArrayEquals(new int[] {40, 40}, charges(resultat, demandes, 2));
+    }
+
+    @Test
+    void regret_maisonQuiNeTientQueSurUnGenerateur_placeeEnPremier() {
+        int[] demandes = {20, 20, 40};
+        int[] capacites = {40, 40};
+
+        int[] resultat = HeuristiquesConstructives.construire(StrategieDemarrage.REGRET,
+                demandes, capacites, new int[] {0, 0, 0}, new Random(2));
+        int[] charges = charges(resultat, demandes, 2);
+
+        assertEquals(40, charges[0]);
+        assertEquals(40, charges[1]);
+    }
+
+    @Test
+    void regret_capacitesDifferentes_chargesAuProrata() {
+        int[] demandes = {10, 10, 10, 10, 10, 10};
+        int[] capacites = {100, 50};
+        int[] affectation = new int[6];
+
+        int[] regret = HeuristiquesConstructives.construire(StrategieDemarrage.REGRET,
+                demandes, capacites, affectation, new Random(4));
+        int[] ajustement = HeuristiquesConstructives.construire(StrategieDemarrage.MEILLEUR_AJUSTEMENT,
+                demandes, capacites, affectation, new Random(4));
+
+        assertArrayEquals(new int[] {40, 20}, charges(regret, demandes, 2));
+        assertArrayEquals(new int[] {10, 50}, charges(ajustement, demandes, 2));
+    }
+
+    @Test
+    void regret_demandesToutesDistinctes_toutesPlacees() {
+        Random random = new Random(5);
+        int[] demandes = new int[500];
+        for (int i = 0; i < demandes.length; i++) demandes[i] = 1 + random.nextInt(200);
+        int[] capacites = new int[20];
+        Arrays.fill(capacites, 3000);
+
+        int[] resultat = HeuristiquesConstructives.construire(StrategieDemarrage.REGRET,
+                demandes, capacites, new int[demandes.length], random);
+
+        int[] charges = charges(resultat, demandes, capacites.length);
+        for (int g = 0; g < capacites.length; g++) {
+            assertTrue(charges[g] <= capacites[g]);
+        }
+    }
+
+    @Test
+    void construire_candidats_chaqueMaisonSurUnDeSesCandidats() {
+        Random random = new Random(6);
+        int nbGen = 10;
+        int k = 3;
+        int[] demandes = new int[200];
+        int[] candidats = new int[demandes.length * k];
+        for (int i = 0; i < demandes.length; i++) {
+            demandes[i] = 1 + random.nextInt(50);
+            for (int t = 0; t < k; t++) candidats[i * k + t] = (i + 3 * t) % nbGen;
+        }
+        int[] capacites = new int[nbGen];
+        Arrays.fill(capacites, 600);
+
+        for (StrategieDemarrage s : StrategieDemarrage.values()) {
+            int[] resultat = HeuristiquesConstructives.construire(s, demandes, capacites,
+                    new int[demandes.length], candidats, k, random);
+            for (int i = 0; i < demandes.length; i++) {
+                int g = resultat[i];
+                assertTrue(g == i % nbGen || g == (i + 3) % nbGen || g == (i + 6) % nbGen,
+                           s + " : maison " + i + " sur " + g);
+            }
+        }
+    }
+
+    @Test
+    void construire_maisonNonConnectee_resteNonConnectee() {
+        for (StrategieDemarrage s : StrategieDemarrage.values()) {
+            int[] resultat = HeuristiquesConstructives.construire(s,
+                    new int[] {10, 20}, new int[] {50, 50}, new int[] {-1, 1}, new Random(3));
+
+            assertEquals(-1, resultat[0]);
+            assertTrue(resultat[1] >= 0);
+        }
+    }
+
+    @Test
+    void optimisation_chaqueStrategie_toutesLesMaisonsRestentConnectees() {
+        for (StrategieDemarrage s : StrategieDemarrage.values()) {
+            Reseau reseau = new Reseau();
+            Generateur g1 = new Generateur("g1", 60);
+            reseau.ajouterGenerateur(g1);
+            reseau.ajouterGenerateur(new Generateur("g2", 40));
+            for (int i = 0; i < 5; i++) {
+                Maison m = new Maison("m" + i, Consommation.values()[i % 3]);
+                reseau.ajouterMaison(m);
+                reseau.connecter(m, g1);
+            }
+            OptimisateurReseau optimisateur = new OptimisateurReseau();
+            optimisateur.setStrategiesDemarrage(s);
+
+            Reseau resultat = optimisateur.optimisationMultiDemarrages(reseau, 4);
+
+            assertTrue(resultat.getMaisonsNonConnectees().isEmpty());
+            assertTrue(resultat.calculerCout() <= reseau.calculerCout());
+        }
+    }
+
+    @Test
+    void setStrategiesDemarrage_aucune_exception() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OptimisateurReseau().setStrategiesDemarrage());
+    }
+}
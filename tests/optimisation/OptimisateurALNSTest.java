@@ -0,0 +1,79 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class OptimisateurALNSTest {
+
+    private Reseau reseau;
+
+    @BeforeEach
+    void setUp() {
+        reseau = ReseauxAleatoires.surPremierGenerateur(new Random(4), 6, g -> 100 + 40 * g, 40);
+    }
+
+    @Test
+    void optimiser_reseauSurcharge_coutReduit() {
+        Reseau resultat = new OptimisateurALNS(new Random(1)).optimiser(reseau, 2000);
+
+        assertTrue(resultat.calculerCout() < reseau.calculerCout() / 10);
+        assertEquals(0.0, resultat.calculerSurcharge(), 1e-12);
+    }
+
+    @Test
+    void optimiser_toutesLesMaisonsRestentConnectees_originalInchange() {
+        double coutInitial = reseau.calculerCout();
+
+        Reseau resultat = new OptimisateurALNS(new Random(2)).optimiser(reseau, 500);
+
+        assertTrue(resultat.getMaisonsNonConnectees().isEmpty());
+        assertEquals(reseau.getMaisons().size(), resultat.getMaisons().size());
+        assertEquals(coutInitial, reseau.calculerCout());
+    }
+
+    @Test
+    void optimiser_maisonNonConnectee_resteNonConnectee() {
+        reseau.ajouterMaison(new Maison("isolee", Consommation.FORTE));
+
+        Reseau resultat = new OptimisateurALNS(new Random(3)).optimiser(reseau, 300);
+
+        assertNull(resultat.getGenerateurDeMaison(resultat.trouverMaisonParNom("isolee")));
+    }
+
+    @Test
+    void optimiser_meilleurConnuImbattable_moinsDIterations() {
+        OptimisateurALNS seul = new OptimisateurALNS(new Random(5));
+        seul.optimiser(reseau, 2000, new MeilleurConnu(0.0));
+        MeilleurConnu imbattable = new MeilleurConnu(0.0);
+        imbattable.proposer(1e-9);
+        OptimisateurALNS enRetard = new OptimisateurALNS(new Random(5));
+
+        Reseau resultat = enRetard.optimiser(reseau, 2000, imbattable);
+
+        assertEquals(2000, seul.getNombreIterations());
+        assertTrue(enRetard.getNombreIterations() < 2000);
+        assertTrue(resultat.calculerCout() < reseau.calculerCout());
+    }
+
+    @Test
+    void optimiser_memeGraine_memeResultat() {
+        double c1 = new OptimisateurALNS(new Random(9)).optimiser(reseau, 400).calculerCout();
+        double c2 = new OptimisateurALNS(new Random(9)).optimiser(reseau, 400).calculerCout();
+
+        assertEquals(c1, c2);
+    }
+
+    @Test
+    void optimiser_commeStrategie_memeEntreeQueMultiDemarrages() {
+        StrategieOptimisation[] strategies = {new OptimisateurReseau(), new OptimisateurALNS()};
+        for (StrategieOptimisation s : strategies) {
+            Reseau resultat = s.optimiser(reseau, 3);
+            assertTrue(resultat.calculerCout() <= reseau.calculerCout());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class OptimisateurDecompositionTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static Reseau grandReseau(int nbGenerateurs, int nbMaisons, long graine) {
+        Random random = new Random(graine);
+        return ReseauxAleatoires.surPremierGenerateur(random, nbGenerateurs,
+                g -> 60 + 20 * random.nextInt(5), nbMaisons);
+    }
+
+    @Test
+    void repartirGenerateurs_capacitesEquilibrees() {
+        int[] capacites = {100, 90, 80, 70, 60, 50, 40, 30};
+
+        int[] groupe = OptimisateurDecomposition.repartirGenerateurs(capacites, 2);
+
+        int[] totaux = new int[2];
+        for (int g = 0; g < capacites.length; g++) totaux[groupe[g]] += capacites[g];
+        assertTrue(Math.abs(totaux[0] - totaux[1]) <= 10);
+    }
+
+    @Test
+    void repartirGenerateurs_capacitesNulles_aucunGroupeVide() {
+        int[] groupe = OptimisateurDecomposition.repartirGenerateurs(new int[] {0, 0, 0}, 3);
+
+        assertNotEquals(groupe[0], groupe[1]);
+        assertNotEquals(groupe[1], groupe[2]);
+        assertNotEquals(groupe[0], groupe[2]);
+    }
+
+    @Test
+    void optimiser_grandReseau_toutesLesMaisonsConnecteesEtCoutReduit() {
+        Reseau reseau = grandReseau(40, 600, 4);
+        OptimisateurDecomposition decomposition = new OptimisateurDecomposition(pool);
+        decomposition.setNombreGroupes(4);
+        decomposition.setStrategie(() -> new OptimisateurALNS(new Random(1)));
+
+        Reseau resultat = decomposition.optimiser(reseau, 200);
+
+        assertTrue(resultat.getMaisonsNonConnectees().isEmpty());
+        assertEquals(600, resultat.getMaisons().size());
+        assertTrue(resultat.calculerCout() < reseau.calculerCout());
+    }
+
+    @Test
+    void optimiser_groupeUnique_reseauInitialNonModifie() {
+        Reseau reseau = grandReseau(5, 50, 9);
+        double coutInitial = reseau.calculerCout();
+        OptimisateurDecomposition decomposition = new OptimisateurDecomposition(pool);
+
+        Reseau resultat = decomposition.optimiser(reseau, 100);
+
+        assertEquals(coutInitial, reseau.calculerCout(), 1e-12);
+        assertTrue(resultat.calculerCout() <= coutInitial);
+    }
+}
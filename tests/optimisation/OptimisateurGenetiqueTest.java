@@ -0,0 +1,83 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class OptimisateurGenetiqueTest {
+
+    private Reseau reseau;
+
+    @BeforeEach
+    void setUp() {
+        reseau = ReseauxAleatoires.surPremierGenerateur(new Random(8), 5, g -> 100 + 50 * g, 30);
+    }
+
+    @Test
+    void optimiser_plusieursIles_coutReduitSansSurcharge() {
+        OptimisateurGenetique genetique = new OptimisateurGenetique(new Random(1));
+        genetique.setNombreIles(3);
+        genetique.setPeriodeMigration(5);
+
+        Reseau resultat = genetique.optimiser(reseau, 40);
+
+        assertTrue(resultat.calculerCout() < reseau.calculerCout());
+        assertEquals(0.0, resultat.calculerSurcharge(), 1e-12);
+        assertTrue(resultat.getMaisonsNonConnectees().isEmpty());
+    }
+
+    @Test
+    void optimiser_maisonNonConnectee_resteNonConnectee() {
+        reseau.ajouterMaison(new Maison("isolee", Consommation.BASSE));
+        OptimisateurGenetique genetique = new OptimisateurGenetique(new Random(2));
+        genetique.setNombreIles(2);
+
+        Reseau resultat = genetique.optimiser(reseau, 20);
+
+        assertNull(resultat.getGenerateurDeMaison(resultat.trouverMaisonParNom("isolee")));
+        assertEquals(31, resultat.getMaisons().size());
+    }
+
+    @Test
+    void optimiser_uneIle_neDegradePasLeCout() {
+        OptimisateurGenetique genetique = new OptimisateurGenetique(new Random(3));
+        genetique.setNombreIles(1);
+        genetique.setTaillePopulation(10);
+
+        StrategieOptimisation strategie = genetique;
+        Reseau resultat = strategie.optimiser(reseau, 10);
+
+        assertTrue(resultat.calculerCout() <= reseau.calculerCout());
+    }
+
+    @Test
+    void optimiser_executeurFourni_memeResultatQueParDefaut() {
+        ExecutorService executeur = Executors.newFixedThreadPool(2);
+        try {
+            OptimisateurGenetique fourni = new OptimisateurGenetique(new Random(4), executeur);
+            fourni.setNombreIles(3);
+            fourni.setPeriodeMigration(5);
+            OptimisateurGenetique parDefaut = new OptimisateurGenetique(new Random(4));
+            parDefaut.setNombreIles(3);
+            parDefaut.setPeriodeMigration(5);
+
+            Reseau resultat = fourni.optimiser(reseau, 30);
+
+            assertEquals(parDefaut.optimiser(reseau, 30).calculerCout(), resultat.calculerCout(), 1e-12);
+            assertEquals(0.0, resultat.calculerSurcharge(), 1e-12);
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    @Test
+    void setNombreIles_zero_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new OptimisateurGenetique().setNombreIles(0));
+    }
+}
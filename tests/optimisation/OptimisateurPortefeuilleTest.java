@@ -0,0 +1,129 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class OptimisateurPortefeuilleTest {
+
+    private ExecutorService pool;
+    private Reseau reseau;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(3);
+        reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 100));
+        for (int i = 0; i < 6; i++) {
+            Maison m = new Maison("m" + i, Consommation.NORMAL);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, g1);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void optimiser_optimumAtteint_retourneAvantLaFinDuTemps() {
+        OptimisateurPortefeuille portefeuille = new OptimisateurPortefeuille(pool)
+                .ajouter(new OptimisateurReseau(), 1000)
+                .ajouter(new OptimisateurALNS(), 1_000_000);
+
+        long debut = System.currentTimeMillis();
+        Reseau resultat = portefeuille.optimiser(reseau, 60_000);
+
+        assertEquals(0.0, resultat.calculerCout(), 1e-12);
+        assertTrue(portefeuille.getDernierPartage().optimumAtteint());
+        assertTrue(System.currentTimeMillis() - debut < 30_000);
+        assertEquals(120, reseau.getCharge(reseau.getGenerateurs().get(0)));
+    }
+
+    @Test
+    void optimiser_tempsEcoule_rendLaMeilleureSolution() {
+        reseau.ajouterGenerateur(new Generateur("g3", 70));
+        OptimisateurPortefeuille portefeuille = OptimisateurPortefeuille.parDefaut(pool, reseau);
+
+        Reseau resultat = portefeuille.optimiser(reseau, 200);
+
+        assertTrue(resultat.calculerCout() <= reseau.calculerCout());
+        assertTrue(resultat.getMaisonsNonConnectees().isEmpty());
+    }
+
+    @Test
+    void optimiser_strategieEnRetard_rendLaSolutionPubliee() {
+        StrategieOptimisation lente = new StrategieOptimisation() {
+            @Override
+            public Reseau optimiser(Reseau r, int effort) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Reseau optimiser(Reseau r, int effort, MeilleurConnu partage) {
+                int[] affectation = new int[r.getMaisons().size()];
+                affectation[0] = 1;
+                partage.proposer(coutApres(r, affectation), affectation);
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return r;
+            }
+        };
+        OptimisateurPortefeuille portefeuille = new OptimisateurPortefeuille(pool).ajouter(lente, 1);
+
+        Reseau resultat = portefeuille.optimiser(reseau, 100);
+
+        assertTrue(resultat.calculerCout() < reseau.calculerCout());
+        assertEquals(20, resultat.getCharge(resultat.trouverGenerateurParNom("g2")));
+    }
+
+    private static double coutApres(Reseau r, int[] affectation) {
+        EtatAffectation etat = new EtatAffectation(r);
+        etat.affecter(affectation);
+        return etat.cout();
+    }
+
+    @Test
+    void meilleurConnu_proposerAffectation_garderLaMeilleureCopie() {
+        MeilleurConnu partage = new MeilleurConnu(0.0);
+        int[] affectation = {0, 1};
+
+        assertTrue(partage.proposer(2.0, affectation));
+        affectation[0] = 1;
+        assertFalse(partage.proposer(3.0, affectation));
+
+        assertArrayEquals(new int[] {0, 1}, partage.getAffectation());
+        assertEquals(2.0, partage.getCoutAffectation());
+    }
+
+    @Test
+    void meilleurConnu_proposer_neGardeQueLeMinimum() {
+        MeilleurConnu partage = new MeilleurConnu(0.5);
+
+        assertTrue(partage.proposer(2.0));
+        assertFalse(partage.proposer(3.0));
+        assertFalse(partage.estArrete());
+        assertTrue(partage.proposer(0.5));
+
+        assertEquals(0.5, partage.getCout());
+        assertTrue(partage.estArrete());
+    }
+
+    @Test
+    void optimiser_portefeuilleVide_exception() {
+        assertThrows(IllegalStateException.class,
+                () -> new OptimisateurPortefeuille(pool).optimiser(reseau, 10));
+    }
+}
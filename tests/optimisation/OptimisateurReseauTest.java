@@ -2,6 +2,10 @@ package optimisation;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -82,4 +86,130 @@ public class OptimisateurReseauTest {
         assertFalse(resultat.getGenerateurs().isEmpty());
         assertFalse(resultat.getMaisons().isEmpty());
     }
+
+    @Test
+    void suiviCharges_deplacementsCoherents_finitSurLaMeilleureSolution() {
+        int[] suivies = new int[2];
+        int[] appels = new int[1];
+        optimisateur.setSuiviCharges(new SuiviCharges() {
+            @Override
+            public void charges(int[] charges) {
+                System.arraycopy(charges, 0, suivies, 0, suivies.length);
+                appels[0]++;
+            }
+
+            @Override
+            public void deplacement(int depuis, int vers, int demande) {
+                suivies[depuis] -= demande;
+                suivies[vers] += demande;
+            }
+        });
+
+        Reseau resultat = optimisateur.optimisationMultiDemarrages(reseau, 5);
+
+        assertTrue(appels[0] > 1);
+        for (int g = 0; g < 2; g++) {
+            assertEquals(resultat.getCharge(resultat.getGenerateurs().get(g)), suivies[g]);
+        }
+        assertEquals(70, suivies[0] + suivies[1]);
+    }
+
+    @Test
+    void optimisationMultiDemarrages_demandesEntieres_equilibreLesCharges() {
+        Reseau numerique = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        numerique.ajouterGenerateur(g1);
+        numerique.ajouterGenerateur(new Generateur("g2", 100));
+        int[] demandes = {37, 23, 41, 19, 30};
+        for (int i = 0; i < demandes.length; i++) {
+            Maison m = new Maison("m" + i, demandes[i]);
+            numerique.ajouterMaison(m);
+            numerique.connecter(m, g1);
+        }
+
+        Reseau resultat = optimisateur.optimisationMultiDemarrages(numerique, 5);
+
+        assertTrue(resultat.calculerCout() < numerique.calculerCout());
+        assertEquals(0.0, resultat.calculerSurcharge());
+        assertTrue(resultat.verifierStructure().isEmpty());
+        for (int i = 0; i < demandes.length; i++) {
+            Maison m = resultat.trouverMaisonParNom("m" + i);
+            assertEquals(demandes[i], m.getDemande());
+            assertNull(m.getConsommation());
+        }
+    }
+
+    @Test
+    void setNombreCandidats_deplacementsVersLesGenerateursProches() {
+        Reseau geographique = new Reseau();
+        double[] abscisses = {0, 1, 100, 101};
+        for (int g = 0; g < abscisses.length; g++) {
+            Generateur gen = new Generateur("g" + g, 50);
+            gen.setPosition(new Position(abscisses[g], 0));
+            geographique.ajouterGenerateur(gen);
+        }
+        Generateur proche = geographique.getGenerateurs().get(0);
+        for (int i = 0; i < 6; i++) {
+            Maison m = new Maison("m" + i, 20);
+            m.setPosition(new Position(i * 0.2, 1));
+            geographique.ajouterMaison(m);
+            geographique.connecter(m, proche);
+        }
+
+        optimisateur.setNombreCandidats(2);
+        Reseau restreint = optimisateur.optimisationMultiDemarrages(geographique, 1);
+        OptimisateurReseau libre = new OptimisateurReseau();
+        libre.setGraine(1);
+        Reseau sansRestriction = libre.optimisationMultiDemarrages(geographique, 1);
+
+        assertTrue(restreint.calculerCout() < geographique.calculerCout());
+        assertEquals(120, restreint.getCharge(restreint.getGenerateurs().get(0))
+                + restreint.getCharge(restreint.getGenerateurs().get(1)));
+        assertTrue(sansRestriction.getCharge(sansRestriction.getGenerateurs().get(2))
+                + sansRestriction.getCharge(sansRestriction.getGenerateurs().get(3)) > 0);
+        assertEquals(new Position(0.2, 1), restreint.trouverMaisonParNom("m1").getPosition());
+    }
+
+    @Test
+    void setNombreCandidats_chaqueMaisonSurUnDeSesCandidats() {
+        Random random = new Random(11);
+        Reseau geographique = new Reseau();
+        for (int g = 0; g < 20; g++) {
+            Generateur gen = new Generateur("g" + g, 300);
+            gen.setPosition(new Position(random.nextDouble() * 100, random.nextDouble() * 100));
+            geographique.ajouterGenerateur(gen);
+        }
+        List<Generateur> generateurs = geographique.getGenerateurs();
+        for (int i = 0; i < 200; i++) {
+            Maison m = new Maison("m" + i, Consommation.values()[random.nextInt(3)]);
+            m.setPosition(new Position(random.nextDouble() * 100, random.nextDouble() * 100));
+            geographique.ajouterMaison(m);
+            geographique.connecter(m, plusProches(generateurs, m.getPosition()).get(0));
+        }
+
+        optimisateur.setGraine(1);
+        optimisateur.setNombreCandidats(3);
+        Reseau resultat = optimisateur.optimisationMultiDemarrages(geographique, 6);
+
+        for (Maison m : resultat.getMaisons()) {
+            List<String> proches = new ArrayList<>();
+            for (Generateur g : plusProches(resultat.getGenerateurs(), m.getPosition()).subList(0, 3)) {
+                proches.add(g.getNom());
+            }
+            assertTrue(proches.contains(resultat.getGenerateurDeMaison(m).getNom()),
+                       m.getNom() + " hors de ses candidats");
+        }
+    }
+
+    private static List<Generateur> plusProches(List<Generateur> generateurs, Position p) {
+        List<Generateur> tries = new ArrayList<>(generateurs);
+        tries.sort(Comparator.comparingDouble((Generateur g) -> Math.hypot(
+                g.getPosition().getX() - p.getX(), g.getPosition().getY() - p.getY())));
+        return tries;
+    }
+
+    @Test
+    void setNombreCandidats_negatif_exception() {
+        assertThrows(IllegalArgumentException.class, () -> optimisateur.setNombreCandidats(-1));
+    }
 }
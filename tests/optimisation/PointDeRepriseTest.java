@@ -0,0 +1,154 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class PointDeRepriseTest {
+
+    private static final long GRAINE = 42L;
+    private static final int DEMARRAGES = 6;
+
+    private Path dossier;
+
+    /**
+     * Garde en mémoire tous les points de reprise au lieu de les écrire.
+     */
+    private static class Capture extends OptimisateurReseau {
+        final List<PointDeReprise> points = new ArrayList<>();
+        Reseau resultat;
+
+        @Override
+        void ecrirePointDeReprise(PointDeReprise p) {
+            points.add(p);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("reprise");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var fichiers = Files.list(dossier)) {
+            for (Path f : fichiers.toList()) Files.delete(f);
+        }
+        Files.delete(dossier);
+    }
+
+    private static Reseau reseau(int nbGenerateurs, int nbMaisons) {
+        Random random = new Random(7);
+        return ReseauxAleatoires.surPremierGenerateur(random, nbGenerateurs,
+                g -> 40 + 20 * random.nextInt(4), nbMaisons);
+    }
+
+    private static List<String> connexions(Reseau r) {
+        List<String> connexions = new ArrayList<>();
+        for (Maison m : r.getMaisons()) {
+            connexions.add(m.getNom() + "-" + r.getGenerateurDeMaison(m).getNom());
+        }
+        return connexions;
+    }
+
+    private static Reseau sansInterruption(Reseau reseau) {
+        OptimisateurReseau opt = new OptimisateurReseau();
+        opt.setGraine(GRAINE);
+        return opt.optimisationMultiDemarrages(reseau, DEMARRAGES);
+    }
+
+    private Capture capturer(Reseau reseau) {
+        Capture opt = new Capture();
+        opt.setGraine(GRAINE);
+        opt.setPointDeReprise(dossier.resolve("inutilise"), 0);
+        opt.resultat = opt.optimisationMultiDemarrages(reseau, DEMARRAGES);
+        return opt;
+    }
+
+    private Reseau reprendre(Reseau reseau, PointDeReprise p) throws IOException {
+        Path fichier = dossier.resolve("point");
+        p.ecrire(fichier);
+        return new OptimisateurReseau().reprendre(reseau, DEMARRAGES, fichier);
+    }
+
+    @Test
+    void optimisation_memeGraine_memeResultatAvecOuSansPointsDeReprise() {
+        Reseau reseau = reseau(12, 150);
+        Reseau attendu = sansInterruption(reseau);
+
+        Capture opt = capturer(reseau);
+
+        assertFalse(opt.points.isEmpty());
+        assertEquals(connexions(attendu), connexions(opt.resultat));
+        assertEquals(attendu.calculerCout(), opt.resultat.calculerCout());
+    }
+
+    @Test
+    void reprendre_pendantUneRechercheLocale_suiteIdentique() throws IOException {
+        Reseau reseau = reseau(12, 150);
+        Reseau attendu = sansInterruption(reseau);
+        Capture opt = capturer(reseau);
+
+        PointDeReprise milieu = null;
+        for (PointDeReprise p : opt.points) {
+            if (p.recherche != null && p.indice > 0) {
+                milieu = p;
+                break;
+            }
+        }
+        assertNotNull(milieu);
+
+        Reseau repris = reprendre(reseau, milieu);
+
+        assertEquals(connexions(attendu), connexions(repris));
+        assertEquals(attendu.calculerCout(), repris.calculerCout());
+    }
+
+    @Test
+    void reprendre_entreDeuxRedemarrages_suiteIdentique() throws IOException {
+        Reseau reseau = reseau(12, 150);
+        Reseau attendu = sansInterruption(reseau);
+        Capture opt = capturer(reseau);
+
+        PointDeReprise dernier = null;
+        for (PointDeReprise p : opt.points) {
+            if (p.recherche == null) dernier = p;
+        }
+        assertNotNull(dernier);
+
+        Reseau repris = reprendre(reseau, dernier);
+
+        assertEquals(connexions(attendu), connexions(repris));
+        assertEquals(attendu.calculerCout(), repris.calculerCout());
+    }
+
+    @Test
+    void reprendre_reseauDifferent_exception() {
+        Capture opt = capturer(reseau(12, 150));
+
+        assertThrows(IOException.class, () -> reprendre(reseau(12, 149), opt.points.get(0)));
+    }
+
+    @Test
+    void alea_etatRestaure_memeSuite() {
+        AleaReproductible a = new AleaReproductible(GRAINE);
+        a.nextInt(10);
+        long etat = a.getEtat();
+        int[] suite = {a.nextInt(100), a.nextInt(100), a.nextInt(100)};
+
+        AleaReproductible b = new AleaReproductible(0L);
+        b.setEtat(etat);
+
+        assertArrayEquals(suite, new int[] {b.nextInt(100), b.nextInt(100), b.nextInt(100)});
+    }
+}
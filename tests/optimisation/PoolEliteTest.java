@@ -0,0 +1,94 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class PoolEliteTest {
+
+    @Test
+    void zobrist_uneMaisonDeplacee_hashDifferentPuisIdentiqueAuRetour() {
+        Random random = new Random(6);
+        TableZobrist zobrist = new TableZobrist(7, random.nextLong());
+        int[] affectation = new int[50];
+        for (int i = 0; i < affectation.length; i++) {
+            affectation[i] = random.nextInt(8) - 1;
+        }
+        long hash = zobrist.hash(affectation);
+
+        for (int k = 0; k < 1000; k++) {
+            int m = random.nextInt(50);
+            int ancien = affectation[m];
+            int nouveau = (ancien + 2 + random.nextInt(7)) % 8 - 1;
+            affectation[m] = nouveau;
+            assertNotEquals(hash, zobrist.hash(affectation));
+            affectation[m] = ancien;
+        }
+
+        assertEquals(hash, zobrist.hash(affectation));
+    }
+
+    @Test
+    void zobrist_tresGrandReseau_clesSansDebordement() {
+        TableZobrist zobrist = new TableZobrist(100_000, 6L);
+        int[] a = new int[42_950];
+        int[] b = new int[42_950];
+        Arrays.fill(a, -1);
+        Arrays.fill(b, -1);
+        // 42 949 * 100 000 + 67 296 = 2^32 : même indice que (0, 0) en int
+        a[42_949] = 67_296;
+        b[0] = 0;
+
+        assertNotEquals(zobrist.hash(a), zobrist.hash(b));
+    }
+
+    @Test
+    void proposer_memeHash_refuse() {
+        PoolElite pool = new PoolElite(3);
+
+        assertTrue(pool.proposer(new int[] {0, 1}, 42L, 1.0));
+        assertFalse(pool.proposer(new int[] {0, 1}, 42L, 0.5));
+        assertEquals(1, pool.taille());
+    }
+
+    @Test
+    void proposer_poolPlein_remplaceLaPireSiMeilleure() {
+        PoolElite pool = new PoolElite(2);
+        pool.proposer(new int[] {0}, 1L, 3.0);
+        pool.proposer(new int[] {1}, 2L, 1.0);
+
+        assertFalse(pool.proposer(new int[] {2}, 3L, 5.0));
+        assertTrue(pool.proposer(new int[] {3}, 4L, 2.0));
+
+        List<Long> hashs = List.of(pool.hash(0), pool.hash(1));
+        assertFalse(hashs.contains(1L));
+        assertTrue(hashs.contains(4L));
+        assertEquals(1.0, pool.cout(pool.meilleure()));
+    }
+
+    @Test
+    void optimisation_redemarragesIdentiques_doublonsDetectes() {
+        Reseau reseau = new Reseau();
+        Generateur g1 = new Generateur("g1", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(new Generateur("g2", 70));
+        Consommation[] types = {Consommation.FORTE, Consommation.FORTE, Consommation.BASSE};
+        for (int i = 0; i < types.length; i++) {
+            Maison m = new Maison("m" + i, types[i]);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, g1);
+        }
+        OptimisateurReseau optimisateur = new OptimisateurReseau();
+        optimisateur.setStrategiesDemarrage(StrategieDemarrage.MEILLEUR_AJUSTEMENT);
+
+        Reseau resultat = optimisateur.optimisationMultiDemarrages(reseau, 6);
+
+        assertNotNull(resultat);
+        assertTrue(optimisateur.getNombreDoublons() >= 4);
+    }
+}
@@ -0,0 +1,63 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+public class ProfilParametresTest {
+
+    @Test
+    void parDefaut_anciennesConstantes() {
+        ProfilParametres profil = ProfilParametres.parDefaut();
+
+        assertEquals(10, profil.demarrages(50, 5));
+        assertEquals(1000 * 50 * 5, profil.iterations(50, 5));
+        assertEquals(1000, profil.stagnation(50, 5));
+    }
+
+    @Test
+    void loi_valeurBornee() {
+        ProfilParametres.Loi loi = new ProfilParametres.Loi(40, -0.5, 0);
+
+        assertEquals(10, loi.valeur(16, 3));
+        assertEquals(1, loi.valeur(1_000_000, 3));
+        assertEquals(Integer.MAX_VALUE, new ProfilParametres.Loi(1000, 2, 1).valeur(100_000, 1000));
+    }
+
+    @Test
+    void loi_coefficientNul_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new ProfilParametres.Loi(0, 1, 1));
+    }
+
+    @Test
+    void enregistrerPuisCharger_memeProfil() throws IOException {
+        ProfilParametres profil = new ProfilParametres(new ProfilParametres.Loi(40, -0.5, 0),
+                new ProfilParametres.Loi(200, 1, 0.5), new ProfilParametres.Loi(5, 1, 0));
+        Path fichier = Files.createTempFile("profil", ".properties");
+        try {
+            profil.enregistrer(fichier, null);
+            ProfilParametres relu = ProfilParametres.charger(fichier);
+
+            assertEquals(profil.getDemarrages(), relu.getDemarrages());
+            assertEquals(profil.getIterations(), relu.getIterations());
+            assertEquals(profil.getStagnation(), relu.getStagnation());
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    void charger_loiInvalide_exception() throws IOException {
+        Path fichier = Files.createTempFile("profil", ".properties");
+        try {
+            Files.writeString(fichier, "iterations=1000 1\n");
+
+            assertThrows(IOException.class, () -> ProfilParametres.charger(fichier));
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+}
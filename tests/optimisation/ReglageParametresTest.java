@@ -0,0 +1,80 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class ReglageParametresTest {
+
+    private static Reseau reseau(long graine) {
+        Random random = new Random(graine);
+        return ReseauxAleatoires.surPremierGenerateur(random, 6, g -> 40 + 20 * random.nextInt(4), 60);
+    }
+
+    @Test
+    void rangsMoyens_exAequo_rangMoyen() {
+        List<double[]> couts = List.of(new double[] {1.0, 2.0, 1.0});
+        List<long[]> temps = List.of(new long[] {5, 5, 5});
+
+        double[] rangs = ReglageParametres.rangsMoyens(couts, temps, new boolean[3]);
+
+        assertArrayEquals(new double[] {1.5, 3.0, 1.5}, rangs, 1e-12);
+    }
+
+    @Test
+    void rangsMoyens_coutEgal_plusRapideDevant() {
+        List<double[]> couts = List.of(new double[] {1.0, 1.0});
+        List<long[]> temps = List.of(new long[] {9, 3});
+
+        double[] rangs = ReglageParametres.rangsMoyens(couts, temps, new boolean[2]);
+
+        assertArrayEquals(new double[] {2.0, 1.0}, rangs, 1e-12);
+    }
+
+    @Test
+    void eliminer_toujoursDernier_elimine() {
+        List<double[]> couts = new ArrayList<>();
+        List<long[]> temps = new ArrayList<>();
+        for (int k = 0; k < 5; k++) {
+            couts.add(k % 2 == 0 ? new double[] {1.0, 2.0, 3.0} : new double[] {2.0, 1.0, 3.0});
+            temps.add(new long[3]);
+        }
+        boolean[] elimine = new boolean[3];
+
+        assertEquals(1, ReglageParametres.eliminer(couts, temps, elimine));
+        assertArrayEquals(new boolean[] {false, false, true}, elimine);
+    }
+
+    @Test
+    void regler_instancesReelles_unDesCandidatsEnAuPlusUneEvaluationParInstance() {
+        List<Reseau> instances = new ArrayList<>();
+        for (int k = 0; k < 4; k++) instances.add(reseau(k));
+        List<ProfilParametres> candidats = List.of(ProfilParametres.parDefaut(),
+                new ProfilParametres(new ProfilParametres.Loi(1, 0, 0),
+                        new ProfilParametres.Loi(1, 0, 0), new ProfilParametres.Loi(1, 0, 0)));
+
+        ReglageParametres reglage = new ReglageParametres(instances, 500);
+        ProfilParametres retenu = reglage.regler(candidats);
+
+        assertTrue(candidats.contains(retenu));
+        assertTrue(reglage.getNombreEvaluations() <= candidats.size() * instances.size());
+    }
+
+    @Test
+    void regler_unSeulCandidat_aucuneEvaluation() {
+        ReglageParametres reglage = new ReglageParametres(List.of(reseau(0)), 100);
+
+        assertSame(ProfilParametres.parDefaut(), reglage.regler(List.of(ProfilParametres.parDefaut())));
+        assertEquals(0, reglage.getNombreEvaluations());
+    }
+
+    @Test
+    void constructeur_sansInstance_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new ReglageParametres(List.of(), 100));
+    }
+}
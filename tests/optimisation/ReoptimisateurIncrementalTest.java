@@ -0,0 +1,106 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class ReoptimisateurIncrementalTest {
+
+    private Reseau reseau;
+    private ReoptimisateurIncremental reoptimisateur;
+
+    @BeforeEach
+    void setUp() {
+        reseau = new Reseau();
+        reoptimisateur = new ReoptimisateurIncremental();
+
+        Generateur g1 = new Generateur("g1", 100);
+        Generateur g2 = new Generateur("g2", 100);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(g2);
+
+        Maison m1 = new Maison("m1", Consommation.NORMAL);  // 20
+        Maison m2 = new Maison("m2", Consommation.NORMAL);  // 20
+        Maison m3 = new Maison("m3", Consommation.FORTE);   // 40
+        Maison m4 = new Maison("m4", Consommation.FORTE);   // 40
+        reseau.ajouterMaison(m1);
+        reseau.ajouterMaison(m2);
+        reseau.ajouterMaison(m3);
+        reseau.ajouterMaison(m4);
+
+        reseau.connecter(m1, g1);
+        reseau.connecter(m3, g1);
+        reseau.connecter(m2, g2);
+        reseau.connecter(m4, g2);
+    }
+
+    @Test
+    void reoptimiser_sansModification_conserveLeCout() {
+        Reseau resultat = reoptimisateur.reoptimiser(reseau, new ModificationsReseau());
+
+        assertEquals(reseau.calculerCout(), resultat.calculerCout(), 1e-9);
+        assertTrue(resultat.verifierStructure().isEmpty());
+    }
+
+    @Test
+    void reoptimiser_nouvelleMaison_estConnectee() {
+        ModificationsReseau modifs = new ModificationsReseau()
+                .ajouterMaison(new Maison("m5", Consommation.BASSE));
+
+        Reseau resultat = reoptimisateur.reoptimiser(reseau, modifs);
+
+        Maison m5 = resultat.trouverMaisonParNom("m5");
+        assertNotNull(m5);
+        assertNotNull(resultat.getGenerateurDeMaison(m5));
+        assertTrue(resultat.verifierStructure().isEmpty());
+    }
+
+    @Test
+    void reoptimiser_maisonSupprimee_disparaitDuReseau() {
+        ModificationsReseau modifs = new ModificationsReseau().supprimerMaison("m3");
+
+        Reseau resultat = reoptimisateur.reoptimiser(reseau, modifs);
+
+        assertNull(resultat.trouverMaisonParNom("m3"));
+        assertEquals(3, resultat.getMaisons().size());
+        assertTrue(resultat.verifierStructure().isEmpty());
+    }
+
+    @Test
+    void reoptimiser_capaciteModifiee_reequilibreLesCharges() {
+        ModificationsReseau modifs = new ModificationsReseau()
+                .ajouterGenerateur(new Generateur("g2", 50));
+
+        Reseau resultat = reoptimisateur.reoptimiser(reseau, modifs);
+
+        assertEquals(50, resultat.trouverGenerateurParNom("g2").getCapaciteMax());
+        assertEquals(0.0, resultat.calculerSurcharge(), 1e-9);
+    }
+
+    @Test
+    void reoptimiser_nouveauGenerateur_recoitDesMaisons() {
+        ModificationsReseau modifs = new ModificationsReseau()
+                .ajouterGenerateur(new Generateur("g3", 100));
+
+        Reseau resultat = reoptimisateur.reoptimiser(reseau, modifs);
+
+        Generateur g3 = resultat.trouverGenerateurParNom("g3");
+        assertFalse(resultat.getMaisonsDuGenerateur(g3).isEmpty());
+        assertTrue(resultat.calculerCout() < reseau.calculerCout() + 1e-9);
+    }
+
+    @Test
+    void reoptimiser_neModifiePasLeReseauPrecedent() {
+        double coutAvant = reseau.calculerCout();
+        reoptimisateur.reoptimiser(reseau, new ModificationsReseau()
+                .ajouterGenerateur(new Generateur("g1", 10))
+                .supprimerMaison("m1"));
+
+        assertEquals(coutAvant, reseau.calculerCout(), 1e-12);
+        assertEquals(100, reseau.trouverGenerateurParNom("g1").getCapaciteMax());
+        assertNotNull(reseau.trouverMaisonParNom("m1"));
+    }
+}
@@ -0,0 +1,47 @@
+package optimisation;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+import reseau.*;
+
+
+/**
+ * Réseaux aléatoires des tests d'optimisation : des générateurs "g0",
+ * "g1"... puis des maisons "m0", "m1"... de consommation tirée au hasard.
+ */
+final class ReseauxAleatoires {
+
+    private ReseauxAleatoires() {
+    }
+
+    /**
+     * Toutes les maisons sont connectées au premier générateur.
+     *
+     * @param capacite capacité du générateur g (peut tirer dans random)
+     */
+    static Reseau surPremierGenerateur(Random random, int nbGenerateurs, IntUnaryOperator capacite,
+                                       int nbMaisons) {
+        return reseau(random, nbGenerateurs, capacite, nbMaisons, () -> 0);
+    }
+
+    /**
+     * @param capacite capacité du générateur g (peut tirer dans random)
+     * @param branchement générateur de chaque nouvelle maison, tiré après sa consommation
+     */
+    static Reseau reseau(Random random, int nbGenerateurs, IntUnaryOperator capacite, int nbMaisons,
+                         IntSupplier branchement) {
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < nbGenerateurs; g++) {
+            reseau.ajouterGenerateur(new Generateur("g" + g, capacite.applyAsInt(g)));
+        }
+        Consommation[] types = Consommation.values();
+        for (int i = 0; i < nbMaisons; i++) {
+            Maison m = new Maison("m" + i, types[random.nextInt(types.length)]);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, reseau.getGenerateurs().get(branchement.getAsInt()));
+        }
+        return reseau;
+    }
+}
@@ -0,0 +1,91 @@
+package optimisation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class TasIndexeTest {
+
+    @Test
+    void sommet_apresModificationsAleatoires_extremumDesCles() {
+        Random random = new Random(8);
+        int n = 50;
+        double[] cles = new double[n];
+        TasIndexe min = new TasIndexe(n, false);
+        TasIndexe max = new TasIndexe(n, true);
+        for (int i = 0; i < n; i++) {
+            cles[i] = random.nextDouble();
+            min.inserer(i, cles[i]);
+            max.inserer(i, cles[i]);
+        }
+
+        for (int k = 0; k < 2000; k++) {
+            int i = random.nextInt(n);
+            cles[i] = random.nextDouble();
+            min.modifier(i, cles[i]);
+            max.modifier(i, cles[i]);
+
+            int plusPetit = 0, plusGrand = 0;
+            for (int j = 1; j < n; j++) {
+                if (cles[j] < cles[plusPetit]) plusPetit = j;
+                if (cles[j] > cles[plusGrand]) plusGrand = j;
+            }
+            assertEquals(plusPetit, min.sommet());
+            assertEquals(plusGrand, max.sommet());
+        }
+    }
+
+    @Test
+    void inserer_elementDejaPresent_exception() {
+        TasIndexe tas = new TasIndexe(2, false);
+        tas.inserer(0, 1.0);
+
+        assertThrows(IllegalArgumentException.class, () -> tas.inserer(0, 2.0));
+    }
+
+    @Test
+    void casiers_deplacements_uneMaisonParClasse() {
+        int[] demandes = {10, 20, 10, 40};
+        ClassesSymetrie classes = new ClassesSymetrie(demandes, new int[] {50, 50});
+        CasiersMaisons casiers = new CasiersMaisons(classes, new int[] {0, 0, 0, -1}, 2);
+
+        assertEquals(3, casiers.nombreTranches());
+        assertEquals(-1, casiers.premiere(0, classes.classe(3)));
+        assertEquals(-1, casiers.premiere(1, classes.classe(0)));
+
+        casiers.deplacer(0, 1);
+        casiers.deplacer(2, 1);
+        casiers.deplacer(3, 0);
+
+        assertEquals(-1, casiers.premiere(0, classes.classe(0)));
+        assertNotEquals(-1, casiers.premiere(1, classes.classe(0)));
+        assertEquals(3, casiers.premiere(0, classes.classe(3)));
+        assertEquals(1, casiers.premiere(0, classes.classe(1)));
+    }
+
+    @Test
+    void casiers_demandesToutesDistinctes_tranchesRegroupees() {
+        int[] demandes = new int[100];
+        int[] affectation = new int[100];
+        for (int i = 0; i < demandes.length; i++) {
+            demandes[i] = 1 + i;
+            affectation[i] = i % 2;
+        }
+        ClassesSymetrie classes = new ClassesSymetrie(demandes, new int[] {500, 500});
+        CasiersMaisons casiers = new CasiersMaisons(classes, affectation, 2);
+
+        assertEquals(CasiersMaisons.MAX_TRANCHES, casiers.nombreTranches());
+        int trouvees = 0;
+        for (int t = 0; t < casiers.nombreTranches(); t++) {
+            for (int g = 0; g < 2; g++) {
+                int m = casiers.premiere(g, t);
+                if (m >= 0) {
+                    assertEquals(g, affectation[m]);
+                    trouvees++;
+                }
+            }
+        }
+        assertEquals(2 * CasiersMaisons.MAX_TRANCHES, trouvees);
+    }
+}
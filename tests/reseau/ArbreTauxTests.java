@@ -0,0 +1,101 @@
+package reseau;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ArbreTauxTests {
+
+    private static double sommeEcarts(double[] taux, int n, double m) {
+        double s = 0.0;
+        for (int i = 0; i < n; i++) {
+            s += Math.abs(taux[i] - m);
+        }
+        return s;
+    }
+
+    @Test
+    void sommeEcarts_apresModificationsAleatoires_identiqueAuCalculDirect() {
+        Random random = new Random(3);
+        int n = 200;
+        double[] taux = new double[n];
+        ArbreTaux arbre = new ArbreTaux(4);
+        for (int i = 0; i < n; i++) {
+            taux[i] = random.nextInt(5) * 0.25;
+            arbre.inserer(i, taux[i]);
+        }
+
+        for (int k = 0; k < 5000; k++) {
+            int i = random.nextInt(n);
+            taux[i] = random.nextDouble() * 2;
+            arbre.modifier(i, taux[i]);
+
+            double m = random.nextDouble() * 2;
+            assertEquals(sommeEcarts(taux, n, m), arbre.sommeEcarts(m), 1e-9);
+        }
+        assertEquals(n, arbre.taille());
+    }
+
+    @Test
+    void dispersionApres_deuxTauxChanges_arbreInchange() {
+        double[] taux = {0.2, 0.5, 0.9, 0.5};
+        ArbreTaux arbre = new ArbreTaux(taux.length);
+        for (int i = 0; i < taux.length; i++) {
+            arbre.inserer(i, taux[i]);
+        }
+
+        double attendu = sommeEcarts(new double[] {0.4, 0.5, 0.7, 0.5}, 4, 2.1 / 4);
+
+        assertEquals(attendu, arbre.dispersionApres(0, 0.4, 2, 0.7), 1e-12);
+        assertEquals(0.9, arbre.getTaux(2));
+        assertEquals(sommeEcarts(taux, 4, 0.525), arbre.sommeEcarts(0.525), 1e-12);
+    }
+
+    @Test
+    void supprimer_dernierInsere_retireDuTotal() {
+        ArbreTaux arbre = new ArbreTaux(2);
+        arbre.inserer(0, 0.5);
+        arbre.inserer(1, 1.5);
+        arbre.supprimer(1);
+
+        assertEquals(1, arbre.taille());
+        assertEquals(0.5, arbre.somme(), 1e-12);
+        assertFalse(arbre.contient(1));
+    }
+
+    @Test
+    void inserer_indiceDejaPresent_exception() {
+        ArbreTaux arbre = new ArbreTaux(2);
+        arbre.inserer(0, 0.5);
+
+        assertThrows(IllegalArgumentException.class, () -> arbre.inserer(0, 0.1));
+    }
+
+    @Test
+    void premierEtDernier_tauxExtremes() {
+        ArbreTaux arbre = new ArbreTaux(4);
+        assertEquals(-1, arbre.premier());
+
+        arbre.inserer(0, 0.5);
+        arbre.inserer(1, 0.2);
+        arbre.inserer(2, 0.9);
+        arbre.modifier(0, 1.5);
+
+        assertEquals(1, arbre.premier());
+        assertEquals(0, arbre.dernier());
+    }
+
+    @Test
+    void valeursTriees_ordreCroissant() {
+        ArbreTaux arbre = new ArbreTaux(4);
+        arbre.inserer(0, 0.5);
+        arbre.inserer(1, 0.2);
+        arbre.inserer(2, 0.9);
+        arbre.inserer(3, 0.2);
+        arbre.modifier(2, 0.1);
+        double[] tries = new double[4];
+
+        assertEquals(4, arbre.valeursTriees(tries));
+        assertArrayEquals(new double[] {0.1, 0.2, 0.2, 0.5}, tries, 0.0);
+    }
+}
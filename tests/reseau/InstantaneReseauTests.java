@@ -0,0 +1,155 @@
+package reseau;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InstantaneReseauTests {
+
+    private Reseau reseau;
+    private Maison m1;
+    private Maison m2;
+    private Generateur g1;
+    private Generateur g2;
+
+    @BeforeEach
+    void setUp() {
+        reseau = new Reseau();
+
+        m1 = new Maison("M1", Consommation.BASSE);
+        m2 = new Maison("M2", Consommation.FORTE);
+        g1 = new Generateur("G1", 100);
+        g2 = new Generateur("G2", 50);
+
+        reseau.ajouterMaison(m1);
+        reseau.ajouterMaison(m2);
+        reseau.ajouterGenerateur(g1);
+        reseau.ajouterGenerateur(g2);
+        reseau.connecter(m1, g1);
+        reseau.connecter(m2, g2);
+    }
+
+    @Test
+    void instantane_memeCoutQueLeReseau() {
+        InstantaneReseau inst = reseau.instantane();
+
+        assertEquals(reseau.calculerCout(), inst.calculerCout(), 1e-12);
+        assertEquals(reseau.calculerDispersion(), inst.calculerDispersion(), 1e-12);
+        assertEquals(reseau.calculerSurcharge(), inst.calculerSurcharge(), 1e-12);
+    }
+
+    @Test
+    void instantane_nonAffecteParLesModificationsSuivantes() {
+        InstantaneReseau inst = reseau.instantane();
+        double cout = inst.calculerCout();
+
+        reseau.modifierConnexion(m2, g2, g1);
+        reseau.ajouterGenerateur(new Generateur("G2", 10));
+        reseau.ajouterMaison(new Maison("M3", Consommation.NORMAL));
+
+        assertEquals(cout, inst.calculerCout(), 1e-12);
+        assertEquals(1, inst.getGenerateurDeMaison(1));
+        assertEquals(50, inst.getCapacite(1));
+        assertEquals(2, inst.nombreMaisons());
+    }
+
+    @Test
+    void instantane_suitLesAnnulations() {
+        reseau.ajouterMaison(new Maison("M3", Consommation.NORMAL));
+        reseau.annuler();
+        reseau.ajouterMaison(new Maison("M4", Consommation.BASSE));
+
+        InstantaneReseau inst = reseau.instantane();
+        assertEquals(3, inst.nombreMaisons());
+        assertEquals("M4", inst.getNomMaison(2));
+    }
+
+    @Test
+    void versReseau_reconstruitUnReseauEquivalent() {
+        Reseau copie = reseau.instantane().versReseau();
+
+        assertEquals(reseau.calculerCout(), copie.calculerCout(), 1e-12);
+        assertEquals("G2", copie.getGenerateurDeMaison(copie.trouverMaisonParNom("M2")).getNom());
+    }
+
+    @Test
+    void versReseau_conserveLesPositions() {
+        Maison m3 = new Maison("M3", 25);
+        m3.setPosition(new Position(3, 4));
+        Generateur g3 = new Generateur("G3", 80);
+        g3.setPosition(new Position(-1, 2.5));
+        reseau.ajouterMaison(m3);
+        reseau.ajouterGenerateur(g3);
+
+        InstantaneReseau inst = reseau.instantane();
+        Reseau copie = inst.versReseau();
+
+        assertEquals(new Position(3, 4), inst.getPositionMaison(2));
+        assertNull(inst.getPositionMaison(0));
+        assertEquals(new Position(3, 4), copie.trouverMaisonParNom("M3").getPosition());
+        assertEquals(new Position(-1, 2.5), copie.trouverGenerateurParNom("G3").getPosition());
+        assertEquals(25, copie.trouverMaisonParNom("M3").getDemande());
+    }
+
+    @Test
+    void versReseau_demandeNumeriqueEgaleAUnType_resteNumerique() {
+        reseau.ajouterMaison(new Maison("M3", 20));
+
+        Reseau copie = reseau.instantane().versReseau();
+
+        Maison m3 = copie.trouverMaisonParNom("M3");
+        assertNull(m3.getConsommation());
+        assertEquals(20, m3.getDemande());
+        assertEquals(Consommation.FORTE, copie.trouverMaisonParNom("M2").getConsommation());
+    }
+
+    @Test
+    void instantane_lecturesConcurrentesPendantLesModifications() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            Maison m = new Maison("X" + i, Consommation.NORMAL);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, g1);
+        }
+
+        AtomicBoolean fini = new AtomicBoolean(false);
+        List<Throwable> erreurs = new ArrayList<>();
+        List<Thread> lecteurs = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            InstantaneReseau inst = reseau.instantane();
+            double attendu = inst.calculerCout();
+            Thread lecteur = new Thread(() -> {
+                try {
+                    while (!fini.get()) {
+                        if (Math.abs(inst.calculerCout() - attendu) > 1e-12) {
+                            throw new AssertionError("Instantané modifié");
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (erreurs) {
+                        erreurs.add(e);
+                    }
+                }
+            });
+            lecteurs.add(lecteur);
+            lecteur.start();
+        }
+
+        for (int k = 0; k < 2000; k++) {
+            Maison m = reseau.trouverMaisonParNom("X" + (k % 200));
+            Generateur actuel = reseau.getGenerateurDeMaison(m);
+            reseau.modifierConnexion(m, actuel, actuel.equals(g1) ? g2 : g1);
+        }
+        fini.set(true);
+        for (Thread lecteur : lecteurs) {
+            lecteur.join();
+        }
+
+        assertTrue(erreurs.isEmpty());
+    }
+}
@@ -43,4 +43,25 @@ class MaisonTests {
 
         assertEquals("OK", map.get(m2));
     }
+
+    @Test
+    void demandeEntiere_sansTypeDeConsommation() {
+        Maison m = new Maison("M1", 37);
+
+        assertEquals(37, m.getDemande());
+        assertNull(m.getConsommation());
+        assertEquals(40, new Maison("M2", Consommation.FORTE).getDemande());
+    }
+
+    @Test
+    void demandeNegative_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new Maison("M1", -5));
+    }
+
+    @Test
+    void creer_typeOuDemande() {
+        assertEquals(Consommation.NORMAL, Maison.creer("M1", "normal").getConsommation());
+        assertEquals(37, Maison.creer("M1", "37").getDemande());
+        assertThrows(IllegalArgumentException.class, () -> Maison.creer("M1", "ULTRA"));
+    }
 }
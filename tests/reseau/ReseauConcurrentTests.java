@@ -0,0 +1,186 @@
+package reseau;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReseauConcurrentTests {
+
+    private static final int NB_MAISONS = 300;
+    private static final int NB_GENERATEURS = 8;
+
+    private Reseau reseau;
+
+    @BeforeEach
+    void setUp() {
+        reseau = new Reseau();
+        for (int g = 0; g < NB_GENERATEURS; g++) {
+            reseau.ajouterGenerateur(new Generateur("G" + g, 1000));
+        }
+        Consommation[] types = Consommation.values();
+        for (int i = 0; i < NB_MAISONS; i++) {
+            Maison m = new Maison("M" + i, types[i % types.length]);
+            reseau.ajouterMaison(m);
+            reseau.connecter(m, reseau.trouverGenerateurParNom("G" + (i % NB_GENERATEURS)));
+        }
+    }
+
+    @Test
+    void constructeur_memeCoutQueLeReseau() {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+
+        assertEquals(reseau.calculerCout(), concurrent.calculerCout(), 1e-12);
+        assertEquals(reseau.calculerCharges(), concurrent.calculerCharges());
+    }
+
+    @Test
+    void connecter_maisonDejaConnectee_exception() {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+        Maison m = reseau.trouverMaisonParNom("M0");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> concurrent.connecter(m, reseau.trouverGenerateurParNom("G1")));
+    }
+
+    @Test
+    void modifierConnexion_mauvaisAncienGenerateur_exception() {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+        Maison m = reseau.trouverMaisonParNom("M0");
+
+        assertThrows(IllegalArgumentException.class, () -> concurrent.modifierConnexion(m,
+                reseau.trouverGenerateurParNom("G1"), reseau.trouverGenerateurParNom("G2")));
+    }
+
+    @Test
+    void deconnecterPuisConnecter_chargesMisesAJour() {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+        Maison m = reseau.trouverMaisonParNom("M0");
+        Generateur g0 = reseau.trouverGenerateurParNom("G0");
+        Generateur g1 = reseau.trouverGenerateurParNom("G1");
+        int charge0 = concurrent.getCharge(g0);
+        int charge1 = concurrent.getCharge(g1);
+
+        concurrent.deconnecter(m, g0);
+        concurrent.connecter(m, g1);
+
+        assertEquals(charge0 - m.getConsommation().getValeur(), concurrent.getCharge(g0));
+        assertEquals(charge1 + m.getConsommation().getValeur(), concurrent.getCharge(g1));
+        assertEquals(g1, concurrent.getGenerateurDeMaison(m));
+    }
+
+    /**
+     * Plusieurs threads déplacent des maisons au hasard. Chaque déplacement
+     * réussi (a -> n) est enregistré : pour que l'exécution soit linéarisable,
+     * les déplacements réussis d'une maison doivent former un chemin allant
+     * de son générateur initial à son générateur final, et les charges
+     * finales doivent correspondre exactement à l'affectation finale.
+     */
+    @Test
+    void deplacer_indicesHorsLimites_exception() {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+
+        assertThrows(IllegalArgumentException.class, () -> concurrent.deplacer(0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.deplacer(0, 0, NB_GENERATEURS));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.deplacer(NB_MAISONS, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.deplacer(-1, 0, 1));
+    }
+
+    @Test
+    void deplacementsConcurrents_linearisables() throws Exception {
+        ReseauConcurrent concurrent = new ReseauConcurrent(reseau);
+        int[] initial = new int[NB_MAISONS];
+        for (int i = 0; i < NB_MAISONS; i++) {
+            initial[i] = concurrent.getAffectation(i);
+        }
+
+        int nbThreads = 6;
+        int deplacementsParThread = 20000;
+        List<int[]> journaux = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch depart = new CountDownLatch(1);
+
+        for (int t = 0; t < nbThreads; t++) {
+            int[] journal = new int[deplacementsParThread * 3];
+            journaux.add(journal);
+            long graine = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(graine);
+                try {
+                    depart.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int k = 0;
+                for (int essai = 0; essai < deplacementsParThread; essai++) {
+                    int m = random.nextInt(NB_MAISONS);
+                    int a = concurrent.getAffectation(m);
+                    int n = random.nextInt(NB_GENERATEURS);
+                    if (a != n && concurrent.deplacer(m, a, n)) {
+                        journal[k++] = m;
+                        journal[k++] = a;
+                        journal[k++] = n;
+                    }
+                }
+                if (k < journal.length) journal[k] = -1;
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        List<Generateur> generateurs = reseau.getGenerateurs();
+        AtomicReference<String> incoherence = new AtomicReference<>();
+        Thread lecteur = new Thread(() -> {
+            while (threads.stream().anyMatch(Thread::isAlive) && incoherence.get() == null) {
+                for (Generateur g : generateurs) {
+                    int charge = concurrent.getCharge(g);
+                    if (charge < 0) {
+                        incoherence.set("Charge négative lue pour " + g.getNom() + " : " + charge);
+                    }
+                }
+                double cout = concurrent.calculerCout();
+                if (!Double.isFinite(cout)) {
+                    incoherence.set("Coût non fini lu : " + cout);
+                }
+            }
+        });
+        lecteur.start();
+
+        depart.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        lecteur.join();
+        assertNull(incoherence.get());
+
+        int[][] bilan = new int[NB_MAISONS][NB_GENERATEURS];
+        for (int[] journal : journaux) {
+            for (int k = 0; k + 2 < journal.length && journal[k] >= 0; k += 3) {
+                bilan[journal[k]][journal[k + 1]]--;
+                bilan[journal[k]][journal[k + 2]]++;
+            }
+        }
+
+        int[] chargesAttendues = new int[NB_GENERATEURS];
+        for (int i = 0; i < NB_MAISONS; i++) {
+            int fin = concurrent.getAffectation(i);
+            for (int g = 0; g < NB_GENERATEURS; g++) {
+                int attendu = (g == fin ? 1 : 0) - (g == initial[i] ? 1 : 0);
+                assertEquals(attendu, bilan[i][g], "Chemin incohérent pour la maison " + i);
+            }
+            chargesAttendues[fin] += reseau.getMaisons().get(i).getConsommation().getValeur();
+        }
+
+        for (int g = 0; g < NB_GENERATEURS; g++) {
+            assertEquals(chargesAttendues[g],
+                    concurrent.getCharge(reseau.trouverGenerateurParNom("G" + g)));
+        }
+        assertEquals(concurrent.calculerCout(), concurrent.versReseau().calculerCout(), 1e-9);
+    }
+}
@@ -65,6 +65,15 @@ class ReseauTests {
         assertEquals(g1, reseau.getGenerateurDeMaison(m1));
     }
 
+    @Test
+    void getConnexions_listeDUnGenerateur_nonModifiable() {
+        reseau.connecter(m1, g1);
+        List<Maison> maisons = reseau.getConnexions().get(g1);
+        assertThrows(UnsupportedOperationException.class, () -> maisons.add(m2));
+        assertThrows(UnsupportedOperationException.class, () -> maisons.remove(m1));
+        assertEquals(List.of(m1), reseau.getMaisonsDuGenerateur(g1));
+    }
+
     @Test
     void connecter_maisonNonEnregistree_exception() {
         Maison inconnue = new Maison("X", Consommation.BASSE);
@@ -352,4 +361,227 @@ class ReseauTests {
     }
 
 
+
+    @Test
+    void annuler_connexion_maisonDeconnectee() {
+        reseau.connecter(m1, g1);
+        assertTrue(reseau.annuler());
+
+        assertNull(reseau.getGenerateurDeMaison(m1));
+    }
+
+    @Test
+    void annuler_journalVide_retourneFalse() {
+        reseau.viderJournal();
+        assertFalse(reseau.annuler());
+    }
+
+    @Test
+    void journal_version_compteChaqueOperation() {
+        reseau.viderJournal();
+        JournalModifications journal = reseau.getJournal();
+        long depart = journal.getVersion();
+
+        reseau.connecter(m1, g1);
+        reseau.modifierConnexion(m1, g1, g2);
+        assertEquals(2, journal.getVersion() - depart);
+
+        reseau.annuler();
+        reseau.refaire();
+        assertEquals(4, journal.getVersion() - depart);
+        assertEquals(2, journal.getPosition());
+
+        reseau.annuler();
+        reseau.connecter(m2, g1);
+        assertEquals(6, journal.getVersion() - depart);
+        assertEquals(2, journal.getPosition());
+    }
+
+    @Test
+    void ajouterMaison_demandeEntiere_annulerRetablitLeType() {
+        reseau.connecter(m1, g1);
+        double coutBasse = reseau.calculerCout();
+
+        assertFalse(reseau.ajouterMaison(new Maison("M1", 37)));
+        assertEquals(37, reseau.getCharge(g1));
+        assertNull(m1.getConsommation());
+
+        assertTrue(reseau.annuler());
+        assertEquals(10, reseau.getCharge(g1));
+        assertEquals(Consommation.BASSE, m1.getConsommation());
+        assertEquals(coutBasse, reseau.calculerCout(), 1e-12);
+
+        assertTrue(reseau.refaire());
+        assertEquals(37, reseau.getCharge(g1));
+        assertEquals(37, reseau.instantane().getDemande(0));
+    }
+
+    @Test
+    void refaire_apresAnnulation_retablitLaConnexion() {
+        reseau.connecter(m1, g1);
+        reseau.modifierConnexion(m1, g1, g2);
+        reseau.annuler();
+        assertEquals(g1, reseau.getGenerateurDeMaison(m1));
+
+        assertTrue(reseau.refaire());
+        assertEquals(g2, reseau.getGenerateurDeMaison(m1));
+    }
+
+    @Test
+    void refaire_apresNouvelleModification_impossible() {
+        reseau.connecter(m1, g1);
+        reseau.annuler();
+        reseau.connecter(m1, g2);
+
+        assertFalse(reseau.peutRefaire());
+    }
+
+    @Test
+    void revenirA_pointDeControle_restaureCoutEtStructure() {
+        reseau.connecter(m1, g1);
+        reseau.connecter(m2, g2);
+        double coutInitial = reseau.calculerCout();
+
+        int point = reseau.pointDeControle();
+        reseau.modifierConnexion(m2, g2, g1);
+        reseau.deconnecter(m1, g1);
+        reseau.ajouterGenerateur(new Generateur("G1", 500));
+        reseau.ajouterMaison(new Maison("M2", Consommation.BASSE));
+        reseau.revenirA(point);
+
+        assertEquals(coutInitial, reseau.calculerCout(), 1e-12);
+        assertEquals(g1, reseau.getGenerateurDeMaison(m1));
+        assertEquals(g2, reseau.getGenerateurDeMaison(m2));
+        assertEquals(100, g1.getCapaciteMax());
+        assertEquals(Consommation.FORTE, m2.getConsommation());
+    }
+
+    @Test
+    void rejouerJusqua_refaitLesModificationsAnnulees() {
+        int debut = reseau.pointDeControle();
+        reseau.connecter(m1, g1);
+        reseau.connecter(m2, g1);
+        int fin = reseau.pointDeControle();
+
+        reseau.revenirA(debut);
+        assertEquals(2, reseau.getMaisonsNonConnectees().size());
+
+        reseau.rejouerJusqua(fin);
+        assertEquals(0, reseau.getMaisonsNonConnectees().size());
+    }
+
+    @Test
+    void annuler_ajoutMaisonEtGenerateur_lesRetire() {
+        Maison m3 = new Maison("M3", Consommation.NORMAL);
+        Generateur g3 = new Generateur("G3", 30);
+        reseau.ajouterMaison(m3);
+        reseau.ajouterGenerateur(g3);
+
+        reseau.annuler();
+        reseau.annuler();
+        assertNull(reseau.trouverMaisonParNom("M3"));
+        assertNull(reseau.trouverGenerateurParNom("G3"));
+
+        reseau.refaire();
+        reseau.refaire();
+        reseau.connecter(m3, g3);
+        assertEquals(g3, reseau.getGenerateurDeMaison(m3));
+    }
+
+
+    @Test
+    void agregats_apresModificationsAleatoires_identiquesAuCalculComplet() {
+        java.util.Random random = new java.util.Random(7);
+        Consommation[] types = Consommation.values();
+        for (int i = 0; i < 30; i++) {
+            reseau.ajouterMaison(new Maison("X" + i, types[i % 3]));
+        }
+        for (int g = 0; g < 5; g++) {
+            reseau.ajouterGenerateur(new Generateur("H" + g, 60 + 20 * g));
+        }
+        List<Maison> maisons = reseau.getMaisons();
+        List<Generateur> gens = reseau.getGenerateurs();
+        for (Maison m : maisons) {
+            reseau.connecter(m, gens.get(random.nextInt(gens.size())));
+        }
+        reseau.viderJournal();
+
+        for (int k = 0; k < 2000; k++) {
+            Maison m = maisons.get(random.nextInt(maisons.size()));
+            Generateur g = gens.get(random.nextInt(gens.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> reseau.modifierConnexion(m, reseau.getGenerateurDeMaison(m), g);
+                case 1 -> reseau.ajouterMaison(new Maison(m.getNom(), types[random.nextInt(3)]));
+                case 2 -> reseau.ajouterGenerateur(new Generateur(g.getNom(), 10 + random.nextInt(200)));
+                default -> reseau.annuler();
+            }
+        }
+
+        int demande = 0;
+        for (Maison m : reseau.getMaisons()) {
+            demande += m.getConsommation().getValeur();
+        }
+        double somme = 0.0;
+        double surcharge = 0.0;
+        double[] taux = new double[reseau.getGenerateurs().size()];
+        int total = 0;
+        for (int g = 0; g < taux.length; g++) {
+            Generateur gen = reseau.getGenerateurs().get(g);
+            int charge = 0;
+            for (Maison m : reseau.getMaisonsDuGenerateur(gen)) {
+                charge += m.getConsommation().getValeur();
+            }
+            assertEquals(charge, reseau.getCharge(gen));
+            total += charge;
+            taux[g] = (double) charge / gen.getCapaciteMax();
+            somme += taux[g];
+            if (charge > gen.getCapaciteMax()) {
+                surcharge += taux[g] - 1.0;
+            }
+        }
+        double dispersion = 0.0;
+        for (double t : taux) {
+            dispersion += Math.abs(t - somme / taux.length);
+        }
+
+        assertEquals(demande, total);
+        assertEquals(dispersion, reseau.calculerDispersion(), 1e-9);
+        assertEquals(surcharge, reseau.calculerSurcharge(), 1e-9);
+    }
+
+
+    @Test
+    void coutApresDeplacement_identiqueAuCoutApresModification() {
+        java.util.Random random = new java.util.Random(11);
+        Consommation[] types = Consommation.values();
+        for (int i = 0; i < 40; i++) {
+            reseau.ajouterMaison(new Maison("Y" + i, types[i % 3]));
+        }
+        for (int g = 0; g < 6; g++) {
+            reseau.ajouterGenerateur(new Generateur("K" + g, 30 + 25 * g));
+        }
+        List<Maison> maisons = reseau.getMaisons();
+        List<Generateur> gens = reseau.getGenerateurs();
+        for (Maison m : maisons) {
+            reseau.connecter(m, gens.get(random.nextInt(gens.size())));
+        }
+
+        for (int k = 0; k < 500; k++) {
+            Maison m = maisons.get(random.nextInt(maisons.size()));
+            Generateur g = gens.get(random.nextInt(gens.size()));
+            double prevu = reseau.coutApresDeplacement(m, g);
+            double avant = reseau.calculerCout();
+
+            Generateur ancien = reseau.getGenerateurDeMaison(m);
+            if (!ancien.equals(g)) {
+                reseau.modifierConnexion(m, ancien, g);
+            }
+            assertEquals(reseau.calculerCout(), prevu, 1e-9);
+            if (random.nextBoolean() && !ancien.equals(g)) {
+                reseau.annuler();
+                assertEquals(avant, reseau.calculerCout(), 1e-9);
+            }
+        }
+    }
+
 }
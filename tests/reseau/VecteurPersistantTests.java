@@ -0,0 +1,60 @@
+package reseau;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class VecteurPersistantTests {
+
+    @Test
+    void ajouter_grandNombreDElements_tousRelus() {
+        VecteurPersistant v = VecteurPersistant.vide();
+        for (int i = 0; i < 5000; i++) {
+            v = v.ajouter(i * 3);
+        }
+
+        assertEquals(5000, v.taille());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i * 3, v.get(i));
+        }
+    }
+
+    @Test
+    void avec_nouvelleVersion_ancienneInchangee() {
+        VecteurPersistant v1 = VecteurPersistant.vide();
+        for (int i = 0; i < 100; i++) {
+            v1 = v1.ajouter(i);
+        }
+        VecteurPersistant v2 = v1.avec(42, -1);
+
+        assertEquals(42, v1.get(42));
+        assertEquals(-1, v2.get(42));
+        assertEquals(41, v2.get(41));
+    }
+
+    @Test
+    void retirerDernier_puisAjouter_ancienneVersionInchangee() {
+        VecteurPersistant v1 = VecteurPersistant.vide().ajouter(1).ajouter(2);
+        VecteurPersistant v2 = v1.retirerDernier().ajouter(7);
+
+        assertEquals(2, v1.get(1));
+        assertEquals(7, v2.get(1));
+    }
+
+    @Test
+    void versTableau_memeContenu() {
+        VecteurPersistant v = VecteurPersistant.vide();
+        for (int i = 0; i < 70; i++) {
+            v = v.ajouter(i);
+        }
+        int[] tableau = v.versTableau();
+
+        assertEquals(70, tableau.length);
+        assertEquals(69, tableau[69]);
+    }
+
+    @Test
+    void get_indiceHorsLimites_exception() {
+        VecteurPersistant v = VecteurPersistant.vide().ajouter(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> v.get(1));
+    }
+}
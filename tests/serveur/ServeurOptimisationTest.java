@@ -0,0 +1,178 @@
+package serveur;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.ReseauReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class ServeurOptimisationTest {
+
+    private static final String RESEAU =
+            "generateur(g1,100).\n"
+            + "generateur(g2,100).\n"
+            + "maison(m1,NORMAL).\n"
+            + "maison(m2,NORMAL).\n"
+            + "maison(m3,FORTE).\n"
+            + "connexion(g1,m1).\n"
+            + "connexion(g1,m2).\n"
+            + "connexion(g1,m3).\n";
+
+    private Path dossier;
+    private ServeurOptimisation serveur;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("travaux");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (serveur != null) serveur.arreter();
+        try (var fichiers = Files.list(dossier)) {
+            for (Path f : fichiers.toList()) Files.deleteIfExists(f);
+        }
+        Files.delete(dossier);
+    }
+
+    /**
+     * Réseau assez gros pour que son optimisation dure plusieurs secondes.
+     */
+    private static String grandReseau() {
+        StringBuilder texte = new StringBuilder();
+        String[] types = {"BASSE", "NORMAL", "FORTE"};
+        for (int g = 0; g < 200; g++) {
+            texte.append("generateur(g").append(g).append(',').append(300 + 50 * (g % 5)).append(").\n");
+        }
+        for (int i = 0; i < 3000; i++) {
+            texte.append("maison(m").append(i).append(',').append(types[i % 3]).append(").\n");
+        }
+        for (int i = 0; i < 3000; i++) texte.append("connexion(g0,m").append(i).append(").\n");
+        return texte.toString();
+    }
+
+    private URI uri(String chemin) {
+        return URI.create("http://localhost:" + serveur.getPort() + chemin);
+    }
+
+    private HttpResponse<String> get(String chemin) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(chemin)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String chemin, String corps) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(chemin))
+                        .POST(HttpRequest.BodyPublishers.ofString(corps)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void soumettre_reseauValide_progressionPuisResultatOptimise() throws Exception {
+        serveur = new ServeurOptimisation(0, new FileTravaux(dossier), 1, 4);
+        serveur.demarrer();
+
+        HttpResponse<String> reponse = post("/travaux?lambda=10&effort=3", RESEAU);
+        assertEquals(202, reponse.statusCode());
+        String id = reponse.body().trim();
+
+        String progression = get("/travaux/" + id + "/progression").body();
+        String derniere = progression.lines().reduce((a, b) -> b).orElse("");
+        assertTrue(derniere.contains("etat=TERMINE"));
+
+        HttpResponse<String> resultat = get("/travaux/" + id + "/resultat");
+        assertEquals(200, resultat.statusCode());
+        Path fichier = dossier.resolve("resultat.txt");
+        Files.writeString(fichier, resultat.body());
+        Reseau optimise = new ReseauReader().lireFichier(fichier.toString());
+        assertEquals(3, optimise.getMaisons().size());
+        assertTrue(optimise.getMaisonsNonConnectees().isEmpty());
+        assertTrue(optimise.getCharge(optimise.trouverGenerateurParNom("g1")) < 80);
+    }
+
+    @Test
+    void soumettre_reseauInvalide_erreur400() throws Exception {
+        serveur = new ServeurOptimisation(0, new FileTravaux(dossier), 1, 4);
+        serveur.demarrer();
+
+        HttpResponse<String> reponse = post("/travaux", "maison(m1,NORMAL)");
+
+        assertEquals(400, reponse.statusCode());
+        assertTrue(new FileTravaux(dossier).aReprendre().isEmpty());
+    }
+
+    @Test
+    void travailInconnu_erreur404() throws Exception {
+        serveur = new ServeurOptimisation(0, new FileTravaux(dossier), 1, 4);
+        serveur.demarrer();
+
+        assertEquals(404, get("/travaux/42").statusCode());
+        assertEquals(404, get("/travaux/abc/resultat").statusCode());
+    }
+
+    @Test
+    void redemarrage_travailEnAttente_reprisEtTermine() throws Exception {
+        long id = new FileTravaux(dossier).creer(RESEAU, 10, 2).getId();
+
+        FileTravaux rechargee = new FileTravaux(dossier);
+        assertEquals(1, rechargee.aReprendre().size());
+        serveur = new ServeurOptimisation(0, rechargee, 1, 4);
+        serveur.demarrer();
+
+        String progression = get("/travaux/" + id + "/progression").body();
+        assertTrue(progression.contains("etat=TERMINE"));
+        assertTrue(Files.exists(rechargee.fichierResultat(id)));
+        assertEquals(Travail.Etat.TERMINE, new FileTravaux(dossier).get(id).getEtat());
+    }
+
+    @Test
+    void redemarrage_plusDeTravauxQueLaFile_tousTermines() throws Exception {
+        FileTravaux initiale = new FileTravaux(dossier);
+        long[] ids = new long[4];
+        for (int k = 0; k < ids.length; k++) ids[k] = initiale.creer(RESEAU, 10, 2).getId();
+
+        serveur = new ServeurOptimisation(0, new FileTravaux(dossier), 1, 1);
+        serveur.demarrer();
+
+        for (long id : ids) {
+            assertTrue(get("/travaux/" + id + "/progression").body().contains("etat=TERMINE"));
+        }
+    }
+
+    @Test
+    void progression_fluxNombreux_neBloquentPasLesRequetes() throws Exception {
+        serveur = new ServeurOptimisation(0, new FileTravaux(dossier), 1, 4);
+        serveur.demarrer();
+        assertEquals(202, post("/travaux?effort=100000", grandReseau()).statusCode());
+        String id = post("/travaux", RESEAU).body().trim();
+
+        List<HttpResponse<InputStream>> flux = new ArrayList<>();
+        for (int k = 0; k < 6; k++) {
+            flux.add(client.send(HttpRequest.newBuilder(uri("/travaux/" + id + "/progression")).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream()));
+        }
+
+        HttpResponse<String> etat = client.send(HttpRequest.newBuilder(uri("/travaux/" + id))
+                .timeout(Duration.ofSeconds(10)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, etat.statusCode());
+        assertTrue(etat.body().contains("etat=EN_ATTENTE"));
+        for (HttpResponse<InputStream> f : flux) {
+            assertEquals(200, f.statusCode());
+            f.body().close();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.ReseauReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reseau.*;
+
+public class CommandesTest {
+
+    private static final String RESEAU =
+            "generateur(g1,100).\n"
+            + "generateur(g2,100).\n"
+            + "maison(m1,NORMAL).\n"
+            + "maison(m2,NORMAL).\n"
+            + "maison(m3,FORTE).\n"
+            + "connexion(g1,m1).\n"
+            + "connexion(g1,m2).\n"
+            + "connexion(g1,m3).\n";
+
+    private Path dossier;
+    private Path fichier;
+    private final ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream erreurs = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dossier = Files.createTempDirectory("commandes");
+        fichier = dossier.resolve("reseau.txt");
+        Files.writeString(fichier, RESEAU);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var fichiers = Files.list(dossier)) {
+            for (Path f : fichiers.toList()) Files.delete(f);
+        }
+        Files.delete(dossier);
+    }
+
+    private int executer(String... args) {
+        Commandes commandes = new Commandes(
+                new PrintStream(sortie, true, StandardCharsets.UTF_8),
+                new PrintStream(erreurs, true, StandardCharsets.UTF_8));
+        return commandes.executer(args);
+    }
+
+    private String sortie() {
+        return sortie.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    @Test
+    void valider_reseauValide_codeSucces() {
+        assertEquals(Commandes.SUCCES, executer("--valider", fichier.toString()));
+        assertEquals("valide=true generateurs=2 maisons=3 erreurs=0", sortie());
+    }
+
+    @Test
+    void valider_maisonNonConnectee_codeReseauInvalide() throws IOException {
+        Files.writeString(fichier, "generateur(g1,100).\nmaison(m1,NORMAL).\n");
+
+        assertEquals(Commandes.RESEAU_INVALIDE, executer("--valider", fichier.toString()));
+        assertTrue(sortie().startsWith("valide=false"));
+    }
+
+    @Test
+    void cout_lambdaDonne_ligneCleValeur() throws IOException {
+        assertEquals(Commandes.SUCCES, executer("--cout", fichier.toString(), "--lambda", "5"));
+
+        Reseau reseau = new ReseauReader().lireFichier(fichier.toString());
+        reseau.setLambda(5);
+        assertTrue(sortie().startsWith("cout=" + reseau.calculerCout() + " "));
+        assertTrue(sortie().contains(" lambda=5.0 "));
+    }
+
+    @Test
+    void optimiser_ecritLeResultatEtNeDegradePasLeCout() throws IOException {
+        Path resultat = dossier.resolve("optimise.txt");
+
+        int code = executer("--optimiser", fichier.toString(), "--demarrages", "4",
+                "--threads", "2", "--graine", "1", "--sortie", resultat.toString());
+
+        assertEquals(Commandes.SUCCES, code);
+        Reseau initial = new ReseauReader().lireFichier(fichier.toString());
+        Reseau optimise = new ReseauReader().lireFichier(resultat.toString());
+        assertTrue(optimise.calculerCout() <= initial.calculerCout());
+        assertTrue(optimise.verifierStructure().isEmpty());
+        assertTrue(sortie().contains(" cout=" + optimise.calculerCout() + " "));
+    }
+
+    @Test
+    void optimiser_budgetSerre_ameliorePourtantLeCout() throws IOException {
+        StringBuilder texte = new StringBuilder();
+        for (int g = 0; g < 250; g++) {
+            texte.append("generateur(g").append(g).append(',').append(400 + 100 * (g % 5)).append(").\n");
+        }
+        String[] types = {"BASSE", "NORMAL", "FORTE"};
+        for (int i = 0; i < 5000; i++) {
+            texte.append("maison(m").append(i).append(',').append(types[i % 3]).append(").\n");
+        }
+        for (int i = 0; i < 5000; i++) {
+            texte.append("connexion(g0,m").append(i).append(").\n");
+        }
+        Files.writeString(fichier, texte);
+
+        int code = executer("--optimiser", fichier.toString(), "--demarrages", "1000",
+                "--budget", "300", "--graine", "1");
+
+        assertEquals(Commandes.SUCCES, code);
+        assertTrue(valeur("cout") < valeur("cout_initial"), sortie());
+    }
+
+    private double valeur(String cle) {
+        for (String champ : sortie().split(" ")) {
+            if (champ.startsWith(cle + "=")) return Double.parseDouble(champ.substring(cle.length() + 1));
+        }
+        throw new AssertionError("Pas de " + cle + " dans : " + sortie());
+    }
+
+    @Test
+    void convertir_reecritUnReseauEquivalent() throws IOException {
+        Path copie = dossier.resolve("copie.txt");
+
+        assertEquals(Commandes.SUCCES, executer("--convertir", fichier.toString(), copie.toString()));
+
+        Reseau a = new ReseauReader().lireFichier(fichier.toString());
+        Reseau b = new ReseauReader().lireFichier(copie.toString());
+        assertEquals(a.calculerCout(), b.calculerCout());
+        assertEquals(a.getMaisons().size(), b.getMaisons().size());
+    }
+
+    @Test
+    void optionInconnue_codeUsage() {
+        assertEquals(Commandes.USAGE, executer("--cout", fichier.toString(), "--vitesse", "3"));
+        assertFalse(erreurs.toString(StandardCharsets.UTF_8).isEmpty());
+    }
+
+    @Test
+    void fichierAbsent_codeErreurFichier() {
+        assertEquals(Commandes.ERREUR_FICHIER, executer("--valider", dossier.resolve("absent.txt").toString()));
+    }
+}